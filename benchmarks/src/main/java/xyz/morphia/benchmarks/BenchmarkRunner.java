@@ -0,0 +1,109 @@
+package xyz.morphia.benchmarks;
+
+import org.bson.Document;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.lang.String.format;
+
+/**
+ * Runs the benchmarks and compares the scores with a stored baseline.  Any standard JMH command line option may be given.  The results
+ * are written as JSON to {@code jmh-result.json} unless {@code -rff} is given.  The baseline is read from the file named by the
+ * {@code morphia.baseline} system property, {@code baseline/baseline.json} by default; copy a result file there to record a new
+ * baseline.
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs the benchmarks
+     *
+     * @param args the JMH command line options
+     * @throws Exception if the benchmarks could not be run
+     */
+    public static void main(final String[] args) throws Exception {
+        final CommandLineOptions cli = new CommandLineOptions(args);
+        final ChainedOptionsBuilder builder = new OptionsBuilder().parent(cli);
+        if (!cli.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            builder.result("jmh-result.json");
+        }
+
+        final Collection<RunResult> results = new Runner(builder.build()).run();
+
+        final File baseline = new File(System.getProperty("morphia.baseline", "baseline/baseline.json"));
+        if (baseline.exists()) {
+            compare(readBaseline(baseline), results);
+        } else {
+            System.out.println(format("No baseline found at %s.  Copy the result file there to record one.", baseline.getPath()));
+        }
+    }
+
+    private static void compare(final Map<String, Double> baseline, final Collection<RunResult> results) {
+        System.out.println();
+        System.out.println(format("%-100s %14s %14s %9s", "Benchmark", "Baseline", "Current", "Change"));
+        for (final RunResult result : results) {
+            final String name = name(result.getParams().getBenchmark(), params(result));
+            final double score = result.getPrimaryResult().getScore();
+            final Double previous = baseline.get(name);
+            if (previous == null) {
+                System.out.println(format("%-100s %14s %14.3f %9s", name, "-", score, "new"));
+            } else {
+                System.out.println(format("%-100s %14.3f %14.3f %+8.1f%%", name, previous, score, (score - previous) / previous * 100));
+            }
+        }
+    }
+
+    private static Map<String, String> params(final RunResult result) {
+        final Map<String, String> params = new TreeMap<String, String>();
+        for (final String key : result.getParams().getParamsKeys()) {
+            params.put(key, result.getParams().getParam(key));
+        }
+        return params;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Double> readBaseline(final File file) throws IOException {
+        final String json = new String(Files.readAllBytes(file.toPath()), Charset.forName("UTF-8"));
+        final List<Document> entries = (List<Document>) Document.parse("{ \"results\": " + json + "}").get("results");
+        final Map<String, Double> scores = new TreeMap<String, Double>();
+        for (final Document entry : entries) {
+            final Map<String, String> params = new TreeMap<String, String>();
+            final Document stored = (Document) entry.get("params");
+            if (stored != null) {
+                for (final String key : stored.keySet()) {
+                    params.put(key, String.valueOf(stored.get(key)));
+                }
+            }
+            final Number score = (Number) ((Document) entry.get("primaryMetric")).get("score");
+            scores.put(name(entry.getString("benchmark"), params), score.doubleValue());
+        }
+        return scores;
+    }
+
+    private static String name(final String benchmark, final Map<String, String> params) {
+        final List<String> values = new ArrayList<String>();
+        for (final Map.Entry<String, String> entry : params.entrySet()) {
+            values.add(entry.getKey() + "=" + entry.getValue());
+        }
+        final String shortName = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+        return values.isEmpty() ? shortName : shortName + values;
+    }
+}
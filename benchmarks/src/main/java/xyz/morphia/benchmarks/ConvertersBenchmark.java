@@ -0,0 +1,77 @@
+package xyz.morphia.benchmarks;
+
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.morphia.Morphia;
+import xyz.morphia.benchmarks.model.FlatEntity;
+import xyz.morphia.converters.Converters;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Converters#encode(Object)} and {@link Converters#decode} for the commonly converted value types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("deprecation")
+public class ConvertersBenchmark {
+    @Param({"string", "integer", "date", "enum", "objectId", "locale", "uri", "uuid"})
+    private String valueType;
+
+    private Converters converters;
+    private Object value;
+    private Object encoded;
+    private Class<?> type;
+
+    @Setup
+    public void setup() {
+        converters = new Morphia().getMapper().getConverters();
+        if ("string".equals(valueType)) {
+            value = "some string value";
+        } else if ("integer".equals(valueType)) {
+            value = 123456;
+        } else if ("date".equals(valueType)) {
+            value = new Date(1500000000000L);
+        } else if ("enum".equals(valueType)) {
+            value = FlatEntity.Status.INACTIVE;
+        } else if ("objectId".equals(valueType)) {
+            value = new ObjectId();
+        } else if ("locale".equals(valueType)) {
+            value = Locale.CANADA_FRENCH;
+        } else if ("uri".equals(valueType)) {
+            value = URI.create("http://morphia.example.com/path?query=value");
+        } else {
+            value = UUID.randomUUID();
+        }
+        type = value.getClass();
+        encoded = converters.encode(value);
+    }
+
+    @Benchmark
+    public Object encode() {
+        return converters.encode(value);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return converters.decode(type, encoded, null);
+    }
+}
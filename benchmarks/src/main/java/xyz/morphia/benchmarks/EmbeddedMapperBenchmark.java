@@ -0,0 +1,78 @@
+package xyz.morphia.benchmarks;
+
+import com.mongodb.DBObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.morphia.Morphia;
+import xyz.morphia.benchmarks.model.CollectionsEntity;
+import xyz.morphia.benchmarks.model.EntityShape;
+import xyz.morphia.benchmarks.model.MapsEntity;
+import xyz.morphia.benchmarks.model.PolymorphicEntity;
+import xyz.morphia.mapping.CustomMapper;
+import xyz.morphia.mapping.MappedField;
+import xyz.morphia.mapping.Mapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the embedded mapper reading a single collection or map field, which exercises its {@code readCollection} and
+ * {@code readMap} paths without the rest of the entity.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("deprecation")
+public class EmbeddedMapperBenchmark {
+    @Param({"collectionOfEmbedded", "mapOfEmbedded", "mapOfValues", "polymorphicList"})
+    private String field;
+
+    private Mapper mapper;
+    private CustomMapper embeddedMapper;
+    private MappedField mappedField;
+    private Class<?> type;
+    private DBObject dbObject;
+
+    @Setup
+    public void setup() {
+        mapper = new Morphia().map(EntityShape.entityClasses()).getMapper();
+        embeddedMapper = mapper.getOptions().getEmbeddedMapper();
+
+        final Object entity;
+        final String name;
+        if ("collectionOfEmbedded".equals(field)) {
+            entity = new CollectionsEntity(500);
+            name = "items";
+        } else if ("mapOfEmbedded".equals(field)) {
+            entity = new MapsEntity(100);
+            name = "items";
+        } else if ("mapOfValues".equals(field)) {
+            entity = new MapsEntity(100);
+            name = "counters";
+        } else {
+            entity = new PolymorphicEntity(100);
+            name = "shapes";
+        }
+        type = entity.getClass();
+        mappedField = mapper.getMappedClass(type).getMappedFieldByJavaField(name);
+        dbObject = mapper.toDBObject(entity);
+    }
+
+    @Benchmark
+    public Object read() {
+        final Object target = mapper.getOptions().getObjectFactory().createInstance(type);
+        embeddedMapper.fromDBObject(null, dbObject, mappedField, target, mapper.createEntityCache(), mapper);
+        return target;
+    }
+}
@@ -0,0 +1,57 @@
+package xyz.morphia.benchmarks;
+
+import com.mongodb.DBObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.morphia.Morphia;
+import xyz.morphia.benchmarks.model.EntityShape;
+import xyz.morphia.mapping.Mapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Mapper#toDBObject(Object)} and {@link Mapper#fromDb} across the entity shapes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("deprecation")
+public class MapperBenchmark {
+    @Param({"FLAT", "DEEPLY_EMBEDDED", "LARGE_COLLECTIONS", "MAPS", "POLYMORPHIC_LIST"})
+    private EntityShape shape;
+
+    private Mapper mapper;
+    private Object entity;
+    private Class<?> type;
+    private DBObject dbObject;
+
+    @Setup
+    public void setup() {
+        mapper = new Morphia().map(EntityShape.entityClasses()).getMapper();
+        entity = shape.create();
+        type = entity.getClass();
+        dbObject = mapper.toDBObject(entity);
+    }
+
+    @Benchmark
+    public DBObject toDBObject() {
+        return mapper.toDBObject(entity);
+    }
+
+    @Benchmark
+    public Object fromDb() {
+        return mapper.fromDBObject(null, type, dbObject, mapper.createEntityCache());
+    }
+}
@@ -0,0 +1,39 @@
+package xyz.morphia.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.morphia.Morphia;
+import xyz.morphia.benchmarks.model.EntityShape;
+import xyz.morphia.mapping.Mapper;
+import xyz.morphia.mapping.MapperOptions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures mapping the entity classes with a new Mapper, with and without the metadata index written by the annotation processor.
+ * Run with {@code -prof gc} to compare the allocations as well, or with {@code -bm ss} to time the first mapping made by a JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingStartupBenchmark {
+    @Param({"true", "false"})
+    private boolean metadataIndex;
+
+    @Benchmark
+    public Mapper map() {
+        final Mapper mapper = new Mapper(MapperOptions.builder().metadataIndex(metadataIndex).build());
+        return new Morphia(mapper).map(EntityShape.entityClasses()).getMapper();
+    }
+}
@@ -0,0 +1,66 @@
+package xyz.morphia.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.morphia.Morphia;
+import xyz.morphia.benchmarks.model.CollectionsEntity;
+import xyz.morphia.benchmarks.model.DeepEntity;
+import xyz.morphia.benchmarks.model.EntityShape;
+import xyz.morphia.benchmarks.model.FlatEntity;
+import xyz.morphia.benchmarks.model.PolymorphicEntity;
+import xyz.morphia.internal.PathTarget;
+import xyz.morphia.mapping.MappedClass;
+import xyz.morphia.mapping.Mapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the resolution of query and update field paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("deprecation")
+public class PathTargetBenchmark {
+    @Param({"simple", "nested", "positional", "subtype"})
+    private String path;
+
+    private Mapper mapper;
+    private MappedClass root;
+    private String raw;
+
+    @Setup
+    public void setup() {
+        mapper = new Morphia().map(EntityShape.entityClasses()).getMapper();
+        if ("simple".equals(path)) {
+            root = mapper.getMappedClass(FlatEntity.class);
+            raw = "description";
+        } else if ("nested".equals(path)) {
+            root = mapper.getMappedClass(DeepEntity.class);
+            raw = "child.child.child.child.value";
+        } else if ("positional".equals(path)) {
+            root = mapper.getMappedClass(CollectionsEntity.class);
+            raw = "items.$.quantity";
+        } else {
+            root = mapper.getMappedClass(PolymorphicEntity.class);
+            raw = "shapes.radius";
+        }
+    }
+
+    @Benchmark
+    public String resolve() {
+        return new PathTarget(mapper, root, raw).translatedPath();
+    }
+}
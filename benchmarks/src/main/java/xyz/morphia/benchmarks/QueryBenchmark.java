@@ -0,0 +1,96 @@
+package xyz.morphia.benchmarks;
+
+import com.mongodb.DBObject;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.ServerAddress;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.morphia.Datastore;
+import xyz.morphia.Morphia;
+import xyz.morphia.benchmarks.model.CollectionsEntity;
+import xyz.morphia.benchmarks.model.DeepEntity;
+import xyz.morphia.benchmarks.model.EntityShape;
+import xyz.morphia.benchmarks.model.FlatEntity;
+import xyz.morphia.query.Query;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Measures building queries and rendering them with {@code QueryImpl.getQueryObject()}.  No query is sent to the server so the
+ * benchmark runs without a mongod.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+    private MongoClient client;
+    private Datastore datastore;
+    private Query<FlatEntity> prepared;
+
+    @Setup
+    public void setup() {
+        client = new MongoClient(new ServerAddress(), MongoClientOptions.builder()
+                                                                       .serverSelectionTimeout(1)
+                                                                       .build());
+        final Morphia morphia = new Morphia().map(EntityShape.entityClasses());
+        datastore = morphia.createDatastore(client, "morphia_benchmarks");
+        prepared = flatQuery();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public DBObject renderPrepared() {
+        return prepared.getQueryObject();
+    }
+
+    @Benchmark
+    public DBObject buildAndRenderFlat() {
+        return flatQuery().getQueryObject();
+    }
+
+    @Benchmark
+    public DBObject buildAndRenderNested() {
+        final Query<DeepEntity> query = datastore.find(DeepEntity.class);
+        query.field("child.child.name").equal("level 3")
+             .field("child.child.child.value").greaterThan(1.0);
+        return query.getQueryObject();
+    }
+
+    @Benchmark
+    public DBObject buildAndRenderCollections() {
+        final Query<CollectionsEntity> query = datastore.find(CollectionsEntity.class);
+        query.field("tags").in(asList("tag-1", "tag-2", "tag-3"))
+             .field("items.quantity").greaterThanOrEq(3);
+        query.or(query.criteria("numbers").equal(31L),
+                 query.criteria("items.sku").startsWith("sku-1"));
+        return query.getQueryObject();
+    }
+
+    private Query<FlatEntity> flatQuery() {
+        final Query<FlatEntity> query = datastore.find(FlatEntity.class);
+        query.field("name").equal("flat entity")
+             .field("count").greaterThan(10)
+             .field("status").equal(FlatEntity.Status.ACTIVE)
+             .field("active").equal(true);
+        return query;
+    }
+}
@@ -0,0 +1,63 @@
+package xyz.morphia.benchmarks.model;
+
+import org.bson.types.ObjectId;
+import xyz.morphia.annotations.Embedded;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An entity holding large collections of simple and embedded values.
+ */
+@Entity("collections")
+public class CollectionsEntity {
+    @Id
+    private ObjectId id = new ObjectId();
+    private List<String> tags = new ArrayList<String>();
+    private List<Long> numbers = new ArrayList<Long>();
+    private List<LineItem> items = new ArrayList<LineItem>();
+
+    /**
+     * Creates an entity with the given number of elements in each collection.
+     *
+     * @param size the size of the collections
+     */
+    public CollectionsEntity(final int size) {
+        for (int i = 0; i < size; i++) {
+            tags.add("tag-" + i);
+            numbers.add((long) i * 31);
+            items.add(new LineItem("sku-" + i, i % 7, i * 0.99));
+        }
+    }
+
+    CollectionsEntity() {
+    }
+
+    /**
+     * @return the embedded items
+     */
+    public List<LineItem> getItems() {
+        return items;
+    }
+
+    /**
+     * An embedded line item
+     */
+    @Embedded
+    public static class LineItem {
+        private String sku;
+        private int quantity;
+        private double price;
+
+        LineItem() {
+        }
+
+        LineItem(final String sku, final int quantity, final double price) {
+            this.sku = sku;
+            this.quantity = quantity;
+            this.price = price;
+        }
+    }
+}
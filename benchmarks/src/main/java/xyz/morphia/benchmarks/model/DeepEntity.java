@@ -0,0 +1,37 @@
+package xyz.morphia.benchmarks.model;
+
+import org.bson.types.ObjectId;
+import xyz.morphia.annotations.Embedded;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+
+/**
+ * An entity with several levels of embedded values.
+ */
+@Entity("deep")
+public class DeepEntity {
+    @Id
+    private ObjectId id = new ObjectId();
+    private String name = "deep entity";
+    private Level child = Level.create(5);
+
+    /**
+     * One level of the embedded tree
+     */
+    @Embedded
+    public static class Level {
+        private String name;
+        private int depth;
+        private double value;
+        private Level child;
+
+        static Level create(final int depth) {
+            final Level level = new Level();
+            level.name = "level " + depth;
+            level.depth = depth;
+            level.value = depth * 1.5;
+            level.child = depth > 1 ? create(depth - 1) : null;
+            return level;
+        }
+    }
+}
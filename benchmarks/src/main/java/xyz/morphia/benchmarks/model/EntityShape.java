@@ -0,0 +1,50 @@
+package xyz.morphia.benchmarks.model;
+
+/**
+ * The entity shapes the benchmarks are run against.
+ */
+public enum EntityShape {
+    FLAT {
+        @Override
+        public Object create() {
+            return new FlatEntity();
+        }
+    },
+    DEEPLY_EMBEDDED {
+        @Override
+        public Object create() {
+            return new DeepEntity();
+        }
+    },
+    LARGE_COLLECTIONS {
+        @Override
+        public Object create() {
+            return new CollectionsEntity(500);
+        }
+    },
+    MAPS {
+        @Override
+        public Object create() {
+            return new MapsEntity(100);
+        }
+    },
+    POLYMORPHIC_LIST {
+        @Override
+        public Object create() {
+            return new PolymorphicEntity(100);
+        }
+    };
+
+    /**
+     * @return a new, populated instance of this shape
+     */
+    public abstract Object create();
+
+    /**
+     * @return the entity classes used by the shapes
+     */
+    public static Class[] entityClasses() {
+        return new Class[]{FlatEntity.class, DeepEntity.class, CollectionsEntity.class, MapsEntity.class, PolymorphicEntity.class,
+                           PolymorphicEntity.Circle.class, PolymorphicEntity.Square.class};
+    }
+}
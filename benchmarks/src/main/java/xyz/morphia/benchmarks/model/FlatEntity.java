@@ -0,0 +1,34 @@
+package xyz.morphia.benchmarks.model;
+
+import org.bson.types.ObjectId;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+
+import java.util.Date;
+
+/**
+ * An entity made only of simple values.
+ */
+@Entity("flat")
+public class FlatEntity {
+    @Id
+    private ObjectId id = new ObjectId();
+    private String name = "flat entity";
+    private String description = "an entity with nothing but simple values in it";
+    private int count = 42;
+    private long total = 4200000000L;
+    private double ratio = 0.75;
+    private boolean active = true;
+    private Date created = new Date(1500000000000L);
+    private Status status = Status.ACTIVE;
+    private Integer boxed = 17;
+    private String code = "ABC-123";
+
+    /**
+     * A simple enum value
+     */
+    public enum Status {
+        ACTIVE,
+        INACTIVE
+    }
+}
@@ -0,0 +1,36 @@
+package xyz.morphia.benchmarks.model;
+
+import org.bson.types.ObjectId;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An entity holding maps of simple and embedded values.
+ */
+@Entity("maps")
+public class MapsEntity {
+    @Id
+    private ObjectId id = new ObjectId();
+    private Map<String, String> attributes = new HashMap<String, String>();
+    private Map<String, Integer> counters = new HashMap<String, Integer>();
+    private Map<String, CollectionsEntity.LineItem> items = new HashMap<String, CollectionsEntity.LineItem>();
+
+    /**
+     * Creates an entity with the given number of entries in each map.
+     *
+     * @param size the size of the maps
+     */
+    public MapsEntity(final int size) {
+        for (int i = 0; i < size; i++) {
+            attributes.put("key-" + i, "value-" + i);
+            counters.put("counter-" + i, i);
+            items.put("item-" + i, new CollectionsEntity.LineItem("sku-" + i, i, i * 1.25));
+        }
+    }
+
+    MapsEntity() {
+    }
+}
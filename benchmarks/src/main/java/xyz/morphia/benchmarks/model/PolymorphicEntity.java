@@ -0,0 +1,69 @@
+package xyz.morphia.benchmarks.model;
+
+import org.bson.types.ObjectId;
+import xyz.morphia.annotations.Embedded;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An entity holding a list of values of several subtypes.
+ */
+@Entity("polymorphic")
+public class PolymorphicEntity {
+    @Id
+    private ObjectId id = new ObjectId();
+    private List<Shape> shapes = new ArrayList<Shape>();
+
+    /**
+     * Creates an entity with the given number of shapes.
+     *
+     * @param size the number of shapes
+     */
+    public PolymorphicEntity(final int size) {
+        for (int i = 0; i < size; i++) {
+            shapes.add(i % 2 == 0 ? new Circle(i) : new Square(i));
+        }
+    }
+
+    PolymorphicEntity() {
+    }
+
+    /**
+     * The base type of the list elements
+     */
+    @Embedded
+    public abstract static class Shape {
+        private String color = "blue";
+    }
+
+    /**
+     * A circle
+     */
+    public static class Circle extends Shape {
+        private double radius;
+
+        Circle() {
+        }
+
+        Circle(final double radius) {
+            this.radius = radius;
+        }
+    }
+
+    /**
+     * A square
+     */
+    public static class Square extends Shape {
+        private double side;
+
+        Square() {
+        }
+
+        Square(final double side) {
+            this.side = side;
+        }
+    }
+}
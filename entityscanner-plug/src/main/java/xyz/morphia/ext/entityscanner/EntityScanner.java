@@ -4,7 +4,10 @@ import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import xyz.morphia.Morphia;
 import xyz.morphia.annotations.Entity;
+import xyz.morphia.mapping.MappingException;
 import xyz.morphia.utils.Assert;
+import xyz.morphia.utils.EntityClassScanner;
+import xyz.morphia.utils.ReflectionUtils;
 import org.reflections.Reflections;
 import org.reflections.scanners.SubTypesScanner;
 import org.reflections.scanners.TypeAnnotationsScanner;
@@ -12,14 +15,22 @@ import org.reflections.scanners.TypeElementsScanner;
 import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
  * Provides a scanner to find entities according to a given predicate
+ * <p>
+ * The jars and directories holding an index of their entities, written at compile time by {@code xyz.morphia.processor.MetadataProcessor},
+ * are read from their index rather than scanned, unless {@link xyz.morphia.mapping.MapperOptions#isMetadataIndex()} is false.
  *
  * @author us@thomas-daily.de
  *
@@ -62,16 +73,55 @@ public class EntityScanner {
                 iterator.remove();
             }
         }
-        conf.setUrls(new ArrayList<URL>(s));
 
-        conf.filterInputsBy(localPredicate);
-        conf.addScanners(new SubTypesScanner());
+        final Set<Class> entities = new LinkedHashSet<Class>();
+        if (m.getMapper().getOptions().isMetadataIndex()) {
+            readIndexes(s, localPredicate, entities);
+        }
+
+        if (!s.isEmpty()) {
+            conf.setUrls(new ArrayList<URL>(s));
+
+            conf.filterInputsBy(localPredicate);
+            conf.addScanners(new SubTypesScanner());
 
-        final Reflections r = new Reflections(conf);
+            final Reflections r = new Reflections(conf);
+
+            entities.addAll(r.getTypesAnnotatedWith(Entity.class));
+        }
+        m.map(entities);
+    }
 
-        final Set<Class<?>> entities = r.getTypesAnnotatedWith(Entity.class);
-        for (final Class<?> c : entities) {
-            m.map(c);
+    /**
+     * Loads the entities listed in the index of the jars and directories which have one, removing them from those to scan
+     */
+    private static void readIndexes(final Set<URL> urls, final Predicate<String> predicate, final Set<Class> entities) {
+        final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        final Iterator<URL> iterator = urls.iterator();
+        while (iterator.hasNext()) {
+            final URL url = iterator.next();
+            try {
+                final List<String> names = "file".equals(url.getProtocol())
+                                           ? EntityClassScanner.getIndexedClassNames(new File(url.toURI()))
+                                           : null;
+                if (names != null) {
+                    for (final String name : names) {
+                        if (predicate.apply(name + ".class")) {
+                            final Class<?> c = Class.forName(name, true, loader);
+                            if (ReflectionUtils.getClassEntityAnnotation(c) != null) {
+                                entities.add(c);
+                            }
+                        }
+                    }
+                    iterator.remove();
+                }
+            } catch (IOException e) {
+                throw new MappingException("Could not read the entity index of " + url, e);
+            } catch (URISyntaxException e) {
+                throw new MappingException("Could not read the entity index of " + url, e);
+            } catch (ClassNotFoundException e) {
+                throw new MappingException("Could not load an entity listed in the index of " + url, e);
+            }
         }
     }
 }
@@ -0,0 +1,262 @@
+package xyz.morphia.processor;
+
+import xyz.morphia.mapping.ClassMetadata;
+import xyz.morphia.utils.EntityClassScanner;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Writes the metadata index of every class annotated, directly or not, with {@link xyz.morphia.annotations.Entity} or
+ * {@link xyz.morphia.annotations.Embedded} so that Morphia can map it without scanning its members.  Add this module to the annotation
+ * processor path of the compiler, or to the compile classpath, of the project declaring the entities.
+ * <p>
+ * The binary names of these classes are listed as well in {@link EntityClassScanner#INDEX_RESOURCE} for
+ * {@link xyz.morphia.Morphia#mapPackage(String)} to find them without reading every class of a package.  The list only holds the
+ * classes compiled together, so every class of the project needs to be compiled with the processor.
+ * <p>
+ * Only the members are indexed.  Generic types, constructors and validation depend on the options and converters of the Mapper and
+ * are still resolved when the class is mapped.
+ *
+ * @see ClassMetadata
+ * @since 1.5
+ */
+@SupportedAnnotationTypes("*")
+public class MetadataProcessor extends AbstractProcessor {
+    private static final String TRANSIENT = "xyz.morphia.annotations.Transient";
+    private static final List<String> ENTITY_ANNOTATIONS = asList("xyz.morphia.annotations.Entity", "xyz.morphia.annotations.Embedded");
+    /**
+     * The life cycle annotations in the order {@link xyz.morphia.mapping.MappedClass} looks for them
+     */
+    private static final List<String> LIFECYCLE_ANNOTATIONS = asList("xyz.morphia.annotations.PrePersist",
+                                                                      "xyz.morphia.annotations.PreSave",
+                                                                      "xyz.morphia.annotations.PreLoad",
+                                                                      "xyz.morphia.annotations.PostPersist",
+                                                                      "xyz.morphia.annotations.PostLoad");
+    private static final Map<TypeKind, String> DESCRIPTORS = new HashMap<TypeKind, String>();
+
+    static {
+        DESCRIPTORS.put(TypeKind.BOOLEAN, "Z");
+        DESCRIPTORS.put(TypeKind.BYTE, "B");
+        DESCRIPTORS.put(TypeKind.CHAR, "C");
+        DESCRIPTORS.put(TypeKind.SHORT, "S");
+        DESCRIPTORS.put(TypeKind.INT, "I");
+        DESCRIPTORS.put(TypeKind.LONG, "J");
+        DESCRIPTORS.put(TypeKind.FLOAT, "F");
+        DESCRIPTORS.put(TypeKind.DOUBLE, "D");
+    }
+
+    private final Set<String> written = new TreeSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!written.isEmpty()) {
+                writeEntities();
+            }
+        } else {
+            for (final TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+                visit(type);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the index of a type and its nested types if they are entities.  The annotations are inherited from superclasses, as well as
+     * from interfaces the way {@link xyz.morphia.utils.ReflectionUtils#getAnnotation(Class, Class)} finds them.
+     */
+    private void visit(final TypeElement type) {
+        if (type.getKind() == ElementKind.CLASS && isEntity(type)) {
+            write(type);
+        }
+        for (final TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            visit(nested);
+        }
+    }
+
+    private boolean isEntity(final TypeElement type) {
+        for (final String annotation : ENTITY_ANNOTATIONS) {
+            if (isAnnotated(type, annotation)) {
+                return true;
+            }
+        }
+        final List<TypeMirror> supertypes = new ArrayList<TypeMirror>(type.getInterfaces());
+        supertypes.add(type.getSuperclass());
+        for (final TypeMirror supertype : supertypes) {
+            if (supertype.getKind() == TypeKind.DECLARED && isEntity((TypeElement) ((DeclaredType) supertype).asElement())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeEntities() {
+        try {
+            final FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                                                                                  EntityClassScanner.INDEX_RESOURCE);
+            final Writer writer = resource.openWriter();
+            try {
+                for (final String name : written) {
+                    writer.write(name + "\n");
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.WARNING, "Could not write the Morphia entity index: " + e.getMessage());
+        }
+    }
+
+    private void write(final TypeElement type) {
+        final String name = binaryName(type);
+        if (!written.add(name)) {
+            return;
+        }
+
+        final List<TypeElement> hierarchy = hierarchy(type);
+        final List<String> names = new ArrayList<String>();
+        final List<String> fields = new ArrayList<String>();
+        for (final TypeElement each : hierarchy) {
+            names.add(binaryName(each));
+            for (final VariableElement field : ElementFilter.fieldsIn(each.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC) && !field.getModifiers().contains(Modifier.TRANSIENT)
+                    && !isAnnotated(field, TRANSIENT)) {
+                    fields.add(binaryName(each) + "#" + field.getSimpleName());
+                }
+            }
+        }
+
+        final List<String> lifecycle = new ArrayList<String>();
+        final List<TypeElement> superclassesFirst = new ArrayList<TypeElement>(hierarchy);
+        Collections.reverse(superclassesFirst);
+        for (final TypeElement each : superclassesFirst) {
+            for (final ExecutableElement method : ElementFilter.methodsIn(each.getEnclosedElements())) {
+                if (method.getModifiers().contains(Modifier.STATIC)) {
+                    continue;
+                }
+                for (final String annotation : LIFECYCLE_ANNOTATIONS) {
+                    if (isAnnotated(method, annotation)) {
+                        lifecycle.add(annotation + " " + binaryName(each) + "#" + method.getSimpleName() + parameters(method));
+                    }
+                }
+            }
+        }
+
+        try {
+            final FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                                                                                  ClassMetadata.RESOURCE_PREFIX + name, type);
+            final Writer writer = resource.openWriter();
+            try {
+                writer.write(ClassMetadata.VERSION_KEY + "=" + ClassMetadata.VERSION + "\n");
+                writer.write(ClassMetadata.HIERARCHY_KEY + "=" + join(names) + "\n");
+                writer.write(ClassMetadata.FIELDS_KEY + "=" + join(fields) + "\n");
+                writer.write(ClassMetadata.LIFECYCLE_KEY + "=" + join(lifecycle) + "\n");
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.WARNING, "Could not write the Morphia metadata index: " + e.getMessage(), type);
+        }
+    }
+
+    private List<TypeElement> hierarchy(final TypeElement type) {
+        final List<TypeElement> hierarchy = new ArrayList<TypeElement>();
+        TypeElement current = type;
+        while (current != null && !current.getQualifiedName().contentEquals(Object.class.getName())) {
+            hierarchy.add(current);
+            final TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+        return hierarchy;
+    }
+
+    private boolean isAnnotated(final Element element, final String annotation) {
+        for (final AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String parameters(final ExecutableElement method) {
+        final StringBuilder parameters = new StringBuilder("(");
+        for (final VariableElement parameter : method.getParameters()) {
+            if (parameters.length() > 1) {
+                parameters.append('/');
+            }
+            parameters.append(runtimeName(processingEnv.getTypeUtils().erasure(parameter.asType())));
+        }
+        return parameters.append(')').toString();
+    }
+
+    /**
+     * @return the name of a type as given by {@link Class#getName()}
+     */
+    private String runtimeName(final TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return "[" + descriptor(((ArrayType) type).getComponentType());
+        } else if (type.getKind() == TypeKind.DECLARED) {
+            return binaryName((TypeElement) ((DeclaredType) type).asElement());
+        }
+        return type.toString();
+    }
+
+    private String descriptor(final TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return "[" + descriptor(((ArrayType) type).getComponentType());
+        } else if (type.getKind() == TypeKind.DECLARED) {
+            return "L" + binaryName((TypeElement) ((DeclaredType) type).asElement()) + ";";
+        }
+        return DESCRIPTORS.get(type.getKind());
+    }
+
+    private String binaryName(final TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private static String join(final List<String> values) {
+        final StringBuilder joined = new StringBuilder();
+        for (final String value : values) {
+            if (joined.length() > 0) {
+                joined.append(',');
+            }
+            joined.append(value);
+        }
+        return joined.toString();
+    }
+}
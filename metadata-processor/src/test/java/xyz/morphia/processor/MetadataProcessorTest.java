@@ -0,0 +1,104 @@
+package xyz.morphia.processor;
+
+import org.junit.Test;
+import xyz.morphia.mapping.ClassMetadata;
+import xyz.morphia.utils.EntityClassScanner;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MetadataProcessorTest {
+    private static final String SOURCE = "package example;\n"
+                                         + "import xyz.morphia.annotations.*;\n"
+                                         + "abstract class Base {\n"
+                                         + "    @Id private long id;\n"
+                                         + "    private static int ignored;\n"
+                                         + "    @PrePersist void prePersist(com.mongodb.DBObject dbObject, String[][] names, int count) {}\n"
+                                         + "}\n"
+                                         + "@Entity\n"
+                                         + "public class Person extends Base {\n"
+                                         + "    private String name;\n"
+                                         + "    private transient String cached;\n"
+                                         + "    @Transient private String computed;\n"
+                                         + "    @PostLoad @PreLoad void loaded() {}\n"
+                                         + "    @Embedded static class Address { String street; }\n"
+                                         + "}\n"
+                                         + "class Student extends Person { int year; }\n"
+                                         + "@Entity interface Named {}\n"
+                                         + "class Tag implements Named { @Id String name; }\n";
+
+    @Test
+    public void testIndex() throws IOException {
+        final File output = compile();
+        final Properties person = read(new File(output, ClassMetadata.RESOURCE_PREFIX + "example.Person"));
+        assertEquals(ClassMetadata.VERSION, person.getProperty(ClassMetadata.VERSION_KEY));
+        assertEquals("example.Person,example.Base", person.getProperty(ClassMetadata.HIERARCHY_KEY));
+        assertEquals("example.Person#name,example.Base#id", person.getProperty(ClassMetadata.FIELDS_KEY));
+        assertEquals("xyz.morphia.annotations.PrePersist example.Base#prePersist(com.mongodb.DBObject/[[Ljava.lang.String;/int),"
+                     + "xyz.morphia.annotations.PreLoad example.Person#loaded(),"
+                     + "xyz.morphia.annotations.PostLoad example.Person#loaded()", person.getProperty(ClassMetadata.LIFECYCLE_KEY));
+
+        final Properties address = read(new File(output, ClassMetadata.RESOURCE_PREFIX + "example.Person$Address"));
+        assertEquals("example.Person$Address#street", address.getProperty(ClassMetadata.FIELDS_KEY));
+        assertEquals("", address.getProperty(ClassMetadata.LIFECYCLE_KEY));
+
+        final Properties student = read(new File(output, ClassMetadata.RESOURCE_PREFIX + "example.Student"));
+        assertEquals("example.Student,example.Person,example.Base", student.getProperty(ClassMetadata.HIERARCHY_KEY));
+        assertTrue(new File(output, ClassMetadata.RESOURCE_PREFIX + "example.Tag").exists());
+
+        assertFalse(new File(output, ClassMetadata.RESOURCE_PREFIX + "example.Base").exists());
+        assertFalse(new File(output, ClassMetadata.RESOURCE_PREFIX + "example.Named").exists());
+    }
+
+    @Test
+    public void testEntities() throws IOException {
+        final File output = compile();
+        assertEquals(Arrays.asList("example.Person", "example.Person$Address", "example.Student", "example.Tag"),
+                     EntityClassScanner.getIndexedClassNames(output));
+    }
+
+    private File compile() throws IOException {
+        final File output = File.createTempFile("metadata", "");
+        assertTrue(output.delete() && output.mkdirs());
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final JavaFileObject source = new SimpleJavaFileObject(URI.create("string:///example/Person.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                return SOURCE;
+            }
+        };
+        final JavaCompiler.CompilationTask task = compiler.getTask(null, null, null,
+                                                                   Arrays.asList("-classpath", System.getProperty("java.class.path"),
+                                                                                 "-d", output.getPath()),
+                                                                   null, Collections.singletonList(source));
+        task.setProcessors(Collections.singletonList(new MetadataProcessor()));
+        assertTrue(task.call());
+        return output;
+    }
+
+    private Properties read(final File file) throws IOException {
+        final Properties properties = new Properties();
+        final InputStream in = new FileInputStream(file);
+        try {
+            properties.load(in);
+        } finally {
+            in.close();
+        }
+        return properties;
+    }
+}
@@ -218,6 +218,19 @@ public interface AdvancedDatastore extends Datastore {
      */
     <T> void ensureIndexes(String collection, Class<T> clazz, boolean background);
 
+    /**
+     * Ensures the capped collections, document validation and indexes of every mapped entity, in that order.  The indexes and validation
+     * rules the server already lists are skipped, and the commands left are sent on as many threads as
+     * {@link xyz.morphia.mapping.MapperOptions#getSchemaThreads()}.
+     *
+     * @return what was changed on the server
+     * @see #ensureCaps()
+     * @see #enableDocumentValidation()
+     * @see #ensureIndexes()
+     * @since 1.5
+     */
+    SchemaReport ensureSchema();
+
     /**
      * Checks that an entity exists for the given key or entity
      *
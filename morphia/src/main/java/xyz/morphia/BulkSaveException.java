@@ -0,0 +1,49 @@
+package xyz.morphia;
+
+
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Thrown by a bulk save when one or more entities with a @Version field were concurrently updated.  Every other entity in the batch
+ * has been saved and its id and version updated, so the failures can be dealt with one by one.
+ *
+ * @see Morphia#setUseBulkWriteOperations(boolean)
+ * @since 1.5
+ */
+public class BulkSaveException extends ConcurrentModificationException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<Key<?>> keys;
+    private final transient Map<Integer, ConcurrentModificationException> failures;
+
+    /**
+     * Creates a BulkSaveException
+     *
+     * @param keys     the keys of the entities in the order they were given to the save, with null for those which failed
+     * @param failures the failure for each entity which could not be saved keyed by its position in the entities given to the save
+     */
+    public BulkSaveException(final List<Key<?>> keys, final Map<Integer, ConcurrentModificationException> failures) {
+        super(String.format("%d of %d entities were concurrently updated.  The first failure was: %s", failures.size(), keys.size(),
+                            failures.values().iterator().next().getMessage()));
+        this.keys = Collections.unmodifiableList(keys);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return the failure for each entity which could not be saved keyed by its position in the entities given to the save
+     */
+    public Map<Integer, ConcurrentModificationException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return the keys of the entities in the order they were given to the save, with null for those which could not be saved
+     */
+    public List<Key<?>> getKeys() {
+        return keys;
+    }
+}
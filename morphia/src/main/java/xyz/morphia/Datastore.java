@@ -14,6 +14,7 @@ import xyz.morphia.annotations.Indexed;
 import xyz.morphia.annotations.Indexes;
 import xyz.morphia.annotations.Text;
 import xyz.morphia.annotations.Validation;
+import xyz.morphia.instrumentation.MorphiaInstrumentation;
 import xyz.morphia.mapping.Mapper;
 import xyz.morphia.query.CountOptions;
 import xyz.morphia.query.Query;
@@ -448,7 +449,8 @@ public interface Datastore {
      * @param clazz the class to use for mapping
      * @param keys  the keys to search with
      * @param <T>   the type to fetch
-     * @return the matched entities.  may be null.
+     * @return the matched entities in the order of the keys.  Keys without a matching document are skipped and a key given more than
+     * once yields the same entity at each of its positions.
      * @deprecated use a {@link Query} instead
      */
     @Deprecated
@@ -459,7 +461,8 @@ public interface Datastore {
      *
      * @param keys the keys to search with
      * @param <T>  the type to fetch
-     * @return the matched entities.  may be null.
+     * @return the matched entities in the order of the keys.  Keys without a matching document are skipped and a key given more than
+     * once yields the same entity at each of its positions.
      * @deprecated use a {@link Query} instead
      */
     @Deprecated
@@ -588,6 +591,22 @@ public interface Datastore {
      */
     void setQueryFactory(QueryFactory queryFactory);
 
+    /**
+     * @return the instrumentation receiving the timings of this Datastore's operations, or null if there is none
+     * @since 1.5
+     */
+    MorphiaInstrumentation getInstrumentation();
+
+    /**
+     * Registers an instrumentation to receive the time taken to build queries, fetch and decode their documents, resolve references and
+     * run saves, updates and deletes.
+     *
+     * @param instrumentation the instrumentation to use, or null to stop timing
+     * @see xyz.morphia.instrumentation.HistogramInstrumentation
+     * @since 1.5
+     */
+    void setInstrumentation(MorphiaInstrumentation instrumentation);
+
     /**
      * Runs a map/reduce job at the server
      *
@@ -2,10 +2,12 @@ package xyz.morphia;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.BasicDBObjectBuilder;
+import com.mongodb.BulkWriteOperation;
 import com.mongodb.CommandResult;
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
 import com.mongodb.DBDecoderFactory;
+import com.mongodb.DBEncoder;
 import com.mongodb.DBObject;
 import com.mongodb.DBRef;
 import com.mongodb.DefaultDBDecoder;
@@ -21,6 +23,7 @@ import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.CreateCollectionOptions;
 import com.mongodb.client.model.DBCollectionUpdateOptions;
 import com.mongodb.client.model.ValidationOptions;
+import org.bson.Document;
 import org.bson.codecs.configuration.CodecRegistries;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,11 +35,15 @@ import xyz.morphia.annotations.NotSaved;
 import xyz.morphia.annotations.PostPersist;
 import xyz.morphia.annotations.Validation;
 import xyz.morphia.annotations.Version;
+import xyz.morphia.instrumentation.MorphiaInstrumentation;
+import xyz.morphia.instrumentation.QueryShape;
+import xyz.morphia.instrumentation.Span;
 import xyz.morphia.mapping.MappedClass;
 import xyz.morphia.mapping.MappedField;
 import xyz.morphia.mapping.Mapper;
 import xyz.morphia.mapping.MappingException;
 import xyz.morphia.mapping.cache.EntityCache;
+import xyz.morphia.mapping.cache.SharedEntityCacheFactory;
 import xyz.morphia.mapping.lazy.proxy.ProxyHelper;
 import xyz.morphia.query.CountOptions;
 import xyz.morphia.query.DefaultQueryFactory;
@@ -47,17 +54,23 @@ import xyz.morphia.query.UpdateException;
 import xyz.morphia.query.UpdateOperations;
 import xyz.morphia.query.UpdateOpsImpl;
 import xyz.morphia.query.UpdateResults;
+import xyz.morphia.query.internal.ParallelDecoder;
 import xyz.morphia.utils.Assert;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 import static com.mongodb.BasicDBObject.parse;
 import static com.mongodb.BasicDBObjectBuilder.start;
@@ -87,6 +100,8 @@ public class DatastoreImpl implements AdvancedDatastore {
     private DBDecoderFactory decoderFactory;
 
     private volatile QueryFactory queryFactory = new DefaultQueryFactory();
+    private volatile MorphiaInstrumentation instrumentation;
+    private volatile ExecutorService decodePool;
 
     /**
      * Create a new DatastoreImpl
@@ -179,7 +194,12 @@ public class DatastoreImpl implements AdvancedDatastore {
             throw new QueryException("Delete does not allow sort/offset/limit query options.");
         }
 
-        return dbColl.remove(query.getQueryObject(), enforceWriteConcern(options, query.getEntityClass()).getOptions());
+        final long start = System.nanoTime();
+        final DBObject queryObject = query.getQueryObject();
+        final WriteResult result = dbColl.remove(queryObject, enforceWriteConcern(options, query.getEntityClass()).getOptions());
+        invalidate(dbColl.getFullName(), queryObject);
+        record(Span.DELETE, dbColl.getName(), query.getEntityClass(), queryObject, start);
+        return result;
     }
 
     @Override
@@ -236,7 +256,9 @@ public class DatastoreImpl implements AdvancedDatastore {
             throw new MappingException("Did you mean to delete all documents? -- delete(ds.createQuery(???.class))");
         }
         try {
-            return delete(wrapped.getClass(), mapper.getId(wrapped), options);
+            final WriteResult wr = delete(wrapped.getClass(), mapper.getId(wrapped), options);
+            mapper.getSnapshots().remove(wrapped);
+            return wr;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -244,44 +266,114 @@ public class DatastoreImpl implements AdvancedDatastore {
 
     @Override
     public void ensureCaps() {
+        ensureCaps(new SchemaReport());
+    }
+
+    private void ensureCaps(final SchemaReport report) {
+        final Map<String, CappedAt> caps = new LinkedHashMap<String, CappedAt>();
         for (final MappedClass mc : mapper.getMappedClasses()) {
             if (mc.getEntityAnnotation() != null && mc.getEntityAnnotation().cap().value() > 0) {
-                final CappedAt cap = mc.getEntityAnnotation().cap();
                 final String collName = mapper.getCollectionName(mc.getClazz());
-                final BasicDBObjectBuilder dbCapOpts = start("capped", true);
-                if (cap.value() > 0) {
-                    dbCapOpts.add("size", cap.value());
+                if (!caps.containsKey(collName)) {
+                    caps.put(collName, mc.getEntityAnnotation().cap());
                 }
-                if (cap.count() > 0) {
-                    dbCapOpts.add("max", cap.count());
-                }
-                final DB database = getDB();
-                if (database.getCollectionNames().contains(collName)) {
-                    final DBObject dbResult = database.command(start("collstats", collName).get());
-                    if (dbResult.containsField("capped")) {
-                        LOG.debug("DBCollection already exists and is capped already; doing nothing. " + dbResult);
-                    } else {
-                        LOG.warn("DBCollection already exists with same name(" + collName
-                                        + ") and is not capped; not creating capped version!");
-                    }
-                } else {
-                    getDB().createCollection(collName, dbCapOpts.get());
-                    LOG.debug("Created capped DBCollection (" + collName + ") with opts " + dbCapOpts);
+            }
+        }
+        if (caps.isEmpty()) {
+            return;
+        }
+
+        final Set<String> collectionNames = getDB().getCollectionNames();
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (final Entry<String, CappedAt> entry : caps.entrySet()) {
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    ensureCap(entry.getKey(), entry.getValue(), collectionNames, report);
+                    return null;
                 }
+            });
+        }
+        new SchemaExecutor(mapper.getOptions().getSchemaThreads()).run(tasks);
+    }
+
+    private void ensureCap(final String collName, final CappedAt cap, final Set<String> collectionNames, final SchemaReport report) {
+        final BasicDBObjectBuilder dbCapOpts = start("capped", true);
+        if (cap.value() > 0) {
+            dbCapOpts.add("size", cap.value());
+        }
+        if (cap.count() > 0) {
+            dbCapOpts.add("max", cap.count());
+        }
+        final DB database = getDB();
+        if (collectionNames.contains(collName)) {
+            final DBObject dbResult = database.command(start("collstats", collName).get());
+            if (dbResult.containsField("capped")) {
+                LOG.debug("DBCollection already exists and is capped already; doing nothing. " + dbResult);
+            } else {
+                LOG.warn("DBCollection already exists with same name(" + collName
+                                + ") and is not capped; not creating capped version!");
             }
+        } else {
+            getDB().createCollection(collName, dbCapOpts.get());
+            report.cappedCollectionCreated(collName);
+            LOG.debug("Created capped DBCollection (" + collName + ") with opts " + dbCapOpts);
         }
     }
 
     @Override
     public void enableDocumentValidation() {
+        enableDocumentValidation(new SchemaReport());
+    }
+
+    private void enableDocumentValidation(final SchemaReport report) {
+        final Map<String, List<MappedClass>> validated = new LinkedHashMap<String, List<MappedClass>>();
         for (final MappedClass mc : mapper.getMappedClasses()) {
-            process(mc, (Validation) mc.getAnnotation(Validation.class));
+            if (mc.getAnnotation(Validation.class) != null) {
+                addToCollection(validated, mc);
+            }
         }
+        if (validated.isEmpty()) {
+            return;
+        }
+
+        final Map<String, Document> options = new HashMap<String, Document>();
+        for (final Document collection : getDatabase().listCollections()) {
+            options.put(collection.getString("name"), (Document) collection.get("options"));
+        }
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (final List<MappedClass> classes : validated.values()) {
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (final MappedClass mc : classes) {
+                        process(mc, (Validation) mc.getAnnotation(Validation.class), options, report);
+                    }
+                    return null;
+                }
+            });
+        }
+        new SchemaExecutor(mapper.getOptions().getSchemaThreads()).run(tasks);
     }
 
     void process(final MappedClass mc, final Validation validation) {
+        process(mc, validation, null, new SchemaReport());
+    }
+
+    /**
+     * Applies the validation rules of a class unless the options the collection was listed with already hold them
+     */
+    private void process(final MappedClass mc, final Validation validation, final Map<String, Document> options,
+                         final SchemaReport report) {
         if (validation != null) {
             String collectionName = mc.getCollectionName();
+            final Document current = options != null ? options.get(collectionName) : null;
+            if (current != null && Document.parse(validation.value()).equals(current.get("validator"))
+                && validation.level().getValue().equals(current.get("validationLevel"))
+                && validation.action().getValue().equals(current.get("validationAction"))) {
+                report.validationUnchanged();
+                return;
+            }
             CommandResult result = getDB()
                 .command(new BasicDBObject("collMod", collectionName)
                              .append("validator", parse(validation.value()))
@@ -291,18 +383,38 @@ public class DatastoreImpl implements AdvancedDatastore {
 
             if (!result.ok()) {
                 if (result.getInt("code") == 26) {
-                    ValidationOptions options = new ValidationOptions()
+                    ValidationOptions validationOptions = new ValidationOptions()
                         .validator(parse(validation.value()))
                         .validationLevel(validation.level())
                         .validationAction(validation.action());
-                    getDatabase().createCollection(collectionName, new CreateCollectionOptions().validationOptions(options));
+                    getDatabase().createCollection(collectionName, new CreateCollectionOptions().validationOptions(validationOptions));
                 } else {
                     result.throwOnError();
                 }
             }
+            report.validationUpdated(collectionName);
         }
     }
 
+    @Override
+    public SchemaReport ensureSchema() {
+        final SchemaReport report = new SchemaReport();
+        ensureCaps(report);
+        enableDocumentValidation(report);
+        ensureIndexes(false, report);
+        LOG.debug("Ensured the schema: " + report);
+        return report;
+    }
+
+    private void addToCollection(final Map<String, List<MappedClass>> byCollection, final MappedClass mc) {
+        List<MappedClass> classes = byCollection.get(mc.getCollectionName());
+        if (classes == null) {
+            classes = new ArrayList<MappedClass>();
+            byCollection.put(mc.getCollectionName(), classes);
+        }
+        classes.add(mc);
+    }
+
     @Override
     public Key<?> exists(final Object entityOrKey) {
         final Query<?> query = buildExistsQuery(entityOrKey);
@@ -354,7 +466,11 @@ public class DatastoreImpl implements AdvancedDatastore {
             .upsert(false)
             .remove(true);
 
-        final DBObject result = dbColl.findAndModify(query.getQueryObject(), copy.getOptions());
+        final long start = System.nanoTime();
+        final DBObject queryObject = query.getQueryObject();
+        final DBObject result = dbColl.findAndModify(queryObject, copy.getOptions());
+        invalidate(dbColl.getFullName(), queryObject, result);
+        record(Span.DELETE, dbColl.getName(), query.getEntityClass(), queryObject, start);
 
         return result == null ? null : mapper.fromDBObject(this, query.getEntityClass(), result, createCache());
     }
@@ -371,12 +487,16 @@ public class DatastoreImpl implements AdvancedDatastore {
             LOG.info("Executing findAndModify(" + dbColl.getName() + ") with update ");
         }
 
+        final long start = System.nanoTime();
         updateForVersioning(query, operations);
-        DBObject res = dbColl.findAndModify(query.getQueryObject(), options.copy()
+        final DBObject queryObject = query.getQueryObject();
+        DBObject res = dbColl.findAndModify(queryObject, options.copy()
                                                                            .sort(query.getSortObject())
                                                                            .projection(query.getFieldsObject())
                                                                            .update(((UpdateOpsImpl<T>) operations).getOps())
                                            .getOptions());
+        invalidate(dbColl.getFullName(), queryObject, res);
+        record(Span.UPDATE, dbColl.getName(), query.getEntityClass(), queryObject, start);
 
         return res == null ? null : mapper.fromDBObject(this, query.getEntityClass(), res, createCache());
 
@@ -447,42 +567,102 @@ public class DatastoreImpl implements AdvancedDatastore {
     }
 
     @Override
-    @SuppressWarnings({"rawtypes", "unchecked"})
     public <T> List<T> getByKeys(final Class<T> clazz, final Iterable<Key<T>> keys) {
-
-        final Map<String, List<Key>> kindMap = new HashMap<String, List<Key>>();
         final List<T> entities = new ArrayList<T>();
-        // String clazzKind = (clazz==null) ? null :
-        // getMapper().getCollectionName(clazz);
-        for (final Key<?> key : keys) {
-            mapper.updateCollection(key);
-
-            // if (clazzKind != null && !key.getKind().equals(clazzKind))
-            // throw new IllegalArgumentException("Types are not equal (" +
-            // clazz + "!=" + key.getKindClass() +
-            // ") for key and method parameter clazz");
-            //
-            if (kindMap.containsKey(key.getCollection())) {
-                kindMap.get(key.getCollection()).add(key);
-            } else {
-                kindMap.put(key.getCollection(), new ArrayList<Key>(singletonList((Key) key)));
+        for (final T entity : getByKeysInOrder(keys)) {
+            if (entity != null) {
+                entities.add(entity);
             }
         }
-        for (final Map.Entry<String, List<Key>> entry : kindMap.entrySet()) {
-            final List<Key> kindKeys = entry.getValue();
+        return entities;
+    }
 
-            final List<Object> objIds = new ArrayList<Object>();
-            for (final Key key : kindKeys) {
-                objIds.add(key.getId());
+    /**
+     * Fetches the entities for the given keys with one {@code $in} query per collection, split into chunks of {@link
+     * xyz.morphia.mapping.MapperOptions#getKeysPerQuery()} ids.  Unlike {@link #getByKeys(Iterable)}, missing documents are kept as
+     * nulls so the result always lines up with the keys.
+     *
+     * @param keys the keys to fetch
+     * @param <T>  the type to fetch
+     * @return the entities in the order of the keys with null for every key whose document was not found.  A key given more than once
+     * yields the same instance at each of its positions.
+     * @morphia.internal
+     * @since 1.5
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getByKeysInOrder(final Iterable<Key<T>> keys) {
+        final List<Key<T>> keyList = new ArrayList<Key<T>>();
+        final List<Object> dbIds = new ArrayList<Object>();
+        final Map<String, Map<Object, Object>> kindMap = new LinkedHashMap<String, Map<Object, Object>>();
+        for (final Key<T> key : keys) {
+            final String collection = mapper.updateCollection(key);
+            final Object dbId = toDbId(key.getType(), key.getId());
+            keyList.add(key);
+            dbIds.add(dbId);
+
+            Map<Object, Object> ids = kindMap.get(collection);
+            if (ids == null) {
+                ids = new LinkedHashMap<Object, Object>();
+                kindMap.put(collection, ids);
+            }
+            if (!ids.containsKey(dbId)) {
+                ids.put(dbId, key.getId());
             }
-            final List kindResults = find(entry.getKey(), null).disableValidation().filter("_id in", objIds).asList();
-            entities.addAll(kindResults);
         }
 
-        // TODO: order them based on the incoming Keys.
+        final int chunkSize = mapper.getOptions().getKeysPerQuery();
+        final Map<String, Map<Object, Object>> found = new HashMap<String, Map<Object, Object>>();
+        for (final Entry<String, Map<Object, Object>> entry : kindMap.entrySet()) {
+            final Map<Object, Object> byId = new HashMap<Object, Object>();
+            final List<Object> chunk = new ArrayList<Object>();
+            for (final Object id : entry.getValue().values()) {
+                chunk.add(id);
+                if (chunk.size() == chunkSize) {
+                    fetchByIds(entry.getKey(), chunk, byId);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                fetchByIds(entry.getKey(), chunk, byId);
+            }
+            found.put(entry.getKey(), byId);
+        }
+
+        final List<T> entities = new ArrayList<T>(keyList.size());
+        for (int i = 0; i < keyList.size(); i++) {
+            entities.add((T) found.get(keyList.get(i).getCollection()).get(dbIds.get(i)));
+        }
         return entities;
     }
 
+    private void fetchByIds(final String collection, final List<Object> ids, final Map<Object, Object> byId) {
+        for (final Object entity : find(collection, null).disableValidation().filter("_id in", ids).asList()) {
+            byId.put(toDbId(entity.getClass(), mapper.getId(entity)), entity);
+        }
+    }
+
+    /**
+     * Converts an id to the form it is stored in so the ids held by keys can be matched with those of loaded entities.
+     */
+    private Object toDbId(final Class<?> type, final Object id) {
+        if (id instanceof DBObject) {
+            final DBObject copy = new BasicDBObject(((DBObject) id).toMap());
+            copy.removeField(mapper.getOptions().getDiscriminatorField());
+            return copy;
+        }
+        if (type != null && mapper.isMapped(type)) {
+            final MappedField idField = mapper.getMappedClass(type).getMappedIdField();
+            if (idField != null) {
+                final Object dbId = mapper.toMongoObject(idField, null, id);
+                if (dbId instanceof DBObject) {
+                    ((DBObject) dbId).removeField(mapper.getOptions().getDiscriminatorField());
+                }
+                return dbId;
+            }
+        }
+        return id;
+    }
+
     @Override
     public <T> List<T> getByKeys(final Iterable<Key<T>> keys) {
         return getByKeys(null, keys);
@@ -579,6 +759,39 @@ public class DatastoreImpl implements AdvancedDatastore {
         this.queryFactory = queryFactory;
     }
 
+    @Override
+    public MorphiaInstrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    @Override
+    public void setInstrumentation(final MorphiaInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    /**
+     * Returns the pool the queries of this Datastore decode their results on when decoding in parallel.  The pool is created on first
+     * use, with a thread per available processor.
+     *
+     * @return the pool
+     * @morphia.internal
+     * @see xyz.morphia.query.FindOptions#parallelDecode(int)
+     * @since 1.5
+     */
+    public ExecutorService getDecodePool() {
+        ExecutorService pool = decodePool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = decodePool;
+                if (pool == null) {
+                    pool = ParallelDecoder.newPool();
+                    decodePool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
     @Override
     public <T> MapreduceResults<T> mapReduce(final MapReduceOptions<T> options) {
         DBCollection collection = options.getQuery().getCollection();
@@ -702,21 +915,31 @@ public class DatastoreImpl implements AdvancedDatastore {
         final MappedClass mc = mapper.getMappedClass(unwrapped);
         final DBCollection dbColl = getCollection(unwrapped);
 
-        // try to do an update if there is a @Version field
-        wr = tryVersionedUpdate(dbColl, unwrapped, dbObj, idValue, new InsertOptions().writeConcern(wc), mc);
+        final DBObject changes = mapper.getOptions().isDirtyTracking() ? mapper.getSnapshots().diff(unwrapped, dbObj) : null;
+        if (changes != null) {
+            // only send what changed since the entity was loaded or last saved
+            wr = updateChanges(dbColl, unwrapped, dbObj, changes, idValue, new InsertOptions().writeConcern(wc), mc);
+            if (wr == null && !documentExists(dbColl, idValue)) {
+                throw new UpdateException("Nothing updated");
+            }
+        } else {
+            // try to do an update if there is a @Version field
+            wr = tryVersionedUpdate(dbColl, unwrapped, dbObj, idValue, new InsertOptions().writeConcern(wc), mc);
 
-        if (wr == null) {
-            final Query<T> query = (Query<T>) createQuery(unwrapped.getClass()).filter("_id", id);
-            wr = update(query, new BasicDBObject("$set", dbObj), new UpdateOptions().writeConcern(wc)).getWriteResult();
+            if (wr == null) {
+                final Query<T> query = (Query<T>) createQuery(unwrapped.getClass()).filter("_id", id);
+                wr = update(query, new BasicDBObject("$set", dbObj), new UpdateOptions().writeConcern(wc)).getWriteResult();
+            }
         }
 
-        final UpdateResults res = new UpdateResults(wr);
-
-        if (res.getUpdatedCount() == 0) {
+        if (wr != null && new UpdateResults(wr).getUpdatedCount() == 0) {
             throw new UpdateException("Nothing updated");
         }
 
         dbObj.put("_id", idValue);
+        if (changes != null) {
+            mapper.getSnapshots().put(unwrapped, dbObj);
+        }
         postSaveOperations(Collections.<Object>singletonList(entity), involvedObjects, false, dbColl.getName());
         return key;
     }
@@ -741,6 +964,9 @@ public class DatastoreImpl implements AdvancedDatastore {
 
     @Override
     public <T> Iterable<Key<T>> save(final Iterable<T> entities, final InsertOptions options) {
+        if (morphia.isUseBulkWriteOperations()) {
+            return saveBulk(entities, options);
+        }
         final List<Key<T>> savedKeys = new ArrayList<Key<T>>();
         for (final T ent : entities) {
             savedKeys.add(save(ent, options));
@@ -955,9 +1181,27 @@ public class DatastoreImpl implements AdvancedDatastore {
 
     @Override
     public void ensureIndexes(final boolean background) {
+        ensureIndexes(background, new SchemaReport());
+    }
+
+    private void ensureIndexes(final boolean background, final SchemaReport report) {
+        final Map<String, List<MappedClass>> byCollection = new LinkedHashMap<String, List<MappedClass>>();
         for (final MappedClass mc : mapper.getMappedClasses()) {
-            indexHelper.createIndex(getMongoCollection(mc.getClazz()), mc, background);
+            addToCollection(byCollection, mc);
+        }
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (final List<MappedClass> classes : byCollection.values()) {
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (final MappedClass mc : classes) {
+                        indexHelper.createIndex(getMongoCollection(mc.getClazz()), mc, background, report);
+                    }
+                    return null;
+                }
+            });
         }
+        new SchemaExecutor(mapper.getOptions().getSchemaThreads()).run(tasks);
     }
 
     @Override
@@ -1216,9 +1460,11 @@ public class DatastoreImpl implements AdvancedDatastore {
     }
 
     protected <T> Key<T> insert(final DBCollection dbColl, final T entity, final InsertOptions options) {
+        final long start = System.nanoTime();
         final LinkedHashMap<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
-        dbColl.insert(singletonList(entityToDBObj(entity, involvedObjects)), enforceWriteConcern(options, entity.getClass())
-            .getOptions());
+        dbColl.insert(singletonList(entityToDocument(entity, involvedObjects)),
+                      encoding(enforceWriteConcern(options, entity.getClass()).getOptions()));
+        record(Span.SAVE, dbColl.getName(), entity.getClass(), null, start);
 
         return postSaveOperations(singletonList(entity), involvedObjects, dbColl.getName()).get(0);
     }
@@ -1268,18 +1514,35 @@ public class DatastoreImpl implements AdvancedDatastore {
 
     protected <T> Key<T> save(final DBCollection dbColl, final T entity, final InsertOptions options) {
         final MappedClass mc = validateSave(entity);
+        final long start = System.nanoTime();
 
         // involvedObjects is used not only as a cache but also as a list of what needs to be called for life-cycle methods at the end.
         final LinkedHashMap<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
-        final DBObject document = entityToDBObj(entity, involvedObjects);
+        final boolean tracking = mapper.getOptions().isDirtyTracking();
+        final Object unwrapped = ProxyHelper.unwrap(entity);
+        final DBObject document = tracking ? mapper.toDBObject(unwrapped, involvedObjects) : entityToDocument(entity, involvedObjects);
 
-        // try to do an update if there is a @Version field
         final Object idValue = document.get("_id");
-        WriteResult wr = tryVersionedUpdate(dbColl, entity, document, idValue, enforceWriteConcern(options, entity.getClass()), mc);
+        final DBObject changes = tracking && idValue != null ? mapper.getSnapshots().diff(unwrapped, document) : null;
+        if (changes != null) {
+            // only send what changed since the entity was loaded or last saved, all of it if the document is gone
+            final InsertOptions insertOptions = enforceWriteConcern(options, entity.getClass());
+            final WriteResult wr = updateChanges(dbColl, entity, document, changes, idValue, insertOptions, mc);
+            if (wr == null ? !documentExists(dbColl, idValue) : wr.wasAcknowledged() && wr.getN() == 0) {
+                saveDocument(dbColl, document, options);
+            }
+        } else {
+            // try to do an update if there is a @Version field
+            WriteResult wr = tryVersionedUpdate(dbColl, entity, document, idValue, enforceWriteConcern(options, entity.getClass()), mc);
 
-        if (wr == null) {
-            saveDocument(dbColl, document, options);
+            if (wr == null) {
+                saveDocument(dbColl, document, options);
+            }
         }
+        if (tracking) {
+            mapper.getSnapshots().put(unwrapped, document);
+        }
+        record(Span.SAVE, dbColl.getName(), entity.getClass(), null, start);
 
         return postSaveOperations(singletonList(entity), involvedObjects, dbColl.getName()).get(0);
     }
@@ -1312,6 +1575,123 @@ public class DatastoreImpl implements AdvancedDatastore {
     }
 */
 
+    /**
+     * Saves the entities with one unordered bulk write per collection.  New entities are inserted and entities with an id are upserted.
+     * Entities with a @Version field are replaced only if the stored version is the one they were loaded with, one update each so that
+     * every entity learns whether its own replace matched.
+     *
+     * @throws BulkSaveException if any versioned entity was concurrently updated.  All the other entities will have been saved.
+     */
+    private <T> List<Key<T>> saveBulk(final Iterable<T> entities, final InsertOptions options) {
+        final Map<String, DBCollection> collections = new LinkedHashMap<String, DBCollection>();
+        final Map<String, List<Integer>> positions = new HashMap<String, List<Integer>>();
+        final Map<String, List<T>> batches = new HashMap<String, List<T>>();
+        int count = 0;
+        for (final T entity : entities) {
+            final T unwrapped = ProxyHelper.unwrap(entity);
+            validateSave(unwrapped);
+            final DBCollection dbColl = getCollection(unwrapped);
+            List<T> batch = batches.get(dbColl.getName());
+            if (batch == null) {
+                collections.put(dbColl.getName(), dbColl);
+                batch = new ArrayList<T>();
+                batches.put(dbColl.getName(), batch);
+                positions.put(dbColl.getName(), new ArrayList<Integer>());
+            }
+            batch.add(unwrapped);
+            positions.get(dbColl.getName()).add(count++);
+        }
+
+        final List<Key<T>> keys = new ArrayList<Key<T>>(Collections.<Key<T>>nCopies(count, null));
+        final Map<Integer, ConcurrentModificationException> failures = new TreeMap<Integer, ConcurrentModificationException>();
+        for (final Entry<String, DBCollection> entry : collections.entrySet()) {
+            saveBatch(entry.getValue(), batches.get(entry.getKey()), positions.get(entry.getKey()), options, keys, failures);
+        }
+        if (!failures.isEmpty()) {
+            throw new BulkSaveException(new ArrayList<Key<?>>(keys), failures);
+        }
+        return keys;
+    }
+
+    private <T> void saveBatch(final DBCollection dbColl, final List<T> batch, final List<Integer> positions,
+                               final InsertOptions options, final List<Key<T>> keys,
+                               final Map<Integer, ConcurrentModificationException> failures) {
+        final long start = System.nanoTime();
+        final LinkedHashMap<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
+        final BulkWriteOperation operation = dbColl.initializeUnorderedBulkOperation();
+        final List<DBObject> documents = new ArrayList<DBObject>(batch.size());
+        final Map<Integer, Long> guarded = new LinkedHashMap<Integer, Long>();
+        int operations = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            final T entity = batch.get(i);
+            final DBObject document = entityToDBObj(entity, involvedObjects);
+            documents.add(document);
+
+            final Object idValue = document.get(ID_FIELD_NAME);
+            final MappedField mfVersion = mapper.getMappedClass(entity).getMappedVersionField();
+            if (mfVersion != null) {
+                final Long oldVersion = (Long) mfVersion.getFieldValue(entity);
+                final long newVersion = nextValue(oldVersion);
+                document.put(mfVersion.getNameToStore(), newVersion);
+                if (idValue != null && newVersion != 1) {
+                    guarded.put(i, oldVersion);
+                    continue;
+                }
+            }
+            if (idValue == null) {
+                operation.insert(document);
+            } else {
+                operation.find(new BasicDBObject(ID_FIELD_NAME, idValue))
+                         .upsert()
+                         .replaceOne(document);
+            }
+            operations++;
+        }
+        final WriteConcern writeConcern = enforceWriteConcern(options, batch.get(0).getClass()).getWriteConcern();
+        if (operations > 0) {
+            if (options.getBypassDocumentValidation() != null) {
+                operation.setBypassDocumentValidation(options.getBypassDocumentValidation());
+            }
+            operation.execute(writeConcern);
+        }
+
+        // a bulk write only reports totals, and the version another writer stored may well be the one written here, so each guarded
+        // replace is sent on its own to tell exactly which entities were concurrently updated
+        final Set<Integer> conflicts = new HashSet<Integer>();
+        for (final Entry<Integer, Long> entry : guarded.entrySet()) {
+            final DBObject document = documents.get(entry.getKey());
+            final String versionKeyName = mapper.getMappedClass(batch.get(entry.getKey())).getMappedVersionField().getNameToStore();
+            final WriteResult wr = dbColl.update(new BasicDBObject(ID_FIELD_NAME, document.get(ID_FIELD_NAME))
+                                                     .append(versionKeyName, entry.getValue()), document,
+                                                 new DBCollectionUpdateOptions()
+                                                     .bypassDocumentValidation(options.getBypassDocumentValidation())
+                                                     .writeConcern(writeConcern));
+            if (wr.wasAcknowledged() && wr.getN() == 0) {
+                conflicts.add(entry.getKey());
+            }
+        }
+        record(Span.SAVE, dbColl.getName(), batch.get(0).getClass(), null, start);
+
+        final List<T> saved = new ArrayList<T>(batch.size());
+        final List<Integer> savedPositions = new ArrayList<Integer>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            final T entity = batch.get(i);
+            if (conflicts.contains(i)) {
+                involvedObjects.remove(entity);
+                failures.put(positions.get(i), new ConcurrentModificationException(
+                    format("Entity of class %s (id='%s',version='%d') was concurrently updated.", entity.getClass().getName(),
+                           documents.get(i).get(ID_FIELD_NAME), guarded.get(i))));
+            } else {
+                saved.add(entity);
+                savedPositions.add(positions.get(i));
+            }
+        }
+        final List<Key<T>> savedKeys = postSaveOperations(saved, involvedObjects, dbColl.getName());
+        for (int i = 0; i < savedKeys.size(); i++) {
+            keys.set(savedPositions.get(i), savedKeys.get(i));
+        }
+    }
+
     private <T> MappedClass validateSave(final T entity) {
         if (entity == null) {
             throw new UpdateException("Can not persist a null entity");
@@ -1327,13 +1707,72 @@ public class DatastoreImpl implements AdvancedDatastore {
 
     private WriteResult saveDocument(final DBCollection dbColl, final DBObject document, final InsertOptions options) {
         if (document.get(ID_FIELD_NAME) == null) {
-            return dbColl.insert(singletonList(document), options.getOptions());
+            return dbColl.insert(singletonList(document), encoding(options.getOptions()));
         } else {
             return dbColl.update(new BasicDBObject(ID_FIELD_NAME, document.get(ID_FIELD_NAME)), document,
                           new DBCollectionUpdateOptions()
                               .bypassDocumentValidation(options.getBypassDocumentValidation())
                               .writeConcern(options.getWriteConcern())
-                              .upsert(true));
+                              .upsert(true)
+                              .encoder(createEncoder()));
+        }
+    }
+
+    /**
+     * @return true if the primary holds a document with the given id
+     */
+    private boolean documentExists(final DBCollection dbColl, final Object idValue) {
+        return dbColl.findOne(new BasicDBObject(ID_FIELD_NAME, idValue), new BasicDBObject(ID_FIELD_NAME, 1), ReadPreference.primary())
+               != null;
+    }
+
+    /**
+     * Sends the $set and $unset of the fields of an entity which changed since it was loaded or last saved.  The version of a versioned
+     * entity is checked and incremented as {@link #tryVersionedUpdate(DBCollection, Object, DBObject, Object, InsertOptions, MappedClass)}
+     * does, and its new value put in the document.
+     *
+     * @return the result of the update, or null if nothing changed and there was nothing to send
+     */
+    private <T> WriteResult updateChanges(final DBCollection dbColl, final T entity, final DBObject document, final DBObject changes,
+                                          final Object idValue, final InsertOptions options, final MappedClass mc) {
+        final Query<?> query = find(dbColl.getName(), entity.getClass())
+            .disableValidation()
+            .filter("_id", idValue)
+            .enableValidation();
+        final boolean versioned = !mc.getFieldsAnnotatedWith(Version.class).isEmpty();
+        Long oldVersion = null;
+        if (versioned) {
+            final MappedField mfVersion = mc.getMappedVersionField();
+            final String versionKeyName = mfVersion.getNameToStore();
+            oldVersion = (Long) mfVersion.getFieldValue(entity);
+
+            // update() increments the version itself
+            removeChange(changes, "$set", versionKeyName);
+            removeChange(changes, "$unset", versionKeyName);
+            query.filter(versionKeyName, oldVersion);
+            document.put(versionKeyName, nextValue(oldVersion));
+        } else if (changes.keySet().isEmpty()) {
+            return null;
+        }
+
+        final UpdateOptions updateOptions = new UpdateOptions()
+            .bypassDocumentValidation(options.getBypassDocumentValidation())
+            .writeConcern(options.getWriteConcern());
+        final UpdateResults res = update(query, changes, updateOptions);
+        if (versioned && res.getUpdatedCount() != 1) {
+            throw new ConcurrentModificationException(format("Entity of class %s (id='%s',version='%d') was concurrently updated.",
+                                                             entity.getClass().getName(), idValue, oldVersion));
+        }
+        return res.getWriteResult();
+    }
+
+    private static void removeChange(final DBObject changes, final String operator, final String field) {
+        final DBObject fields = (DBObject) changes.get(operator);
+        if (fields != null) {
+            fields.removeField(field);
+            if (fields.keySet().isEmpty()) {
+                changes.removeField(operator);
+            }
         }
     }
 
@@ -1359,9 +1798,11 @@ public class DatastoreImpl implements AdvancedDatastore {
                 .filter("_id", idValue)
                 .enableValidation()
                 .filter(versionKeyName, oldVersion);
-            final UpdateResults res = update(query, dbObj, new UpdateOptions()
+            final UpdateOptions updateOptions = new UpdateOptions()
                 .bypassDocumentValidation(options.getBypassDocumentValidation())
-                .writeConcern(options.getWriteConcern()));
+                .writeConcern(options.getWriteConcern());
+            updateOptions.getOptions().encoder(createEncoder());
+            final UpdateResults res = update(query, dbObj, updateOptions);
 
             wr = res.getWriteResult();
 
@@ -1441,11 +1882,35 @@ public class DatastoreImpl implements AdvancedDatastore {
         return mapper.toDBObject(ProxyHelper.unwrap(entity), involvedObjects);
     }
 
+    private DBObject entityToDocument(final Object entity, final Map<Object, DBObject> involvedObjects) {
+        return mapper.toDocument(ProxyHelper.unwrap(entity), involvedObjects);
+    }
+
+    /**
+     * @return an encoder for the documents of {@link #entityToDocument(Object, Map)}, or null to use the collection's encoding
+     */
+    private DBEncoder createEncoder() {
+        return mapper.getOptions().isDirectEncoding() ? mapper.createEncoder() : null;
+    }
+
+    private com.mongodb.InsertOptions encoding(final com.mongodb.InsertOptions options) {
+        final DBEncoder encoder = createEncoder();
+        if (encoder == null) {
+            return options;
+        }
+        return new com.mongodb.InsertOptions()
+            .writeConcern(options.getWriteConcern())
+            .continueOnError(options.isContinueOnError())
+            .bypassDocumentValidation(options.getBypassDocumentValidation())
+            .dbEncoder(encoder);
+    }
+
     private <T> Iterable<Key<T>> insert(final DBCollection dbColl, final Iterable<T> entities, final InsertOptions options) {
         if (!entities.iterator().hasNext()) {
             return emptyList();
         }
 
+        final long start = System.nanoTime();
         final Map<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
         final List<DBObject> list = new ArrayList<DBObject>();
         com.mongodb.InsertOptions insertOptions = options.getOptions();
@@ -1455,7 +1920,8 @@ public class DatastoreImpl implements AdvancedDatastore {
             }
             list.add(toDbObject(entity, involvedObjects));
         }
-        dbColl.insert(list, insertOptions);
+        dbColl.insert(list, encoding(insertOptions));
+        record(Span.SAVE, dbColl.getName(), entities.iterator().next().getClass(), null, start);
 
         return postSaveOperations(entities, involvedObjects, dbColl.getName());
     }
@@ -1498,6 +1964,41 @@ public class DatastoreImpl implements AdvancedDatastore {
         return oldVersion == null ? 1 : oldVersion + 1;
     }
 
+    /**
+     * Reports the time taken since {@code start} to the instrumentation, if there is one.
+     */
+    private void record(final Span span, final String collection, final Class<?> type, final DBObject queryObject, final long start) {
+        final MorphiaInstrumentation current = instrumentation;
+        if (current != null) {
+            current.record(span, collection, type, QueryShape.of(queryObject), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Removes the documents a write with the given filter may have changed from the shared cache, if there is one.
+     */
+    private void invalidate(final String namespace, final DBObject queryObject) {
+        final SharedEntityCacheFactory shared = mapper.getSharedCache();
+        if (shared != null) {
+            shared.invalidateMatching(namespace, queryObject);
+        }
+    }
+
+    /**
+     * Removes the document returned by a findAndModify from the shared cache, if there is one, or every document the filter may have
+     * matched if nothing was returned.
+     */
+    private void invalidate(final String namespace, final DBObject queryObject, final DBObject result) {
+        final SharedEntityCacheFactory shared = mapper.getSharedCache();
+        if (shared != null) {
+            if (result != null && result.containsField(ID_FIELD_NAME)) {
+                shared.invalidate(namespace, result.get(ID_FIELD_NAME));
+            } else {
+                shared.invalidateMatching(namespace, queryObject);
+            }
+        }
+    }
+
     private <T> List<Key<T>> postSaveOperations(final Iterable<T> entities,
                                                 final Map<Object, DBObject> involvedObjects,
                                                 final String collectionName) {
@@ -1508,8 +2009,12 @@ public class DatastoreImpl implements AdvancedDatastore {
     private <T> List<Key<T>> postSaveOperations(final Iterable<T> entities, final Map<Object, DBObject> involvedObjects,
                                                 final boolean fetchKeys, final String collectionName) {
         List<Key<T>> keys = new ArrayList<Key<T>>();
+        final SharedEntityCacheFactory shared = mapper.getSharedCache();
         for (final T entity : entities) {
             final DBObject dbObj = involvedObjects.remove(entity);
+            if (shared != null) {
+                shared.invalidate(getDB().getName() + "." + collectionName, dbObj.get("_id"));
+            }
 
             if (fetchKeys) {
                 if (dbObj.get("_id") == null) {
@@ -1543,7 +2048,7 @@ public class DatastoreImpl implements AdvancedDatastore {
             throw new MappingException(format("Entity type: %s is marked as NotSaved which means you should not try to save it!",
                                               mc.getClazz().getName()));
         }
-        DBObject dbObject = entityToDBObj(ent, involvedObjects);
+        DBObject dbObject = entityToDocument(ent, involvedObjects);
         List<MappedField> versionFields = mc.getFieldsAnnotatedWith(Version.class);
         for (MappedField mappedField : versionFields) {
             String name = mappedField.getNameToStore();
@@ -1581,9 +2086,13 @@ public class DatastoreImpl implements AdvancedDatastore {
                              dbColl.getName(), queryObject, update, options.isMulti(), options.isUpsert()));
         }
 
-        return new UpdateResults(dbColl.update(queryObject, update,
-                                               enforceWriteConcern(options, query.getEntityClass())
-                                                   .getOptions()));
+        final long start = System.nanoTime();
+        final UpdateResults results = new UpdateResults(dbColl.update(queryObject, update,
+                                                                      enforceWriteConcern(options, query.getEntityClass())
+                                                                          .getOptions()));
+        invalidate(dbColl.getFullName(), queryObject);
+        record(Span.UPDATE, dbColl.getName(), query.getEntityClass(), queryObject, start);
+        return results;
     }
 
     @SuppressWarnings("unchecked")
@@ -1625,9 +2134,13 @@ public class DatastoreImpl implements AdvancedDatastore {
                              dbColl.getName(), queryObject, update, options.isMulti(), options.isUpsert()));
         }
 
-        return new UpdateResults(dbColl.update(queryObject, update,
-                                               enforceWriteConcern(options, query.getEntityClass())
-                                                   .getOptions()));
+        final long start = System.nanoTime();
+        final UpdateResults results = new UpdateResults(dbColl.update(queryObject, update,
+                                                                      enforceWriteConcern(options, query.getEntityClass())
+                                                                          .getOptions()));
+        invalidate(dbColl.getFullName(), queryObject);
+        record(Span.UPDATE, dbColl.getName(), query.getEntityClass(), queryObject, start);
+        return results;
     }
 
 /*
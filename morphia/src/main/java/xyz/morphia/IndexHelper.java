@@ -20,9 +20,14 @@ import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import org.bson.BsonDocument;
 import org.bson.BsonDocumentWriter;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.BsonValue;
 import org.bson.Document;
 import org.bson.codecs.Encoder;
 import org.bson.codecs.EncoderContext;
+import org.bson.conversions.Bson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import xyz.morphia.annotations.Collation;
@@ -353,20 +358,190 @@ final class IndexHelper {
     }
 
     void createIndex(final MongoCollection collection, final MappedClass mc, final boolean background) {
+        createIndex(collection, mc, background, new SchemaReport());
+    }
+
+    /**
+     * Creates the indexes of a class which the collection does not list yet with the same keys and options.  An index which differs only
+     * in its options is sent to the server anyway, for it to report the conflict.
+     */
+    void createIndex(final MongoCollection collection, final MappedClass mc, final boolean background, final SchemaReport report) {
         if (!mc.isInterface() && !mc.isAbstract()) {
-            for (Index index : collectIndexes(mc, Collections.<MappedClass>emptyList())) {
-                createIndex(collection, mc, index, background);
+            final List<Index> indexes = collectIndexes(mc, Collections.<MappedClass>emptyList());
+            if (indexes.isEmpty()) {
+                return;
+            }
+            final List<BsonDocument> existing = listIndexes(collection);
+            for (Index index : indexes) {
+                final IndexDefinition definition = define(mc, index, background);
+                if (exists(existing, definition.keys, definition.options)) {
+                    report.indexUnchanged();
+                } else {
+                    collection.createIndex(definition.keys, definition.options);
+                    report.indexCreated(collection.getNamespace().getFullName() + " " + definition.keys.toJson());
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<BsonDocument> listIndexes(final MongoCollection collection) {
+        final List<BsonDocument> indexes = new ArrayList<BsonDocument>();
+        for (final Object index : collection.listIndexes(BsonDocument.class)) {
+            indexes.add((BsonDocument) index);
+        }
+        return indexes;
+    }
+
+    private boolean exists(final List<BsonDocument> existing, final BsonDocument keys,
+                           final com.mongodb.client.model.IndexOptions options) {
+        for (final BsonDocument index : existing) {
+            if (matchesKeys(index, keys, options) && matchesOptions(index, options)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compares the keys of an index.  The server lists a text index under the keys _fts and _ftsx with the text fields as weights.
+     */
+    private boolean matchesKeys(final BsonDocument index, final BsonDocument keys, final com.mongodb.client.model.IndexOptions options) {
+        final BsonDocument listed = index.getDocument("key", new BsonDocument());
+        final BsonDocument otherKeys = new BsonDocument();
+        final BsonDocument textWeights = new BsonDocument();
+        final BsonDocument weights = toBsonDocument(options.getWeights());
+        for (final Map.Entry<String, BsonValue> key : keys.entrySet()) {
+            if (key.getValue().equals(new BsonString(IndexType.TEXT.toIndexValue().toString()))) {
+                textWeights.put(key.getKey(), weights != null && weights.containsKey(key.getKey())
+                                              ? weights.get(key.getKey())
+                                              : new BsonInt32(1));
+            } else {
+                otherKeys.put(key.getKey(), key.getValue());
+            }
+        }
+        if (textWeights.isEmpty()) {
+            return same(listed, keys);
+        }
+        final BsonDocument listedOtherKeys = new BsonDocument();
+        for (final Map.Entry<String, BsonValue> key : listed.entrySet()) {
+            if (!key.getKey().equals("_fts") && !key.getKey().equals("_ftsx")) {
+                listedOtherKeys.put(key.getKey(), key.getValue());
+            }
+        }
+        return listed.containsKey("_fts") && same(listedOtherKeys, otherKeys)
+               && same(index.getDocument("weights", new BsonDocument()), textWeights);
+    }
+
+    private boolean matchesOptions(final BsonDocument index, final com.mongodb.client.model.IndexOptions options) {
+        if (isSet(index, "unique") != options.isUnique() || isSet(index, "sparse") != options.isSparse()) {
+            return false;
+        }
+        if (options.getName() != null && !new BsonString(options.getName()).equals(index.get("name"))) {
+            return false;
+        }
+        final Long expireAfter = options.getExpireAfter(TimeUnit.SECONDS);
+        if (!same(index.get("expireAfterSeconds"), expireAfter != null ? new BsonInt64(expireAfter) : null)
+            || !same(index.get("partialFilterExpression"), toBsonDocument(options.getPartialFilterExpression()))) {
+            return false;
+        }
+        if (options.getDefaultLanguage() != null && !new BsonString(options.getDefaultLanguage()).equals(index.get("default_language"))
+            || options.getLanguageOverride() != null
+               && !new BsonString(options.getLanguageOverride()).equals(index.get("language_override"))) {
+            return false;
+        }
+        if (options.getCollation() == null) {
+            return !index.containsKey("collation");
+        }
+        // the server lists every setting of a collation, the declaration only those it sets
+        final BsonDocument collation = index.getDocument("collation", new BsonDocument());
+        for (final Map.Entry<String, BsonValue> setting : options.getCollation().asDocument().entrySet()) {
+            if (!same(collation.get(setting.getKey()), setting.getValue())) {
+                return false;
             }
         }
+        return true;
+    }
+
+    private boolean isSet(final BsonDocument index, final String option) {
+        final BsonValue value = index.get(option);
+        if (value == null) {
+            return false;
+        }
+        return value.isBoolean() ? value.asBoolean().getValue() : value.isNumber() && value.asNumber().doubleValue() != 0;
+    }
+
+    private BsonDocument toBsonDocument(final Bson bson) {
+        return bson != null ? bson.toBsonDocument(BsonDocument.class, database.getCodecRegistry()) : null;
+    }
+
+    /**
+     * Compares two values, in order for documents, and regardless of the type for numbers
+     */
+    private boolean same(final BsonValue listed, final BsonValue declared) {
+        if (listed == null || declared == null) {
+            return listed == declared;
+        }
+        if (listed.isNumber() && declared.isNumber()) {
+            return listed.asNumber().doubleValue() == declared.asNumber().doubleValue();
+        }
+        if (listed.isDocument() && declared.isDocument()) {
+            final List<Map.Entry<String, BsonValue>> listedEntries = new ArrayList<Map.Entry<String, BsonValue>>(
+                listed.asDocument().entrySet());
+            final List<Map.Entry<String, BsonValue>> declaredEntries = new ArrayList<Map.Entry<String, BsonValue>>(
+                declared.asDocument().entrySet());
+            if (listedEntries.size() != declaredEntries.size()) {
+                return false;
+            }
+            for (int i = 0; i < listedEntries.size(); i++) {
+                if (!listedEntries.get(i).getKey().equals(declaredEntries.get(i).getKey())
+                    || !same(listedEntries.get(i).getValue(), declaredEntries.get(i).getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (listed.isArray() && declared.isArray()) {
+            final List<BsonValue> listedValues = listed.asArray().getValues();
+            final List<BsonValue> declaredValues = declared.asArray().getValues();
+            if (listedValues.size() != declaredValues.size()) {
+                return false;
+            }
+            for (int i = 0; i < listedValues.size(); i++) {
+                if (!same(listedValues.get(i), declaredValues.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return listed.equals(declared);
     }
 
     void createIndex(final MongoCollection collection, final MappedClass mc, final Index index, final boolean background) {
+        final IndexDefinition definition = define(mc, index, background);
+        collection.createIndex(definition.keys, definition.options);
+    }
+
+    /**
+     * Computes the keys and options an index is created with, and compared on
+     */
+    private IndexDefinition define(final MappedClass mc, final Index index, final boolean background) {
         Index normalized = IndexBuilder.normalize(index);
 
         BsonDocument keys = calculateKeys(mc, normalized);
         com.mongodb.client.model.IndexOptions indexOptions = convert(normalized.options(), background);
         calculateWeights(normalized, indexOptions);
 
-        collection.createIndex(keys, indexOptions);
+        return new IndexDefinition(keys, indexOptions);
+    }
+
+    private static final class IndexDefinition {
+        private final BsonDocument keys;
+        private final com.mongodb.client.model.IndexOptions options;
+
+        private IndexDefinition(final BsonDocument keys, final com.mongodb.client.model.IndexOptions options) {
+            this.keys = keys;
+            this.options = options;
+        }
     }
 }
@@ -24,11 +24,15 @@ import xyz.morphia.annotations.Entity;
 import xyz.morphia.mapping.Mapper;
 import xyz.morphia.mapping.MappingException;
 import xyz.morphia.mapping.cache.EntityCache;
+import xyz.morphia.utils.EntityClassScanner;
 import xyz.morphia.utils.ReflectionUtils;
 
 import java.io.IOException;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 
@@ -39,6 +43,7 @@ import java.util.Set;
 public class Morphia {
     private static final Logger LOG = LoggerFactory.getLogger(Morphia.class);
     private final Mapper mapper;
+    private volatile boolean useBulkWriteOperations;
 
     /**
      * Creates a Morphia instance with a default Mapper and an empty class set.
@@ -147,13 +152,11 @@ public class Morphia {
     }
 
     /**
-     * @return false.  Setting this value has no value functionally or performance-wise.
-     * @deprecated
-     * @see <a href="https://github.com/MorphiaOrg/morphia/issues/1052">Issue #1052</a>
+     * @return true if Morphia saves collections of entities with bulk writes
+     * @see #setUseBulkWriteOperations(boolean)
      */
-    @Deprecated
     public boolean getUseBulkWriteOperations() {
-        return false;
+        return useBulkWriteOperations;
     }
 
     /**
@@ -167,24 +170,25 @@ public class Morphia {
     }
 
     /**
-     * @return false.  Setting this value has no value functionally or performance-wise.
-     * @deprecated
-     * @see <a href="https://github.com/MorphiaOrg/morphia/issues/1052">Issue #1052</a>
+     * @return true if Morphia saves collections of entities with bulk writes
+     * @see #setUseBulkWriteOperations(boolean)
      */
-    @Deprecated
     public boolean isUseBulkWriteOperations() {
-        return false;
+        return useBulkWriteOperations;
     }
 
     /**
-     * Configures Morphia to use bulk writes.  Only useful with MongoDB 2.6+.
+     * Configures Morphia to use bulk writes when saving a collection of entities.  Instead of a round trip per entity, the entities are
+     * grouped by collection and each group is sent as one unordered bulk write of inserts and upserts.  Entities with a @Version field
+     * which were saved before still take one version guarded replacement each, since a bulk write can not tell which of them were
+     * concurrently updated.  Only useful with MongoDB 2.6+.
      *
      * @param useBulkWriteOperations true if Morphia should use bulk writes
-     * @see <a href="https://github.com/MorphiaOrg/morphia/issues/1052">Issue #1052</a>
-     * @deprecated Setting this value has no value functionally or performance-wise.
+     * @see Datastore#save(Iterable, InsertOptions)
+     * @see BulkSaveException
      */
-    @Deprecated
     public void setUseBulkWriteOperations(final boolean useBulkWriteOperations) {
+        this.useBulkWriteOperations = useBulkWriteOperations;
     }
 
     /**
@@ -195,11 +199,7 @@ public class Morphia {
      */
     public synchronized Morphia map(final Class... entityClasses) {
         if (entityClasses != null && entityClasses.length > 0) {
-            for (final Class entityClass : entityClasses) {
-                if (!mapper.isMapped(entityClass)) {
-                    mapper.addMappedClass(entityClass);
-                }
-            }
+            mapper.addMappedClasses(Arrays.asList(entityClasses), false);
         }
         return this;
     }
@@ -212,11 +212,7 @@ public class Morphia {
      */
     public synchronized Morphia map(final Set<Class> entityClasses) {
         if (entityClasses != null && !entityClasses.isEmpty()) {
-            for (final Class entityClass : entityClasses) {
-                if (!mapper.isMapped(entityClass)) {
-                    mapper.addMappedClass(entityClass);
-                }
-            }
+            mapper.addMappedClasses(new ArrayList<Class>(entityClasses), false);
         }
         return this;
     }
@@ -232,7 +228,8 @@ public class Morphia {
     }
 
     /**
-     * Tries to map all classes in the package specified.
+     * Tries to map all classes in the package specified.  The classes are looked up in the index of entities, or their class files read,
+     * before loading them so that only the classes which may be annotated with {@link Entity} or {@link Embedded} are loaded.
      *
      * @param packageName          the name of the package to process
      * @param ignoreInvalidClasses specifies whether to ignore classes in the package that cannot be mapped
@@ -240,13 +237,16 @@ public class Morphia {
      */
     public synchronized Morphia mapPackage(final String packageName, final boolean ignoreInvalidClasses) {
         try {
-            for (final Class clazz : ReflectionUtils.getClasses(packageName, mapper.getOptions().isMapSubPackages())) {
+            final List<Class> classes = new ArrayList<Class>();
+            final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            for (final Class clazz : EntityClassScanner.getEntityClasses(loader, packageName, mapper.getOptions().isMapSubPackages(),
+                                                                         mapper.getOptions().isMetadataIndex())) {
                 try {
                     final Embedded embeddedAnn = ReflectionUtils.getClassEmbeddedAnnotation(clazz);
                     final Entity entityAnn = ReflectionUtils.getClassEntityAnnotation(clazz);
                     final boolean isAbstract = Modifier.isAbstract(clazz.getModifiers());
                     if ((entityAnn != null || embeddedAnn != null) && !isAbstract) {
-                        map(clazz);
+                        classes.add(clazz);
                     }
                 } catch (final MappingException ex) {
                     if (!ignoreInvalidClasses) {
@@ -254,6 +254,7 @@ public class Morphia {
                     }
                 }
             }
+            mapper.addMappedClasses(classes, ignoreInvalidClasses);
             return this;
         } catch (IOException e) {
             throw new MappingException("Could not get map classes from package " + packageName, e);
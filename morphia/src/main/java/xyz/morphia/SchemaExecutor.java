@@ -0,0 +1,84 @@
+package xyz.morphia;
+
+
+import xyz.morphia.mapping.MappingException;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Runs the commands ensuring the schema of the mapped entities, one collection per task, on a bounded pool of threads.  The tasks are run
+ * one after the other, stopping at the first failure, unless more than one thread is allowed.  Then every task is run and the failure of
+ * the first one in the order given is thrown once they all finished.
+ *
+ * @see xyz.morphia.mapping.MapperOptions#getSchemaThreads()
+ */
+final class SchemaExecutor {
+    private final int threads;
+
+    SchemaExecutor(final int threads) {
+        this.threads = threads;
+    }
+
+    void run(final List<Callable<Void>> tasks) {
+        if (threads <= 1 || tasks.size() <= 1) {
+            for (final Callable<Void> task : tasks) {
+                call(task);
+            }
+            return;
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "morphia-schema-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        final List<Future<Void>> results;
+        try {
+            results = executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MappingException("Interrupted while ensuring the schema", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        for (final Future<Void> result : results) {
+            try {
+                result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MappingException("Interrupted while ensuring the schema", e);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new MappingException("Could not ensure the schema", cause);
+            }
+        }
+    }
+
+    private void call(final Callable<Void> task) {
+        try {
+            task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MappingException("Could not ensure the schema", e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package xyz.morphia;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Lists what ensuring the capped collections, document validation and indexes of the mapped entities changed on the server.  Indexes and
+ * validation rules which already match their declaration are skipped and only counted.
+ *
+ * @see AdvancedDatastore#ensureSchema()
+ * @since 1.5
+ */
+public class SchemaReport {
+    private final List<String> createdIndexes = new ArrayList<String>();
+    private final List<String> cappedCollections = new ArrayList<String>();
+    private final List<String> validatedCollections = new ArrayList<String>();
+    private int unchangedIndexes;
+    private int unchangedValidations;
+
+    /**
+     * @return the indexes created, as the namespace of the collection followed by the keys of the index
+     */
+    public synchronized List<String> getCreatedIndexes() {
+        return new ArrayList<String>(createdIndexes);
+    }
+
+    /**
+     * @return the names of the capped collections created
+     */
+    public synchronized List<String> getCappedCollections() {
+        return new ArrayList<String>(cappedCollections);
+    }
+
+    /**
+     * @return the names of the collections whose validation rules were updated, or which were created to hold them
+     */
+    public synchronized List<String> getValidatedCollections() {
+        return new ArrayList<String>(validatedCollections);
+    }
+
+    /**
+     * @return the number of declared indexes which already existed
+     */
+    public synchronized int getUnchangedIndexes() {
+        return unchangedIndexes;
+    }
+
+    /**
+     * @return the number of collections whose validation rules already matched their declaration
+     */
+    public synchronized int getUnchangedValidations() {
+        return unchangedValidations;
+    }
+
+    /**
+     * @return true if anything was changed on the server
+     */
+    public synchronized boolean hasChanges() {
+        return !createdIndexes.isEmpty() || !cappedCollections.isEmpty() || !validatedCollections.isEmpty();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("SchemaReport{createdIndexes=%s, cappedCollections=%s, validatedCollections=%s, unchangedIndexes=%d, "
+                             + "unchangedValidations=%d}", createdIndexes, cappedCollections, validatedCollections, unchangedIndexes,
+                             unchangedValidations);
+    }
+
+    synchronized void indexCreated(final String index) {
+        createdIndexes.add(index);
+    }
+
+    synchronized void indexUnchanged() {
+        unchangedIndexes++;
+    }
+
+    synchronized void cappedCollectionCreated(final String collection) {
+        cappedCollections.add(collection);
+    }
+
+    synchronized void validationUpdated(final String collection) {
+        validatedCollections.add(collection);
+    }
+
+    synchronized void validationUnchanged() {
+        unchangedValidations++;
+    }
+}
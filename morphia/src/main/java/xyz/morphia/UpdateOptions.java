@@ -48,12 +48,14 @@ public class UpdateOptions {
      * @return the copy
      */
     public UpdateOptions copy() {
-        return new UpdateOptions()
+        final UpdateOptions copy = new UpdateOptions()
             .bypassDocumentValidation(getBypassDocumentValidation())
             .collation(getCollation())
             .multi(isMulti())
             .upsert(isUpsert())
             .writeConcern(getWriteConcern());
+        copy.options.encoder(options.getEncoder());
+        return copy;
     }
 
     /**
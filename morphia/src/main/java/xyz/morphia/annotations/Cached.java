@@ -0,0 +1,29 @@
+package xyz.morphia.annotations;
+
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Marks an entity whose documents may be kept in the process wide cache when one is configured.  Only documents loaded to resolve a
+ * {@link Reference} are cached and every write made through the Datastore removes the documents it affects, but writes made by other
+ * processes are only seen once the cached document expires.
+ *
+ * @see xyz.morphia.mapping.cache.SharedEntityCacheFactory
+ * @since 1.5
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface Cached {
+    /**
+     * @return how many seconds a document of this type may be served from the cache, or -1 to use the default of the cache
+     */
+    long expireAfterSeconds() default -1;
+}
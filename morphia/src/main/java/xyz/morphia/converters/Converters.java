@@ -8,13 +8,11 @@ import xyz.morphia.mapping.Mapper;
 import xyz.morphia.mapping.MapperOptions;
 import xyz.morphia.mapping.MappingException;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static java.lang.String.format;
 
@@ -25,12 +23,14 @@ public abstract class Converters {
     private static final Logger LOG = LoggerFactory.getLogger(Converters.class);
 
     private final Mapper mapper;
-    private final List<TypeConverter> untypedTypeEncoders = new LinkedList<TypeConverter>();
+    private final List<TypeConverter> untypedTypeEncoders = new CopyOnWriteArrayList<TypeConverter>();
     private final Map<Class, List<TypeConverter>> tcMap = new ConcurrentHashMap<Class, List<TypeConverter>>();
-    private final List<Class<? extends TypeConverter>> registeredConverterClasses = new ArrayList<Class<? extends TypeConverter>>();
+    private final List<Class<? extends TypeConverter>> registeredConverterClasses =
+        new CopyOnWriteArrayList<Class<? extends TypeConverter>>();
 
-    private final Map<Class, TypeConverter> classConverterCache = new HashMap<Class, TypeConverter>();
-    private final Map<MappedField, TypeConverter> mfConverterCache = new HashMap<MappedField, TypeConverter>();
+    private final Map<Class, TypeConverter> classConverterCache = new ConcurrentHashMap<Class, TypeConverter>();
+    private final Map<MappedField, TypeConverter> mfConverterCache = new ConcurrentHashMap<MappedField, TypeConverter>();
+    private volatile int version;
 
     private static final TypeConverter CONVERTER_CACHE_NULL_PLACEHOLDER = new TypeConverter() {
         @Override
@@ -75,6 +75,7 @@ public abstract class Converters {
 
         registeredConverterClasses.add(tc.getClass());
         tc.setMapper(mapper);
+        changed();
 
         return tc;
     }
@@ -131,14 +132,27 @@ public abstract class Converters {
     public void fromDBObject(final DBObject dbObj, final MappedField mf, final Object targetEntity) {
         final Object object = mf.getDbObjectValue(dbObj);
         if (object != null) {
-            final TypeConverter enc = getEncoder(mf);
-            final Object decodedValue = enc.decode(mf.getType(), object, mf);
-            try {
-                mf.setFieldValue(targetEntity, decodedValue);
-            } catch (IllegalArgumentException e) {
-                throw new MappingException(format("Error setting value from converter (%s) for %s to %s",
-                                                  enc.getClass().getSimpleName(), mf.getFullName(), decodedValue), e);
-            }
+            fromValue(object, mf, targetEntity);
+        }
+    }
+
+    /**
+     * Decodes a value read from the database and stores it in a field of an entity.
+     *
+     * @param value        the value as read from the database
+     * @param mf           the MappedField containing the metadata to use when decoding in to a field
+     * @param targetEntity then entity to hold the state from the database
+     * @morphia.internal
+     * @since 1.5
+     */
+    public void fromValue(final Object value, final MappedField mf, final Object targetEntity) {
+        final TypeConverter enc = getEncoder(mf);
+        final Object decodedValue = enc.decode(mf.getType(), value, mf);
+        try {
+            mf.setFieldValue(targetEntity, decodedValue);
+        } catch (IllegalArgumentException e) {
+            throw new MappingException(format("Error setting value from converter (%s) for %s to %s",
+                                              enc.getClass().getSimpleName(), mf.getFullName(), decodedValue), e);
         }
     }
 
@@ -225,7 +239,15 @@ public abstract class Converters {
             }
             registeredConverterClasses.remove(tc.getClass());
         }
+        changed();
+    }
 
+    /**
+     * @return a counter which changes each time a converter is added or removed
+     * @morphia.internal
+     */
+    public int getVersion() {
+        return version;
     }
 
     /**
@@ -237,15 +259,26 @@ public abstract class Converters {
      * @param opts             the options to apply
      */
     public void toDBObject(final Object containingObject, final MappedField mf, final DBObject dbObj, final MapperOptions opts) {
-        final Object fieldValue = mf.getFieldValue(containingObject);
-        final TypeConverter enc = getEncoder(fieldValue, mf);
-
-        final Object encoded = enc.encode(fieldValue, mf);
+        final Object encoded = toValue(containingObject, mf);
         if (encoded != null || opts.isStoreNulls()) {
             dbObj.put(mf.getNameToStore(), encoded);
         }
     }
 
+    /**
+     * Encodes the value of a field of an entity
+     *
+     * @param containingObject the entity holding the field
+     * @param mf               the MappedField to extract
+     * @return the value to store in the database
+     * @morphia.internal
+     * @since 1.5
+     */
+    public Object toValue(final Object containingObject, final MappedField mf) {
+        final Object fieldValue = mf.getFieldValue(containingObject);
+        return getEncoder(fieldValue, mf).encode(fieldValue, mf);
+    }
+
     protected TypeConverter getEncoder(final Class c) {
         TypeConverter cached = classConverterCache.get(c);
         if (cached == null) {
@@ -308,12 +341,18 @@ public abstract class Converters {
             tcMap.get(type).add(0, tc);
             LOG.warn("Added duplicate converter for " + type + " ; " + tcMap.get(type));
         } else {
-            final List<TypeConverter> values = new ArrayList<TypeConverter>();
+            final List<TypeConverter> values = new CopyOnWriteArrayList<TypeConverter>();
             values.add(tc);
             tcMap.put(type, values);
         }
     }
 
+    private void changed() {
+        classConverterCache.clear();
+        mfConverterCache.clear();
+        version++;
+    }
+
     private TypeConverter getEncoder(final MappedField mf) {
         TypeConverter cached = mfConverterCache.get(mf);
         if (cached == null) {
@@ -0,0 +1,143 @@
+package xyz.morphia.instrumentation;
+
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * A MorphiaInstrumentation keeping a {@link LatencyHistogram} for each span, collection, entity type and query shape seen.
+ *
+ * <pre>
+ * HistogramInstrumentation instrumentation = new HistogramInstrumentation();
+ * datastore.setInstrumentation(instrumentation);
+ * ...
+ * for (Map.Entry&lt;HistogramInstrumentation.Label, LatencyHistogram&gt; entry : instrumentation.getHistograms().entrySet()) {
+ *     LOG.info(entry.getKey() + ": " + entry.getValue());
+ * }
+ * </pre>
+ *
+ * @since 1.5
+ */
+public class HistogramInstrumentation implements MorphiaInstrumentation {
+    private final ConcurrentMap<Label, LatencyHistogram> histograms = new ConcurrentHashMap<Label, LatencyHistogram>();
+
+    @Override
+    public void record(final Span span, final String collection, final Class<?> type, final String shape, final long nanos) {
+        final Label label = new Label(span, collection, type, shape);
+        LatencyHistogram histogram = histograms.get(label);
+        if (histogram == null) {
+            final LatencyHistogram created = new LatencyHistogram();
+            histogram = histograms.putIfAbsent(label, created);
+            if (histogram == null) {
+                histogram = created;
+            }
+        }
+        histogram.record(nanos);
+    }
+
+    /**
+     * Removes every histogram
+     */
+    public void clear() {
+        histograms.clear();
+    }
+
+    /**
+     * @param span the kind of work
+     * @return a histogram of every value recorded for the span whatever its labels
+     */
+    public LatencyHistogram getHistogram(final Span span) {
+        final LatencyHistogram merged = new LatencyHistogram();
+        for (final Map.Entry<Label, LatencyHistogram> entry : histograms.entrySet()) {
+            if (entry.getKey().getSpan() == span) {
+                merged.add(entry.getValue());
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * @return the histograms by their labels
+     */
+    public Map<Label, LatencyHistogram> getHistograms() {
+        return Collections.unmodifiableMap(new HashMap<Label, LatencyHistogram>(histograms));
+    }
+
+    /**
+     * The labels of a histogram
+     */
+    public static final class Label {
+        private final Span span;
+        private final String collection;
+        private final Class<?> type;
+        private final String shape;
+
+        private Label(final Span span, final String collection, final Class<?> type, final String shape) {
+            this.span = span;
+            this.collection = collection;
+            this.type = type;
+            this.shape = shape;
+        }
+
+        /**
+         * @return the collection, or null if it was not known
+         */
+        public String getCollection() {
+            return collection;
+        }
+
+        /**
+         * @return the query shape, or null if there was no query
+         */
+        public String getShape() {
+            return shape;
+        }
+
+        /**
+         * @return the kind of work
+         */
+        public Span getSpan() {
+            return span;
+        }
+
+        /**
+         * @return the entity type, or null if it was not known
+         */
+        public Class<?> getType() {
+            return type;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Label)) {
+                return false;
+            }
+            final Label that = (Label) o;
+            return span == that.span
+                   && (collection == null ? that.collection == null : collection.equals(that.collection))
+                   && type == that.type
+                   && (shape == null ? that.shape == null : shape.equals(that.shape));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = span.hashCode();
+            result = 31 * result + (collection != null ? collection.hashCode() : 0);
+            result = 31 * result + (type != null ? type.hashCode() : 0);
+            result = 31 * result + (shape != null ? shape.hashCode() : 0);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return span + " " + collection + " " + (type != null ? type.getSimpleName() : null) + " " + shape;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package xyz.morphia.instrumentation;
+
+
+/**
+ * Receives the time taken by the operations of a Datastore.  Implementations are called on the threads doing the work, often once per
+ * document read, so they need to be thread safe and cheap.
+ *
+ * @see xyz.morphia.Datastore#setInstrumentation(MorphiaInstrumentation)
+ * @see HistogramInstrumentation
+ * @since 1.5
+ */
+public interface MorphiaInstrumentation {
+    /**
+     * Records the time taken by a piece of work
+     *
+     * @param span       the kind of work
+     * @param collection the collection worked on, if known
+     * @param type       the entity type worked on, if known
+     * @param shape      the shape of the query filter as given by {@link QueryShape#of(com.mongodb.DBObject)}, if there is one
+     * @param nanos      the time taken in nanoseconds
+     */
+    void record(Span span, String collection, Class<?> type, String shape, long nanos);
+}
@@ -0,0 +1,84 @@
+package xyz.morphia.instrumentation;
+
+
+import com.mongodb.DBObject;
+
+import java.util.List;
+
+
+/**
+ * Describes query filters by their structure alone so that the timings of queries differing only in their values can be grouped.  The
+ * shape of {@code {name: "Bob", age: {$gt: 21}}} is {@code {name: ?, age: {$gt: ?}}}.
+ *
+ * @since 1.5
+ */
+public final class QueryShape {
+    private QueryShape() {
+    }
+
+    /**
+     * @param query the query filter
+     * @return the shape of the filter, or null if there is none
+     */
+    public static String of(final DBObject query) {
+        if (query == null) {
+            return null;
+        }
+        final StringBuilder builder = new StringBuilder();
+        append(builder, query);
+        return builder.toString();
+    }
+
+    private static void append(final StringBuilder builder, final Object value) {
+        if (value instanceof List) {
+            // the members of $and, $or and $nor are filters of their own while the lists of $in and the like are values
+            final List<?> list = (List<?>) value;
+            if (list.isEmpty() || !(list.get(0) instanceof DBObject)) {
+                builder.append('?');
+                return;
+            }
+            builder.append('[');
+            boolean first = true;
+            for (final Object each : list) {
+                if (!first) {
+                    builder.append(", ");
+                }
+                first = false;
+                append(builder, each);
+            }
+            builder.append(']');
+        } else if (value instanceof DBObject) {
+            builder.append('{');
+            boolean first = true;
+            for (final String key : ((DBObject) value).keySet()) {
+                if (!first) {
+                    builder.append(", ");
+                }
+                first = false;
+                builder.append(key).append(": ");
+                final Object field = ((DBObject) value).get(key);
+                if (field instanceof DBObject && (isOperator(key) || hasOperators((DBObject) field))) {
+                    append(builder, field);
+                } else {
+                    builder.append('?');
+                }
+            }
+            builder.append('}');
+        } else {
+            builder.append('?');
+        }
+    }
+
+    private static boolean hasOperators(final DBObject value) {
+        for (final String key : value.keySet()) {
+            if (isOperator(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isOperator(final String key) {
+        return key.startsWith("$");
+    }
+}
@@ -0,0 +1,39 @@
+package xyz.morphia.instrumentation;
+
+
+/**
+ * The kinds of work timed by a {@link MorphiaInstrumentation}
+ *
+ * @since 1.5
+ */
+public enum Span {
+    /**
+     * Building the filter, projection and options of a query and its driver cursor
+     */
+    BUILD_QUERY,
+    /**
+     * Reading the next document of a query from the driver, including any round trip to the server this takes
+     */
+    FETCH,
+    /**
+     * Decoding a document of a query to an entity, including the resolution of its eager references.  When references are batched this
+     * times each batch of documents.
+     */
+    DECODE,
+    /**
+     * Loading the documents of references to decode them
+     */
+    RESOLVE_REFERENCES,
+    /**
+     * Saving entities, whether by inserts, replacements or bulk writes
+     */
+    SAVE,
+    /**
+     * Updating the documents matching a query, including findAndModify
+     */
+    UPDATE,
+    /**
+     * Deleting the documents matching a query, including findAndDelete
+     */
+    DELETE
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package xyz.morphia.internal;
+
+import xyz.morphia.mapping.MappedClass;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache of resolved {@link PathTarget}s keyed by the root MappedClass, the untranslated path and whether names were validated.
+ * Only successful resolutions are cached.  Once the cache is full it is emptied and filled again, so paths which are built from data,
+ * e.g. map keys, can not grow it without bound.
+ *
+ * @since 1.5
+ * @morphia.internal
+ */
+public final class PathCache {
+    private static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final ConcurrentHashMap<CacheKey, PathTarget> targets = new ConcurrentHashMap<CacheKey, PathTarget>();
+    private final AtomicLong generation = new AtomicLong();
+    private final int maxSize;
+
+    /**
+     * Creates a cache holding up to 1024 paths
+     */
+    public PathCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a cache
+     *
+     * @param maxSize the maximum number of paths to hold
+     */
+    public PathCache(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Removes every path.  This must be called whenever the set of mapped classes changes since paths may resolve through subtypes.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        targets.clear();
+    }
+
+    /**
+     * @return a stamp to resolve a path with, and to {@link #put(MappedClass, String, boolean, PathTarget, long) put} it with after
+     */
+    long getGeneration() {
+        return generation.get();
+    }
+
+    int size() {
+        return targets.size();
+    }
+
+    PathTarget get(final MappedClass root, final String path, final boolean validateNames) {
+        return targets.get(new CacheKey(root, path, validateNames));
+    }
+
+    /**
+     * Caches a resolved path, unless the cache was cleared since the path started to resolve
+     */
+    void put(final MappedClass root, final String path, final boolean validateNames, final PathTarget target, final long stamp) {
+        if (targets.size() >= maxSize) {
+            targets.clear();
+        }
+        final CacheKey key = new CacheKey(root, path, validateNames);
+        targets.put(key, target);
+        if (generation.get() != stamp) {
+            targets.remove(key, target);
+        }
+    }
+
+    private static final class CacheKey {
+        private final MappedClass root;
+        private final String path;
+        private final boolean validateNames;
+
+        private CacheKey(final MappedClass root, final String path, final boolean validateNames) {
+            this.root = root;
+            this.path = path;
+            this.validateNames = validateNames;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            final CacheKey that = (CacheKey) o;
+            return root == that.root && validateNames == that.validateNames && path.equals(that.path);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(root);
+            result = 31 * result + path.hashCode();
+            result = 31 * result + (validateNames ? 1 : 0);
+            return result;
+        }
+    }
+}
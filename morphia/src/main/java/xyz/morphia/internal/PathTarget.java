@@ -35,7 +35,9 @@ import static xyz.morphia.internal.MorphiaUtils.join;
  */
 @SuppressWarnings("deprecation")
 public class PathTarget {
-    private final List<String> segments;
+    private final String path;
+    private List<String> segments;
+    private String translatedPath;
     private boolean validateNames;
     private int position;
     private Mapper mapper;
@@ -71,11 +73,15 @@ public class PathTarget {
      * @param path path
      */
     public PathTarget(final Mapper mapper, final MappedClass root, final String path, boolean validateNames) {
-        segments = asList(path.split("\\."));
+        this.path = path;
         this.root = root;
         this.mapper = mapper;
         this.validateNames = validateNames;
         resolved = path.startsWith("$");
+        if (resolved) {
+            segments = asList(path.split("\\."));
+            translatedPath = path;
+        }
     }
 
     private boolean hasNext() {
@@ -91,7 +97,7 @@ public class PathTarget {
         if (!resolved) {
             resolve();
         }
-        return join(segments, '.');
+        return translatedPath;
     }
 
     /**
@@ -111,13 +117,24 @@ public class PathTarget {
     }
 
     private void resolve() {
+        final long stamp = mapper.getPathCache().getGeneration();
+        final PathTarget cached = root != null ? mapper.getPathCache().get(root, path, validateNames) : null;
+        if (cached != null) {
+            segments = cached.segments;
+            translatedPath = cached.translatedPath;
+            target = cached.target;
+            resolved = true;
+            return;
+        }
+
+        segments = asList(path.split("\\."));
         context = this.root;
         position = 0;
         MappedField field = null;
         while (context != null && hasNext()) {
             String segment = next();
 
-            if ("$".equals(segment) || segment.matches("[0-9]+")) {  // array operator
+            if ("$".equals(segment) || isIndex(segment)) {  // array operator
                 if (!hasNext()) {
                     break;
                 }
@@ -140,7 +157,24 @@ public class PathTarget {
             }
         }
         target = field;
+        translatedPath = join(segments, '.');
         resolved = true;
+        if (root != null) {
+            mapper.getPathCache().put(root, path, validateNames, this, stamp);
+        }
+    }
+
+    private static boolean isIndex(final String segment) {
+        if (segment.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            final char c = segment.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
     }
 
     private void failValidation() {
@@ -173,6 +207,7 @@ public class PathTarget {
 
     @Override
     public String toString() {
-        return String.format("PathTarget{root=%s, segments=%s, target=%s}", root.getClazz().getSimpleName(), segments, target);
+        return String.format("PathTarget{root=%s, segments=%s, target=%s}", root.getClazz().getSimpleName(),
+                             segments != null ? segments : path, target);
     }
 }
@@ -0,0 +1,224 @@
+package xyz.morphia.mapping;
+
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+
+/**
+ * The members of a class as recorded at compile time by {@code xyz.morphia.processor.MetadataProcessor}.  The processor writes a
+ * properties resource for each entity it compiles, named after the class under {@link #RESOURCE_PREFIX}, listing the superclasses of
+ * the entity, the fields which may be persisted and the life cycle methods.  A MappedClass reads these rather than scanning every member
+ * of the class and its superclasses.
+ * <p>
+ * An index is only used if it was written by the same version of the processor and lists the superclasses the class has at runtime.
+ * Any member it lists which can not be found makes the class fall back to reflection as well.
+ *
+ * @morphia.internal
+ * @see MapperOptions#isMetadataIndex()
+ * @since 1.5
+ */
+public final class ClassMetadata {
+    /**
+     * The prefix of the name of the resource holding the index of a class, followed by the binary name of the class
+     */
+    public static final String RESOURCE_PREFIX = "META-INF/morphia/metadata/";
+    /**
+     * The version of the format of the index
+     */
+    public static final String VERSION = "1";
+    /**
+     * The key of the version of the format
+     */
+    public static final String VERSION_KEY = "version";
+    /**
+     * The key of the binary names of the class and its superclasses, up to but not including Object, separated by commas
+     */
+    public static final String HIERARCHY_KEY = "hierarchy";
+    /**
+     * The key of the fields which may be persisted, as {@code declaringClass#name} separated by commas, in the order of
+     * {@link xyz.morphia.utils.ReflectionUtils#getDeclaredAndInheritedFields(Class, boolean)}
+     */
+    public static final String FIELDS_KEY = "fields";
+    /**
+     * The key of the life cycle methods, as {@code annotation declaringClass#name(parameterType/parameterType)} separated by commas, in
+     * the order of {@link xyz.morphia.utils.ReflectionUtils#getDeclaredAndInheritedMethods(Class)}
+     */
+    public static final String LIFECYCLE_KEY = "lifecycle";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClassMetadata.class);
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<String, Class<?>>();
+
+    static {
+        for (final Class<?> type : new Class<?>[]{boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class,
+                                                  double.class}) {
+            PRIMITIVES.put(type.getName(), type);
+        }
+    }
+
+    private final List<Field> fields;
+    private final List<LifecycleMethod> lifecycleMethods;
+
+    private ClassMetadata(final List<Field> fields, final List<LifecycleMethod> lifecycleMethods) {
+        this.fields = Collections.unmodifiableList(fields);
+        this.lifecycleMethods = Collections.unmodifiableList(lifecycleMethods);
+    }
+
+    /**
+     * Loads the index of a class
+     *
+     * @param clazz the class
+     * @return the index, or null if there is none or it does not match the class
+     */
+    public static ClassMetadata load(final Class<?> clazz) {
+        final ClassLoader loader = clazz.getClassLoader();
+        if (loader == null) {
+            return null;
+        }
+        final InputStream in = loader.getResourceAsStream(RESOURCE_PREFIX + clazz.getName());
+        if (in == null) {
+            return null;
+        }
+        final Properties properties = new Properties();
+        try {
+            try {
+                properties.load(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not read the metadata index of " + clazz.getName() + ", mapping it by reflection", e);
+            return null;
+        }
+        return parse(clazz, properties);
+    }
+
+    static ClassMetadata parse(final Class<?> clazz, final Properties properties) {
+        if (!VERSION.equals(properties.getProperty(VERSION_KEY))) {
+            LOG.debug("The metadata index of " + clazz.getName() + " was written by another version, mapping it by reflection");
+            return null;
+        }
+
+        final Map<String, Class<?>> hierarchy = new HashMap<String, Class<?>>();
+        final List<String> names = new ArrayList<String>();
+        for (Class<?> type = clazz; type != null && type != Object.class; type = type.getSuperclass()) {
+            hierarchy.put(type.getName(), type);
+            names.add(type.getName());
+        }
+        if (!names.equals(split(properties.getProperty(HIERARCHY_KEY), ","))) {
+            LOG.debug("The metadata index of " + clazz.getName() + " lists other superclasses, mapping it by reflection");
+            return null;
+        }
+
+        try {
+            final List<Field> fields = new ArrayList<Field>();
+            for (final String member : split(properties.getProperty(FIELDS_KEY), ",")) {
+                final int hash = member.indexOf('#');
+                fields.add(declaringClass(hierarchy, member.substring(0, hash)).getDeclaredField(member.substring(hash + 1)));
+            }
+
+            final List<LifecycleMethod> methods = new ArrayList<LifecycleMethod>();
+            for (final String entry : split(properties.getProperty(LIFECYCLE_KEY), ",")) {
+                final int space = entry.indexOf(' ');
+                final int hash = entry.indexOf('#');
+                final int paren = entry.indexOf('(');
+                final List<String> parameterNames = split(entry.substring(paren + 1, entry.length() - 1), "/");
+                final Class<?>[] parameters = new Class<?>[parameterNames.size()];
+                for (int i = 0; i < parameters.length; i++) {
+                    parameters[i] = type(clazz, parameterNames.get(i));
+                }
+                final Method method = declaringClass(hierarchy, entry.substring(space + 1, hash))
+                                          .getDeclaredMethod(entry.substring(hash + 1, paren), parameters);
+                methods.add(new LifecycleMethod(type(clazz, entry.substring(0, space)).asSubclass(Annotation.class), method));
+            }
+            return new ClassMetadata(fields, methods);
+        } catch (NoSuchFieldException e) {
+            LOG.debug("The metadata index of " + clazz.getName() + " is out of date, mapping it by reflection", e);
+        } catch (NoSuchMethodException e) {
+            LOG.debug("The metadata index of " + clazz.getName() + " is out of date, mapping it by reflection", e);
+        } catch (ClassNotFoundException e) {
+            LOG.debug("The metadata index of " + clazz.getName() + " is out of date, mapping it by reflection", e);
+        } catch (RuntimeException e) {
+            LOG.warn("The metadata index of " + clazz.getName() + " can not be read, mapping it by reflection", e);
+        }
+        return null;
+    }
+
+    /**
+     * @return the fields which may be persisted, in the order they are mapped.  Fields which are static, transient or annotated with
+     * {@link xyz.morphia.annotations.Transient} are never listed.
+     */
+    public List<Field> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return the life cycle methods of the class and its superclasses, in the order they are called
+     */
+    public List<LifecycleMethod> getLifecycleMethods() {
+        return lifecycleMethods;
+    }
+
+    private static Class<?> declaringClass(final Map<String, Class<?>> hierarchy, final String name) throws ClassNotFoundException {
+        final Class<?> type = hierarchy.get(name);
+        if (type == null) {
+            throw new ClassNotFoundException(name);
+        }
+        return type;
+    }
+
+    private static Class<?> type(final Class<?> clazz, final String name) throws ClassNotFoundException {
+        final Class<?> primitive = PRIMITIVES.get(name);
+        return primitive != null ? primitive : Class.forName(name, false, clazz.getClassLoader());
+    }
+
+    private static List<String> split(final String value, final String separator) {
+        if (value == null || value.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<String> parts = new ArrayList<String>();
+        for (final String part : value.split(separator)) {
+            parts.add(part.trim());
+        }
+        return parts;
+    }
+
+    /**
+     * A method annotated with a life cycle annotation
+     */
+    public static final class LifecycleMethod {
+        private final Class<? extends Annotation> event;
+        private final Method method;
+
+        LifecycleMethod(final Class<? extends Annotation> event, final Method method) {
+            this.event = event;
+            this.method = method;
+        }
+
+        /**
+         * @return the life cycle annotation
+         */
+        public Class<? extends Annotation> getEvent() {
+            return event;
+        }
+
+        /**
+         * @return the method
+         */
+        public Method getMethod() {
+            return method;
+        }
+    }
+}
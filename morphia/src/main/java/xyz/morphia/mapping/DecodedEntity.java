@@ -0,0 +1,27 @@
+package xyz.morphia.mapping;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+
+/**
+ * A document read by an {@link EntityDecoder} along with the entity its scalar fields were already decoded into.  The document only holds
+ * the fields which still need mapping.
+ *
+ * @morphia.internal
+ */
+final class DecodedEntity extends BasicDBObject {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Object entity;
+
+    DecodedEntity(final Object entity, final DBObject document) {
+        this.entity = entity;
+        putAll(document);
+    }
+
+    Object getEntity() {
+        return entity;
+    }
+}
@@ -9,7 +9,9 @@ import xyz.morphia.annotations.ConstructorArgs;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -26,6 +28,9 @@ public class DefaultCreator implements ObjectFactory {
     private static final Logger LOG = LoggerFactory.getLogger(DefaultCreator.class);
 
     private Map<String, Class> classNameCache = new ConcurrentHashMap<String, Class>();
+    private final Map<Class, Constructor> noArgsConstructors = new ConcurrentHashMap<Class, Constructor>();
+    private final Set<Class> missingNoArgsConstructors = Collections.newSetFromMap(new ConcurrentHashMap<Class, Boolean>());
+    private final Map<List<Class>, Constructor> argsConstructors = new ConcurrentHashMap<List<Class>, Constructor>();
 
     private MapperOptions options = null;
 
@@ -44,16 +49,6 @@ public class DefaultCreator implements ObjectFactory {
         this.options = options;
     }
 
-    private static <T> Constructor<T> getNoArgsConstructor(final Class<T> type) {
-        try {
-            final Constructor<T> constructor = type.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            return constructor;
-        } catch (NoSuchMethodException e) {
-            throw new MappingException("No usable constructor for " + type.getName(), e);
-        }
-    }
-
     /**
      * @param clazz the Class of the type to create
      * @param <T>   the type of the class
@@ -69,7 +64,11 @@ public class DefaultCreator implements ObjectFactory {
     @SuppressWarnings("unchecked")
     public <T> T createInstance(final Class<T> clazz) {
         try {
-            return getNoArgsConstructor(clazz).newInstance();
+            final Constructor<T> constructor = getNoArgsConstructor(clazz);
+            if (constructor == null) {
+                throw new NoSuchMethodException(clazz.getName() + ".<init>()");
+            }
+            return constructor.newInstance();
         } catch (Exception e) {
             if (Collection.class.isAssignableFrom(clazz)) {
                 return (T) createList(null);
@@ -101,30 +100,43 @@ public class DefaultCreator implements ObjectFactory {
                 c = mf.getConcreteType();
             }
         }
+        final ConstructorArgs argAnn = mf.getAnnotation(ConstructorArgs.class);
+        if (argAnn != null && getNoArgsConstructor(c) == null) {
+            return createInstance(c, argAnn, dbObj);
+        }
         try {
             return createInstance(c, dbObj);
         } catch (RuntimeException e) {
-            final ConstructorArgs argAnn = mf.getAnnotation(ConstructorArgs.class);
             if (argAnn == null) {
                 throw e;
             }
-            //TODO: now that we have a mapper, get the arg types that way by getting the fields by name. + Validate names
-            final Object[] args = new Object[argAnn.value().length];
-            final Class[] argTypes = new Class[argAnn.value().length];
-            for (int i = 0; i < argAnn.value().length; i++) {
-                // TODO: run converters and stuff against these. Kinda like the List of List stuff,
-                // using a fake MappedField to hold the value
-                final Object val = dbObj.get(argAnn.value()[i]);
-                args[i] = val;
-                argTypes[i] = val.getClass();
-            }
-            try {
-                final Constructor constructor = c.getDeclaredConstructor(argTypes);
+            return createInstance(c, argAnn, dbObj);
+        }
+    }
+
+    private Object createInstance(final Class c, final ConstructorArgs argAnn, final DBObject dbObj) {
+        //TODO: now that we have a mapper, get the arg types that way by getting the fields by name. + Validate names
+        final Object[] args = new Object[argAnn.value().length];
+        final Class[] argTypes = new Class[argAnn.value().length + 1];
+        argTypes[0] = c;
+        for (int i = 0; i < argAnn.value().length; i++) {
+            // TODO: run converters and stuff against these. Kinda like the List of List stuff,
+            // using a fake MappedField to hold the value
+            final Object val = dbObj.get(argAnn.value()[i]);
+            args[i] = val;
+            argTypes[i + 1] = val.getClass();
+        }
+        try {
+            final List<Class> key = Arrays.asList(argTypes);
+            Constructor constructor = argsConstructors.get(key);
+            if (constructor == null) {
+                constructor = c.getDeclaredConstructor(Arrays.copyOfRange(argTypes, 1, argTypes.length));
                 constructor.setAccessible(true);
-                return constructor.newInstance(args);
-            } catch (Exception ex) {
-                throw new RuntimeException(ex);
+                argsConstructors.put(key, constructor);
             }
+            return constructor.newInstance(args);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
         }
     }
 
@@ -155,6 +167,28 @@ public class DefaultCreator implements ObjectFactory {
         return copy;
     }
 
+    /**
+     * Finds the no-arg constructor for a type.  The lookup, successful or not, is cached so each type is only resolved once.
+     *
+     * @param type the type to find the constructor for
+     * @param <T>  the type of the class
+     * @return the accessible constructor or null if the type has none
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Constructor<T> getNoArgsConstructor(final Class<T> type) {
+        Constructor<T> constructor = noArgsConstructors.get(type);
+        if (constructor == null && !missingNoArgsConstructors.contains(type)) {
+            try {
+                constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                noArgsConstructors.put(type, constructor);
+            } catch (NoSuchMethodException e) {
+                missingNoArgsConstructors.add(type);
+            }
+        }
+        return constructor;
+    }
+
     protected ClassLoader getClassLoaderForClass() {
         return Thread.currentThread().getContextClassLoader();
     }
@@ -191,7 +225,9 @@ public class DefaultCreator implements ObjectFactory {
      */
     private <T> T newInstance(final Constructor<T> tryMe, final Class<T> fallbackType) {
         if (tryMe != null) {
-            tryMe.setAccessible(true);
+            if (!tryMe.isAccessible()) {
+                tryMe.setAccessible(true);
+            }
             try {
                 return tryMe.newInstance();
             } catch (Exception e) {
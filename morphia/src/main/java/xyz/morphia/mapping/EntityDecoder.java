@@ -0,0 +1,152 @@
+package xyz.morphia.mapping;
+
+
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBCallback;
+import com.mongodb.DefaultDBDecoder;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+import java.util.Date;
+
+
+/**
+ * Decodes the documents of a query for an entity type straight from BSON.  Top level scalar values of simple fields are converted with the
+ * field's TypeConverter and set on a new instance of the entity as the bytes are read, so they never go through a DBObject.  The other
+ * fields, and the id, are collected in a DBObject as usual for {@link Mapper#fromDBObject(xyz.morphia.Datastore, Class, DBObject,
+ * xyz.morphia.mapping.cache.EntityCache)} to map into the same instance.
+ * <p>
+ * Documents are decoded in full as DBObjects when the type has {@link xyz.morphia.annotations.PreLoad} methods, the Mapper has
+ * interceptors or a custom ObjectFactory, or a document turns out to be of another type.
+ *
+ * @morphia.internal
+ * @see EntityDecoderFactory
+ */
+class EntityDecoder extends DefaultDBDecoder {
+    private final Mapper mapper;
+    private final Class<?> type;
+
+    EntityDecoder(final Mapper mapper, final Class<?> type) {
+        this.mapper = mapper;
+        this.type = type;
+    }
+
+    @Override
+    public DBObject decode(final byte[] bytes, final DBCollection collection) {
+        final MappingPlan plan = mapper.getPlan(mapper.getMappedClass(type));
+        if (!plan.canDecodeDirectly() || !mapper.getInterceptors().isEmpty()
+            || mapper.getOptions().getObjectFactory().getClass() != DefaultCreator.class) {
+            return super.decode(bytes, collection);
+        }
+
+        final EntityCallback callback = new EntityCallback(collection, plan);
+        decode(bytes, callback);
+        if (callback.mismatched) {
+            return super.decode(bytes, collection);
+        }
+        final DBObject document = (DBObject) callback.get();
+        return callback.entity != null ? new DecodedEntity(callback.entity, document) : document;
+    }
+
+    private class EntityCallback extends DefaultDBCallback {
+        private final MappingPlan plan;
+        private final String discriminatorField;
+        private Object entity;
+        private boolean mismatched;
+
+        EntityCallback(final DBCollection collection, final MappingPlan plan) {
+            super(collection);
+            this.plan = plan;
+            discriminatorField = mapper.getOptions().getDiscriminatorField();
+        }
+
+        @Override
+        public void gotBoolean(final String name, final boolean value) {
+            if (!read(name, value)) {
+                super.gotBoolean(name, value);
+            }
+        }
+
+        @Override
+        public void gotDate(final String name, final long millis) {
+            if (isDirect(name)) {
+                read(name, new Date(millis));
+            } else {
+                super.gotDate(name, millis);
+            }
+        }
+
+        @Override
+        public void gotDecimal128(final String name, final Decimal128 value) {
+            if (!read(name, value)) {
+                super.gotDecimal128(name, value);
+            }
+        }
+
+        @Override
+        public void gotDouble(final String name, final double value) {
+            if (!read(name, value)) {
+                super.gotDouble(name, value);
+            }
+        }
+
+        @Override
+        public void gotInt(final String name, final int value) {
+            if (!read(name, value)) {
+                super.gotInt(name, value);
+            }
+        }
+
+        @Override
+        public void gotLong(final String name, final long value) {
+            if (!read(name, value)) {
+                super.gotLong(name, value);
+            }
+        }
+
+        @Override
+        public void gotNull(final String name) {
+            // a null leaves the field as it is, just as the DBObject path does
+            if (!isDirect(name)) {
+                super.gotNull(name);
+            }
+        }
+
+        @Override
+        public void gotObjectId(final String name, final ObjectId id) {
+            if (!read(name, id)) {
+                super.gotObjectId(name, id);
+            }
+        }
+
+        @Override
+        public void gotString(final String name, final String value) {
+            if (name.equals(discriminatorField) && isTopLevel() && !value.equals(type.getName())) {
+                mismatched = true;
+            }
+            if (!read(name, value)) {
+                super.gotString(name, value);
+            }
+        }
+
+        private boolean isDirect(final String name) {
+            return !mismatched && isTopLevel() && plan.getDirectRead(name) != null;
+        }
+
+        private boolean isTopLevel() {
+            return cur() == get();
+        }
+
+        private boolean read(final String name, final Object value) {
+            if (!isDirect(name)) {
+                return false;
+            }
+            if (entity == null) {
+                entity = mapper.getOptions().getObjectFactory().createInstance(type);
+            }
+            mapper.getConverters().fromValue(value, plan.getDirectRead(name), entity);
+            return true;
+        }
+    }
+}
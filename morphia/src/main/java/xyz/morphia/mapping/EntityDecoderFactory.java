@@ -0,0 +1,55 @@
+package xyz.morphia.mapping;
+
+
+import com.mongodb.DBDecoder;
+import com.mongodb.DBDecoderFactory;
+import com.mongodb.DefaultDBDecoder;
+
+
+/**
+ * A DBDecoderFactory which lets queries decode their documents straight into entities.  By default the driver decodes every document into
+ * a tree of DBObjects which the Mapper then walks to fill in the entity.  With this factory the scalar fields of an entity are set as the
+ * BSON is read and only the remaining fields, such as embedded entities, references and collections, are decoded into DBObjects.
+ *
+ * <pre>
+ * datastore.setDecoderFact(new EntityDecoderFactory(datastore.getMapper()));
+ * </pre>
+ * <p>
+ * Documents read by other means, such as through {@link com.mongodb.DBCollection}, are decoded as usual.  The DBObjects a query reads,
+ * as seen through {@link xyz.morphia.query.MorphiaIterator#getCursor()} for instance, only hold the fields which were not decoded
+ * directly.
+ *
+ * @see xyz.morphia.AdvancedDatastore#setDecoderFact(DBDecoderFactory)
+ * @since 1.5
+ */
+public class EntityDecoderFactory implements DBDecoderFactory {
+    private final Mapper mapper;
+
+    /**
+     * Creates a factory
+     *
+     * @param mapper the Mapper of the Datastore using the factory
+     */
+    public EntityDecoderFactory(final Mapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public DBDecoder create() {
+        return new DefaultDBDecoder();
+    }
+
+    /**
+     * @param type the entity type read by a query
+     * @return a factory of decoders for the documents of the query
+     * @morphia.internal
+     */
+    public DBDecoderFactory forType(final Class<?> type) {
+        return new DBDecoderFactory() {
+            @Override
+            public DBDecoder create() {
+                return new EntityDecoder(mapper, type);
+            }
+        };
+    }
+}
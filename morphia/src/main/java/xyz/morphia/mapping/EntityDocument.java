@@ -0,0 +1,35 @@
+package xyz.morphia.mapping;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+import java.util.Map;
+
+
+/**
+ * Stands in for the document of an entity which an {@link EntityEncoder} writes straight from the entity's fields.  The document itself
+ * only holds the values put in it after the entity was mapped, such as its id, a new version or an id generated by the driver, and these
+ * take the place of the values of the entity's fields.
+ *
+ * @morphia.internal
+ */
+final class EntityDocument extends BasicDBObject {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Object entity;
+    private final transient Map<Object, DBObject> involvedObjects;
+
+    EntityDocument(final Object entity, final Map<Object, DBObject> involvedObjects) {
+        this.entity = entity;
+        this.involvedObjects = involvedObjects;
+    }
+
+    Object getEntity() {
+        return entity;
+    }
+
+    Map<Object, DBObject> getInvolvedObjects() {
+        return involvedObjects;
+    }
+}
@@ -0,0 +1,178 @@
+package xyz.morphia.mapping;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBEncoder;
+import org.bson.BSONObject;
+import org.bson.BsonBinaryWriter;
+import org.bson.io.OutputBuffer;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.converters.Converters;
+
+import java.util.Arrays;
+import java.util.Map;
+
+
+/**
+ * Encodes the {@link EntityDocument}s of saved and inserted entities straight to BSON.  Simple values are converted with the field's
+ * TypeConverter and written as they are read from the entity, and embedded values, on their own or in collections and arrays, are written
+ * field by field in the same way, so none of them go through a DBObject.  Maps, references, values with a DBObject converter and fields
+ * with a custom mapper are converted to DBObjects as usual before being written.  Any other document is encoded as a DBObject.
+ * <p>
+ * A single embedded value is only written directly if its class name is stored or {@link MapperOptions#isStoreEmpties()} is set, as an
+ * empty embedded document is otherwise left out and that is only known once it has been written.
+ *
+ * @morphia.internal
+ * @see Mapper#createEncoder()
+ */
+class EntityEncoder extends DefaultDBEncoder {
+    // stands in for the document an embedded value is converted to when deciding whether to keep its class name
+    private static final DBObject EMBEDDED_DOCUMENT = new BasicDBObject();
+
+    private final Mapper mapper;
+    private final BasicDBObject scratch = new BasicDBObject();
+
+    EntityEncoder(final Mapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public int writeObject(final OutputBuffer buffer, final BSONObject document) {
+        if (!(document instanceof EntityDocument)) {
+            return super.writeObject(buffer, document);
+        }
+
+        final EntityDocument entityDocument = (EntityDocument) document;
+        final Object entity = entityDocument.getEntity();
+        set(buffer);
+        try {
+            final int start = buffer.getPosition();
+            writeEntity(entity, entityDocument, storesClassName(mapper.getMappedClass(entity)), entityDocument.getInvolvedObjects());
+            return buffer.getPosition() - start;
+        } finally {
+            done();
+        }
+    }
+
+    private void writeEntity(final Object entity, final DBObject values, final boolean className,
+                             final Map<Object, DBObject> involvedObjects) {
+        final BsonBinaryWriter writer = getBsonWriter();
+        writer.writeStartDocument();
+        if (values != null) {
+            if (values.containsField(Mapper.ID_KEY)) {
+                _putObjectField(Mapper.ID_KEY, values.get(Mapper.ID_KEY));
+            }
+            for (final String key : values.keySet()) {
+                if (!key.equals(Mapper.ID_KEY)) {
+                    _putObjectField(key, values.get(key));
+                }
+            }
+        }
+        if (className) {
+            putString(mapper.getOptions().getDiscriminatorField(), entity.getClass().getName());
+        }
+
+        for (final MappingPlan.FieldPlan field : mapper.getPlan(mapper.getMappedClass(entity)).getWrites()) {
+            final MappedField mf = field.getMappedField();
+            if (values == null || !values.containsField(mf.getNameToStore())) {
+                try {
+                    writeField(entity, field, involvedObjects);
+                } catch (Exception e) {
+                    throw new MappingException("Error mapping field:" + mf.getFullName(), e);
+                }
+            }
+        }
+        writer.writeEndDocument();
+    }
+
+    private void writeField(final Object entity, final MappingPlan.FieldPlan field, final Map<Object, DBObject> involvedObjects) {
+        final MappedField mf = field.getMappedField();
+        final CustomMapper fieldMapper = field.getWriteMapper(mapper.getOptions(), mapper.getConverters(), entity);
+        if (fieldMapper.getClass() == ValueMapper.class) {
+            final Object value = mapper.getConverters().toValue(entity, mf);
+            if (value != null || mapper.getOptions().isStoreNulls()) {
+                _putObjectField(mf.getNameToStore(), value);
+            }
+        } else if (fieldMapper.getClass() != EmbeddedMapper.class || !writeEmbedded(entity, mf, involvedObjects)) {
+            fieldMapper.toDBObject(entity, mf, scratch, involvedObjects, mapper);
+            for (final String key : scratch.keySet()) {
+                _putObjectField(key, scratch.get(key));
+            }
+            scratch.clear();
+        }
+    }
+
+    /**
+     * Writes an embedded field the way the EmbeddedMapper would convert it
+     *
+     * @return false if the field needs to go through the EmbeddedMapper
+     */
+    private boolean writeEmbedded(final Object entity, final MappedField mf, final Map<Object, DBObject> involvedObjects) {
+        final Converters converters = mapper.getConverters();
+        if (mf.isMap() || converters.hasDbObjectConverter(mf) || converters.hasDbObjectConverter(entity.getClass())) {
+            return false;
+        }
+
+        final Object value = mf.getFieldValue(entity);
+        if (value == null) {
+            return true;
+        }
+        final BsonBinaryWriter writer = getBsonWriter();
+        if (mf.isMultipleValues()) {
+            final Iterable<?> values = mf.isArray() ? Arrays.asList((Object[]) value) : (Iterable<?>) value;
+            boolean empty = true;
+            for (final Object element : values) {
+                if (element != null && !isSimpleValue(mf, element) && !canWrite(element)) {
+                    return false;
+                }
+                empty = false;
+            }
+            if (empty && !mapper.getOptions().isStoreEmpties()) {
+                return true;
+            }
+
+            writer.writeStartArray(mf.getNameToStore());
+            for (final Object element : values) {
+                if (element == null) {
+                    writer.writeNull();
+                } else if (isSimpleValue(mf, element)) {
+                    _putObjectField(mf.getNameToStore(), converters.encode(element));
+                } else {
+                    writeEntity(element, null, storesClassName(element, mf), involvedObjects);
+                }
+            }
+            writer.writeEndArray();
+        } else {
+            if (!canWrite(value)) {
+                return false;
+            }
+            final boolean className = storesClassName(value, mf);
+            if (!className && !mapper.getOptions().isStoreEmpties()) {
+                return false;
+            }
+            writer.writeName(mf.getNameToStore());
+            writeEntity(value, null, className, involvedObjects);
+        }
+        return true;
+    }
+
+    private boolean canWrite(final Object value) {
+        return !(value instanceof Iterable) && !(value instanceof Map)
+               && mapper.getPlan(mapper.getMappedClass(value)).canEncodeDirectly();
+    }
+
+    private boolean isSimpleValue(final MappedField mf, final Object value) {
+        final Converters converters = mapper.getConverters();
+        return converters.hasSimpleValueConverter(mf) || converters.hasSimpleValueConverter(value.getClass());
+    }
+
+    private boolean storesClassName(final Object value, final MappedField mf) {
+        return storesClassName(mapper.getMappedClass(value)) && EmbeddedMapper.shouldSaveClassName(value, EMBEDDED_DOCUMENT, mf);
+    }
+
+    private static boolean storesClassName(final MappedClass mc) {
+        final Entity entity = mc.getEntityAnnotation();
+        return entity == null || !entity.noClassnameStored();
+    }
+}
@@ -0,0 +1,239 @@
+package xyz.morphia.mapping;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBEncoder;
+import org.bson.BSONObject;
+import org.bson.BasicBSONDecoder;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Remembers the document each entity was loaded from, or last saved as, so that saving the entity again only sends the fields which
+ * changed since.  A document is held as the BSON it encodes to, and only for as long as its entity is reachable.
+ *
+ * @morphia.internal
+ * @see MapperOptions#isDirtyTracking()
+ * @since 1.5
+ */
+public class EntitySnapshots {
+    private static final String ID_KEY = "_id";
+
+    private final Map<IdentityKey, byte[]> snapshots = new HashMap<IdentityKey, byte[]>();
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+    /**
+     * Remembers the persisted state of an entity
+     *
+     * @param entity   the entity
+     * @param document the document the entity was loaded from or saved as
+     */
+    public void put(final Object entity, final DBObject document) {
+        final byte[] bson = new DefaultDBEncoder().encode(document);
+        synchronized (snapshots) {
+            expunge();
+            snapshots.put(new IdentityKey(entity, queue), bson);
+        }
+    }
+
+    /**
+     * Forgets the persisted state of an entity
+     *
+     * @param entity the entity
+     */
+    public void remove(final Object entity) {
+        synchronized (snapshots) {
+            expunge();
+            snapshots.remove(new IdentityKey(entity, null));
+        }
+    }
+
+    /**
+     * @param entity the entity
+     * @return true if the persisted state of the entity is known
+     */
+    public boolean contains(final Object entity) {
+        synchronized (snapshots) {
+            expunge();
+            return snapshots.containsKey(new IdentityKey(entity, null));
+        }
+    }
+
+    /**
+     * @return the number of entities whose persisted state is known
+     */
+    public int size() {
+        synchronized (snapshots) {
+            expunge();
+            return snapshots.size();
+        }
+    }
+
+    /**
+     * Computes the update turning the persisted state of an entity into its current state.  Embedded documents are compared field by
+     * field so that only the paths which changed are set.  The _id field is never part of the update.
+     *
+     * @param entity   the entity
+     * @param document the current state of the entity, as given by {@link Mapper#toDBObject(Object)}
+     * @return the update, with a $set and a $unset operator if there is anything to set or unset, or null if the persisted state of the
+     * entity is not known
+     */
+    public DBObject diff(final Object entity, final DBObject document) {
+        final byte[] bson;
+        synchronized (snapshots) {
+            expunge();
+            bson = snapshots.get(new IdentityKey(entity, null));
+        }
+        if (bson == null) {
+            return null;
+        }
+
+        final BasicBSONDecoder decoder = new BasicBSONDecoder();
+        final BSONObject persisted = decoder.readObject(bson);
+        // the current state goes through the same encoding to compare values of the same types
+        final BSONObject current = decoder.readObject(new DefaultDBEncoder().encode(document));
+        persisted.removeField(ID_KEY);
+        current.removeField(ID_KEY);
+
+        final BasicDBObject set = new BasicDBObject();
+        final BasicDBObject unset = new BasicDBObject();
+        diff(persisted, current, document, "", set, unset);
+
+        final BasicDBObject update = new BasicDBObject();
+        if (!set.isEmpty()) {
+            update.put("$set", set);
+        }
+        if (!unset.isEmpty()) {
+            update.put("$unset", unset);
+        }
+        return update;
+    }
+
+    private void diff(final BSONObject persisted, final BSONObject current, final Object values, final String prefix,
+                      final BasicDBObject set, final BasicDBObject unset) {
+        for (final String key : current.keySet()) {
+            final String path = prefix + key;
+            final Object value = current.get(key);
+            final Object old = persisted.get(key);
+            if (!persisted.containsField(key)) {
+                set.put(path, get(values, key));
+            } else if (isDocument(value) && isDocument(old) && hasPlainKeys((BSONObject) value) && hasPlainKeys((BSONObject) old)) {
+                diff((BSONObject) old, (BSONObject) value, get(values, key), path + ".", set, unset);
+            } else if (!same(old, value)) {
+                set.put(path, get(values, key));
+            }
+        }
+        for (final String key : persisted.keySet()) {
+            if (!current.containsField(key)) {
+                unset.put(prefix + key, "");
+            }
+        }
+    }
+
+    private void expunge() {
+        Reference<?> reference;
+        while ((reference = queue.poll()) != null) {
+            snapshots.remove(reference);
+        }
+    }
+
+    private static Object get(final Object document, final String key) {
+        if (document instanceof BSONObject) {
+            return ((BSONObject) document).get(key);
+        }
+        return document instanceof Map ? ((Map) document).get(key) : null;
+    }
+
+    private static boolean isDocument(final Object value) {
+        return value instanceof BSONObject && !(value instanceof List);
+    }
+
+    /**
+     * @return true if every key of a document can be part of a dotted path
+     */
+    private static boolean hasPlainKeys(final BSONObject document) {
+        for (final String key : document.keySet()) {
+            if (key.contains(".") || key.startsWith("$")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares two decoded values, in order for documents
+     */
+    private static boolean same(final Object old, final Object value) {
+        if (old == null || value == null) {
+            return old == value;
+        }
+        if (old instanceof byte[] && value instanceof byte[]) {
+            return Arrays.equals((byte[]) old, (byte[]) value);
+        }
+        if (old instanceof List && value instanceof List) {
+            final List<?> oldValues = (List<?>) old;
+            final List<?> values = (List<?>) value;
+            if (oldValues.size() != values.size()) {
+                return false;
+            }
+            for (int i = 0; i < values.size(); i++) {
+                if (!same(oldValues.get(i), values.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (isDocument(old) && isDocument(value)) {
+            final List<String> oldKeys = new ArrayList<String>(((BSONObject) old).keySet());
+            final List<String> keys = new ArrayList<String>(((BSONObject) value).keySet());
+            if (!oldKeys.equals(keys)) {
+                return false;
+            }
+            for (final String key : keys) {
+                if (!same(((BSONObject) old).get(key), ((BSONObject) value).get(key))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return old.equals(value);
+    }
+
+    /**
+     * A weak reference to an entity, equal to any other reference to the same instance
+     */
+    private static final class IdentityKey extends WeakReference<Object> {
+        private final int hash;
+
+        private IdentityKey(final Object entity, final ReferenceQueue<Object> queue) {
+            super(entity, queue);
+            hash = System.identityHashCode(entity);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof IdentityKey)) {
+                return false;
+            }
+            final Object entity = get();
+            return entity != null && entity == ((IdentityKey) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
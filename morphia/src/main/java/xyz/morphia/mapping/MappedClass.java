@@ -21,6 +21,7 @@ import com.mongodb.DBObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import xyz.morphia.EntityInterceptor;
+import xyz.morphia.ObjectFactory;
 import xyz.morphia.annotations.Converters;
 import xyz.morphia.annotations.Embedded;
 import xyz.morphia.annotations.Entity;
@@ -123,6 +124,10 @@ public class MappedClass {
     private MapperOptions mapperOptions;
     private MappedClass superClass;
     private List<MappedClass> interfaces = new ArrayList<MappedClass>();
+    /**
+     * lookups of the persistence fields by name and annotation
+     */
+    private volatile FieldIndex fieldIndex = new FieldIndex(Collections.<MappedField>emptyList());
 
     /**
      * Creates a MappedClass instance
@@ -157,6 +162,17 @@ public class MappedClass {
         return superClass;
     }
 
+    /**
+     * This is an internal method subject to change without notice.
+     *
+     * @return the interfaces directly implemented by this type
+     *
+     * @since 1.5
+     */
+    public List<MappedClass> getInterfaces() {
+        return Collections.unmodifiableList(interfaces);
+    }
+
 
     /**
      * @return true if the MappedClass is an interface
@@ -244,38 +260,33 @@ public class MappedClass {
     public DBObject callLifecycleMethods(final Class<? extends Annotation> event, final Object entity, final DBObject dbObj,
                                          final Mapper mapper) {
         final List<ClassMethodPair> methodPairs = getLifecycleMethods((Class<Annotation>) event);
+        if (methodPairs == null && mapper.getInterceptors().isEmpty()) {
+            return dbObj;
+        }
+
         DBObject retDbObj = dbObj;
         try {
             Object tempObj;
             if (methodPairs != null) {
-                final HashMap<Class<?>, Object> toCall = new HashMap<Class<?>, Object>((int) (methodPairs.size() * 1.3));
-                for (final ClassMethodPair cm : methodPairs) {
-                    toCall.put(cm.clazz, null);
-                }
-                for (final Class<?> c : toCall.keySet()) {
-                    if (c != null) {
-                        toCall.put(c, getOrCreateInstance(c, mapper));
-                    }
-                }
-
-                for (final ClassMethodPair cm : methodPairs) {
+                final boolean debug = LOG.isDebugEnabled();
+                for (int i = 0; i < methodPairs.size(); i++) {
+                    final ClassMethodPair cm = methodPairs.get(i);
                     final Method method = cm.method;
-                    final Object inst = toCall.get(cm.clazz);
-                    method.setAccessible(true);
+                    final Object inst = cm.clazz == null ? null : getListener(cm, mapper);
 
-                    if (LOG.isDebugEnabled()) {
+                    if (debug) {
                         LOG.debug(format("Calling lifecycle method(@%s %s) on %s", event.getSimpleName(), method, inst));
                     }
 
                     if (inst == null) {
-                        if (method.getParameterTypes().length == 0) {
+                        if (cm.parameterCount == 0) {
                             tempObj = method.invoke(entity);
                         } else {
                             tempObj = method.invoke(entity, retDbObj);
                         }
-                    } else if (method.getParameterTypes().length == 0) {
+                    } else if (cm.parameterCount == 0) {
                         tempObj = method.invoke(inst);
-                    } else if (method.getParameterTypes().length == 1) {
+                    } else if (cm.parameterCount == 1) {
                         tempObj = method.invoke(inst, entity);
                     } else {
                         tempObj = method.invoke(inst, entity, retDbObj);
@@ -365,16 +376,11 @@ public class MappedClass {
      * Returns fields annotated with the clazz
      *
      * @param clazz The Annotation to find.
-     * @return the list of fields
+     * @return the unmodifiable list of fields
      */
     public List<MappedField> getFieldsAnnotatedWith(final Class<? extends Annotation> clazz) {
-        final List<MappedField> results = new ArrayList<MappedField>();
-        for (final MappedField mf : persistenceFields) {
-            if (mf.hasAnnotation(clazz)) {
-                results.add(mf);
-            }
-        }
-        return results;
+        final List<MappedField> fields = getFieldIndex().byAnnotation.get(clazz);
+        return fields != null ? fields : Collections.<MappedField>emptyList();
     }
 
     /**
@@ -412,15 +418,7 @@ public class MappedClass {
      * @return true if that mapped field name is found
      */
     public MappedField getMappedField(final String storedName) {
-        for (final MappedField mf : persistenceFields) {
-            for (final String n : mf.getLoadNames()) {
-                if (storedName.equals(n)) {
-                    return mf;
-                }
-            }
-        }
-
-        return null;
+        return getFieldIndex().byLoadName.get(storedName);
     }
 
     /**
@@ -430,13 +428,7 @@ public class MappedClass {
      * @return the MappedField for the named Java field
      */
     public MappedField getMappedFieldByJavaField(final String name) {
-        for (final MappedField mf : persistenceFields) {
-            if (name.equals(mf.getJavaFieldName())) {
-                return mf;
-            }
-        }
-
-        return null;
+        return getFieldIndex().byJavaName.get(name);
     }
 
     /**
@@ -499,10 +491,11 @@ public class MappedClass {
     }
 
     /**
-     * Update mappings based on fields/annotations.
+     * Update mappings based on fields/annotations.  This must be called after changing the annotations of the persistence fields.
      */
     // TODO: Remove this and make these fields dynamic or auto-set some other way
     public void update() {
+        fieldIndex = new FieldIndex(persistenceFields);
         embeddedAn = (Embedded) getAnnotation(Embedded.class);
         entityAn = (Entity) getFirstAnnotation(Entity.class);
         // polymorphicAn = (Polymorphic) getAnnotation(Polymorphic.class);
@@ -552,7 +545,14 @@ public class MappedClass {
             Collections.addAll(lifecycleClasses, entityLisAnn.value());
         }
 
+        final ClassMetadata metadata = mapper.getOptions().isMetadataIndex() ? ClassMetadata.load(clazz) : null;
         for (final Class<?> cls : lifecycleClasses) {
+            if (metadata != null && cls.equals(clazz)) {
+                for (final ClassMetadata.LifecycleMethod method : metadata.getLifecycleMethods()) {
+                    addLifecycleEventMethod(method.getEvent(), method.getMethod(), null);
+                }
+                continue;
+            }
             for (final Method m : ReflectionUtils.getDeclaredAndInheritedMethods(cls)) {
                 for (final Class<? extends Annotation> c : LIFECYCLE_ANNOTATIONS) {
                     if (m.isAnnotationPresent(c)) {
@@ -564,7 +564,9 @@ public class MappedClass {
 
         update();
 
-        for (final java.lang.reflect.Field field : ReflectionUtils.getDeclaredAndInheritedFields(clazz, true)) {
+        final List<java.lang.reflect.Field> fields = metadata != null ? metadata.getFields()
+                                                                      : asList(ReflectionUtils.getDeclaredAndInheritedFields(clazz, true));
+        for (final java.lang.reflect.Field field : fields) {
             field.setAccessible(true);
             final int fieldMods = field.getModifiers();
             if (!isIgnorable(field, fieldMods, mapper)) {
@@ -588,6 +590,7 @@ public class MappedClass {
                 }
             }
         }
+        fieldIndex = new FieldIndex(persistenceFields);
     }
 
     /**
@@ -632,21 +635,35 @@ public class MappedClass {
         }
     }
 
-    private Object getOrCreateInstance(final Class<?> clazz, final Mapper mapper) {
-        if (mapper.getInstanceCache().containsKey(clazz)) {
-            return mapper.getInstanceCache().get(clazz);
+    /**
+     * Looks up the entity listener instance a lifecycle method runs on.  The instance is kept for as long as the ObjectFactory which
+     * created it is in use, and replaced by one from the new factory otherwise.
+     */
+    private Object getListener(final ClassMethodPair cm, final Mapper mapper) {
+        final ObjectFactory factory = mapper.getOptions().getObjectFactory();
+        final Listener listener = cm.listener;
+        if (listener != null && listener.factory == factory) {
+            return listener.instance;
         }
 
-        final Object o = mapper.getOptions().getObjectFactory().createInstance(clazz);
-        final Object nullO = mapper.getInstanceCache().put(clazz, o);
-        if (nullO != null) {
-            if (LOG.isErrorEnabled()) {
-                LOG.error("Race-condition, created duplicate class: " + clazz);
-            }
+        // the other lifecycle methods of the listener share the instance, unless it came from a factory no longer used
+        Object instance = mapper.getInstanceCache().get(cm.clazz);
+        if (instance == null || listener != null && instance == listener.instance) {
+            instance = factory.createInstance(cm.clazz);
+            mapper.getInstanceCache().put(cm.clazz, instance);
         }
+        cm.listener = new Listener(factory, instance);
+        return instance;
+    }
 
-        return o;
-
+    private FieldIndex getFieldIndex() {
+        FieldIndex index = fieldIndex;
+        if (index.fieldCount != persistenceFields.size()) {
+            // the fields were added to or removed from directly
+            index = new FieldIndex(persistenceFields);
+            fieldIndex = index;
+        }
+        return index;
     }
 
     private boolean isIgnorable(final java.lang.reflect.Field field, final int fieldMods, final Mapper mapper) {
@@ -656,14 +673,71 @@ public class MappedClass {
                || mapper.getOptions().isIgnoreFinals() && Modifier.isFinal(fieldMods);
     }
 
+    /**
+     * A lifecycle method, resolved once when the class is mapped.  The instance of an entity listener is looked up on first use and kept
+     * along with the ObjectFactory it came from.
+     */
     private static class ClassMethodPair {
         private final Class<?> clazz;
         private final Method method;
+        private final int parameterCount;
+        private volatile Listener listener;
 
         ClassMethodPair(final Class<?> c, final Method m) {
             clazz = c;
             method = m;
+            parameterCount = m.getParameterTypes().length;
+            m.setAccessible(true);
+        }
+    }
+
+    /**
+     * An entity listener instance and the ObjectFactory which created it
+     */
+    private static final class Listener {
+        private final ObjectFactory factory;
+        private final Object instance;
+
+        private Listener(final ObjectFactory factory, final Object instance) {
+            this.factory = factory;
+            this.instance = instance;
         }
     }
 
+    /**
+     * Hash lookups of the persistence fields.  Where more than one field matches, the first in field order wins, as it did when the fields
+     * were scanned.
+     */
+    private static final class FieldIndex {
+        private final int fieldCount;
+        private final Map<String, MappedField> byLoadName = new HashMap<String, MappedField>();
+        private final Map<String, MappedField> byJavaName = new HashMap<String, MappedField>();
+        private final Map<Class<? extends Annotation>, List<MappedField>> byAnnotation =
+            new HashMap<Class<? extends Annotation>, List<MappedField>>();
+
+        private FieldIndex(final List<MappedField> fields) {
+            fieldCount = fields.size();
+            for (final MappedField mf : fields) {
+                for (final String name : mf.getLoadNames()) {
+                    if (!byLoadName.containsKey(name)) {
+                        byLoadName.put(name, mf);
+                    }
+                }
+                if (!byJavaName.containsKey(mf.getJavaFieldName())) {
+                    byJavaName.put(mf.getJavaFieldName(), mf);
+                }
+                for (final Class<? extends Annotation> type : mf.getAnnotations().keySet()) {
+                    List<MappedField> annotated = byAnnotation.get(type);
+                    if (annotated == null) {
+                        annotated = new ArrayList<MappedField>();
+                        byAnnotation.put(type, annotated);
+                    }
+                    annotated.add(mf);
+                }
+            }
+            for (final Map.Entry<Class<? extends Annotation>, List<MappedField>> entry : byAnnotation.entrySet()) {
+                entry.setValue(Collections.unmodifiableList(entry.getValue()));
+            }
+        }
+    }
 }
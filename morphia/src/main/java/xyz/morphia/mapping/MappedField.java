@@ -34,6 +34,7 @@ import xyz.morphia.annotations.Serialized;
 import xyz.morphia.annotations.Text;
 import xyz.morphia.annotations.Transient;
 import xyz.morphia.annotations.Version;
+import xyz.morphia.mapping.accessor.FieldAccessor;
 import xyz.morphia.utils.ReflectionUtils;
 
 import java.lang.annotation.Annotation;
@@ -88,6 +89,7 @@ public class MappedField {
     private final List<MappedField> typeParameters = new ArrayList<MappedField>();
     private Class persistedClass;
     private Field field; // the field :)
+    private FieldAccessor accessor; // reads and writes the field
     private Class realType; // the real type
     private Constructor constructor; // the constructor for the type
     private Type subType; // the type (T) for the Collection<T>/T[]/Map<?,T>
@@ -108,6 +110,7 @@ public class MappedField {
     MappedField(final Field f, final Class<?> clazz, final Mapper mapper) {
         f.setAccessible(true);
         field = f;
+        accessor = mapper.getOptions().getFieldAccessorFactory().createAccessor(f);
         persistedClass = clazz;
         realType = field.getType();
         genericType = field.getGenericType();
@@ -240,11 +243,7 @@ public class MappedField {
      * @return the value stored in the java field
      */
     public Object getFieldValue(final Object instance) {
-        try {
-            return field.get(instance);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        return accessor.get(instance);
     }
 
     /**
@@ -446,11 +445,7 @@ public class MappedField {
      * @param value    the value to set
      */
     public void setFieldValue(final Object instance, final Object value) {
-        try {
-            field.set(instance, value);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        accessor.set(instance, value);
     }
 
     @Override
@@ -13,6 +13,7 @@ package xyz.morphia.mapping;
 
 import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
+import com.mongodb.DBEncoder;
 import com.mongodb.DBObject;
 import com.mongodb.DBRef;
 import org.bson.BSONEncoder;
@@ -24,7 +25,6 @@ import xyz.morphia.EntityInterceptor;
 import xyz.morphia.Key;
 import xyz.morphia.annotations.Converters;
 import xyz.morphia.annotations.Embedded;
-import xyz.morphia.annotations.NotSaved;
 import xyz.morphia.annotations.PostLoad;
 import xyz.morphia.annotations.PreLoad;
 import xyz.morphia.annotations.PrePersist;
@@ -34,7 +34,10 @@ import xyz.morphia.annotations.Reference;
 import xyz.morphia.annotations.Serialized;
 import xyz.morphia.converters.CustomConverters;
 import xyz.morphia.converters.TypeConverter;
+import xyz.morphia.internal.PathCache;
 import xyz.morphia.mapping.cache.EntityCache;
+import xyz.morphia.mapping.cache.EntityCacheFactory;
+import xyz.morphia.mapping.cache.SharedEntityCacheFactory;
 import xyz.morphia.mapping.lazy.LazyFeatureDependencies;
 import xyz.morphia.mapping.lazy.LazyProxyFactory;
 import xyz.morphia.mapping.lazy.proxy.ProxiedEntityReference;
@@ -52,12 +55,21 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static java.lang.String.format;
 import static xyz.morphia.utils.ReflectionUtils.getParameterizedClass;
@@ -99,6 +111,15 @@ public class Mapper {
      */
     private final Map<String, MappedClass> mappedClasses = new ConcurrentHashMap<String, MappedClass>();
     private final ConcurrentHashMap<String, Set<MappedClass>> mappedClassesByCollection = new ConcurrentHashMap<String, Set<MappedClass>>();
+    /**
+     * The direct subtypes of each mapped type, and the transitive closure of those as it is asked for
+     */
+    private final ConcurrentHashMap<MappedClass, Set<MappedClass>> directSubTypes = new ConcurrentHashMap<MappedClass, Set<MappedClass>>();
+    private final ConcurrentHashMap<MappedClass, List<MappedClass>> allSubTypes = new ConcurrentHashMap<MappedClass, List<MappedClass>>();
+    /**
+     * Bumped whenever a class is mapped, so that subtypes computed meanwhile are not kept
+     */
+    private final AtomicLong subTypesGeneration = new AtomicLong();
 
     //EntityInterceptors; these are called after EntityListeners and lifecycle methods on an Entity, for all Entities
     private final List<EntityInterceptor> interceptors = new LinkedList<EntityInterceptor>();
@@ -110,7 +131,11 @@ public class Mapper {
     private final xyz.morphia.converters.Converters converters;
     private MapperOptions opts = MapperOptions.builder().build();
 
-    private final IdentityHashMap<MappedField, CustomMapper> mapperCache = new IdentityHashMap<MappedField, CustomMapper>();
+    // copied on write so that readers never need a lock
+    private volatile Map<MappedField, CustomMapper> mapperCache = new IdentityHashMap<MappedField, CustomMapper>();
+    private final Map<MappedClass, MappingPlan> plans = new ConcurrentHashMap<MappedClass, MappingPlan>();
+    private final PathCache pathCache = new PathCache();
+    private final EntitySnapshots snapshots = new EntitySnapshots();
 
     /**
      * Creates a Mapper with the given options.
@@ -170,6 +195,90 @@ public class Mapper {
         return mappedClass;
     }
 
+    /**
+     * Creates and validates the MappedClasses of the classes which are not mapped yet, in the order given.  When
+     * {@link MapperOptions#getMappingThreads()} is more than one the classes are discovered and validated on a pool of that many threads
+     * before being registered.
+     *
+     * @param classes              the classes to map
+     * @param ignoreInvalidClasses true to skip the classes which can not be mapped, false to fail on the first one
+     * @return the MappedClasses of the given classes, leaving out those skipped
+     * @since 1.5
+     */
+    public List<MappedClass> addMappedClasses(final List<Class> classes, final boolean ignoreInvalidClasses) {
+        final List<MappedClass> mapped = new ArrayList<MappedClass>(classes.size());
+        final int threads = getOptions().getMappingThreads();
+        if (threads <= 1 || classes.size() <= 1) {
+            for (final Class c : classes) {
+                try {
+                    mapped.add(addMappedClass(c));
+                } catch (MappingException e) {
+                    if (!ignoreInvalidClasses) {
+                        throw e;
+                    }
+                }
+            }
+            return mapped;
+        }
+
+        // the supertypes are shared between classes so they are mapped first, in order, for every class to see the same ones
+        final List<Class> pending = new ArrayList<Class>();
+        for (final Class c : new LinkedHashSet<Class>(classes)) {
+            if (!isMapped(c)) {
+                pending.add(c);
+                if (c.getSuperclass() != null && c.getSuperclass() != Object.class) {
+                    getMappedClass(c.getSuperclass());
+                }
+                for (final Class anInterface : c.getInterfaces()) {
+                    getMappedClass(anInterface);
+                }
+            }
+        }
+
+        // validation looks at the converters, so those of every class are registered on this thread before any class is validated
+        final List<MappedClass> discovered = new ArrayList<MappedClass>(pending.size());
+        final List<Future<MappedClass>> validated;
+        final ExecutorService executor = createMappingExecutor(Math.max(1, Math.min(threads, pending.size())));
+        try {
+            final List<Future<MappedClass>> futures = invokeAll(executor, discover(pending));
+            final List<Callable<MappedClass>> validations = new ArrayList<Callable<MappedClass>>(pending.size());
+            for (final Future<MappedClass> future : futures) {
+                MappedClass mc = null;
+                try {
+                    final MappedClass found = getDiscovered(future);
+                    addConverters(found);
+                    validations.add(validate(found));
+                    mc = found;
+                } catch (MappingException e) {
+                    if (!ignoreInvalidClasses) {
+                        throw e;
+                    }
+                }
+                discovered.add(mc);
+            }
+            validated = invokeAll(executor, validations);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int next = 0;
+        for (final MappedClass mc : discovered) {
+            if (mc == null) {
+                continue;
+            }
+            try {
+                getDiscovered(validated.get(next++));
+                final MappedClass registered = mappedClasses.get(mc.getClazz().getName());
+                mapped.add(registered != null ? registered : addMappedClass(mc, false));
+            } catch (MappingException e) {
+                if (!ignoreInvalidClasses) {
+                    throw e;
+                }
+            }
+        }
+        return mapped;
+    }
+
     /**
      * Creates a cache for tracking entities seen during processing
      *
@@ -179,6 +288,16 @@ public class Mapper {
         return getOptions().getCacheFactory().createCache();
     }
 
+    /**
+     * @return the process wide cache of referenced documents if the cache factory in use provides one, else null
+     * @morphia.internal
+     * @see SharedEntityCacheFactory
+     */
+    public SharedEntityCacheFactory getSharedCache() {
+        final EntityCacheFactory factory = getOptions().getCacheFactory();
+        return factory instanceof SharedEntityCacheFactory ? (SharedEntityCacheFactory) factory : null;
+    }
+
     /**
      * Converts a DBObject back to a type-safe java object (POJO)
      *
@@ -200,7 +319,12 @@ public class Mapper {
         }
 
         T entity;
-        entity = opts.getObjectFactory().createInstance(entityClass, dbObject);
+        if (dbObject instanceof DecodedEntity && entityClass.isInstance(((DecodedEntity) dbObject).getEntity())) {
+            // the scalar fields were already read in by the EntityDecoder so only the rest of the document is left to map
+            entity = (T) ((DecodedEntity) dbObject).getEntity();
+        } else {
+            entity = opts.getObjectFactory().createInstance(entityClass, dbObject);
+        }
         entity = fromDb(datastore, dbObject, entity, cache);
         return entity;
     }
@@ -214,13 +338,42 @@ public class Mapper {
      * @since 1.3
      */
     public List<MappedClass> getSubTypes(final MappedClass mc) {
-        List<MappedClass> subtypes = new ArrayList<MappedClass>();
-        for (MappedClass mappedClass : getMappedClasses()) {
-            if (mappedClass.isSubType(mc)) {
-                subtypes.add(mappedClass);
+        final Set<MappedClass> subtypes = directSubTypes.get(mc);
+        return subtypes != null ? new ArrayList<MappedClass>(subtypes) : new ArrayList<MappedClass>();
+    }
+
+    /**
+     * Finds all the subtypes for the given MappedClass, direct or not.  Each subtype is listed once, before any of its own subtypes.
+     *
+     * @param mc the parent type
+     *
+     * @return the unmodifiable list of subtypes
+     * @since 1.5
+     */
+    public List<MappedClass> getAllSubTypes(final MappedClass mc) {
+        List<MappedClass> subtypes = allSubTypes.get(mc);
+        if (subtypes == null) {
+            final long generation = subTypesGeneration.get();
+            final Set<MappedClass> found = new LinkedHashSet<MappedClass>();
+            final LinkedList<MappedClass> pending = new LinkedList<MappedClass>();
+            pending.add(mc);
+            while (!pending.isEmpty()) {
+                final Set<MappedClass> direct = directSubTypes.get(pending.removeFirst());
+                if (direct != null) {
+                    for (final MappedClass subtype : direct) {
+                        if (found.add(subtype)) {
+                            pending.add(subtype);
+                        }
+                    }
+                }
+            }
+            subtypes = Collections.unmodifiableList(new ArrayList<MappedClass>(found));
+            allSubTypes.put(mc, subtypes);
+            if (subTypesGeneration.get() != generation) {
+                // a class was mapped meanwhile, which may have missed the list or cleared the cache before it was stored
+                allSubTypes.remove(mc, subtypes);
             }
         }
-
         return subtypes;
     }
 
@@ -269,14 +422,17 @@ public class Mapper {
 
         // check the history key (a key is the namespace + id)
 
-        if (dbObject.containsField("_id") && getMappedClass(entity).getIdField() != null
-            && getMappedClass(entity).getEntityAnnotation() != null) {
-            final Key<T> key = new Key(entity.getClass(), getCollectionName(entity.getClass()), dbObject.get("_id"));
-            final T cachedInstance = cache.getEntity(key);
-            if (cachedInstance != null) {
-                return cachedInstance;
-            } else {
-                cache.putEntity(key, entity); // to avoid stackOverflow in recursive refs
+        if (dbObject.containsField("_id")) {
+            final MappedClass mc = getMappedClass(entity);
+            final MappingPlan plan = getPlan(mc);
+            if (plan.hasIdField() && plan.isEntity()) {
+                final Key<T> key = new Key(entity.getClass(), mc.getCollectionName(), dbObject.get("_id"));
+                final T cachedInstance = cache.getEntity(key);
+                if (cachedInstance != null) {
+                    return cachedInstance;
+                } else {
+                    cache.putEntity(key, entity); // to avoid stackOverflow in recursive refs
+                }
             }
         }
 
@@ -293,10 +449,16 @@ public class Mapper {
             }
         } else {
             final MappedClass mc = getMappedClass(entity);
+            final MappingPlan plan = getPlan(mc);
+            if (opts.isDirtyTracking() && plan.isEntity() && plan.hasIdField() && dbObject.containsField("_id")
+                && !(dbObject instanceof DecodedEntity)) {
+                // taken before any @PreLoad method can change the document, a decoded one misses the fields already read
+                snapshots.put(entity, dbObject);
+            }
             final DBObject updated = mc.callLifecycleMethods(PreLoad.class, entity, dbObject, this);
             try {
-                for (final MappedField mf : mc.getPersistenceFields()) {
-                    readMappedField(datastore, mf, entity, cache, updated);
+                for (final MappingPlan.FieldPlan field : plan.getReads()) {
+                    field.getReadMapper(opts).fromDBObject(datastore, updated, field.getMappedField(), entity, cache, this);
                 }
             } catch (final MappingException e) {
                 Object id = dbObject.get("_id");
@@ -305,15 +467,55 @@ public class Mapper {
                                                   datastore.getDB().getName()), e);
             }
 
-            if (updated.containsField("_id") && getMappedClass(entity).getIdField() != null) {
-                final Key key = new Key(entity.getClass(), getCollectionName(entity.getClass()), updated.get("_id"));
+            if (updated.containsField("_id") && plan.hasIdField()) {
+                final Key key = new Key(entity.getClass(), mc.getCollectionName(), updated.get("_id"));
                 cache.putEntity(key, entity);
             }
-            mc.callLifecycleMethods(PostLoad.class, entity, updated, this);
+            if (cache instanceof ReferenceBatch) {
+                ((ReferenceBatch) cache).postLoad(new Runnable() {
+                    @Override
+                    public void run() {
+                        mc.callLifecycleMethods(PostLoad.class, entity, updated, Mapper.this);
+                    }
+                });
+            } else {
+                mc.callLifecycleMethods(PostLoad.class, entity, updated, this);
+            }
         }
         return entity;
     }
 
+    /**
+     * Converts a batch of DBObjects back to type-safe java objects (POJOs).  If a reference batch size is configured, the eager
+     * references of all the documents are resolved together with one query per referenced collection.
+     *
+     * @param <T>         the type of the entities
+     * @param datastore   the Datastore to use when fetching references
+     * @param entityClass The type to return, or use; can be overridden by the @see Mapper.CLASS_NAME_FIELDNAME in the DBObject
+     * @param dbObjects   the DBObjects containing the documents from mongodb
+     * @param cache       the EntityCache to use
+     * @return the new entities in the order of the given documents
+     * @see MapperOptions#getReferenceBatchSize()
+     * @morphia.internal
+     */
+    public <T> List<T> fromDBObjects(final Datastore datastore, final Class<T> entityClass, final List<DBObject> dbObjects,
+                                     final EntityCache cache) {
+        final List<T> entities = new ArrayList<T>(dbObjects.size());
+        if (opts.getReferenceBatchSize() <= 1) {
+            for (final DBObject dbObject : dbObjects) {
+                entities.add(fromDBObject(datastore, entityClass, dbObject, cache));
+            }
+            return entities;
+        }
+
+        final ReferenceBatch batch = new ReferenceBatch(cache, opts.getReferenceBatchSize());
+        for (final DBObject dbObject : dbObjects) {
+            entities.add(fromDBObject(datastore, entityClass, dbObject, batch));
+        }
+        batch.resolve(datastore, this);
+        return entities;
+    }
+
     /**
      * Looks up the class mapped to a named collection.
      *
@@ -506,13 +708,36 @@ public class Mapper {
 
         MappedClass mc = mappedClasses.get(type.getName());
         if (mc == null) {
-            mc = new MappedClass(type, this);
-            // no validation
-            addMappedClass(mc, false);
+            // classes mapped in parallel may ask for the same type, which is only to be mapped once
+            synchronized (mappedClasses) {
+                mc = mappedClasses.get(type.getName());
+                if (mc == null) {
+                    mc = new MappedClass(type, this);
+                    // no validation
+                    addMappedClass(mc, false);
+                }
+            }
         }
         return mc;
     }
 
+    /**
+     * @return the cache of resolved query and update paths
+     * @morphia.internal
+     */
+    public PathCache getPathCache() {
+        return pathCache;
+    }
+
+    /**
+     * @return the documents the entities were loaded from or last saved as
+     * @see MapperOptions#isDirtyTracking()
+     * @morphia.internal
+     */
+    public EntitySnapshots getSnapshots() {
+        return snapshots;
+    }
+
     /**
      * @return collection of MappedClasses
      */
@@ -534,6 +759,10 @@ public class Mapper {
      */
     public void setOptions(final MapperOptions options) {
         opts = options;
+        plans.clear();
+        synchronized (this) {
+            mapperCache = new IdentityHashMap<MappedField, CustomMapper>();
+        }
     }
 
     /**
@@ -616,6 +845,51 @@ public class Mapper {
         return toDBObject(entity, involvedObjects, true);
     }
 
+    /**
+     * Converts an entity to the document to save or insert.  With {@link MapperOptions#isDirectEncoding()} set, entities which allow it
+     * are returned as a stand in document which only holds their id, to be written straight from their fields by an encoder from
+     * {@link #createEncoder()}.  Other entities are converted with {@link #toDBObject(Object, Map)}.
+     *
+     * @param entity          the entity
+     * @param involvedObjects A Map of (already converted) POJOs
+     * @return the document
+     * @morphia.internal
+     * @since 1.5
+     */
+    public DBObject toDocument(final Object entity, final Map<Object, DBObject> involvedObjects) {
+        final MappedClass mc = getMappedClass(entity);
+        final MappingPlan plan = getPlan(mc);
+        if (!opts.isDirectEncoding() || !plan.canEncodeDirectly() || !interceptors.isEmpty()) {
+            return toDBObject(entity, involvedObjects);
+        }
+
+        // the id is needed up front to tell inserts from updates
+        final EntityDocument document = new EntityDocument(entity, involvedObjects);
+        for (final MappingPlan.FieldPlan field : plan.getWrites()) {
+            if (field.getMappedField() == mc.getMappedIdField()) {
+                try {
+                    field.getWriteMapper(opts, getConverters(), entity)
+                         .toDBObject(entity, field.getMappedField(), document, involvedObjects, this);
+                } catch (Exception e) {
+                    throw new MappingException("Error mapping field:" + field.getMappedField().getFullName(), e);
+                }
+            }
+        }
+        if (involvedObjects != null) {
+            involvedObjects.put(entity, document);
+        }
+        return document;
+    }
+
+    /**
+     * @return a new encoder for the documents returned by {@link #toDocument(Object, Map)}.  Encoders are not thread safe.
+     * @morphia.internal
+     * @since 1.5
+     */
+    public DBEncoder createEncoder() {
+        return new EntityEncoder(this);
+    }
+
     /**
      * Converts a java object to a mongo-compatible object (possibly a DBObject for complex mappings).  Very similar to {@link
      * Mapper#toDBObject}.  Used (mainly) by query/update operations.
@@ -792,6 +1066,74 @@ public class Mapper {
         }
     }
 
+    /**
+     * Discovers classes.  The classes which were mapped since are used as they are.
+     */
+    private List<Callable<MappedClass>> discover(final List<Class> classes) {
+        final List<Callable<MappedClass>> tasks = new ArrayList<Callable<MappedClass>>(classes.size());
+        for (final Class c : classes) {
+            tasks.add(new Callable<MappedClass>() {
+                @Override
+                public MappedClass call() {
+                    final MappedClass registered = mappedClasses.get(c.getName());
+                    return registered != null ? registered : new MappedClass(c, Mapper.this);
+                }
+            });
+        }
+        return tasks;
+    }
+
+    private Callable<MappedClass> validate(final MappedClass mc) {
+        return new Callable<MappedClass>() {
+            @Override
+            public MappedClass call() {
+                if (!mc.isInterface()) {
+                    mc.validate(Mapper.this);
+                }
+                return mc;
+            }
+        };
+    }
+
+    private ExecutorService createMappingExecutor(final int threads) {
+        return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "morphia-mapping-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    private List<Future<MappedClass>> invokeAll(final ExecutorService executor, final List<Callable<MappedClass>> tasks) {
+        try {
+            return executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MappingException("Interrupted while mapping classes", e);
+        }
+    }
+
+    private MappedClass getDiscovered(final Future<MappedClass> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MappingException("Interrupted while mapping classes", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new MappingException("Could not map class", cause);
+        }
+    }
+
     /**
      * Add MappedClass to internal cache, possibly validating first.
      */
@@ -815,9 +1157,45 @@ public class Mapper {
 
         mcs.add(mc);
 
+        if (mc.getSuperClass() != null) {
+            addSubType(mc.getSuperClass(), mc);
+        }
+        for (final MappedClass anInterface : mc.getInterfaces()) {
+            addSubType(anInterface, mc);
+        }
+        subTypesGeneration.incrementAndGet();
+        allSubTypes.clear();
+        pathCache.clear();
+
         return mc;
     }
 
+    private void addSubType(final MappedClass parent, final MappedClass subtype) {
+        Set<MappedClass> subtypes = directSubTypes.get(parent);
+        if (subtypes == null) {
+            subtypes = new CopyOnWriteArraySet<MappedClass>();
+            final Set<MappedClass> temp = directSubTypes.putIfAbsent(parent, subtypes);
+            if (temp != null) {
+                subtypes = temp;
+            }
+        }
+        // a class mapped again replaces the earlier instance
+        subtypes.remove(subtype);
+        subtypes.add(subtype);
+    }
+
+    /**
+     * Finds the plan for converting instances of a MappedClass, building it if there is none or the converters have changed since.
+     */
+    MappingPlan getPlan(final MappedClass mc) {
+        MappingPlan plan = plans.get(mc);
+        if (plan == null || !plan.isCurrent(mc, getConverters())) {
+            plan = new MappingPlan(mc, getConverters());
+            plans.put(mc, plan);
+        }
+        return plan;
+    }
+
     private Object extractFirstElement(final Object value) {
         return value.getClass().isArray() ? Array.get(value, 0) : ((Iterable) value).iterator().next();
     }
@@ -833,17 +1211,6 @@ public class Mapper {
         return refs;
     }
 
-    private Class<? extends Annotation> getFieldAnnotation(final MappedField mf) {
-        Class<? extends Annotation> annType = null;
-        for (final Class<? extends Annotation> testType : new Class[]{Property.class, Embedded.class, Serialized.class, Reference.class}) {
-            if (mf.hasAnnotation(testType)) {
-                annType = testType;
-                break;
-            }
-        }
-        return annType;
-    }
-
     private boolean isAssignable(final MappedField mf, final Object value) {
         return mf != null
             && (mf.hasAnnotation(Reference.class) || Key.class.isAssignableFrom(mf.getType())
@@ -867,12 +1234,23 @@ public class Mapper {
         CustomMapper selectedMapper = mapperCache.get(mf);
         if (selectedMapper == null) {
             selectedMapper = selectMapper(mf);
-            mapperCache.put(mf, selectedMapper);
+            // ephemeral fields are created per value read and would only grow the cache
+            if (!(mf instanceof EphemeralMappedField)) {
+                cacheMapper(mf, selectedMapper);
+            }
         }
 
         selectedMapper.fromDBObject(datastore, dbObject, mf, entity, cache, this);
     }
 
+    private synchronized void cacheMapper(final MappedField mf, final CustomMapper mapper) {
+        if (!mapperCache.containsKey(mf)) {
+            final Map<MappedField, CustomMapper> copy = new IdentityHashMap<MappedField, CustomMapper>(mapperCache);
+            copy.put(mf, mapper);
+            mapperCache = copy;
+        }
+    }
+
     private CustomMapper selectMapper(final MappedField mf) {
         CustomMapper mapper;
         if (mf.hasAnnotation(Property.class) || mf.hasAnnotation(Serialized.class)
@@ -888,33 +1266,6 @@ public class Mapper {
         return mapper;
     }
 
-    private void writeMappedField(final DBObject dbObject, final MappedField mf, final Object entity,
-                                  final Map<Object, DBObject> involvedObjects) {
-
-        //skip not saved fields.
-        if (mf.hasAnnotation(NotSaved.class)) {
-            return;
-        }
-
-        // get the annotation from the field.
-        Class<? extends Annotation> annType = getFieldAnnotation(mf);
-
-        if (Property.class.equals(annType) || Serialized.class.equals(annType) || mf.isTypeMongoCompatible()
-            || (getConverters().hasSimpleValueConverter(mf) || (getConverters().hasSimpleValueConverter(mf.getFieldValue(entity))))) {
-            opts.getValueMapper().toDBObject(entity, mf, dbObject, involvedObjects, this);
-        } else if (Reference.class.equals(annType)) {
-            opts.getReferenceMapper().toDBObject(entity, mf, dbObject, involvedObjects, this);
-        } else if (Embedded.class.equals(annType)) {
-            opts.getEmbeddedMapper().toDBObject(entity, mf, dbObject, involvedObjects, this);
-        } else {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("No annotation was found, using default mapper " + opts.getDefaultMapper() + " for " + mf);
-            }
-            opts.getDefaultMapper().toDBObject(entity, mf, dbObject, involvedObjects, this);
-        }
-
-    }
-
     <T> Key<T> manualRefToKey(final String collection, final Object id) {
         return id == null ? null : new Key<T>((Class<? extends T>) getClassFromCollection(collection), collection, id);
     }
@@ -1014,11 +1365,12 @@ public class Mapper {
             dbObject = mc.callLifecycleMethods(PrePersist.class, entity, dbObject, this);
         }
 
-        for (final MappedField mf : mc.getPersistenceFields()) {
+        for (final MappingPlan.FieldPlan field : getPlan(mc).getWrites()) {
             try {
-                writeMappedField(dbObject, mf, entity, involvedObjects);
+                field.getWriteMapper(opts, getConverters(), entity)
+                     .toDBObject(entity, field.getMappedField(), dbObject, involvedObjects, this);
             } catch (Exception e) {
-                throw new MappingException("Error mapping field:" + mf.getFullName(), e);
+                throw new MappingException("Error mapping field:" + field.getMappedField().getFullName(), e);
             }
         }
         if (involvedObjects != null) {
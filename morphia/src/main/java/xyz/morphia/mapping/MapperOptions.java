@@ -5,6 +5,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import xyz.morphia.ObjectFactory;
 import xyz.morphia.annotations.Reference;
+import xyz.morphia.mapping.accessor.FieldAccessorFactory;
+import xyz.morphia.mapping.accessor.ReflectiveFieldAccessorFactory;
 import xyz.morphia.mapping.cache.DefaultEntityCacheFactory;
 import xyz.morphia.mapping.cache.EntityCacheFactory;
 import xyz.morphia.mapping.lazy.DatastoreProvider;
@@ -21,8 +23,17 @@ public class MapperOptions {
     private boolean useLowerCaseCollectionNames;
     private boolean cacheClassLookups;
     private boolean mapSubPackages;
+    private int referenceBatchSize;
+    private int keysPerQuery = 1000;
+    private int lazyReferenceBatchSize;
+    private boolean directEncoding;
+    private boolean metadataIndex = true;
+    private int mappingThreads;
+    private int schemaThreads;
+    private boolean dirtyTracking;
     private ObjectFactory objectFactory;
     private EntityCacheFactory cacheFactory = new DefaultEntityCacheFactory();
+    private FieldAccessorFactory fieldAccessorFactory = new ReflectiveFieldAccessorFactory();
     private CustomMapper embeddedMapper = new EmbeddedMapper();
     private CustomMapper defaultMapper = embeddedMapper;
     private CustomMapper referenceMapper = new ReferenceMapper();
@@ -55,11 +66,20 @@ public class MapperOptions {
         cacheClassLookups = options.isCacheClassLookups();
         objectFactory = options.getObjectFactory();
         cacheFactory = options.getCacheFactory();
+        fieldAccessorFactory = options.getFieldAccessorFactory();
         embeddedMapper = options.getEmbeddedMapper();
         defaultMapper = options.getDefaultMapper();
         referenceMapper = options.getReferenceMapper();
         valueMapper = options.getValueMapper();
         mapSubPackages = options.isMapSubPackages();
+        referenceBatchSize = options.getReferenceBatchSize();
+        keysPerQuery = options.getKeysPerQuery();
+        lazyReferenceBatchSize = options.getLazyReferenceBatchSize();
+        directEncoding = options.isDirectEncoding();
+        metadataIndex = options.isMetadataIndex();
+        mappingThreads = options.getMappingThreads();
+        schemaThreads = options.getSchemaThreads();
+        dirtyTracking = options.isDirtyTracking();
     }
 
     private MapperOptions(final Builder builder) {
@@ -69,8 +89,17 @@ public class MapperOptions {
         useLowerCaseCollectionNames = builder.useLowerCaseCollectionNames;
         cacheClassLookups = builder.cacheClassLookups;
         mapSubPackages = builder.mapSubPackages;
+        referenceBatchSize = builder.referenceBatchSize;
+        keysPerQuery = builder.keysPerQuery;
+        lazyReferenceBatchSize = builder.lazyReferenceBatchSize;
+        directEncoding = builder.directEncoding;
+        metadataIndex = builder.metadataIndex;
+        mappingThreads = builder.mappingThreads;
+        schemaThreads = builder.schemaThreads;
+        dirtyTracking = builder.dirtyTracking;
         objectFactory = builder.objectFactory;
         cacheFactory = builder.cacheFactory;
+        fieldAccessorFactory = builder.fieldAccessorFactory;
         embeddedMapper = builder.embeddedMapper;
         defaultMapper = builder.defaultMapper;
         referenceMapper = builder.referenceMapper;
@@ -96,6 +125,29 @@ public class MapperOptions {
         this.cacheFactory = cacheFactory;
     }
 
+    /**
+     * Returns the factory to create the accessors used to read and write mapped fields.  The default reads and writes the fields through
+     * reflection.
+     *
+     * @return the factory to create the accessors used to read and write mapped fields
+     * @see ReflectiveFieldAccessorFactory
+     */
+    public FieldAccessorFactory getFieldAccessorFactory() {
+        return fieldAccessorFactory;
+    }
+
+    /**
+     * Sets the factory to create the accessors used to read and write mapped fields.  This must be set before any classes are mapped.
+     *
+     * @param fieldAccessorFactory the factory
+     * @deprecated use the Builder instead
+     * @see Builder
+     */
+    @Deprecated
+    public void setFieldAccessorFactory(final FieldAccessorFactory fieldAccessorFactory) {
+        this.fieldAccessorFactory = fieldAccessorFactory;
+    }
+
     /**
      * @return the DatastoreProvider Morphia should use
      * @deprecated unused
@@ -349,6 +401,184 @@ public class MapperOptions {
         this.mapSubPackages = mapSubPackages;
     }
 
+    /**
+     * @return the number of documents whose eager references are resolved together, or 0 if references are fetched one at a time
+     */
+    public int getReferenceBatchSize() {
+        return referenceBatchSize;
+    }
+
+    /**
+     * Controls how eager {@link Reference}s are resolved while iterating query results.  When greater than 1, up to this many documents
+     * are read ahead and decoded together and their unresolved references are fetched with one {@code $in} query per collection rather
+     * than one query per reference.
+     *
+     * @param referenceBatchSize the batch size to use, or 0 to disable batching
+     * @deprecated use the Builder instead
+     * @see Builder
+     */
+    @Deprecated
+    public void setReferenceBatchSize(final int referenceBatchSize) {
+        this.referenceBatchSize = referenceBatchSize;
+    }
+
+    /**
+     * @return the most ids sent in one {@code $in} query when entities are fetched by their keys
+     */
+    public int getKeysPerQuery() {
+        return keysPerQuery;
+    }
+
+    /**
+     * Sets how many ids are sent in one {@code $in} query when entities are fetched by their keys, e.g. by
+     * {@link xyz.morphia.Datastore#getByKeys(Iterable)} or when a lazy collection or map of references is first used.  Larger key sets
+     * are split into several queries.
+     *
+     * @param keysPerQuery the number of ids per query.  Values less than 1 put all the ids of a collection in one query.
+     * @deprecated use the Builder instead
+     * @see Builder
+     */
+    @Deprecated
+    public void setKeysPerQuery(final int keysPerQuery) {
+        this.keysPerQuery = keysPerQuery;
+    }
+
+    /**
+     * @return the number of lazy references loaded together, or 0 if each lazy reference is loaded on its own
+     */
+    public int getLazyReferenceBatchSize() {
+        return lazyReferenceBatchSize;
+    }
+
+    /**
+     * Controls how lazy single entity {@link Reference}s are loaded.  When greater than 1, the proxies created for the same type
+     * while loading the results of one query are grouped, up to this many to a group, and the first time any proxy of a group is used
+     * the whole group is loaded with one {@code $in} query.  Only proxy factories implementing
+     * {@link xyz.morphia.mapping.lazy.GroupingLazyProxyFactory} can group their proxies.
+     *
+     * @param lazyReferenceBatchSize the group size to use, or 0 to load each proxy on its own
+     * @deprecated use the Builder instead
+     * @see Builder
+     */
+    @Deprecated
+    public void setLazyReferenceBatchSize(final int lazyReferenceBatchSize) {
+        this.lazyReferenceBatchSize = lazyReferenceBatchSize;
+    }
+
+    /**
+     * @return true if saved and inserted entities are encoded to BSON straight from their fields
+     */
+    public boolean isDirectEncoding() {
+        return directEncoding;
+    }
+
+    /**
+     * Controls how entities are encoded when they are saved or inserted.  When true, entities without
+     * {@link xyz.morphia.annotations.PrePersist}, {@link xyz.morphia.annotations.PreSave} or {@link xyz.morphia.annotations.PostPersist}
+     * methods are written to BSON straight from their fields, including their embedded values, rather than being converted to DBObjects
+     * first.  Entities with such methods, and every entity once an {@link xyz.morphia.EntityInterceptor} is registered, are still
+     * converted to DBObjects as those methods may change them.
+     *
+     * @param directEncoding true to encode entities straight to BSON
+     * @deprecated use the Builder instead
+     * @see Builder
+     */
+    @Deprecated
+    public void setDirectEncoding(final boolean directEncoding) {
+        this.directEncoding = directEncoding;
+    }
+
+    /**
+     * @return true if classes are mapped from the metadata index written by the Morphia annotation processor when one is present
+     */
+    public boolean isMetadataIndex() {
+        return metadataIndex;
+    }
+
+    /**
+     * Controls whether classes are mapped from the metadata index written at compile time by
+     * {@code xyz.morphia.processor.MetadataProcessor}.  When true, the fields and life cycle methods of an entity compiled with the
+     * processor are read from its index rather than discovered by scanning the members of the entity and its superclasses.  Classes
+     * without an index, or whose index no longer matches them, are always discovered by reflection.  Likewise
+     * {@link xyz.morphia.Morphia#mapPackage(String, boolean)} reads the list of entities the processor writes for each jar or directory
+     * rather than the class files of the package.
+     *
+     * @param metadataIndex true to use the metadata index
+     * @deprecated use the Builder instead
+     * @see Builder
+     */
+    @Deprecated
+    public void setMetadataIndex(final boolean metadataIndex) {
+        this.metadataIndex = metadataIndex;
+    }
+
+    /**
+     * @return the number of threads classes are mapped and validated on by {@link Mapper#addMappedClasses(java.util.List, boolean)}
+     */
+    public int getMappingThreads() {
+        return mappingThreads;
+    }
+
+    /**
+     * Sets the number of threads {@link xyz.morphia.Morphia#map(Class[])} and {@link xyz.morphia.Morphia#mapPackage(String)} map and
+     * validate classes on.  With more than one thread the superclasses and interfaces of the classes are mapped first, on the calling
+     * thread, then the classes themselves are discovered and validated on a pool of the given size.  They are registered in the order
+     * they were given once all of them are validated, so the Mapper ends up as it would mapping them one at a time, and the first class
+     * found invalid fails the mapping with the same error.  The default of 0 maps every class on the calling thread.
+     *
+     * @param mappingThreads the number of threads, or 0 to map classes on the calling thread
+     * @deprecated use the Builder instead
+     * @see Builder
+     */
+    @Deprecated
+    public void setMappingThreads(final int mappingThreads) {
+        this.mappingThreads = mappingThreads;
+    }
+
+    /**
+     * @return the number of threads the capped collections, document validation and indexes of the mapped entities are ensured on
+     */
+    public int getSchemaThreads() {
+        return schemaThreads;
+    }
+
+    /**
+     * Sets the number of threads {@link xyz.morphia.Datastore#ensureIndexes()}, {@link xyz.morphia.Datastore#ensureCaps()} and
+     * {@link xyz.morphia.Datastore#enableDocumentValidation()} send their commands on, each thread ensuring one collection at a time.
+     * Indexes and validation rules which already match their declaration are skipped either way.  The default of 0 sends every command
+     * on the calling thread.
+     *
+     * @param schemaThreads the number of threads, or 0 to send the commands on the calling thread
+     * @deprecated use the Builder instead
+     * @see Builder
+     */
+    @Deprecated
+    public void setSchemaThreads(final int schemaThreads) {
+        this.schemaThreads = schemaThreads;
+    }
+
+    /**
+     * @return true if saving an entity loaded, merged or saved before only sends the fields which changed since
+     */
+    public boolean isDirtyTracking() {
+        return dirtyTracking;
+    }
+
+    /**
+     * Sets whether the mapper remembers the document each entity was loaded from, so that {@link xyz.morphia.Datastore#merge(Object)} and
+     * {@link xyz.morphia.Datastore#save(Object)} only send a $set and a $unset of the fields which changed since, embedded ones included.
+     * The document is kept as BSON for as long as the entity is reachable.  Entities saved this way are always converted through the
+     * mapper, never encoded directly.
+     *
+     * @param dirtyTracking true to only send the fields which changed
+     * @deprecated use the Builder instead
+     * @see Builder
+     */
+    @Deprecated
+    public void setDirtyTracking(final boolean dirtyTracking) {
+        this.dirtyTracking = dirtyTracking;
+    }
+
     public String getDiscriminatorField() {
         return Mapper.CLASS_NAME_FIELDNAME;
     }
@@ -365,8 +595,17 @@ public class MapperOptions {
         builder.useLowerCaseCollectionNames = copy.isUseLowerCaseCollectionNames();
         builder.cacheClassLookups = copy.isCacheClassLookups();
         builder.mapSubPackages = copy.isMapSubPackages();
+        builder.referenceBatchSize = copy.getReferenceBatchSize();
+        builder.keysPerQuery = copy.getKeysPerQuery();
+        builder.lazyReferenceBatchSize = copy.getLazyReferenceBatchSize();
+        builder.directEncoding = copy.isDirectEncoding();
+        builder.metadataIndex = copy.isMetadataIndex();
+        builder.mappingThreads = copy.getMappingThreads();
+        builder.schemaThreads = copy.getSchemaThreads();
+        builder.dirtyTracking = copy.isDirtyTracking();
         builder.objectFactory = copy.getObjectFactory();
         builder.cacheFactory = copy.getCacheFactory();
+        builder.fieldAccessorFactory = copy.getFieldAccessorFactory();
         builder.embeddedMapper = copy.getEmbeddedMapper();
         builder.defaultMapper = copy.getDefaultMapper();
         builder.referenceMapper = copy.getReferenceMapper();
@@ -383,8 +622,17 @@ public class MapperOptions {
         private boolean useLowerCaseCollectionNames;
         private boolean cacheClassLookups;
         private boolean mapSubPackages;
+        private int referenceBatchSize;
+        private int keysPerQuery = 1000;
+        private int lazyReferenceBatchSize;
+        private boolean directEncoding;
+        private boolean metadataIndex = true;
+        private int mappingThreads;
+        private int schemaThreads;
+        private boolean dirtyTracking;
         private ObjectFactory objectFactory;
         private EntityCacheFactory cacheFactory = new DefaultEntityCacheFactory();
+        private FieldAccessorFactory fieldAccessorFactory = new ReflectiveFieldAccessorFactory();
         private CustomMapper embeddedMapper = new EmbeddedMapper();
         private CustomMapper defaultMapper = embeddedMapper;
         private CustomMapper referenceMapper = new ReferenceMapper();
@@ -427,6 +675,46 @@ public class MapperOptions {
             return this;
         }
 
+        public Builder referenceBatchSize(final int referenceBatchSize) {
+            this.referenceBatchSize = referenceBatchSize;
+            return this;
+        }
+
+        public Builder keysPerQuery(final int keysPerQuery) {
+            this.keysPerQuery = keysPerQuery;
+            return this;
+        }
+
+        public Builder lazyReferenceBatchSize(final int lazyReferenceBatchSize) {
+            this.lazyReferenceBatchSize = lazyReferenceBatchSize;
+            return this;
+        }
+
+        public Builder directEncoding(final boolean directEncoding) {
+            this.directEncoding = directEncoding;
+            return this;
+        }
+
+        public Builder metadataIndex(final boolean metadataIndex) {
+            this.metadataIndex = metadataIndex;
+            return this;
+        }
+
+        public Builder mappingThreads(final int mappingThreads) {
+            this.mappingThreads = mappingThreads;
+            return this;
+        }
+
+        public Builder schemaThreads(final int schemaThreads) {
+            this.schemaThreads = schemaThreads;
+            return this;
+        }
+
+        public Builder dirtyTracking(final boolean dirtyTracking) {
+            this.dirtyTracking = dirtyTracking;
+            return this;
+        }
+
         public Builder objectFactory(final ObjectFactory objectFactory) {
             this.objectFactory = objectFactory;
             return this;
@@ -437,6 +725,11 @@ public class MapperOptions {
             return this;
         }
 
+        public Builder fieldAccessorFactory(final FieldAccessorFactory fieldAccessorFactory) {
+            this.fieldAccessorFactory = fieldAccessorFactory;
+            return this;
+        }
+
         public Builder embeddedMapper(final CustomMapper embeddedMapper) {
             this.embeddedMapper = embeddedMapper;
             return this;
@@ -0,0 +1,258 @@
+package xyz.morphia.mapping;
+
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.morphia.annotations.Embedded;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.NotSaved;
+import xyz.morphia.annotations.PostPersist;
+import xyz.morphia.annotations.PreLoad;
+import xyz.morphia.annotations.PrePersist;
+import xyz.morphia.annotations.PreSave;
+import xyz.morphia.annotations.Property;
+import xyz.morphia.annotations.Reference;
+import xyz.morphia.annotations.Serialized;
+import xyz.morphia.converters.Converters;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The persistence fields of a MappedClass with the choice of CustomMapper for reading and writing each of them made up front, so that
+ * converting an entity is a walk over an array rather than a series of annotation and converter lookups per field.  The choice depends
+ * on the annotations of the fields and on the registered converters, so a plan is rebuilt whenever the converters change.  The mappers
+ * themselves are looked up on the MapperOptions as the plan runs.
+ *
+ * @morphia.internal
+ */
+final class MappingPlan {
+    private static final Logger LOG = LoggerFactory.getLogger(MappingPlan.class);
+    private static final List<Class<? extends Annotation>> WRITE_ANNOTATIONS = new ArrayList<Class<? extends Annotation>>();
+
+    static {
+        WRITE_ANNOTATIONS.add(Property.class);
+        WRITE_ANNOTATIONS.add(Embedded.class);
+        WRITE_ANNOTATIONS.add(Serialized.class);
+        WRITE_ANNOTATIONS.add(Reference.class);
+    }
+
+    private final MappedClass mappedClass;
+    private final int convertersVersion;
+    private final boolean idField;
+    private final boolean entity;
+    private final FieldPlan[] reads;
+    private final FieldPlan[] writes;
+    private final boolean directDecode;
+    private final boolean directEncode;
+    private final Map<String, MappedField> directReads = new HashMap<String, MappedField>();
+
+    MappingPlan(final MappedClass mappedClass, final Converters converters) {
+        this.mappedClass = mappedClass;
+        convertersVersion = converters.getVersion();
+        idField = mappedClass.getIdField() != null;
+        entity = mappedClass.getEntityAnnotation() != null;
+
+        final List<MappedField> fields = mappedClass.getPersistenceFields();
+        final List<FieldPlan> writeList = new ArrayList<FieldPlan>(fields.size());
+        reads = new FieldPlan[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            final MappedField mf = fields.get(i);
+            final FieldPlan plan = new FieldPlan(mf, converters);
+            reads[i] = plan;
+            if (!mf.hasAnnotation(NotSaved.class)) {
+                writeList.add(plan);
+            }
+            if (plan.isDirectRead()) {
+                directReads.put(mf.getNameToStore(), mf);
+            }
+        }
+        writes = writeList.toArray(new FieldPlan[writeList.size()]);
+
+        // @PreLoad methods may rewrite the document so they need all of it
+        directDecode = entity && !hasLifecycleMethods(PreLoad.class) && !Modifier.isAbstract(mappedClass.getClazz().getModifiers());
+        // and the persist methods are handed the document
+        directEncode = !hasLifecycleMethods(PrePersist.class) && !hasLifecycleMethods(PreSave.class)
+                       && !hasLifecycleMethods(PostPersist.class);
+    }
+
+    /**
+     * @return true if documents can be decoded straight into new instances of the class
+     * @see EntityDecoder
+     */
+    boolean canDecodeDirectly() {
+        return directDecode;
+    }
+
+    /**
+     * @return true if instances of the class can be encoded straight to BSON
+     * @see EntityEncoder
+     */
+    boolean canEncodeDirectly() {
+        return directEncode;
+    }
+
+    /**
+     * @param name the name of a top level field of a document
+     * @return the MappedField a scalar value stored under that name can be decoded straight into, or null if the value needs the full
+     * mapping
+     */
+    MappedField getDirectRead(final String name) {
+        return directReads.get(name);
+    }
+
+    /**
+     * @param mc         the MappedClass being converted
+     * @param converters the converters in use
+     * @return true if this plan was built for the MappedClass and the converters as they are now
+     */
+    boolean isCurrent(final MappedClass mc, final Converters converters) {
+        return mappedClass == mc && convertersVersion == converters.getVersion();
+    }
+
+    /**
+     * @return true if the class has an @Id field
+     */
+    boolean hasIdField() {
+        return idField;
+    }
+
+    /**
+     * @return true if the class is annotated with @Entity
+     */
+    boolean isEntity() {
+        return entity;
+    }
+
+    /**
+     * @return the fields to read, in the order of the persistence fields
+     */
+    FieldPlan[] getReads() {
+        return reads;
+    }
+
+    /**
+     * @return the fields to write, in the order of the persistence fields and without any @NotSaved fields
+     */
+    FieldPlan[] getWrites() {
+        return writes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean hasLifecycleMethods(final Class<? extends Annotation> event) {
+        final List<?> methods = mappedClass.getLifecycleMethods((Class<Annotation>) event);
+        return methods != null && !methods.isEmpty();
+    }
+
+    /**
+     * The kinds of CustomMapper which can be configured on MapperOptions
+     */
+    enum Kind {
+        VALUE,
+        EMBEDDED,
+        REFERENCE,
+        DEFAULT;
+
+        CustomMapper select(final MapperOptions opts) {
+            switch (this) {
+                case VALUE:
+                    return opts.getValueMapper();
+                case EMBEDDED:
+                    return opts.getEmbeddedMapper();
+                case REFERENCE:
+                    return opts.getReferenceMapper();
+                default:
+                    return opts.getDefaultMapper();
+            }
+        }
+    }
+
+    /**
+     * The mappers to use for one field
+     */
+    static final class FieldPlan {
+        private final MappedField mappedField;
+        private final Kind readKind;
+        private final Kind writeKind;
+        private final boolean checkValueConverter;
+        private final boolean directRead;
+
+        private FieldPlan(final MappedField mf, final Converters converters) {
+            mappedField = mf;
+
+            final boolean simpleValue = mf.isTypeMongoCompatible() || converters.hasSimpleValueConverter(mf);
+            if (mf.hasAnnotation(Property.class) || mf.hasAnnotation(Serialized.class) || simpleValue) {
+                readKind = Kind.VALUE;
+            } else if (mf.hasAnnotation(Embedded.class)) {
+                readKind = Kind.EMBEDDED;
+            } else if (mf.hasAnnotation(Reference.class)) {
+                readKind = Kind.REFERENCE;
+            } else {
+                readKind = Kind.DEFAULT;
+            }
+
+            Class<? extends Annotation> annType = null;
+            for (final Class<? extends Annotation> testType : WRITE_ANNOTATIONS) {
+                if (mf.hasAnnotation(testType)) {
+                    annType = testType;
+                    break;
+                }
+            }
+            if (Property.class.equals(annType) || Serialized.class.equals(annType) || simpleValue) {
+                writeKind = Kind.VALUE;
+            } else if (Reference.class.equals(annType)) {
+                writeKind = Kind.REFERENCE;
+            } else if (Embedded.class.equals(annType)) {
+                writeKind = Kind.EMBEDDED;
+            } else {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("No annotation was found, using the default mapper for " + mf);
+                }
+                writeKind = Kind.DEFAULT;
+            }
+            // the runtime type of the value can still make it a simple value
+            checkValueConverter = writeKind != Kind.VALUE;
+            directRead = readKind == Kind.VALUE && mf.isSingleValue() && mf.getLoadNames().size() == 1
+                         && !mf.hasAnnotation(Serialized.class) && !mf.hasAnnotation(Id.class);
+        }
+
+        /**
+         * @return the field
+         */
+        MappedField getMappedField() {
+            return mappedField;
+        }
+
+        /**
+         * @return true if a scalar value of this field can be converted and set as soon as it is read, without the rest of the document
+         */
+        boolean isDirectRead() {
+            return directRead;
+        }
+
+        /**
+         * @param opts the options to take the mapper from
+         * @return the mapper to read the field with
+         */
+        CustomMapper getReadMapper(final MapperOptions opts) {
+            return readKind.select(opts);
+        }
+
+        /**
+         * @param opts       the options to take the mapper from
+         * @param converters the converters in use
+         * @param entity     the entity being written
+         * @return the mapper to write the field with
+         */
+        CustomMapper getWriteMapper(final MapperOptions opts, final Converters converters, final Object entity) {
+            if (checkValueConverter && converters.hasSimpleValueConverter(mappedField.getFieldValue(entity))) {
+                return opts.getValueMapper();
+            }
+            return writeKind.select(opts);
+        }
+    }
+}
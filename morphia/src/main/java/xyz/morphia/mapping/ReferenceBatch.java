@@ -0,0 +1,232 @@
+package xyz.morphia.mapping;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import xyz.morphia.Datastore;
+import xyz.morphia.Key;
+import xyz.morphia.instrumentation.MorphiaInstrumentation;
+import xyz.morphia.instrumentation.Span;
+import xyz.morphia.mapping.cache.EntityCache;
+import xyz.morphia.mapping.cache.EntityCacheStatistics;
+import xyz.morphia.mapping.cache.SharedEntityCacheFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Wraps the EntityCache of a query while a batch of documents is decoded.  Eager references which miss the cache are collected here
+ * rather than being fetched one at a time and are then loaded with one {@code $in} query per collection.  The reads of the reference
+ * fields and any {@code @PostLoad} callbacks are deferred until those queries have completed.
+ *
+ * @morphia.internal
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+class ReferenceBatch implements EntityCache {
+    private final EntityCache cache;
+    private final int batchSize;
+    private final Map<String, Map<Object, PendingReference>> pending = new LinkedHashMap<String, Map<Object, PendingReference>>();
+    private final Set<Key> requested = new HashSet<Key>();
+    private final Map<Key, Object> resolved = new HashMap<Key, Object>();
+    private final Set<Key> missing = new HashSet<Key>();
+    private final List<Runnable> reads = new ArrayList<Runnable>();
+    private final List<Runnable> postLoads = new ArrayList<Runnable>();
+
+    ReferenceBatch(final EntityCache cache, final int batchSize) {
+        this.cache = cache;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return the EntityCache this batch wraps
+     */
+    EntityCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public Boolean exists(final Key<?> k) {
+        return resolved.containsKey(k) ? Boolean.TRUE : cache.exists(k);
+    }
+
+    @Override
+    public void flush() {
+        cache.flush();
+    }
+
+    @Override
+    public <T> T getEntity(final Key<T> k) {
+        final Object entity = resolved.get(k);
+        return entity != null ? (T) entity : cache.getEntity(k);
+    }
+
+    @Override
+    public <T> T getProxy(final Key<T> k) {
+        return cache.getProxy(k);
+    }
+
+    @Override
+    public void notifyExists(final Key<?> k, final boolean exists) {
+        cache.notifyExists(k, exists);
+    }
+
+    @Override
+    public <T> void putEntity(final Key<T> k, final T t) {
+        cache.putEntity(k, t);
+    }
+
+    @Override
+    public <T> void putProxy(final Key<T> k, final T t) {
+        cache.putProxy(k, t);
+    }
+
+    @Override
+    public EntityCacheStatistics stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Registers a reference to load with the next round of queries.
+     *
+     * @param key        the Key the loaded entity will be cached under
+     * @param collection the collection holding the referenced document
+     * @param id         the id of the referenced document
+     * @param mf         the field holding the reference
+     */
+    void defer(final Key key, final DBCollection collection, final Object id, final MappedField mf) {
+        if (!requested.add(key)) {
+            return;
+        }
+        Map<Object, PendingReference> ids = pending.get(collection.getFullName());
+        if (ids == null) {
+            ids = new LinkedHashMap<Object, PendingReference>();
+            pending.put(collection.getFullName(), ids);
+        }
+        if (!ids.containsKey(id)) {
+            ids.put(id, new PendingReference(key, collection, mf));
+        }
+    }
+
+    /**
+     * Queues the read of a reference field to run once all pending references have been loaded.
+     *
+     * @param read the read to perform
+     */
+    void read(final Runnable read) {
+        reads.add(read);
+    }
+
+    /**
+     * Queues the {@code @PostLoad} callbacks of an entity so they run after its references have been filled in.
+     *
+     * @param postLoad the callbacks to run
+     */
+    void postLoad(final Runnable postLoad) {
+        postLoads.add(postLoad);
+    }
+
+    /**
+     * @param key the Key to check
+     * @return true if the Key was queried for in this batch but no document was found
+     */
+    boolean isMissing(final Key key) {
+        return missing.contains(key);
+    }
+
+    /**
+     * Loads every pending reference, including those discovered while decoding the referenced documents, and then runs the deferred
+     * reads and callbacks in the order they were registered.
+     *
+     * @param datastore the Datastore to use when decoding the referenced documents
+     * @param mapper    the Mapper to use
+     */
+    void resolve(final Datastore datastore, final Mapper mapper) {
+        while (!pending.isEmpty()) {
+            final List<Map<Object, PendingReference>> round = new ArrayList<Map<Object, PendingReference>>(pending.values());
+            pending.clear();
+            for (final Map<Object, PendingReference> ids : round) {
+                final List<Object> chunk = new ArrayList<Object>();
+                for (final Object id : ids.keySet()) {
+                    chunk.add(id);
+                    if (chunk.size() == batchSize) {
+                        fetch(datastore, mapper, ids, chunk);
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    fetch(datastore, mapper, ids, chunk);
+                }
+            }
+        }
+
+        for (final Runnable read : reads) {
+            read.run();
+        }
+        reads.clear();
+        for (final Runnable postLoad : postLoads) {
+            postLoad.run();
+        }
+        postLoads.clear();
+    }
+
+    private void fetch(final Datastore datastore, final Mapper mapper, final Map<Object, PendingReference> ids, final List<Object> chunk) {
+        final DBCollection collection = ids.get(chunk.get(0)).collection;
+        final Set<Object> found = new HashSet<Object>();
+        final SharedEntityCacheFactory shared = mapper.getSharedCache();
+        final long stamp = shared != null ? shared.stamp() : 0;
+        long start = System.nanoTime();
+        long loading = 0;
+        final DBCursor cursor = collection.find(new BasicDBObject("_id", new BasicDBObject("$in", chunk)));
+        try {
+            while (cursor.hasNext()) {
+                final DBObject refDbObject = cursor.next();
+                loading += System.nanoTime() - start;
+                final Object id = refDbObject.get("_id");
+                final PendingReference reference = ids.get(id);
+                if (reference != null && found.add(id)) {
+                    Object refObj = mapper.getOptions().getObjectFactory().createInstance(mapper, reference.mf, refDbObject);
+                    if (shared != null) {
+                        shared.put(collection.getFullName(), id, refObj.getClass(), refDbObject, stamp);
+                    }
+                    resolved.put(reference.key, refObj);
+                    refObj = mapper.fromDb(datastore, refDbObject, refObj, this);
+                    resolved.put(reference.key, refObj);
+                    cache.putEntity(reference.key, refObj);
+                }
+                start = System.nanoTime();
+            }
+            loading += System.nanoTime() - start;
+        } finally {
+            cursor.close();
+        }
+        final MorphiaInstrumentation instrumentation = datastore.getInstrumentation();
+        if (instrumentation != null) {
+            instrumentation.record(Span.RESOLVE_REFERENCES, collection.getName(), ids.get(chunk.get(0)).key.getType(), null, loading);
+        }
+
+        for (final Object id : chunk) {
+            if (!found.contains(id)) {
+                missing.add(ids.get(id).key);
+            }
+        }
+    }
+
+    private static final class PendingReference {
+        private final Key key;
+        private final DBCollection collection;
+        private final MappedField mf;
+
+        private PendingReference(final Key key, final DBCollection collection, final MappedField mf) {
+            this.key = key;
+            this.collection = collection;
+            this.mf = mf;
+        }
+    }
+}
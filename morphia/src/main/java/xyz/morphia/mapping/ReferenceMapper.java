@@ -9,11 +9,17 @@ import org.slf4j.LoggerFactory;
 import xyz.morphia.Datastore;
 import xyz.morphia.Key;
 import xyz.morphia.annotations.Reference;
+import xyz.morphia.instrumentation.MorphiaInstrumentation;
+import xyz.morphia.instrumentation.Span;
 import xyz.morphia.mapping.cache.EntityCache;
+import xyz.morphia.mapping.cache.SharedEntityCacheFactory;
+import xyz.morphia.mapping.lazy.GroupingLazyProxyFactory;
 import xyz.morphia.mapping.lazy.LazyFeatureDependencies;
+import xyz.morphia.mapping.lazy.LazyProxyFactory;
 import xyz.morphia.mapping.lazy.proxy.ProxiedEntityReference;
 import xyz.morphia.mapping.lazy.proxy.ProxiedEntityReferenceList;
 import xyz.morphia.mapping.lazy.proxy.ProxiedEntityReferenceMap;
+import xyz.morphia.mapping.lazy.proxy.ProxyGroup;
 import xyz.morphia.mapping.lazy.proxy.ProxyHelper;
 import xyz.morphia.utils.IterHelper;
 import xyz.morphia.utils.IterHelper.IterCallback;
@@ -22,8 +28,11 @@ import xyz.morphia.utils.ReflectionUtils;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * @morphia.internal
@@ -33,6 +42,8 @@ import java.util.Map;
 class ReferenceMapper implements CustomMapper {
     public static final Logger LOG = LoggerFactory.getLogger(ReferenceMapper.class);
 
+    private final Map<EntityCache, Map<Class, ProxyGroup>> proxyGroups = new WeakHashMap<EntityCache, Map<Class, ProxyGroup>>();
+
     @Override
     public void fromDBObject(final Datastore datastore, final DBObject dbObject, final MappedField mf, final Object entity,
                              final EntityCache cache, final Mapper mapper) {
@@ -92,11 +103,38 @@ class ReferenceMapper implements CustomMapper {
         if (proxyAlreadyCreated != null) {
             return proxyAlreadyCreated;
         }
-        final Object newProxy = mapper.getProxyFactory().createProxy(datastore, referenceObjClass, key, anntotation.ignoreMissing());
+        final int groupSize = mapper.getOptions().getLazyReferenceBatchSize();
+        final LazyProxyFactory factory = mapper.getProxyFactory();
+        final Object newProxy = groupSize > 1 && factory instanceof GroupingLazyProxyFactory
+                                ? ((GroupingLazyProxyFactory) factory).createProxy(datastore, referenceObjClass, key,
+                                                                                   anntotation.ignoreMissing(),
+                                                                                   getProxyGroup(cache, referenceObjClass, groupSize))
+                                : factory.createProxy(datastore, referenceObjClass, key, anntotation.ignoreMissing());
         cache.putProxy(key, newProxy);
         return newProxy;
     }
 
+    /**
+     * Finds the group a new proxy joins.  Proxies share a group when they are created for the same type with the same EntityCache, i.e.
+     * while loading the results of the same query.
+     */
+    private ProxyGroup getProxyGroup(final EntityCache cache, final Class referenceObjClass, final int groupSize) {
+        final EntityCache context = cache instanceof ReferenceBatch ? ((ReferenceBatch) cache).getCache() : cache;
+        synchronized (proxyGroups) {
+            Map<Class, ProxyGroup> groups = proxyGroups.get(context);
+            if (groups == null) {
+                groups = new HashMap<Class, ProxyGroup>();
+                proxyGroups.put(context, groups);
+            }
+            ProxyGroup group = groups.get(referenceObjClass);
+            if (group == null || group.isFull()) {
+                group = new ProxyGroup(groupSize);
+                groups.put(referenceObjClass, group);
+            }
+            return group;
+        }
+    }
+
     private Key<?> getKey(final Object entity, final Mapper mapper) {
         try {
             if (entity instanceof ProxiedEntityReference) {
@@ -145,19 +183,34 @@ class ReferenceMapper implements CustomMapper {
         } else {
             final Object dbVal = mf.getDbObjectValue(dbObject);
             final Collection refs = references;
-            new IterHelper<String, Object>().loopOrSingle(dbVal, new IterCallback<Object>() {
+            final Runnable read = new Runnable() {
                 @Override
-                public void eval(final Object val) {
-                    final Object ent = resolveObject(datastore, mapper, cache, mf, refAnn.idOnly(), val);
-                    if (ent == null) {
-                        LOG.warn("Null reference found when retrieving value for " + mf.getFullName());
-                    } else {
-                        refs.add(ent);
-                    }
+                public void run() {
+                    new IterHelper<String, Object>().loopOrSingle(dbVal, new IterCallback<Object>() {
+                        @Override
+                        public void eval(final Object val) {
+                            final Object ent = resolveObject(datastore, mapper, cache, mf, refAnn.idOnly(), val);
+                            if (ent == null) {
+                                LOG.warn("Null reference found when retrieving value for " + mf.getFullName());
+                            } else {
+                                refs.add(ent);
+                            }
+                        }
+                    });
+                    setCollection(mf, entity, refs);
                 }
-            });
+            };
+            final List values = dbVal instanceof List ? (List) dbVal : Collections.singletonList(dbVal);
+            if (!defer(datastore, mapper, cache, mf, refAnn.idOnly(), values, read)) {
+                read.run();
+            }
+            return;
         }
 
+        setCollection(mf, entity, references);
+    }
+
+    private void setCollection(final MappedField mf, final Object entity, final Collection references) {
         if (mf.getType().isArray()) {
             mf.setFieldValue(entity, ReflectionUtils.convertToArray(mf.getSubClass(), ReflectionUtils.iterToList(references)));
         } else {
@@ -178,22 +231,33 @@ class ReferenceMapper implements CustomMapper {
             }
 
             final Map map = m;
-            new IterHelper<Object, Object>().loopMap(dbVal, new MapIterCallback<Object, Object>() {
+            final Runnable read = new Runnable() {
                 @Override
-                public void eval(final Object k, final Object val) {
-
-                    final Object objKey = mapper.getConverters().decode(mf.getMapKeyClass(), k, mf);
-
-                    if (refAnn.lazy() && LazyFeatureDependencies.assertDependencyFullFilled()) {
-                        final ProxiedEntityReferenceMap proxiedMap = (ProxiedEntityReferenceMap) map;
-                        proxiedMap.__put(objKey, refAnn.idOnly()
-                                                 ? mapper.manualRefToKey(referenceObjClass, val)
-                                                 : mapper.refToKey((DBRef) val));
-                    } else {
-                        map.put(objKey, resolveObject(datastore, mapper, cache, mf, refAnn.idOnly(), val));
-                    }
+                public void run() {
+                    new IterHelper<Object, Object>().loopMap(dbVal, new MapIterCallback<Object, Object>() {
+                        @Override
+                        public void eval(final Object k, final Object val) {
+
+                            final Object objKey = mapper.getConverters().decode(mf.getMapKeyClass(), k, mf);
+
+                            if (refAnn.lazy() && LazyFeatureDependencies.assertDependencyFullFilled()) {
+                                final ProxiedEntityReferenceMap proxiedMap = (ProxiedEntityReferenceMap) map;
+                                proxiedMap.__put(objKey, refAnn.idOnly()
+                                                         ? mapper.manualRefToKey(referenceObjClass, val)
+                                                         : mapper.refToKey((DBRef) val));
+                            } else {
+                                map.put(objKey, resolveObject(datastore, mapper, cache, mf, refAnn.idOnly(), val));
+                            }
+                        }
+                    });
+                    mf.setFieldValue(entity, map);
                 }
-            });
+            };
+            if (refAnn.lazy() && LazyFeatureDependencies.assertDependencyFullFilled()
+                || !defer(datastore, mapper, cache, mf, refAnn.idOnly(), dbVal.toMap().values(), read)) {
+                read.run();
+            }
+            return;
         }
         mf.setFieldValue(entity, m);
     }
@@ -203,17 +267,22 @@ class ReferenceMapper implements CustomMapper {
 
         final Object ref = mf.getDbObjectValue(dbObject);
         if (ref != null) {
-            Object resolvedObject;
             if (annotation.lazy() && LazyFeatureDependencies.assertDependencyFullFilled()) {
-                resolvedObject = createOrReuseProxy(datastore, mapper, fieldType, ref, cache, annotation);
+                mf.setFieldValue(entity, createOrReuseProxy(datastore, mapper, fieldType, ref, cache, annotation));
             } else {
-                resolvedObject = resolveObject(datastore, mapper, cache, mf, annotation.idOnly(), ref);
-            }
-
-            if (resolvedObject != null) {
-                mf.setFieldValue(entity, resolvedObject);
+                final Runnable read = new Runnable() {
+                    @Override
+                    public void run() {
+                        final Object resolvedObject = resolveObject(datastore, mapper, cache, mf, annotation.idOnly(), ref);
+                        if (resolvedObject != null) {
+                            mf.setFieldValue(entity, resolvedObject);
+                        }
+                    }
+                };
+                if (!defer(datastore, mapper, cache, mf, annotation.idOnly(), Collections.singletonList(ref), read)) {
+                    read.run();
+                }
             }
-
         }
     }
 
@@ -297,42 +366,96 @@ class ReferenceMapper implements CustomMapper {
         }
     }
 
+    /**
+     * Registers any unresolved references with the current {@link ReferenceBatch}, if there is one, and queues the read to run once they
+     * have been fetched.
+     *
+     * @return true if the read was deferred
+     */
+    private boolean defer(final Datastore datastore, final Mapper mapper, final EntityCache cache, final MappedField mf,
+                          final boolean idOnly, final Collection<?> refs, final Runnable read) {
+        if (!(cache instanceof ReferenceBatch)) {
+            return false;
+        }
+        final ReferenceBatch batch = (ReferenceBatch) cache;
+        final SharedEntityCacheFactory shared = mapper.getSharedCache();
+        boolean deferred = false;
+        for (final Object ref : refs) {
+            if (ref != null) {
+                final Key key = toKey(mapper, mf, idOnly, ref);
+                if (batch.getEntity(key) == null && !batch.isMissing(key)) {
+                    final DBCollection collection = getCollection(datastore, key, idOnly, ref);
+                    final Object id = getId(mapper, idOnly, ref);
+                    // documents in the shared cache are resolved by the read itself without a query
+                    if (shared == null || !shared.contains(collection.getFullName(), id)) {
+                        batch.defer(key, collection, id, mf);
+                        deferred = true;
+                    }
+                }
+            }
+        }
+        if (deferred) {
+            batch.read(read);
+        }
+        return deferred;
+    }
+
+    private Key toKey(final Mapper mapper, final MappedField mf, final boolean idOnly, final Object ref) {
+        return mapper.createKey(mf.isSingleValue() ? mf.getType() : mf.getSubClass(), idOnly ? ref : ((DBRef) ref).getId());
+    }
+
+    private DBCollection getCollection(final Datastore datastore, final Key key, final boolean idOnly, final Object ref) {
+        return idOnly
+               ? datastore.getCollection(key.getType())
+               : datastore.getDB().getCollection(((DBRef) ref).getCollectionName());
+    }
+
+    private Object getId(final Mapper mapper, final boolean idOnly, final Object ref) {
+        final Object id = idOnly ? ref : ((DBRef) ref).getId();
+        if (id instanceof DBObject) {
+            ((DBObject) id).removeField(mapper.getOptions().getDiscriminatorField());
+        }
+        return id;
+    }
+
     Object resolveObject(final Datastore datastore, final Mapper mapper, final EntityCache cache, final MappedField mf,
                          final boolean idOnly, final Object ref) {
         if (ref == null) {
             return null;
         }
 
-        final DBRef dbRef = idOnly ? null : (DBRef) ref;
-        final Key key = mapper.createKey(mf.isSingleValue() ? mf.getType() : mf.getSubClass(),
-                                         idOnly ? ref : dbRef.getId());
+        final Key key = toKey(mapper, mf, idOnly, ref);
 
         final Object cached = cache.getEntity(key);
         if (cached != null) {
             return cached;
         }
 
-        final DBObject refDbObject;
-        DBCollection collection;
-        Object id;
-
-        if (idOnly) {
-            collection = datastore.getCollection(key.getType());
-            id = ref;
-        } else {
-            collection = datastore.getDB().getCollection(dbRef.getCollectionName());
-            id = dbRef.getId();
-        }
-        if (id instanceof DBObject) {
-            ((DBObject) id).removeField(mapper.getOptions().getDiscriminatorField());
-        }
-        refDbObject = collection.findOne(id);
+        if (!(cache instanceof ReferenceBatch) || !((ReferenceBatch) cache).isMissing(key)) {
+            final SharedEntityCacheFactory shared = mapper.getSharedCache();
+            final DBCollection collection = getCollection(datastore, key, idOnly, ref);
+            final Object id = getId(mapper, idOnly, ref);
+            DBObject refDbObject = shared != null ? shared.getDocument(collection.getFullName(), id) : null;
+            final boolean fetch = refDbObject == null;
+            final long stamp = shared != null ? shared.stamp() : 0;
+            if (fetch) {
+                final long start = System.nanoTime();
+                refDbObject = collection.findOne(id);
+                final MorphiaInstrumentation instrumentation = datastore.getInstrumentation();
+                if (instrumentation != null) {
+                    instrumentation.record(Span.RESOLVE_REFERENCES, collection.getName(), key.getType(), null, System.nanoTime() - start);
+                }
+            }
 
-        if (refDbObject != null) {
-            Object refObj = mapper.getOptions().getObjectFactory().createInstance(mapper, mf, refDbObject);
-            refObj = mapper.fromDb(datastore, refDbObject, refObj, cache);
-            cache.putEntity(key, refObj);
-            return refObj;
+            if (refDbObject != null) {
+                Object refObj = mapper.getOptions().getObjectFactory().createInstance(mapper, mf, refDbObject);
+                if (fetch && shared != null) {
+                    shared.put(collection.getFullName(), id, refObj.getClass(), refDbObject, stamp);
+                }
+                refObj = mapper.fromDb(datastore, refDbObject, refObj, cache);
+                cache.putEntity(key, refObj);
+                return refObj;
+            }
         }
 
         final boolean ignoreMissing = mf.getAnnotation(Reference.class) != null && mf.getAnnotation(Reference.class).ignoreMissing();
@@ -0,0 +1,23 @@
+package xyz.morphia.mapping.accessor;
+
+/**
+ * Reads and writes the value of a single mapped java field.
+ */
+public interface FieldAccessor {
+
+    /**
+     * Reads the value of the field
+     *
+     * @param instance the instance to read from
+     * @return the value of the field, boxed if the field is a primitive
+     */
+    Object get(Object instance);
+
+    /**
+     * Writes the value of the field
+     *
+     * @param instance the instance to update
+     * @param value    the value to store
+     */
+    void set(Object instance, Object value);
+}
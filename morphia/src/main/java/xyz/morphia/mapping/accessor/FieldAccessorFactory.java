@@ -0,0 +1,17 @@
+package xyz.morphia.mapping.accessor;
+
+import java.lang.reflect.Field;
+
+/**
+ * Factory for field accessors.
+ */
+public interface FieldAccessorFactory {
+
+    /**
+     * Called once for each field as it is mapped.  The accessor is then used for every read and write of that field.
+     *
+     * @param field the field to access
+     * @return the accessor
+     */
+    FieldAccessor createAccessor(Field field);
+}
@@ -0,0 +1,38 @@
+package xyz.morphia.mapping.accessor;
+
+import java.lang.reflect.Field;
+
+/**
+ * Accesses a field through {@link Field#get(Object)} and {@link Field#set(Object, Object)}.
+ */
+public class ReflectiveFieldAccessor implements FieldAccessor {
+    private final Field field;
+
+    /**
+     * Creates an accessor for the field
+     *
+     * @param field the field to access
+     */
+    public ReflectiveFieldAccessor(final Field field) {
+        field.setAccessible(true);
+        this.field = field;
+    }
+
+    @Override
+    public Object get(final Object instance) {
+        try {
+            return field.get(instance);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void set(final Object instance, final Object value) {
+        try {
+            field.set(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package xyz.morphia.mapping.accessor;
+
+import java.lang.reflect.Field;
+
+/**
+ * Creates accessors which use plain reflection for every field.  This is the default factory.  Accessors generated for the entities of
+ * an application can be plugged in through {@link xyz.morphia.mapping.MapperOptions.Builder#fieldAccessorFactory(FieldAccessorFactory)}
+ * instead.
+ */
+public class ReflectiveFieldAccessorFactory implements FieldAccessorFactory {
+
+    @Override
+    public FieldAccessor createAccessor(final Field field) {
+        return new ReflectiveFieldAccessor(field);
+    }
+}
@@ -0,0 +1,152 @@
+package xyz.morphia.mapping.cache;
+
+
+import xyz.morphia.Key;
+import xyz.morphia.mapping.lazy.LazyFeatureDependencies;
+import xyz.morphia.mapping.lazy.proxy.ProxyHelper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * An EntityCache which holds at most a given number of entities, existence flags and proxies each, forgetting the least recently used
+ * ones to make room.  Used to stream through large results without the cache growing with every document read.  Entities forgotten by
+ * the cache are simply loaded again if they are referenced later on.
+ *
+ * @see xyz.morphia.query.FindOptions#streaming(int)
+ * @since 1.5
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class BoundedEntityCache implements EntityCache {
+    private final LruMap<Object> entityMap;
+    private final Map<Key, Object> proxyMap;
+    private final Map<Key, Boolean> existenceMap;
+    private final EntityCacheStatistics stats = new EntityCacheStatistics();
+
+    /**
+     * Creates a cache
+     *
+     * @param maxEntries the most entities to hold.  This needs to be large enough to hold every entity a single document references,
+     *                   directly or not, for cyclic references to resolve.
+     */
+    public BoundedEntityCache(final int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        entityMap = new LruMap<Object>(maxEntries);
+        proxyMap = new LruMap<Object>(maxEntries);
+        existenceMap = new LruMap<Boolean>(maxEntries);
+    }
+
+    @Override
+    public Boolean exists(final Key<?> k) {
+        if (entityMap.containsKey(k)) {
+            stats.incHits();
+            return true;
+        }
+
+        final Boolean b = existenceMap.get(k);
+        if (b == null) {
+            stats.incMisses();
+        } else {
+            stats.incHits();
+        }
+        return b;
+    }
+
+    @Override
+    public void flush() {
+        entityMap.clear();
+        existenceMap.clear();
+        proxyMap.clear();
+        stats.reset();
+    }
+
+    @Override
+    public <T> T getEntity(final Key<T> k) {
+        final Object o = entityMap.get(k);
+        if (o == null) {
+            if (LazyFeatureDependencies.testDependencyFullFilled()) {
+                final Object proxy = proxyMap.get(k);
+                if (proxy != null) {
+                    stats.incHits();
+                    return (T) ProxyHelper.unwrap(proxy);
+                }
+            }
+            stats.incMisses();
+        } else {
+            stats.incHits();
+        }
+        return (T) o;
+    }
+
+    @Override
+    public <T> T getProxy(final Key<T> k) {
+        final Object o = proxyMap.get(k);
+        if (o == null) {
+            stats.incMisses();
+        } else {
+            stats.incHits();
+        }
+        return (T) o;
+    }
+
+    @Override
+    public void notifyExists(final Key<?> k, final boolean exists) {
+        final Boolean put = existenceMap.put(k, exists);
+        if (put == null || !put) {
+            stats.incEntities();
+        }
+    }
+
+    @Override
+    public <T> void putEntity(final Key<T> k, final T t) {
+        notifyExists(k, true); // already registers a write
+        entityMap.put(k, t);
+    }
+
+    @Override
+    public <T> void putProxy(final Key<T> k, final T t) {
+        proxyMap.put(k, t);
+        stats.incEntities();
+    }
+
+    /**
+     * @return the number of entities currently held
+     */
+    public int size() {
+        return entityMap.size();
+    }
+
+    /**
+     * @return the number of entities forgotten so far to make room for others
+     */
+    public long getEvictions() {
+        return entityMap.evictions;
+    }
+
+    @Override
+    public EntityCacheStatistics stats() {
+        return stats.copy();
+    }
+
+    private static final class LruMap<V> extends LinkedHashMap<Key, V> {
+        private final int maxEntries;
+        private long evictions;
+
+        private LruMap(final int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, V> eldest) {
+            if (size() > maxEntries) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -6,8 +6,28 @@ package xyz.morphia.mapping.cache;
  */
 public class EntityCacheStatistics {
     private int entities;
-    private int hits;
-    private int misses;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates empty statistics
+     */
+    public EntityCacheStatistics() {
+    }
+
+    /**
+     * Creates statistics with the given counts
+     *
+     * @param entities the number of entities
+     * @param hits     the number of hits
+     * @param misses   the number of misses
+     * @since 1.5
+     */
+    protected EntityCacheStatistics(final int entities, final long hits, final long misses) {
+        this.entities = entities;
+        this.hits = hits;
+        this.misses = misses;
+    }
 
     /**
      * Copies the statistics
@@ -22,6 +42,30 @@ public class EntityCacheStatistics {
         return copy;
     }
 
+    /**
+     * @return the number of entities
+     * @since 1.5
+     */
+    public int getEntities() {
+        return entities;
+    }
+
+    /**
+     * @return the number of lookups which found an entity
+     * @since 1.5
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups which found nothing
+     * @since 1.5
+     */
+    public long getMisses() {
+        return misses;
+    }
+
     /**
      * Increments the entity count
      */
@@ -0,0 +1,370 @@
+package xyz.morphia.mapping.cache;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import xyz.morphia.annotations.Cached;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * An EntityCacheFactory which, on top of the per query caches, keeps a process wide cache of the documents loaded to resolve
+ * {@link xyz.morphia.annotations.Reference}s to types annotated with {@link Cached}.  A reference found in this cache is decoded from the
+ * cached document rather than fetched from the database, so hot reference targets are read once rather than once per query.  Documents
+ * rather than entities are kept so that no two queries ever share an instance.
+ * <p>
+ * The cache holds at most a given number of documents and a given estimated number of bytes, evicting the least recently used documents
+ * to make room, and drops documents once they are older than their time to live.  The Datastore removes the documents affected by each
+ * save, merge, update, delete and findAndModify it performs.  Writes which can not be traced to particular ids remove every document of
+ * the collection.  Writes made by other processes are only seen once the cached documents expire.
+ * <p>
+ * Documents are keyed by the namespace of their collection, the database name and the collection name joined by a dot as given by
+ * {@link com.mongodb.DBCollection#getFullName()}, so that Datastores on different databases never share documents.
+ * <p>
+ * A single instance is meant to be shared by every Mapper of the process:
+ * <pre>
+ * MapperOptions.builder().cacheFactory(new SharedEntityCacheFactory(10000, 64 * 1024 * 1024, 300)).build()
+ * </pre>
+ *
+ * @since 1.5
+ */
+public class SharedEntityCacheFactory implements EntityCacheFactory {
+    private static final long NOT_CACHED = -2;
+    private static final int OBJECT_OVERHEAD = 16;
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long expireAfterNanos;
+    private final Map<DocumentKey, CachedDocument> documents = new LinkedHashMap<DocumentKey, CachedDocument>(16, 0.75f, true);
+    private final Set<String> namespaces = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final Map<Class<?>, Long> expirations = new ConcurrentHashMap<Class<?>, Long>();
+    private final AtomicLong generation = new AtomicLong();
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictionCount;
+    private long expirationCount;
+    private long invalidationCount;
+
+    /**
+     * Creates a cache holding up to 10,000 documents or 64MB for up to 5 minutes each
+     */
+    public SharedEntityCacheFactory() {
+        this(10000, 64 * 1024 * 1024, 300);
+    }
+
+    /**
+     * Creates a cache
+     *
+     * @param maxEntries         the most documents to hold
+     * @param maxWeight          the most bytes, as estimated from the documents, to hold
+     * @param expireAfterSeconds how many seconds a document may be served for unless its type sets its own limit with
+     *                           {@link Cached#expireAfterSeconds()}
+     */
+    public SharedEntityCacheFactory(final int maxEntries, final long maxWeight, final long expireAfterSeconds) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.expireAfterNanos = TimeUnit.SECONDS.toNanos(expireAfterSeconds);
+    }
+
+    @Override
+    public EntityCache createCache() {
+        return new DefaultEntityCache();
+    }
+
+    /**
+     * Removes every document
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        synchronized (documents) {
+            documents.clear();
+            weight = 0;
+        }
+    }
+
+    /**
+     * @param namespace  the namespace of the collection of the document
+     * @param id         the id of the document as stored
+     * @return true if the document is in the cache.  This does not count as a hit or a miss.
+     * @morphia.internal
+     */
+    public boolean contains(final String namespace, final Object id) {
+        if (!namespaces.contains(namespace)) {
+            return false;
+        }
+        synchronized (documents) {
+            final CachedDocument cached = documents.get(new DocumentKey(namespace, id));
+            return cached != null && !cached.isExpired(System.nanoTime());
+        }
+    }
+
+    /**
+     * @param namespace  the namespace of the collection of the document
+     * @param id         the id of the document as stored
+     * @return a copy of the cached document, or null if it is not in the cache
+     * @morphia.internal
+     */
+    public DBObject getDocument(final String namespace, final Object id) {
+        if (!namespaces.contains(namespace)) {
+            return null;
+        }
+        final CachedDocument cached;
+        synchronized (documents) {
+            final DocumentKey key = new DocumentKey(namespace, id);
+            final CachedDocument found = documents.get(key);
+            if (found != null && found.isExpired(System.nanoTime())) {
+                remove(key);
+                expirationCount++;
+                cached = null;
+            } else {
+                cached = found;
+            }
+            if (cached == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+        }
+        return (DBObject) cached.document.copy();
+    }
+
+    /**
+     * Removes a document
+     *
+     * @param namespace  the namespace of the collection of the document
+     * @param id         the id of the document as stored
+     * @morphia.internal
+     */
+    public void invalidate(final String namespace, final Object id) {
+        generation.incrementAndGet();
+        if (namespaces.contains(namespace)) {
+            synchronized (documents) {
+                if (remove(new DocumentKey(namespace, id)) != null) {
+                    invalidationCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the documents a write with the given query filter may have changed.  Filters on a single id or a plain {@code $in} of ids
+     * remove only those documents, any other filter removes every document of the collection.
+     *
+     * @param namespace  the namespace of the collection written to
+     * @param query      the filter of the write
+     * @morphia.internal
+     */
+    public void invalidateMatching(final String namespace, final DBObject query) {
+        final Object id = query == null ? null : query.get("_id");
+        if (id == null) {
+            invalidateAll(namespace);
+        } else if (!(id instanceof DBObject) || !isOperator((DBObject) id)) {
+            invalidate(namespace, id);
+        } else {
+            final DBObject operators = (DBObject) id;
+            final Object in = operators.get("$in");
+            if (operators.keySet().size() == 1 && in instanceof Collection) {
+                for (final Object each : (Collection<?>) in) {
+                    invalidate(namespace, each);
+                }
+            } else {
+                invalidateAll(namespace);
+            }
+        }
+    }
+
+    /**
+     * Removes every document of a collection
+     *
+     * @param namespace  the namespace of the collection
+     * @morphia.internal
+     */
+    public void invalidateAll(final String namespace) {
+        generation.incrementAndGet();
+        if (namespaces.contains(namespace)) {
+            synchronized (documents) {
+                final Iterator<Entry<DocumentKey, CachedDocument>> iterator = documents.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    final Entry<DocumentKey, CachedDocument> entry = iterator.next();
+                    if (entry.getKey().namespace.equals(namespace)) {
+                        weight -= entry.getValue().weight;
+                        iterator.remove();
+                        invalidationCount++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Caches a document if its type is annotated with {@link Cached}
+     *
+     * @param namespace  the namespace of the collection of the document
+     * @param id         the id of the document as stored
+     * @param type       the type the document is decoded to
+     * @param document   the document.  A copy is cached so the document itself may still be changed.
+     * @param stamp      the value of {@link #stamp()} taken before the document was read.  If anything has been invalidated since, the
+     *                   document might be stale and is not cached.
+     * @morphia.internal
+     */
+    public void put(final String namespace, final Object id, final Class<?> type, final DBObject document, final long stamp) {
+        final long expireAfter = getExpireAfterNanos(type);
+        if (expireAfter == NOT_CACHED || !(document instanceof BasicDBObject)) {
+            return;
+        }
+        final long documentWeight = estimateWeight(document);
+        if (documentWeight > maxWeight) {
+            return;
+        }
+        final CachedDocument cached = new CachedDocument((BasicDBObject) ((BasicDBObject) document).copy(), documentWeight,
+                                                         System.nanoTime() + expireAfter);
+        namespaces.add(namespace);
+        synchronized (documents) {
+            if (stamp != generation.get()) {
+                return;
+            }
+            final DocumentKey key = new DocumentKey(namespace, id);
+            remove(key);
+            documents.put(key, cached);
+            weight += documentWeight;
+
+            final Iterator<CachedDocument> eldest = documents.values().iterator();
+            while ((documents.size() > maxEntries || weight > maxWeight) && eldest.hasNext()) {
+                weight -= eldest.next().weight;
+                eldest.remove();
+                evictionCount++;
+            }
+        }
+    }
+
+    /**
+     * @return a value to pass to {@link #put(String, Object, Class, DBObject, long)}.  Take it before reading the document to cache.
+     * @morphia.internal
+     */
+    public long stamp() {
+        return generation.get();
+    }
+
+    /**
+     * @return the statistics of this cache
+     */
+    public SharedEntityCacheStatistics stats() {
+        synchronized (documents) {
+            return new SharedEntityCacheStatistics(documents.size(), weight, hits, misses, evictionCount, expirationCount,
+                                                   invalidationCount);
+        }
+    }
+
+    private long getExpireAfterNanos(final Class<?> type) {
+        Long expireAfter = expirations.get(type);
+        if (expireAfter == null) {
+            final Cached cached = type.getAnnotation(Cached.class);
+            if (cached == null) {
+                expireAfter = NOT_CACHED;
+            } else if (cached.expireAfterSeconds() < 0) {
+                expireAfter = expireAfterNanos;
+            } else {
+                expireAfter = TimeUnit.SECONDS.toNanos(cached.expireAfterSeconds());
+            }
+            expirations.put(type, expireAfter);
+        }
+        return expireAfter;
+    }
+
+    private boolean isOperator(final DBObject value) {
+        for (final String key : value.keySet()) {
+            if (key.startsWith("$")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CachedDocument remove(final DocumentKey key) {
+        final CachedDocument removed = documents.remove(key);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+        return removed;
+    }
+
+    /**
+     * Estimates the number of bytes a document takes on the heap.  This only needs to be good enough to keep the cache in bounds.
+     */
+    private static long estimateWeight(final Object value) {
+        if (value instanceof Map) {
+            long total = OBJECT_OVERHEAD * 2;
+            for (final Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                total += OBJECT_OVERHEAD + estimateWeight(entry.getKey()) + estimateWeight(entry.getValue());
+            }
+            return total;
+        } else if (value instanceof DBObject) {
+            return estimateWeight(((DBObject) value).toMap());
+        } else if (value instanceof Collection) {
+            long total = OBJECT_OVERHEAD * 2;
+            for (final Object each : (Collection<?>) value) {
+                total += 8 + estimateWeight(each);
+            }
+            return total;
+        } else if (value instanceof CharSequence) {
+            return OBJECT_OVERHEAD * 2 + 2L * ((CharSequence) value).length();
+        } else if (value instanceof byte[]) {
+            return OBJECT_OVERHEAD + ((byte[]) value).length;
+        }
+        return OBJECT_OVERHEAD + 8;
+    }
+
+    private static final class DocumentKey {
+        private final String namespace;
+        private final Object id;
+
+        private DocumentKey(final String namespace, final Object id) {
+            this.namespace = namespace;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DocumentKey)) {
+                return false;
+            }
+            final DocumentKey that = (DocumentKey) o;
+            return namespace.equals(that.namespace) && (id == null ? that.id == null : id.equals(that.id));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * namespace.hashCode() + (id == null ? 0 : id.hashCode());
+        }
+    }
+
+    private static final class CachedDocument {
+        private final BasicDBObject document;
+        private final long weight;
+        private final long expiresAt;
+
+        private CachedDocument(final BasicDBObject document, final long weight, final long expiresAt) {
+            this.document = document;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(final long now) {
+            return now - expiresAt > 0;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package xyz.morphia.mapping.cache;
+
+
+/**
+ * The statistics of a {@link SharedEntityCacheFactory}.  On top of the counts of every EntityCache these record why documents left the
+ * cache.
+ *
+ * @since 1.5
+ */
+public class SharedEntityCacheStatistics extends EntityCacheStatistics {
+    private final long weight;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+
+    SharedEntityCacheStatistics(final int entities, final long weight, final long hits, final long misses, final long evictions,
+                                final long expirations, final long invalidations) {
+        super(entities, hits, misses);
+        this.weight = weight;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+    }
+
+    @Override
+    public EntityCacheStatistics copy() {
+        return new SharedEntityCacheStatistics(getEntities(), weight, getHits(), getMisses(), evictions, expirations, invalidations);
+    }
+
+    /**
+     * @return the estimated number of bytes held by the cached documents
+     */
+    public long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return the number of documents removed to stay within the size and weight limits
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of documents removed because they were older than their time to live
+     */
+    public long getExpirations() {
+        return expirations;
+    }
+
+    /**
+     * @return the number of documents removed because they were written through the Datastore
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + ": " + getEntities() + " entities, " + weight + " bytes, " + getHits() + " hits, "
+               + getMisses() + " misses, " + evictions + " evictions, " + expirations + " expirations, " + invalidations
+               + " invalidations.";
+    }
+}
@@ -12,6 +12,7 @@ import xyz.morphia.mapping.lazy.proxy.ProxiedEntityReferenceMap;
 import xyz.morphia.mapping.lazy.proxy.CollectionObjectReference;
 import xyz.morphia.mapping.lazy.proxy.EntityObjectReference;
 import xyz.morphia.mapping.lazy.proxy.MapObjectReference;
+import xyz.morphia.mapping.lazy.proxy.ProxyGroup;
 
 import java.io.Serializable;
 import java.util.Collection;
@@ -24,7 +25,7 @@ import java.util.Map;
  * @author uwe schaefer
  */
 @SuppressWarnings("unchecked")
-public class CGLibLazyProxyFactory implements LazyProxyFactory {
+public class CGLibLazyProxyFactory implements GroupingLazyProxyFactory {
     private final CglibProxyFactory factory = new CglibProxyFactory();
 
     @Override
@@ -60,8 +61,14 @@ public class CGLibLazyProxyFactory implements LazyProxyFactory {
 
     @Override
     public <T> T createProxy(final Datastore datastore, final Class<T> targetClass, final Key<T> key, final boolean ignoreMissing) {
+        return createProxy(datastore, targetClass, key, ignoreMissing, null);
+    }
+
+    @Override
+    public <T> T createProxy(final Datastore datastore, final Class<T> targetClass, final Key<T> key, final boolean ignoreMissing,
+                             final ProxyGroup group) {
 
-        final EntityObjectReference objectReference = new EntityObjectReference(datastore, targetClass, key, ignoreMissing);
+        final EntityObjectReference objectReference = new EntityObjectReference(datastore, targetClass, key, ignoreMissing, group);
 
         final T backend = (T) new NonFinalizingHotSwappingInvoker(new Class[]{targetClass, Serializable.class}, factory, objectReference,
                                                                   DelegationMode.SIGNATURE).proxy();
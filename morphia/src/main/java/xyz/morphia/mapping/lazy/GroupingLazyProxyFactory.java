@@ -0,0 +1,29 @@
+package xyz.morphia.mapping.lazy;
+
+
+import xyz.morphia.Datastore;
+import xyz.morphia.Key;
+import xyz.morphia.mapping.lazy.proxy.ProxyGroup;
+
+
+/**
+ * A LazyProxyFactory whose entity proxies can be loaded in groups.  Factories which do not implement it still get one query per proxy.
+ *
+ * @see xyz.morphia.mapping.MapperOptions#getLazyReferenceBatchSize()
+ * @since 1.5
+ */
+public interface GroupingLazyProxyFactory extends LazyProxyFactory {
+    /**
+     * Creates a proxy for a Class which is loaded together with the other proxies of its group.
+     *
+     * @param <T>               the type of the entity
+     * @param datastore         the Datastore to use when fetching this reference
+     * @param targetClass       the referenced object's Class
+     * @param key               the Key of the reference
+     * @param ignoreMissing     ignore references that don't exist in the database
+     * @param group             the group the proxy joins
+     * @return the proxy
+     */
+    <T> T createProxy(final Datastore datastore, Class<T> targetClass, final Key<T> key, final boolean ignoreMissing,
+                      final ProxyGroup group);
+}
@@ -3,11 +3,14 @@ package xyz.morphia.mapping.lazy.proxy;
 
 import com.thoughtworks.proxy.kit.ObjectReference;
 import xyz.morphia.Datastore;
+import xyz.morphia.DatastoreImpl;
 import xyz.morphia.Key;
 
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 
 /**
@@ -76,6 +79,24 @@ public abstract class AbstractReference implements Serializable, ObjectReference
         return getDatastore().getByKey(referenceObjClass, id);
     }
 
+    /**
+     * Fetches the entities for a list of keys, with one query per collection when the Datastore supports it.
+     *
+     * @param keys the keys to fetch
+     * @return the entities in the order of the keys with null for each key whose document could not be found
+     */
+    @SuppressWarnings("unchecked")
+    protected final List<Object> fetch(final List<Key<?>> keys) {
+        if (datastore instanceof DatastoreImpl) {
+            return ((DatastoreImpl) datastore).getByKeysInOrder((List) keys);
+        }
+        final List<Object> entities = new ArrayList<Object>(keys.size());
+        for (final Key<?> key : keys) {
+            entities.add(fetch(key));
+        }
+        return entities;
+    }
+
     protected abstract Object fetch();
 
     private void writeObject(final ObjectOutputStream out) throws IOException {
@@ -13,6 +13,7 @@ import static java.lang.String.format;
 public class EntityObjectReference extends AbstractReference implements ProxiedEntityReference {
     private static final long serialVersionUID = 1L;
     private final Key key;
+    private final transient ProxyGroup group;
 
     /**
      * Creates an object reference
@@ -23,8 +24,27 @@ public class EntityObjectReference extends AbstractReference implements ProxiedE
      * @param ignoreMissing ignore references that don't exist in the database
      */
     public EntityObjectReference(final Datastore datastore, final Class targetClass, final Key key, final boolean ignoreMissing) {
+        this(datastore, targetClass, key, ignoreMissing, null);
+    }
+
+    /**
+     * Creates an object reference which is loaded together with the other references of its group
+     *
+     * @param datastore     the Datastore to use when fetching this reference
+     * @param targetClass   the Class of the referenced item
+     * @param key           the Key value
+     * @param ignoreMissing ignore references that don't exist in the database
+     * @param group         the group to join, or null to load this reference on its own
+     * @since 1.5
+     */
+    public EntityObjectReference(final Datastore datastore, final Class targetClass, final Key key, final boolean ignoreMissing,
+                                 final ProxyGroup group) {
         super(datastore, targetClass, ignoreMissing);
         this.key = key;
+        this.group = group;
+        if (group != null) {
+            group.add(this);
+        }
     }
 
     //CHECKSTYLE:OFF
@@ -42,7 +62,7 @@ public class EntityObjectReference extends AbstractReference implements ProxiedE
     @Override
     @SuppressWarnings("unchecked")
     protected Object fetch() {
-        final Object entity = getDatastore().getByKey(referenceObjClass, key);
+        final Object entity = group != null ? group.fetch(this) : getDatastore().getByKey(referenceObjClass, key);
         if (entity == null && !ignoreMissing) {
             throw new LazyReferenceFetchingException(format("During the lifetime of the proxy, the Entity identified by '%s' "
                                                                 + "disappeared from the Datastore.", key));
@@ -4,8 +4,10 @@ package xyz.morphia.mapping.lazy.proxy;
 import xyz.morphia.Datastore;
 import xyz.morphia.Key;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -58,13 +60,10 @@ public class MapObjectReference extends AbstractReference implements ProxiedEnti
     protected Object fetch() {
         final Map m = (Map) object;
         m.clear();
-        // TODO us: change to getting them all at once and yell according to
-        // ignoreMissing in order to a) increase performance and b) resolve
-        // equals keys to the same instance
-        // that should really be done in datastore.
-        for (final Map.Entry<?, Key<?>> e : keyMap.entrySet()) {
-            final Key<?> entityKey = e.getValue();
-            m.put(e.getKey(), fetch(entityKey));
+        final List<Object> entities = fetch(new ArrayList<Key<?>>(keyMap.values()));
+        int index = 0;
+        for (final Object key : keyMap.keySet()) {
+            m.put(key, entities.get(index++));
         }
         return m;
     }
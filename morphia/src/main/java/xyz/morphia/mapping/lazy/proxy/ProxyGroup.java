@@ -0,0 +1,87 @@
+package xyz.morphia.mapping.lazy.proxy;
+
+
+import xyz.morphia.Key;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+
+/**
+ * A group of lazy entity references created for the same type while loading the results of one query.  The first time any reference of
+ * the group is used, every reference of the group which has not been loaded yet is fetched with one {@code $in} query and the others
+ * pick up their entities from the group when they are used in turn.
+ * <p>
+ * The group only holds its references weakly, so that the entity loaded for a proxy which is never used is released along with the
+ * proxy rather than with the whole group.
+ *
+ * @morphia.internal
+ * @since 1.5
+ */
+public final class ProxyGroup {
+    private final int maxSize;
+    private final List<WeakReference<EntityObjectReference>> pending = new ArrayList<WeakReference<EntityObjectReference>>();
+    private final Map<EntityObjectReference, Object> loaded = new WeakHashMap<EntityObjectReference, Object>();
+    private int size;
+
+    /**
+     * Creates a group
+     *
+     * @param maxSize the most references the group will take
+     */
+    public ProxyGroup(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return true if the group can take no more references
+     */
+    public synchronized boolean isFull() {
+        return size >= maxSize;
+    }
+
+    /**
+     * @return the number of entities loaded for references which have not been used yet
+     */
+    synchronized int getLoadedCount() {
+        return loaded.size();
+    }
+
+    synchronized void add(final EntityObjectReference reference) {
+        pending.add(new WeakReference<EntityObjectReference>(reference));
+        size++;
+    }
+
+    /**
+     * Returns the entity of a reference, loading it along with every other pending reference of the group if it has not been loaded
+     * yet.  The lock on the group is only ever taken while holding the lock of a single reference, never the other way around.
+     */
+    synchronized Object fetch(final EntityObjectReference reference) {
+        if (loaded.containsKey(reference)) {
+            return loaded.remove(reference);
+        }
+
+        final List<EntityObjectReference> batch = new ArrayList<EntityObjectReference>(pending.size() + 1);
+        batch.add(reference);
+        for (final WeakReference<EntityObjectReference> each : pending) {
+            final EntityObjectReference other = each.get();
+            if (other != null && other != reference) {
+                batch.add(other);
+            }
+        }
+        pending.clear();
+
+        final List<Key<?>> keys = new ArrayList<Key<?>>(batch.size());
+        for (final EntityObjectReference each : batch) {
+            keys.add(each.__getKey());
+        }
+        final List<Object> entities = reference.fetch(keys);
+        for (int i = 1; i < batch.size(); i++) {
+            loaded.put(batch.get(i), entities.get(i));
+        }
+        return entities.get(0);
+    }
+}
@@ -34,6 +34,10 @@ import java.util.concurrent.TimeUnit;
  */
 public class FindOptions {
     private DBCollectionFindOptions options = new DBCollectionFindOptions();
+    private int cacheWindow = -1;
+    private int decodeThreads;
+    private int readAheadBatches;
+    private long readAheadBytes;
 
     /**
      * Creates an empty options instance.
@@ -50,7 +54,12 @@ public class FindOptions {
      * @return the new copy
      */
     public FindOptions copy() {
-        return new FindOptions(options.copy());
+        final FindOptions copy = new FindOptions(options.copy());
+        copy.cacheWindow = cacheWindow;
+        copy.decodeThreads = decodeThreads;
+        copy.readAheadBatches = readAheadBatches;
+        copy.readAheadBytes = readAheadBytes;
+        return copy;
     }
 
     /**
@@ -391,6 +400,172 @@ public class FindOptions {
         return this;
     }
 
+    /**
+     * Returns the number of entities an iteration in streaming mode keeps to avoid loading the same entity twice.
+     *
+     * @return the size of the cache window, or -1 if streaming is disabled
+     * @see #streaming(int)
+     * @since 1.5
+     */
+    public int getCacheWindow() {
+        return cacheWindow;
+    }
+
+    /**
+     * Returns whether results are iterated in streaming mode.  The default is false.
+     *
+     * @return true if streaming
+     * @see #streaming(int)
+     * @since 1.5
+     */
+    public boolean isStreaming() {
+        return cacheWindow >= 0;
+    }
+
+    /**
+     * Iterates the results in streaming mode.  By default the EntityCache of an iteration remembers every entity it loads so that the
+     * same entity is never loaded twice, which makes memory grow with the size of the results.  In streaming mode the cache only keeps
+     * the given number of most recently used entities, or with a window of 0 keeps entities only while the document which loaded them
+     * is decoded.  A window of 0 suits entities without references, while a window large enough to hold the references of a document
+     * and the entities they commonly share keeps those from being loaded once per document.
+     *
+     * @param cacheWindow the number of entities to keep, 0 to keep none between documents
+     * @return this
+     * @see xyz.morphia.mapping.cache.BoundedEntityCache
+     * @since 1.5
+     */
+    public FindOptions streaming(final int cacheWindow) {
+        if (cacheWindow < 0) {
+            throw new IllegalArgumentException("cacheWindow can not be negative: " + cacheWindow);
+        }
+        this.cacheWindow = cacheWindow;
+        return this;
+    }
+
+    /**
+     * Returns the number of threads the results are decoded on.  The default is 0.
+     *
+     * @return the number of threads, or 0 if the results are decoded by the thread reading them
+     * @see #parallelDecode(int)
+     * @since 1.5
+     */
+    public int getDecodeThreads() {
+        return decodeThreads;
+    }
+
+    /**
+     * Returns whether results are decoded in parallel.  The default is false.
+     *
+     * @return true if the results are decoded in parallel
+     * @see #parallelDecode(int)
+     * @since 1.5
+     */
+    public boolean isParallelDecode() {
+        return decodeThreads > 0;
+    }
+
+    /**
+     * Decodes the results on a pool of threads.  A background thread reads the documents ahead of the iteration in chunks of the
+     * {@link xyz.morphia.mapping.MapperOptions#getReferenceBatchSize() reference batch size}, or of 100 documents when references are
+     * not batched, and hands each chunk to the decode pool of the Datastore.  The pool is shared by all the queries of the Datastore
+     * and has a thread per available processor.  The entities are returned in the order of the cursor, and no more than two chunks per
+     * requested thread are read ahead of the iteration.
+     * <p>
+     * Each chunk is decoded with its own EntityCache, layered over the cache of the iteration, so that the entities of a chunk are only
+     * shared with other chunks once they are fully decoded.  References between the documents of a chunk, cyclic or not, resolve as
+     * usual, but an entity referenced from chunks decoded at the same time may be loaded, and returned, once for each of them.  In
+     * streaming mode with a window of 0 the chunks share nothing.  Tailable cursors are always decoded by the thread reading them.
+     * <p>
+     * An iteration which is not read to the end needs to be closed to stop its reader and close its cursor.  An iteration discarded
+     * without being closed is only cleaned up once it has been garbage collected and its reader runs out of room for decoded chunks.
+     *
+     * @param threads the number of chunks to decode at a time, or 0 to decode on the thread reading the results
+     * @return this
+     * @since 1.5
+     */
+    public FindOptions parallelDecode(final int threads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("threads can not be negative: " + threads);
+        }
+        this.decodeThreads = threads;
+        return this;
+    }
+
+    /**
+     * Returns the number of batches read ahead of the iteration.  The default is 0.
+     *
+     * @return the number of batches, or 0 if the number of batches read ahead is not limited
+     * @see #readAhead(int)
+     * @since 1.5
+     */
+    public int getReadAheadBatches() {
+        return readAheadBatches;
+    }
+
+    /**
+     * Returns the number of bytes read ahead of the iteration.  The default is 0.
+     *
+     * @return the number of bytes, or 0 if the number of bytes read ahead is not limited
+     * @see #readAheadBytes(long)
+     * @since 1.5
+     */
+    public long getReadAheadBytes() {
+        return readAheadBytes;
+    }
+
+    /**
+     * Returns whether results are read ahead of the iteration.  The default is false.
+     *
+     * @return true if the results are read ahead
+     * @see #readAhead(int)
+     * @since 1.5
+     */
+    public boolean isReadAhead() {
+        return readAheadBatches > 0 || readAheadBytes > 0;
+    }
+
+    /**
+     * Reads the results ahead of the iteration.  By default the next batch is only requested from the server once the iteration has
+     * used up the current one, and the iteration waits for it.  Reading ahead, a background thread takes the documents from the cursor
+     * and requests the next batch while the iteration maps and consumes the documents already read.  The thread reads no more than the
+     * given number of batches ahead, counting batches as the {@link #batchSize(int) batch size} or as 101 documents when the server
+     * picks the size.  The limit can be combined with {@link #readAheadBytes(long)}, whichever is reached first stopping the thread.
+     * Tailable cursors are never read ahead.
+     * <p>
+     * An iteration which is not read to the end needs to be closed to stop its thread and close its cursor.  An iteration discarded
+     * without being closed is only cleaned up once it has been garbage collected and its thread runs out of room for documents.  The
+     * cursor of the iteration is read by the thread and must not be used directly meanwhile.
+     *
+     * @param batches the most batches to read ahead, or 0 to not limit the number of batches
+     * @return this
+     * @see MorphiaIterator#getWaitTimeNanos()
+     * @since 1.5
+     */
+    public FindOptions readAhead(final int batches) {
+        if (batches < 0) {
+            throw new IllegalArgumentException("batches can not be negative: " + batches);
+        }
+        this.readAheadBatches = batches;
+        return this;
+    }
+
+    /**
+     * Reads the results ahead of the iteration, holding no more than the given number of bytes, as sent by the server, at a time.  At
+     * least one document is always held however large it is.
+     *
+     * @param bytes the most bytes to read ahead, or 0 to not limit the number of bytes
+     * @return this
+     * @see #readAhead(int)
+     * @since 1.5
+     */
+    public FindOptions readAheadBytes(final long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("bytes can not be negative: " + bytes);
+        }
+        this.readAheadBytes = bytes;
+        return this;
+    }
+
     DBCollectionFindOptions getOptions() {
         return options;
     }
@@ -1,16 +1,27 @@
 package xyz.morphia.query;
 
 
+import com.mongodb.CursorType;
 import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
 import com.mongodb.client.MongoCursor;
 import xyz.morphia.Datastore;
+import xyz.morphia.instrumentation.MorphiaInstrumentation;
+import xyz.morphia.instrumentation.QueryShape;
+import xyz.morphia.instrumentation.Span;
 import xyz.morphia.mapping.Mapper;
 import xyz.morphia.mapping.cache.EntityCache;
+import xyz.morphia.query.internal.ParallelDecoder;
+import xyz.morphia.query.internal.ReadAhead;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.NoSuchElementException;
 
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
 
 /**
  * @param <T> the original type being iterated
@@ -26,8 +37,17 @@ public class MorphiaIterator<T, V> implements Iterable<V>, Iterator<V> {
     private final Class<T> clazz;
     private final String collection;
     private final EntityCache cache;
-    private long driverTime;
+    private final boolean flushCache;
+    private final LinkedList<V> decoded = new LinkedList<V>();
+    private final MorphiaInstrumentation instrumentation;
+    private final String shape;
+    private final int decodeThreads;
+    private final ReadAhead readAhead;
+    private final Iterator<DBObject> source;
+    private ParallelDecoder<T> parallel;
+    private long waitTime;
     private long mapperTime;
+    private long pendingDriverTime;
     private Datastore datastore;
 
     /**
@@ -41,23 +61,108 @@ public class MorphiaIterator<T, V> implements Iterable<V>, Iterator<V> {
      */
     public MorphiaIterator(final Datastore datastore, final Iterator<DBObject> it, final Mapper mapper, final Class<T> clazz,
                            final String collection, final EntityCache cache) {
+        this(datastore, it, mapper, clazz, collection, cache, false);
+    }
+
+    /**
+     * Creates a MorphiaIterator
+     * @param datastore  the Datastore to use when fetching this reference
+     * @param it         the Iterator to use
+     * @param mapper     the Mapper to use
+     * @param clazz      the original type being iterated
+     * @param collection the mongodb collection
+     * @param cache      the EntityCache
+     * @param flushCache true to flush the cache before each document, or each batch of documents when references are batched, is
+     *                   decoded
+     * @see FindOptions#streaming(int)
+     * @since 1.5
+     */
+    public MorphiaIterator(final Datastore datastore, final Iterator<DBObject> it, final Mapper mapper, final Class<T> clazz,
+                           final String collection, final EntityCache cache, final boolean flushCache) {
+        this(datastore, it, mapper, clazz, collection, cache, flushCache, 0);
+    }
+
+    /**
+     * Creates a MorphiaIterator
+     * @param datastore     the Datastore to use when fetching this reference
+     * @param it            the Iterator to use
+     * @param mapper        the Mapper to use
+     * @param clazz         the original type being iterated
+     * @param collection    the mongodb collection
+     * @param cache         the EntityCache
+     * @param flushCache    true to flush the cache before each document, or each batch of documents when references are batched, is
+     *                      decoded
+     * @param decodeThreads the number of threads to decode on, or 0 to decode on the calling thread
+     * @see FindOptions#parallelDecode(int)
+     * @since 1.5
+     */
+    public MorphiaIterator(final Datastore datastore, final Iterator<DBObject> it, final Mapper mapper, final Class<T> clazz,
+                           final String collection, final EntityCache cache, final boolean flushCache, final int decodeThreads) {
+        this(datastore, it, mapper, clazz, collection, cache, flushCache, decodeThreads, 0, 0);
+    }
+
+    /**
+     * Creates a MorphiaIterator
+     * @param datastore        the Datastore to use when fetching this reference
+     * @param it               the Iterator to use
+     * @param mapper           the Mapper to use
+     * @param clazz            the original type being iterated
+     * @param collection       the mongodb collection
+     * @param cache            the EntityCache
+     * @param flushCache       true to flush the cache before each document, or each batch of documents when references are batched, is
+     *                         decoded
+     * @param decodeThreads    the number of threads to decode on, or 0 to decode on the calling thread
+     * @param readAheadBatches the most batches to read ahead of the iteration, or 0
+     * @param readAheadBytes   the most bytes to read ahead of the iteration, or 0
+     * @see FindOptions#readAhead(int)
+     * @see FindOptions#readAheadBytes(long)
+     * @since 1.5
+     */
+    public MorphiaIterator(final Datastore datastore, final Iterator<DBObject> it, final Mapper mapper, final Class<T> clazz,
+                           final String collection, final EntityCache cache, final boolean flushCache, final int decodeThreads,
+                           final int readAheadBatches, final long readAheadBytes) {
         wrapped = it;
         this.mapper = mapper;
         this.clazz = clazz;
         this.collection = collection;
         this.cache = cache;
+        this.flushCache = flushCache;
         this.datastore = datastore;
+        instrumentation = datastore != null ? datastore.getInstrumentation() : null;
+        shape = instrumentation != null && it instanceof DBCursor ? QueryShape.of(((DBCursor) it).getQuery()) : null;
+        this.decodeThreads = isTailable() ? 0 : decodeThreads;
+        readAhead = it instanceof DBCursor && !isTailable() && (readAheadBatches > 0 || readAheadBytes > 0)
+                    ? new ReadAhead((DBCursor) it, readAheadBatches, readAheadBytes) : null;
+        source = readAhead != null ? readAhead : it;
     }
 
     /**
-     * Closes the underlying cursor.
+     * Closes the underlying cursor.  An iteration which reads ahead or decodes in parallel, and is not read to the end, needs to be
+     * closed to stop its background threads.
+     *
+     * @see FindOptions#parallelDecode(int)
      */
     public void close() {
+        if (parallel != null) {
+            parallel.close();
+        }
+        if (readAhead != null) {
+            readAhead.close();
+        }
         if (wrapped != null && wrapped instanceof DBCursor) {
             ((DBCursor) wrapped).close();
         }
     }
 
+    /**
+     * @return the cache entities are loaded through during this iteration
+     * @see FindOptions#streaming(int)
+     * @since 1.5
+     */
+    public EntityCache getCache() {
+        return cache;
+    }
+
     /**
      * @return the original class type.
      */
@@ -73,7 +178,11 @@ public class MorphiaIterator<T, V> implements Iterable<V>, Iterator<V> {
     }
 
     /**
+     * Returns the underlying DBCursor.  When reading ahead, or decoding in parallel, the cursor is iterated by a background thread and
+     * must not be iterated, changed or closed other than through this iterator.
+     *
      * @return the underlying DBCursor
+     * @see FindOptions#readAhead(int)
      */
     public DBCursor getCursor() {
         return (DBCursor) wrapped;
@@ -83,7 +192,37 @@ public class MorphiaIterator<T, V> implements Iterable<V>, Iterator<V> {
      * @return the time spent calling the driver in ms
      */
     public long getDriverTime() {
-        return driverTime;
+        return NANOSECONDS.toMillis(getDriverTimeNanos());
+    }
+
+    /**
+     * @return the time spent calling the driver in ns.  When reading ahead this is the time spent by the background thread.
+     * @since 1.5
+     */
+    public long getDriverTimeNanos() {
+        return readAhead != null ? readAhead.getDriverTimeNanos() : getWaitTimeNanos();
+    }
+
+    /**
+     * @return the time spent waiting for documents in ms
+     * @see #getWaitTimeNanos()
+     * @since 1.5
+     */
+    public long getWaitTime() {
+        return NANOSECONDS.toMillis(getWaitTimeNanos());
+    }
+
+    /**
+     * Returns the time spent waiting for documents.  Without read ahead every call to the driver is waited for, so this is the driver
+     * time.  When reading ahead only documents which have not been read yet are waited for.  Compared with the time spent calling the
+     * mapper this tells whether an iteration is bound by the server or by its own work.
+     *
+     * @return the time spent waiting for documents in ns
+     * @see FindOptions#readAhead(int)
+     * @since 1.5
+     */
+    public long getWaitTimeNanos() {
+        return parallel != null ? waitTime + parallel.getDriverTimeNanos() : waitTime;
     }
 
     /**
@@ -97,34 +236,61 @@ public class MorphiaIterator<T, V> implements Iterable<V>, Iterator<V> {
      * @return the time spent calling the mapper in ms
      */
     public long getMapperTime() {
-        return mapperTime;
+        return NANOSECONDS.toMillis(getMapperTimeNanos());
+    }
+
+    /**
+     * @return the time spent calling the mapper in ns
+     * @since 1.5
+     */
+    public long getMapperTimeNanos() {
+        return parallel != null ? mapperTime + parallel.getMapperTimeNanos() : mapperTime;
     }
 
     @Override
     public boolean hasNext() {
+        if (!decoded.isEmpty()) {
+            return true;
+        }
         if (wrapped == null) {
             return false;
         }
-        final long start = System.currentTimeMillis();
-        final boolean ret = wrapped.hasNext();
-        driverTime += System.currentTimeMillis() - start;
+        if (decodeThreads > 0) {
+            return getParallel().hasNext();
+        }
+        final long start = System.nanoTime();
+        final boolean ret = source.hasNext();
+        final long elapsed = System.nanoTime() - start;
+        waitTime += elapsed;
+        // a call to hasNext() may wait on the server for the next batch so it is reported along with the next document
+        pendingDriverTime += elapsed;
         return ret;
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public V next() {
         if (!hasNext()) {
             throw new NoSuchElementException();
         }
+        if (decodeThreads > 0) {
+            return (V) getParallel().next();
+        }
+        if (isBatching()) {
+            if (decoded.isEmpty()) {
+                processBatch();
+            }
+            return decoded.removeFirst();
+        }
         final DBObject dbObj = getNext();
         return processItem(dbObj);
     }
 
     @Override
     public void remove() {
-        final long start = System.currentTimeMillis();
-        wrapped.remove();
-        driverTime += System.currentTimeMillis() - start;
+        final long start = System.nanoTime();
+        source.remove();
+        waitTime += System.nanoTime() - start;
     }
 
     @Override
@@ -137,20 +303,78 @@ public class MorphiaIterator<T, V> implements Iterable<V>, Iterator<V> {
         return (V) mapper.fromDBObject(datastore, clazz, dbObj, cache);
     }
 
+    /**
+     * Converts a batch of documents read ahead from the cursor so that their references can be resolved together.
+     *
+     * @param dbObjects the documents to convert
+     * @return the converted values in cursor order
+     * @see xyz.morphia.mapping.MapperOptions#getReferenceBatchSize()
+     */
+    @SuppressWarnings("unchecked")
+    protected List<V> convertItems(final List<DBObject> dbObjects) {
+        return (List<V>) mapper.fromDBObjects(datastore, clazz, dbObjects, cache);
+    }
+
     protected DBObject getNext() {
-        final long start = System.currentTimeMillis();
-        final DBObject dbObj = wrapped.next();
-        driverTime += System.currentTimeMillis() - start;
+        final long start = System.nanoTime();
+        final DBObject dbObj = source.next();
+        final long elapsed = System.nanoTime() - start;
+        waitTime += elapsed;
+        if (instrumentation != null) {
+            instrumentation.record(Span.FETCH, collection, clazz, shape, pendingDriverTime + elapsed);
+        }
+        pendingDriverTime = 0;
         return dbObj;
     }
 
     private V processItem(final DBObject dbObj) {
-        final long start = System.currentTimeMillis();
+        final long start = System.nanoTime();
+        if (flushCache) {
+            cache.flush();
+        }
         final V item = convertItem(dbObj);
-        mapperTime += System.currentTimeMillis() - start;
+        recordDecode(System.nanoTime() - start);
         return item;
     }
 
+    private void recordDecode(final long elapsed) {
+        mapperTime += elapsed;
+        if (instrumentation != null) {
+            instrumentation.record(Span.DECODE, collection, clazz, shape, elapsed);
+        }
+    }
+
+    private boolean isBatching() {
+        return cache != null && mapper.getOptions().getReferenceBatchSize() > 1 && !isTailable();
+    }
+
+    private boolean isTailable() {
+        return wrapped instanceof DBCursor && ((DBCursor) wrapped).getCursorType() != CursorType.NonTailable;
+    }
+
+    private ParallelDecoder<T> getParallel() {
+        if (parallel == null) {
+            parallel = new ParallelDecoder<T>(datastore, source, mapper, clazz, flushCache ? null : cache, decodeThreads, collection,
+                                              shape);
+        }
+        return parallel;
+    }
+
+    private void processBatch() {
+        final int batchSize = mapper.getOptions().getReferenceBatchSize();
+        final List<DBObject> dbObjects = new ArrayList<DBObject>(batchSize);
+        dbObjects.add(getNext());
+        while (dbObjects.size() < batchSize && hasNext()) {
+            dbObjects.add(getNext());
+        }
+        final long start = System.nanoTime();
+        if (flushCache) {
+            cache.flush();
+        }
+        decoded.addAll(convertItems(dbObjects));
+        recordDecode(System.nanoTime() - start);
+    }
+
     Datastore getDatastore() {
         return datastore;
     }
@@ -5,6 +5,7 @@ import com.mongodb.BasicDBObject;
 import com.mongodb.Block;
 import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
+import com.mongodb.DBDecoderFactory;
 import com.mongodb.DBObject;
 import com.mongodb.Function;
 import com.mongodb.ReadPreference;
@@ -18,10 +19,15 @@ import org.slf4j.LoggerFactory;
 import xyz.morphia.Datastore;
 import xyz.morphia.Key;
 import xyz.morphia.annotations.Entity;
+import xyz.morphia.instrumentation.MorphiaInstrumentation;
+import xyz.morphia.instrumentation.QueryShape;
+import xyz.morphia.instrumentation.Span;
 import xyz.morphia.internal.PathTarget;
+import xyz.morphia.mapping.EntityDecoderFactory;
 import xyz.morphia.mapping.MappedClass;
 import xyz.morphia.mapping.MappedField;
 import xyz.morphia.mapping.Mapper;
+import xyz.morphia.mapping.cache.BoundedEntityCache;
 import xyz.morphia.mapping.cache.EntityCache;
 import xyz.morphia.query.internal.MappingIterable;
 import xyz.morphia.query.internal.MorphiaCursor;
@@ -198,7 +204,9 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
             LOG.trace("Getting cursor(" + dbColl.getName() + ")  for query:" + cursor.getQuery());
         }
 
-        return new MorphiaIterator<T, T>(ds, prepareCursor(options), ds.getMapper(), clazz, dbColl.getName(), cache);
+        return new MorphiaIterator<T, T>(ds, cursor, ds.getMapper(), clazz, dbColl.getName(), getCache(options),
+                                         options.getCacheWindow() == 0, options.getDecodeThreads(), options.getReadAheadBatches(),
+                                         options.getReadAheadBytes());
     }
 
     @Override
@@ -208,7 +216,8 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
 
     @Override
     public MongoCursor<T> find(final FindOptions options) {
-        return new MorphiaCursor<T>(ds, prepareCursor(options), ds.getMapper(), clazz, cache);
+        return new MorphiaCursor<T>(ds, prepareCursor(options), ds.getMapper(), clazz, getCache(options), options.getCacheWindow() == 0,
+                                    options.getDecodeThreads(), options.getReadAheadBatches(), options.getReadAheadBytes());
     }
 
     @Override
@@ -767,7 +776,24 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
         return prepareCursor(getOptions());
     }
 
+    /**
+     * Returns the cache to iterate with.  Streaming iterations get a cache of their own so that they never hold more than their window.
+     */
+    private EntityCache getCache(final FindOptions findOptions) {
+        if (!findOptions.isStreaming()) {
+            return cache;
+        }
+        return findOptions.getCacheWindow() > 0 ? new BoundedEntityCache(findOptions.getCacheWindow())
+                                                : ds.getMapper().createEntityCache();
+    }
+
+    private DBDecoderFactory getDecoderFactory() {
+        final DBDecoderFactory factory = ds.getDecoderFact();
+        return factory instanceof EntityDecoderFactory ? ((EntityDecoderFactory) factory).forType(clazz) : factory;
+    }
+
     private DBCursor prepareCursor(final FindOptions findOptions) {
+        final long start = System.nanoTime();
         final DBObject query = getQueryObject();
 
         if (LOG.isTraceEnabled()) {
@@ -782,11 +808,16 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
             LOG.warn("Sorting on tail is not allowed.");
         }
 
-        return dbColl.find(query, findOptions.getOptions()
-                                             .copy()
-                                             .sort(getSortObject())
-                                             .projection(getFieldsObject()))
-                     .setDecoderFactory(ds.getDecoderFact());
+        final DBCursor cursor = dbColl.find(query, findOptions.getOptions()
+                                                              .copy()
+                                                              .sort(getSortObject())
+                                                              .projection(getFieldsObject()))
+                                      .setDecoderFactory(getDecoderFactory());
+        final MorphiaInstrumentation instrumentation = ds.getInstrumentation();
+        if (instrumentation != null) {
+            instrumentation.record(Span.BUILD_QUERY, dbColl.getName(), clazz, QueryShape.of(query), System.nanoTime() - start);
+        }
+        return cursor;
     }
 
     @Override
@@ -872,6 +903,12 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
         if (these == null) {
             return true;
         }
+        if (these.getCacheWindow() != those.getCacheWindow() || these.getDecodeThreads() != those.getDecodeThreads()) {
+            return false;
+        }
+        if (these.getReadAheadBatches() != those.getReadAheadBatches() || these.getReadAheadBytes() != those.getReadAheadBytes()) {
+            return false;
+        }
 
         DBCollectionFindOptions dbOptions = these.getOptions();
         DBCollectionFindOptions that = those.getOptions();
@@ -943,6 +980,10 @@ public class QueryImpl<T> extends CriteriaContainerImpl implements Query<T> {
         result = 31 * result + (options.getReadPreference() != null ? options.getReadPreference().hashCode() : 0);
         result = 31 * result + (options.getReadConcern() != null ? options.getReadConcern().hashCode() : 0);
         result = 31 * result + (options.getCollation() != null ? options.getCollation().hashCode() : 0);
+        result = 31 * result + options.getCacheWindow();
+        result = 31 * result + options.getDecodeThreads();
+        result = 31 * result + options.getReadAheadBatches();
+        result = 31 * result + (int) (options.getReadAheadBytes() ^ options.getReadAheadBytes() >>> 32);
         return result;
     }
 
@@ -0,0 +1,147 @@
+package xyz.morphia.query.internal;
+
+
+import xyz.morphia.Key;
+import xyz.morphia.mapping.cache.EntityCache;
+import xyz.morphia.mapping.cache.EntityCacheStatistics;
+import xyz.morphia.mapping.lazy.LazyFeatureDependencies;
+import xyz.morphia.mapping.lazy.proxy.ProxyHelper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+
+/**
+ * The EntityCache a {@link ParallelDecoder} decodes one chunk of documents with.  Entities are looked up in the chunk first and then in
+ * the cache shared by the whole iteration, but they are only added to the chunk until {@link #publish()} copies them to the shared cache
+ * once the chunk is decoded.  This way no thread ever sees an entity another thread is still decoding.  The shared cache is only used
+ * while holding its lock.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+final class ChunkEntityCache implements EntityCache {
+    private final EntityCache shared;
+    private final Map<Key, Object> entityMap = new HashMap<Key, Object>();
+    private final Map<Key, Object> proxyMap = new HashMap<Key, Object>();
+    private final Map<Key, Boolean> existenceMap = new HashMap<Key, Boolean>();
+    private final EntityCacheStatistics stats = new EntityCacheStatistics();
+
+    /**
+     * @param shared the cache of the iteration, or null if chunks share nothing
+     */
+    ChunkEntityCache(final EntityCache shared) {
+        this.shared = shared;
+    }
+
+    @Override
+    public Boolean exists(final Key<?> k) {
+        if (entityMap.containsKey(k)) {
+            stats.incHits();
+            return true;
+        }
+
+        Boolean b = existenceMap.get(k);
+        if (b == null && shared != null) {
+            synchronized (shared) {
+                b = shared.exists(k);
+            }
+        }
+        if (b == null) {
+            stats.incMisses();
+        } else {
+            stats.incHits();
+        }
+        return b;
+    }
+
+    @Override
+    public void flush() {
+        entityMap.clear();
+        existenceMap.clear();
+        proxyMap.clear();
+        stats.reset();
+    }
+
+    @Override
+    public <T> T getEntity(final Key<T> k) {
+        Object o = entityMap.get(k);
+        if (o == null && LazyFeatureDependencies.testDependencyFullFilled()) {
+            final Object proxy = proxyMap.get(k);
+            if (proxy != null) {
+                o = ProxyHelper.unwrap(proxy);
+            }
+        }
+        if (o == null && shared != null) {
+            synchronized (shared) {
+                o = shared.getEntity(k);
+            }
+        }
+        if (o == null) {
+            stats.incMisses();
+        } else {
+            stats.incHits();
+        }
+        return (T) o;
+    }
+
+    @Override
+    public <T> T getProxy(final Key<T> k) {
+        Object o = proxyMap.get(k);
+        if (o == null && shared != null) {
+            synchronized (shared) {
+                o = shared.getProxy(k);
+            }
+        }
+        if (o == null) {
+            stats.incMisses();
+        } else {
+            stats.incHits();
+        }
+        return (T) o;
+    }
+
+    @Override
+    public void notifyExists(final Key<?> k, final boolean exists) {
+        final Boolean put = existenceMap.put(k, exists);
+        if (put == null || !put) {
+            stats.incEntities();
+        }
+    }
+
+    @Override
+    public <T> void putEntity(final Key<T> k, final T t) {
+        notifyExists(k, true); // already registers a write
+        entityMap.put(k, t);
+    }
+
+    @Override
+    public <T> void putProxy(final Key<T> k, final T t) {
+        proxyMap.put(k, t);
+        stats.incEntities();
+    }
+
+    @Override
+    public EntityCacheStatistics stats() {
+        return stats.copy();
+    }
+
+    /**
+     * Copies the entities of the chunk to the shared cache
+     */
+    void publish() {
+        if (shared == null) {
+            return;
+        }
+        synchronized (shared) {
+            for (final Entry<Key, Boolean> entry : existenceMap.entrySet()) {
+                shared.notifyExists(entry.getKey(), entry.getValue());
+            }
+            for (final Entry<Key, Object> entry : proxyMap.entrySet()) {
+                shared.putProxy(entry.getKey(), entry.getValue());
+            }
+            for (final Entry<Key, Object> entry : entityMap.entrySet()) {
+                shared.putEntity(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
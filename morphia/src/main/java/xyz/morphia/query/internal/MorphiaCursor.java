@@ -2,14 +2,23 @@ package xyz.morphia.query.internal;
 
 
 import com.mongodb.Cursor;
+import com.mongodb.CursorType;
+import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
 import com.mongodb.ServerAddress;
 import com.mongodb.ServerCursor;
 import com.mongodb.client.MongoCursor;
 import xyz.morphia.Datastore;
+import xyz.morphia.instrumentation.MorphiaInstrumentation;
+import xyz.morphia.instrumentation.QueryShape;
+import xyz.morphia.instrumentation.Span;
 import xyz.morphia.mapping.Mapper;
 import xyz.morphia.mapping.cache.EntityCache;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 
@@ -21,7 +30,17 @@ public class MorphiaCursor<T> implements MongoCursor<T> {
     private final Mapper mapper;
     private final Class<T> clazz;
     private final EntityCache cache;
+    private final boolean flushCache;
     private final Datastore datastore;
+    private final LinkedList<T> decoded = new LinkedList<T>();
+    private final MorphiaInstrumentation instrumentation;
+    private final String collection;
+    private final String shape;
+    private final int decodeThreads;
+    private final ReadAhead readAhead;
+    private final Iterator<DBObject> source;
+    private ParallelDecoder<T> parallel;
+    private long pendingDriverTime;
 
     /**
      * Creates a MorphiaCursor
@@ -34,17 +53,102 @@ public class MorphiaCursor<T> implements MongoCursor<T> {
      */
     public MorphiaCursor(final Datastore datastore, final Cursor cursor, final Mapper mapper, final Class<T> clazz,
                          final EntityCache cache) {
+        this(datastore, cursor, mapper, clazz, cache, false);
+    }
+
+    /**
+     * Creates a MorphiaCursor
+     *
+     * @param datastore  the Datastore to use when fetching this reference
+     * @param cursor     the Iterator to use
+     * @param mapper     the Mapper to use
+     * @param clazz      the original type being iterated
+     * @param cache      the EntityCache
+     * @param flushCache true to flush the cache before each document, or each batch of documents when references are batched, is
+     *                   decoded
+     * @see xyz.morphia.query.FindOptions#streaming(int)
+     * @since 1.5
+     */
+    public MorphiaCursor(final Datastore datastore, final Cursor cursor, final Mapper mapper, final Class<T> clazz,
+                         final EntityCache cache, final boolean flushCache) {
+        this(datastore, cursor, mapper, clazz, cache, flushCache, 0);
+    }
+
+    /**
+     * Creates a MorphiaCursor
+     *
+     * @param datastore     the Datastore to use when fetching this reference
+     * @param cursor        the Iterator to use
+     * @param mapper        the Mapper to use
+     * @param clazz         the original type being iterated
+     * @param cache         the EntityCache
+     * @param flushCache    true to flush the cache before each document, or each batch of documents when references are batched, is
+     *                      decoded
+     * @param decodeThreads the number of threads to decode on, or 0 to decode on the calling thread
+     * @see xyz.morphia.query.FindOptions#parallelDecode(int)
+     * @since 1.5
+     */
+    public MorphiaCursor(final Datastore datastore, final Cursor cursor, final Mapper mapper, final Class<T> clazz,
+                         final EntityCache cache, final boolean flushCache, final int decodeThreads) {
+        this(datastore, cursor, mapper, clazz, cache, flushCache, decodeThreads, 0, 0);
+    }
+
+    /**
+     * Creates a MorphiaCursor
+     *
+     * @param datastore        the Datastore to use when fetching this reference
+     * @param cursor           the Iterator to use
+     * @param mapper           the Mapper to use
+     * @param clazz            the original type being iterated
+     * @param cache            the EntityCache
+     * @param flushCache       true to flush the cache before each document, or each batch of documents when references are batched,
+     *                         is decoded
+     * @param decodeThreads    the number of threads to decode on, or 0 to decode on the calling thread
+     * @param readAheadBatches the most batches to read ahead of the iteration, or 0
+     * @param readAheadBytes   the most bytes to read ahead of the iteration, or 0
+     * @see xyz.morphia.query.FindOptions#readAhead(int)
+     * @see xyz.morphia.query.FindOptions#readAheadBytes(long)
+     * @since 1.5
+     */
+    public MorphiaCursor(final Datastore datastore, final Cursor cursor, final Mapper mapper, final Class<T> clazz,
+                         final EntityCache cache, final boolean flushCache, final int decodeThreads, final int readAheadBatches,
+                         final long readAheadBytes) {
         wrapped = cursor;
         this.mapper = mapper;
         this.clazz = clazz;
         this.cache = cache;
+        this.flushCache = flushCache;
         this.datastore = datastore;
+        instrumentation = datastore != null ? datastore.getInstrumentation() : null;
+        if (instrumentation == null) {
+            collection = null;
+            shape = null;
+        } else if (cursor instanceof DBCursor) {
+            collection = ((DBCursor) cursor).getCollection().getName();
+            shape = QueryShape.of(((DBCursor) cursor).getQuery());
+        } else {
+            collection = mapper.isMapped(clazz) ? mapper.getMappedClass(clazz).getCollectionName() : null;
+            shape = null;
+        }
+        this.decodeThreads = isTailable() ? 0 : decodeThreads;
+        readAhead = cursor instanceof DBCursor && !isTailable() && (readAheadBatches > 0 || readAheadBytes > 0)
+                    ? new ReadAhead((DBCursor) cursor, readAheadBatches, readAheadBytes) : null;
+        source = readAhead != null ? readAhead : cursor;
     }
 
     /**
-     * Closes the underlying cursor.
+     * Closes the underlying cursor.  An iteration which reads ahead or decodes in parallel, and is not read to the end, needs to be
+     * closed to stop its background threads.
+     *
+     * @see xyz.morphia.query.FindOptions#parallelDecode(int)
      */
     public void close() {
+        if (parallel != null) {
+            parallel.close();
+        }
+        if (readAhead != null) {
+            readAhead.close();
+        }
         if (wrapped != null) {
             wrapped.close();
         }
@@ -52,10 +156,23 @@ public class MorphiaCursor<T> implements MongoCursor<T> {
 
     @Override
     public boolean hasNext() {
+        if (!decoded.isEmpty()) {
+            return true;
+        }
         if (wrapped == null) {
             return false;
         }
-        return wrapped.hasNext();
+        if (decodeThreads > 0) {
+            return getParallel().hasNext();
+        }
+        if (instrumentation == null) {
+            return source.hasNext();
+        }
+        // a call to hasNext() may wait on the server for the next batch so it is reported along with the next document
+        final long start = System.nanoTime();
+        final boolean hasNext = source.hasNext();
+        pendingDriverTime += System.nanoTime() - start;
+        return hasNext;
     }
 
     @Override
@@ -63,7 +180,38 @@ public class MorphiaCursor<T> implements MongoCursor<T> {
         if (!hasNext()) {
             throw new NoSuchElementException();
         }
-        return mapper.fromDBObject(datastore, clazz, wrapped.next(), cache);
+        if (decodeThreads > 0) {
+            return getParallel().next();
+        }
+        if (isBatching()) {
+            if (decoded.isEmpty()) {
+                final int batchSize = mapper.getOptions().getReferenceBatchSize();
+                final List<DBObject> dbObjects = new ArrayList<DBObject>(batchSize);
+                dbObjects.add(getNext());
+                while (dbObjects.size() < batchSize && hasNext()) {
+                    dbObjects.add(getNext());
+                }
+                final long start = instrumentation != null ? System.nanoTime() : 0;
+                if (flushCache) {
+                    cache.flush();
+                }
+                decoded.addAll(mapper.fromDBObjects(datastore, clazz, dbObjects, cache));
+                if (instrumentation != null) {
+                    instrumentation.record(Span.DECODE, collection, clazz, shape, System.nanoTime() - start);
+                }
+            }
+            return decoded.removeFirst();
+        }
+        final DBObject dbObject = getNext();
+        final long start = instrumentation != null ? System.nanoTime() : 0;
+        if (flushCache) {
+            cache.flush();
+        }
+        final T entity = mapper.fromDBObject(datastore, clazz, dbObject, cache);
+        if (instrumentation != null) {
+            instrumentation.record(Span.DECODE, collection, clazz, shape, System.nanoTime() - start);
+        }
+        return entity;
     }
 
     @Override
@@ -87,10 +235,33 @@ public class MorphiaCursor<T> implements MongoCursor<T> {
 
     @Override
     public void remove() {
-        wrapped.remove();
+        source.remove();
+    }
+
+    private boolean isBatching() {
+        return mapper.getOptions().getReferenceBatchSize() > 1 && !isTailable();
+    }
+
+    private boolean isTailable() {
+        return wrapped instanceof DBCursor && ((DBCursor) wrapped).getCursorType() != CursorType.NonTailable;
+    }
+
+    private ParallelDecoder<T> getParallel() {
+        if (parallel == null) {
+            parallel = new ParallelDecoder<T>(datastore, source, mapper, clazz, flushCache ? null : cache, decodeThreads, collection,
+                                              shape);
+        }
+        return parallel;
     }
 
     protected DBObject getNext() {
-        return wrapped.next();
+        if (instrumentation == null) {
+            return source.next();
+        }
+        final long start = System.nanoTime();
+        final DBObject dbObject = source.next();
+        instrumentation.record(Span.FETCH, collection, clazz, shape, pendingDriverTime + System.nanoTime() - start);
+        pendingDriverTime = 0;
+        return dbObject;
     }
 }
@@ -0,0 +1,379 @@
+package xyz.morphia.query.internal;
+
+
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import xyz.morphia.Datastore;
+import xyz.morphia.DatastoreImpl;
+import xyz.morphia.instrumentation.MorphiaInstrumentation;
+import xyz.morphia.instrumentation.Span;
+import xyz.morphia.mapping.Mapper;
+import xyz.morphia.mapping.MappingException;
+import xyz.morphia.mapping.cache.EntityCache;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Decodes the documents of a cursor on a pool of threads.  A reader thread takes the documents from the cursor in chunks and hands each
+ * chunk to the decode pool of the Datastore, queueing the pending results in cursor order.  The queue holds at most two chunks per
+ * requested thread, so the reader waits once the iteration falls that far behind.
+ * <p>
+ * The decoder needs to be closed unless it is read to the end.  The reader only holds on to the decoder weakly though, and gives up on
+ * its own, closing the cursor and dropping the chunks decoded so far, once it finds the decoder was discarded without being closed.
+ *
+ * @param <T> the type of the entities
+ * @morphia.internal
+ * @see xyz.morphia.query.FindOptions#parallelDecode(int)
+ * @since 1.5
+ */
+public class ParallelDecoder<T> implements Iterator<T> {
+    private static final int DEFAULT_CHUNK_SIZE = 100;
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+    private static final AtomicInteger POOLS = new AtomicInteger();
+    private static volatile ExecutorService sharedPool;
+
+    private final Reader<T> reader;
+    private Iterator<T> current = Collections.<T>emptyList().iterator();
+    private boolean done;
+
+    /**
+     * Creates a decoder and starts reading from the cursor
+     *
+     * @param datastore  the Datastore to use when fetching references
+     * @param source     the documents to decode
+     * @param mapper     the Mapper to use
+     * @param clazz      the type being iterated
+     * @param cache      the EntityCache of the iteration, or null if each chunk is decoded with a cache of its own
+     * @param threads    the number of chunks to decode at a time
+     * @param collection the collection being read, for instrumentation
+     * @param shape      the shape of the query, for instrumentation
+     */
+    public ParallelDecoder(final Datastore datastore, final Iterator<DBObject> source, final Mapper mapper, final Class<T> clazz,
+                           final EntityCache cache, final int threads, final String collection, final String shape) {
+        final ExecutorService workers = datastore instanceof DatastoreImpl ? ((DatastoreImpl) datastore).getDecodePool() : getSharedPool();
+        reader = new Reader<T>(this, datastore, source, mapper, clazz, cache, workers, threads, collection, shape);
+        final Thread thread = new Thread(reader, "morphia-read-" + COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        reader.thread = thread;
+        thread.start();
+    }
+
+    /**
+     * Creates a pool to decode on, with a thread per available processor.  The threads of the pool stop once they are idle, so the pool
+     * does not need to be shut down.
+     *
+     * @return the pool
+     */
+    public static ExecutorService newPool() {
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                                                               new DaemonThreadFactory("morphia-decode-" + POOLS.incrementAndGet() + "-"));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * The pool of the Datastores which do not have one of their own
+     */
+    private static ExecutorService getSharedPool() {
+        ExecutorService pool = sharedPool;
+        if (pool == null) {
+            synchronized (ParallelDecoder.class) {
+                pool = sharedPool;
+                if (pool == null) {
+                    pool = newPool();
+                    sharedPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Stops reading and decoding.  Once this returns the cursor is no longer used and may be closed.
+     */
+    public void close() {
+        done = true;
+        reader.close();
+    }
+
+    /**
+     * @return the time spent by the reader thread calling the driver in ns
+     */
+    public long getDriverTimeNanos() {
+        return reader.driverTime.get();
+    }
+
+    /**
+     * @return the time spent by all the workers calling the mapper in ns
+     */
+    public long getMapperTimeNanos() {
+        return reader.mapperTime.get();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (done) {
+                return false;
+            }
+            final List<T> chunk = take();
+            if (chunk == null) {
+                done = true;
+            } else {
+                current = chunk.iterator();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove is not supported while decoding in parallel");
+    }
+
+    private List<T> take() {
+        try {
+            return reader.results.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MappingException("Interrupted while waiting for the next decoded documents", e);
+        } catch (ExecutionException e) {
+            close();
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new MappingException("Could not decode the results of the query", cause);
+        }
+    }
+
+    private static <T> Future<List<T>> completed(final Callable<List<T>> callable) {
+        final FutureTask<List<T>> task = new FutureTask<List<T>>(callable);
+        task.run();
+        return task;
+    }
+
+    /**
+     * Reads the chunks and submits them.  Nothing here refers to the decoder but the weak reference the reader checks for abandonment.
+     */
+    private static final class Reader<T> implements Runnable {
+        private final WeakReference<ParallelDecoder<T>> owner;
+        private final Iterator<DBObject> source;
+        private final Datastore datastore;
+        private final Mapper mapper;
+        private final Class<T> clazz;
+        private final EntityCache cache;
+        private final MorphiaInstrumentation instrumentation;
+        private final String collection;
+        private final String shape;
+        private final int chunkSize;
+        private final ExecutorService workers;
+        private final BlockingQueue<Future<List<T>>> results;
+        private final AtomicLong driverTime = new AtomicLong();
+        private final AtomicLong mapperTime = new AtomicLong();
+        private volatile boolean closed;
+        private volatile Thread thread;
+
+        private Reader(final ParallelDecoder<T> owner, final Datastore datastore, final Iterator<DBObject> source, final Mapper mapper,
+                       final Class<T> clazz, final EntityCache cache, final ExecutorService workers, final int threads,
+                       final String collection, final String shape) {
+            this.owner = new WeakReference<ParallelDecoder<T>>(owner);
+            this.source = source;
+            this.datastore = datastore;
+            this.mapper = mapper;
+            this.clazz = clazz;
+            this.cache = cache;
+            this.workers = workers;
+            this.collection = collection;
+            this.shape = shape;
+            instrumentation = datastore != null ? datastore.getInstrumentation() : null;
+            chunkSize = mapper.getOptions().getReferenceBatchSize() > 1 ? mapper.getOptions().getReferenceBatchSize()
+                                                                       : DEFAULT_CHUNK_SIZE;
+            results = new ArrayBlockingQueue<Future<List<T>>>(threads * 2);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed) {
+                    final List<DBObject> documents = read();
+                    if (documents.isEmpty()) {
+                        break;
+                    }
+                    if (!offer(workers.submit(new Decode<T>(this, documents)))) {
+                        return;
+                    }
+                }
+                offer(ParallelDecoder.<T>completed(new Callable<List<T>>() {
+                    @Override
+                    public List<T> call() {
+                        return null;
+                    }
+                }));
+            } catch (InterruptedException e) {
+                // closed
+            } catch (final RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        private void close() {
+            closed = true;
+            final Thread reading = thread;
+            reading.interrupt();
+            boolean interrupted = false;
+            while (reading.isAlive()) {
+                try {
+                    reading.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            discard();
+        }
+
+        /**
+         * Queues a result, waiting for room for as long as the decoder is in use
+         *
+         * @return false if the decoder was closed or discarded in the meantime
+         */
+        private boolean offer(final Future<List<T>> result) throws InterruptedException {
+            while (!closed) {
+                if (results.offer(result, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+                if (owner.get() == null) {
+                    abandon();
+                }
+            }
+            result.cancel(false);
+            return false;
+        }
+
+        /**
+         * Stops reading for a decoder which was discarded without being closed
+         */
+        private void abandon() {
+            closed = true;
+            discard();
+            if (source instanceof ReadAhead) {
+                ((ReadAhead) source).close();
+            }
+            final Iterator<DBObject> cursor = source instanceof ReadAhead ? ((ReadAhead) source).getCursor() : source;
+            if (cursor instanceof DBCursor) {
+                ((DBCursor) cursor).close();
+            }
+        }
+
+        /**
+         * Cancels the chunks not decoded yet and drops the others
+         */
+        private void discard() {
+            Future<List<T>> result;
+            while ((result = results.poll()) != null) {
+                result.cancel(false);
+            }
+        }
+
+        private void fail(final RuntimeException e) {
+            try {
+                offer(ParallelDecoder.<T>completed(new Callable<List<T>>() {
+                    @Override
+                    public List<T> call() {
+                        throw e;
+                    }
+                }));
+            } catch (InterruptedException ignored) {
+                // closed
+            }
+        }
+
+        private List<DBObject> read() {
+            final List<DBObject> documents = new ArrayList<DBObject>(chunkSize);
+            final long start = System.nanoTime();
+            while (documents.size() < chunkSize && !closed && source.hasNext()) {
+                documents.add(source.next());
+            }
+            final long elapsed = System.nanoTime() - start;
+            driverTime.addAndGet(elapsed);
+            if (instrumentation != null && !documents.isEmpty()) {
+                instrumentation.record(Span.FETCH, collection, clazz, shape, elapsed);
+            }
+            return documents;
+        }
+    }
+
+    private static final class Decode<T> implements Callable<List<T>> {
+        private final Reader<T> reader;
+        private final List<DBObject> documents;
+
+        Decode(final Reader<T> reader, final List<DBObject> documents) {
+            this.reader = reader;
+            this.documents = documents;
+        }
+
+        @Override
+        public List<T> call() {
+            final long start = System.nanoTime();
+            final ChunkEntityCache chunkCache = new ChunkEntityCache(reader.cache);
+            final List<T> entities = reader.mapper.fromDBObjects(reader.datastore, reader.clazz, documents, chunkCache);
+            chunkCache.publish();
+            final long elapsed = System.nanoTime() - start;
+            reader.mapperTime.addAndGet(elapsed);
+            if (reader.instrumentation != null) {
+                reader.instrumentation.record(Span.DECODE, reader.collection, reader.clazz, reader.shape, elapsed);
+            }
+            return entities;
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        DaemonThreadFactory(final String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package xyz.morphia.query.internal;
+
+
+import com.mongodb.DBCallback;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBDecoder;
+import com.mongodb.DBDecoderFactory;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
+import org.bson.BSONCallback;
+import org.bson.BSONObject;
+import xyz.morphia.mapping.MappingException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Reads the documents of a cursor on a background thread, ahead of the iteration, so that the next batch is fetched from the server
+ * while the current one is mapped and consumed.  The reader holds at most a given number of batches, or a given number of bytes as sent
+ * by the server, and waits once the iteration falls that far behind.  The reader is started by the first call to {@link #hasNext()}.
+ * <p>
+ * The read ahead needs to be closed unless it is read to the end.  The reader only holds on to the read ahead weakly though, and gives
+ * up on its own, closing the cursor and dropping the documents read so far, once it finds the read ahead was discarded without being
+ * closed.
+ *
+ * @morphia.internal
+ * @see xyz.morphia.query.FindOptions#readAhead(int)
+ * @see xyz.morphia.query.FindOptions#readAheadBytes(long)
+ * @since 1.5
+ */
+public class ReadAhead implements Iterator<DBObject> {
+    private static final int DEFAULT_BATCH_SIZE = 101;
+    private static final long WAIT_TIMEOUT_MILLIS = 100;
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private final Buffer buffer;
+    private Thread reader;
+
+    /**
+     * Creates a read ahead for a cursor which has not been iterated yet
+     *
+     * @param cursor  the cursor to read
+     * @param batches the most batches to hold, or 0 to only limit the bytes held.  A batch counts as the batch size of the cursor, or
+     *                as 101 documents when the cursor leaves it to the server.
+     * @param bytes   the most bytes to hold, or 0 to only limit the batches held
+     */
+    public ReadAhead(final DBCursor cursor, final int batches, final long bytes) {
+        final int batchSize = Math.abs(cursor.getBatchSize());
+        SizingDecoderFactory sizing = null;
+        if (bytes > 0) {
+            final DBDecoderFactory factory = cursor.getDecoderFactory();
+            sizing = new SizingDecoderFactory(factory != null ? factory : DefaultDBDecoder.FACTORY);
+            cursor.setDecoderFactory(sizing);
+        }
+        buffer = new Buffer(cursor, batches * (batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE), bytes, sizing);
+    }
+
+    /**
+     * Stops reading.  Once this returns the cursor is no longer used and may be closed.
+     */
+    public void close() {
+        synchronized (buffer) {
+            buffer.closed = true;
+            buffer.documents.clear();
+            buffer.notifyAll();
+        }
+        if (reader == null) {
+            return;
+        }
+        reader.interrupt();
+        boolean interrupted = false;
+        while (reader.isAlive()) {
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the time spent by the reader thread calling the driver in ns
+     */
+    public long getDriverTimeNanos() {
+        return buffer.driverTime.get();
+    }
+
+    /**
+     * @return the cursor being read
+     */
+    DBCursor getCursor() {
+        return buffer.cursor;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (reader == null) {
+            reader = new Thread(new Reader(this, buffer), "morphia-read-ahead-" + COUNTER.incrementAndGet());
+            reader.setDaemon(true);
+            reader.start();
+        }
+        synchronized (buffer) {
+            while (buffer.documents.isEmpty() && !buffer.finished && !buffer.closed) {
+                try {
+                    buffer.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new MappingException("Interrupted while waiting for the next documents", e);
+                }
+            }
+            if (!buffer.documents.isEmpty()) {
+                return true;
+            }
+            if (buffer.failure != null) {
+                final RuntimeException e = buffer.failure;
+                buffer.failure = null;
+                throw e;
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public DBObject next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        synchronized (buffer) {
+            final Buffered next = buffer.documents.removeFirst();
+            buffer.bytes -= next.size;
+            buffer.notifyAll();
+            return next.document;
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove is not supported while reading ahead");
+    }
+
+    /**
+     * The documents read so far, shared by the read ahead and its reader.  Everything but the driver time is guarded by the buffer.
+     */
+    private static final class Buffer {
+        private final DBCursor cursor;
+        private final int maxDocuments;
+        private final long maxBytes;
+        private final SizingDecoderFactory sizing;
+        private final ArrayDeque<Buffered> documents = new ArrayDeque<Buffered>();
+        private final AtomicLong driverTime = new AtomicLong();
+        private long bytes;
+        private boolean finished;
+        private boolean closed;
+        private RuntimeException failure;
+
+        private Buffer(final DBCursor cursor, final int maxDocuments, final long maxBytes, final SizingDecoderFactory sizing) {
+            this.cursor = cursor;
+            this.maxDocuments = maxDocuments;
+            this.maxBytes = maxBytes;
+            this.sizing = sizing;
+        }
+
+        private boolean isFull(final int size) {
+            if (documents.isEmpty()) {
+                return false;
+            }
+            return maxDocuments > 0 && documents.size() >= maxDocuments || maxBytes > 0 && bytes + size > maxBytes;
+        }
+    }
+
+    /**
+     * Reads the cursor into the buffer.  Nothing here refers to the read ahead but the weak reference the reader checks for abandonment.
+     */
+    private static final class Reader implements Runnable {
+        private final WeakReference<ReadAhead> owner;
+        private final Buffer buffer;
+
+        private Reader(final ReadAhead owner, final Buffer buffer) {
+            this.owner = new WeakReference<ReadAhead>(owner);
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void run() {
+            boolean abandoned = false;
+            try {
+                while (!isClosed()) {
+                    final long start = System.nanoTime();
+                    if (!buffer.cursor.hasNext()) {
+                        break;
+                    }
+                    final DBObject document = buffer.cursor.next();
+                    buffer.driverTime.addAndGet(System.nanoTime() - start);
+                    final int size = buffer.sizing != null ? buffer.sizing.sizeOf(document) : 0;
+                    synchronized (buffer) {
+                        while (!buffer.closed && buffer.isFull(size)) {
+                            buffer.wait(WAIT_TIMEOUT_MILLIS);
+                            if (owner.get() == null) {
+                                // discarded without being closed
+                                abandoned = true;
+                                buffer.closed = true;
+                                buffer.documents.clear();
+                            }
+                        }
+                        if (buffer.closed) {
+                            break;
+                        }
+                        buffer.documents.addLast(new Buffered(document, size));
+                        buffer.bytes += size;
+                        buffer.notifyAll();
+                    }
+                }
+            } catch (InterruptedException e) {
+                // closed
+            } catch (RuntimeException e) {
+                synchronized (buffer) {
+                    if (!buffer.closed) {
+                        buffer.failure = e;
+                    }
+                }
+            } finally {
+                synchronized (buffer) {
+                    buffer.finished = true;
+                    buffer.notifyAll();
+                }
+            }
+            if (abandoned) {
+                buffer.cursor.close();
+            }
+        }
+
+        private boolean isClosed() {
+            synchronized (buffer) {
+                return buffer.closed;
+            }
+        }
+    }
+
+    private static final class Buffered {
+        private final DBObject document;
+        private final int size;
+
+        private Buffered(final DBObject document, final int size) {
+            this.document = document;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Remembers the size of each document decoded until the reader takes it from the cursor.  Documents are decoded and taken on the
+     * reader thread only.
+     */
+    private static final class SizingDecoderFactory implements DBDecoderFactory {
+        private final DBDecoderFactory delegate;
+        private final Map<Object, Integer> sizes = new IdentityHashMap<Object, Integer>();
+
+        private SizingDecoderFactory(final DBDecoderFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public DBDecoder create() {
+            return new SizingDecoder(delegate.create(), sizes);
+        }
+
+        private int sizeOf(final DBObject document) {
+            final Integer size = sizes.remove(document);
+            return size != null ? size : 0;
+        }
+    }
+
+    private static final class SizingDecoder implements DBDecoder {
+        private final DBDecoder delegate;
+        private final Map<Object, Integer> sizes;
+
+        private SizingDecoder(final DBDecoder delegate, final Map<Object, Integer> sizes) {
+            this.delegate = delegate;
+            this.sizes = sizes;
+        }
+
+        @Override
+        public DBCallback getDBCallback(final DBCollection collection) {
+            return delegate.getDBCallback(collection);
+        }
+
+        @Override
+        public DBObject decode(final byte[] bytes, final DBCollection collection) {
+            final DBObject document = delegate.decode(bytes, collection);
+            sizes.put(document, bytes.length);
+            return document;
+        }
+
+        @Override
+        public DBObject decode(final InputStream in, final DBCollection collection) throws IOException {
+            return delegate.decode(in, collection);
+        }
+
+        @Override
+        public BSONObject readObject(final byte[] bytes) {
+            final BSONObject document = delegate.readObject(bytes);
+            sizes.put(document, bytes.length);
+            return document;
+        }
+
+        @Override
+        public BSONObject readObject(final InputStream in) throws IOException {
+            return delegate.readObject(in);
+        }
+
+        @Override
+        public int decode(final byte[] bytes, final BSONCallback callback) {
+            return delegate.decode(bytes, callback);
+        }
+
+        @Override
+        public int decode(final InputStream in, final BSONCallback callback) throws IOException {
+            return delegate.decode(in, callback);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package xyz.morphia.utils;
+
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+
+/**
+ * Finds the classes of a package which may be entities without loading every class of the package.
+ * <p>
+ * A classpath root, a jar or a directory, may hold an index of its entities in {@link #INDEX_RESOURCE}, written at compile time by
+ * {@code xyz.morphia.processor.MetadataProcessor}.  The index lists the binary names of the classes annotated, directly or not, with
+ * {@link xyz.morphia.annotations.Entity} or {@link xyz.morphia.annotations.Embedded}, one per line.  When a root has no index its class
+ * files are read instead, from the central directory of a jar or from the directory, and only the classes whose constant pool names one of
+ * the annotations, or whose superclass or interfaces are such classes, are loaded.
+ * <p>
+ * Either way the classes found are candidates only, and still need to be checked for the annotations once loaded.
+ *
+ * @morphia.internal
+ * @see xyz.morphia.Morphia#mapPackage(String, boolean)
+ * @since 1.5
+ */
+public final class EntityClassScanner {
+    /**
+     * The name of the resource listing the entities of a classpath root
+     */
+    public static final String INDEX_RESOURCE = "META-INF/morphia/entities";
+
+    private static final Logger LOG = LoggerFactory.getLogger(EntityClassScanner.class);
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final String[] DESCRIPTORS = {"Lxyz/morphia/annotations/Entity;", "Lxyz/morphia/annotations/Embedded;"};
+
+    private final ClassLoader loader;
+    private final String packageName;
+    private final boolean mapSubPackages;
+    private final Map<String, ClassHeader> headers = new LinkedHashMap<String, ClassHeader>();
+    private final Map<String, Boolean> candidates = new HashMap<String, Boolean>();
+
+    private EntityClassScanner(final ClassLoader loader, final String packageName, final boolean mapSubPackages) {
+        this.loader = loader;
+        this.packageName = packageName;
+        this.mapSubPackages = mapSubPackages;
+    }
+
+    /**
+     * Returns the classes of a package which may be entities
+     *
+     * @param loader         the ClassLoader to use
+     * @param packageName    the package to scan
+     * @param mapSubPackages whether to scan the sub-packages as well
+     * @param useIndex       whether to read the index of the roots which have one rather than their class files
+     * @return the classes
+     * @throws IOException            thrown if an error is encountered scanning packages
+     * @throws ClassNotFoundException thrown if a class can not be found
+     */
+    public static Set<Class<?>> getEntityClasses(final ClassLoader loader, final String packageName, final boolean mapSubPackages,
+                                                 final boolean useIndex) throws IOException, ClassNotFoundException {
+        final EntityClassScanner scanner = new EntityClassScanner(loader, packageName, mapSubPackages);
+        final Set<String> names = new HashSet<String>();
+        final Set<Class<?>> classes = new HashSet<Class<?>>();
+        final Enumeration<URL> resources = loader.getResources(packageName.replace('.', '/'));
+        while (resources.hasMoreElements()) {
+            final URL url = resources.nextElement();
+            final File root = getRoot(url, packageName);
+            if (root == null) {
+                LOG.debug("Can not read the classes of " + url + ", loading all of them");
+                classes.addAll(ReflectionUtils.getFromDirectory(loader, new File(url.getFile()), packageName, mapSubPackages));
+                continue;
+            }
+            final List<String> indexed = useIndex ? getIndexedClassNames(root) : null;
+            if (indexed != null) {
+                for (final String name : indexed) {
+                    if (scanner.isInPackage(name)) {
+                        names.add(name);
+                    }
+                }
+            } else if (root.isDirectory()) {
+                scanner.readDirectory(new File(root, packageName.replace('.', File.separatorChar)), packageName);
+            } else {
+                scanner.readJar(root);
+            }
+        }
+        for (final String name : scanner.headers.keySet()) {
+            if (scanner.isCandidate(name)) {
+                names.add(name);
+            }
+        }
+        for (final String name : names) {
+            classes.add(Class.forName(name, true, loader));
+        }
+        return classes;
+    }
+
+    /**
+     * Reads the index of a classpath root
+     *
+     * @param root the jar or directory
+     * @return the binary names of the classes listed, or null if the root has no index
+     * @throws IOException thrown if the index can not be read
+     */
+    public static List<String> getIndexedClassNames(final File root) throws IOException {
+        if (root.isDirectory()) {
+            final File index = new File(root, INDEX_RESOURCE.replace('/', File.separatorChar));
+            return index.isFile() ? readIndex(new FileInputStream(index)) : null;
+        } else if (root.isFile()) {
+            final ZipFile zip = new ZipFile(root);
+            try {
+                final ZipEntry entry = zip.getEntry(INDEX_RESOURCE);
+                return entry != null ? readIndex(zip.getInputStream(entry)) : null;
+            } finally {
+                zip.close();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the jar or directory holding a package, or null if it is neither
+     */
+    private static File getRoot(final URL url, final String packageName) throws IOException {
+        try {
+            if ("jar".equals(url.getProtocol())) {
+                final URL jar = ((JarURLConnection) url.openConnection()).getJarFileURL();
+                return "file".equals(jar.getProtocol()) ? new File(jar.toURI()) : null;
+            } else if ("file".equals(url.getProtocol())) {
+                File root = new File(url.toURI());
+                for (int i = packageName.split("\\.").length; i > 0 && root != null; i--) {
+                    root = root.getParentFile();
+                }
+                return root;
+            }
+        } catch (URISyntaxException e) {
+            LOG.debug("Can not find the root of " + url, e);
+        }
+        return null;
+    }
+
+    private static List<String> readIndex(final InputStream in) throws IOException {
+        final List<String> names = new ArrayList<String>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    names.add(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return names;
+    }
+
+    private boolean isInPackage(final String className) {
+        final int dot = className.lastIndexOf('.');
+        final String classPackage = dot > 0 ? className.substring(0, dot) : "";
+        return classPackage.equals(packageName) || mapSubPackages && classPackage.startsWith(packageName + ".");
+    }
+
+    private void readDirectory(final File directory, final String directoryPackage) throws IOException {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (final File file : files) {
+            if (file.isFile() && file.getName().endsWith(".class")) {
+                read(new FileInputStream(file));
+            } else if (file.isDirectory() && mapSubPackages) {
+                readDirectory(file, directoryPackage + '.' + file.getName());
+            }
+        }
+    }
+
+    private void readJar(final File jar) throws IOException {
+        final ZipFile zip = new ZipFile(jar);
+        try {
+            final Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                final String name = entry.getName();
+                if (!entry.isDirectory() && name.endsWith(".class")
+                    && isInPackage(name.substring(0, name.length() - ".class".length()).replace('/', '.'))) {
+                    read(zip.getInputStream(entry));
+                }
+            }
+        } finally {
+            zip.close();
+        }
+    }
+
+    private void read(final InputStream in) throws IOException {
+        final ClassHeader header;
+        try {
+            header = ClassHeader.read(new DataInputStream(new BufferedInputStream(in)));
+        } finally {
+            in.close();
+        }
+        if (header != null && isInPackage(header.name)) {
+            headers.put(header.name, header);
+        }
+    }
+
+    private boolean isCandidate(final String name) {
+        final Boolean known = candidates.get(name);
+        if (known != null) {
+            return known;
+        }
+        candidates.put(name, false);
+        final ClassHeader header = headers.get(name);
+        boolean candidate;
+        if (header == null) {
+            candidate = isLoadedEntity(name);
+        } else {
+            candidate = header.annotated || header.superName != null && isCandidate(header.superName);
+            for (int i = 0; !candidate && i < header.interfaces.size(); i++) {
+                candidate = isCandidate(header.interfaces.get(i));
+            }
+        }
+        candidates.put(name, candidate);
+        return candidate;
+    }
+
+    /**
+     * Checks a supertype which was not scanned, from another package or classpath root, by loading it
+     */
+    private boolean isLoadedEntity(final String name) {
+        if (name.startsWith("java.") || name.startsWith("javax.")) {
+            return false;
+        }
+        try {
+            final Class<?> type = Class.forName(name, false, loader);
+            return ReflectionUtils.getClassEntityAnnotation(type) != null || ReflectionUtils.getClassEmbeddedAnnotation(type) != null;
+        } catch (ClassNotFoundException e) {
+            return false;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * The names a class file gives for the class, its superclass and interfaces, and whether its constant pool names the annotations
+     */
+    private static final class ClassHeader {
+        private final String name;
+        private final String superName;
+        private final List<String> interfaces;
+        private final boolean annotated;
+
+        private ClassHeader(final String name, final String superName, final List<String> interfaces, final boolean annotated) {
+            this.name = name;
+            this.superName = superName;
+            this.interfaces = interfaces;
+            this.annotated = annotated;
+        }
+
+        /**
+         * @return the header, or null if the class file can not be read
+         */
+        private static ClassHeader read(final DataInputStream in) throws IOException {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            in.readUnsignedShort();
+            in.readUnsignedShort();
+            final int count = in.readUnsignedShort();
+            final String[] utf8 = new String[count];
+            final int[] classes = new int[count];
+            boolean annotated = false;
+            for (int i = 1; i < count; i++) {
+                final int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 1:
+                        utf8[i] = in.readUTF();
+                        for (final String descriptor : DESCRIPTORS) {
+                            annotated |= descriptor.equals(utf8[i]);
+                        }
+                        break;
+                    case 7:
+                        classes[i] = in.readUnsignedShort();
+                        break;
+                    case 8:
+                    case 16:
+                    case 19:
+                    case 20:
+                        in.skipBytes(2);
+                        break;
+                    case 15:
+                        in.skipBytes(3);
+                        break;
+                    case 3:
+                    case 4:
+                    case 9:
+                    case 10:
+                    case 11:
+                    case 12:
+                    case 17:
+                    case 18:
+                        in.skipBytes(4);
+                        break;
+                    case 5:
+                    case 6:
+                        in.skipBytes(8);
+                        i++;
+                        break;
+                    default:
+                        return null;
+                }
+            }
+            in.readUnsignedShort();
+            final String name = className(utf8, classes, in.readUnsignedShort());
+            final String superName = className(utf8, classes, in.readUnsignedShort());
+            final int interfaceCount = in.readUnsignedShort();
+            final List<String> interfaces = new ArrayList<String>(interfaceCount);
+            for (int i = 0; i < interfaceCount; i++) {
+                interfaces.add(className(utf8, classes, in.readUnsignedShort()));
+            }
+            return name != null ? new ClassHeader(name, superName, interfaces, annotated) : null;
+        }
+
+        private static String className(final String[] utf8, final int[] classes, final int index) {
+            if (index == 0 || index >= classes.length || classes[index] == 0) {
+                return null;
+            }
+            final String name = utf8[classes[index]];
+            return name != null ? name.replace('/', '.') : null;
+        }
+    }
+}
@@ -146,6 +146,25 @@ public class IndexHelperTest extends TestBase {
 
     }
 
+    @Test
+    public void createIndexSkipsExisting() {
+        checkMinServerVersion(3.4);
+        String collectionName = getDs().getCollection(IndexedClass.class).getName();
+        MongoCollection<Document> collection = getDatabase().getCollection(collectionName);
+        MappedClass mappedClass = getMorphia().getMapper().getMappedClass(IndexedClass.class);
+
+        SchemaReport report = new SchemaReport();
+        indexHelper.createIndex(collection, mappedClass, false, report);
+        assertEquals(5, report.getCreatedIndexes().size());
+        assertEquals(0, report.getUnchangedIndexes());
+
+        report = new SchemaReport();
+        indexHelper.createIndex(collection, mappedClass, false, report);
+        assertTrue(report.getCreatedIndexes().toString(), report.getCreatedIndexes().isEmpty());
+        assertEquals(5, report.getUnchangedIndexes());
+        assertFalse(report.hasChanges());
+    }
+
     @Test
     public void findField() {
         MappedClass mappedClass = getMorphia().getMapper().getMappedClass(IndexedClass.class);
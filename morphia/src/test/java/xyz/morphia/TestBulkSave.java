@@ -0,0 +1,150 @@
+package xyz.morphia;
+
+import com.mongodb.BasicDBObject;
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.entities.version.Versioned;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestBulkSave extends TestBase {
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        getMorphia().setUseBulkWriteOperations(true);
+    }
+
+    @After
+    @Override
+    public void tearDown() {
+        getMorphia().setUseBulkWriteOperations(false);
+        super.tearDown();
+    }
+
+    @Test
+    public void testInsertsAndUpserts() {
+        final Note existing = new Note(new ObjectId(), "existing");
+        getDs().save(existing);
+        existing.text = "changed";
+
+        final List<Object> entities = new ArrayList<Object>();
+        entities.add(new Note(null, "new"));
+        entities.add(existing);
+        entities.add(new Note(new ObjectId(), "assigned id"));
+        entities.add(new Versioned());
+
+        final List<Key<Object>> keys = keysOf(getDs().save(entities));
+        assertEquals(4, keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertNotNull(keys.get(i).getId());
+            assertEquals(entities.get(i).getClass(), keys.get(i).getType());
+        }
+        assertNotNull(((Note) entities.get(0)).id);
+        assertEquals(Long.valueOf(1), ((Versioned) entities.get(3)).getVersion());
+
+        assertEquals(3, getDs().getCount(Note.class));
+        assertEquals("changed", getDs().get(Note.class, existing.id).text);
+        assertEquals(1, getDs().getCount(Versioned.class));
+    }
+
+    @Test
+    public void testVersionedReplacements() {
+        final List<Versioned> entities = asList(new Versioned(), new Versioned(), new Versioned());
+        getDs().save(entities);
+        for (final Versioned versioned : entities) {
+            versioned.setName("second");
+        }
+        getDs().save(entities);
+
+        for (final Versioned versioned : entities) {
+            assertEquals(Long.valueOf(2), versioned.getVersion());
+            final Versioned loaded = getDs().get(Versioned.class, versioned.getId());
+            assertEquals("second", loaded.getName());
+            assertEquals(Long.valueOf(2), loaded.getVersion());
+        }
+    }
+
+    @Test
+    public void testConcurrentModificationsAreReportedPerEntity() {
+        final List<Versioned> entities = asList(new Versioned(), new Versioned(), new Versioned());
+        getDs().save(entities);
+
+        getDs().getCollection(Versioned.class).update(new BasicDBObject("_id", entities.get(1).getId()),
+                                                      new BasicDBObject("$inc", new BasicDBObject("version", 1L)));
+        for (final Versioned versioned : entities) {
+            versioned.setName("second");
+        }
+
+        try {
+            getDs().save(entities);
+            fail("Should have thrown a BulkSaveException");
+        } catch (BulkSaveException e) {
+            assertEquals(1, e.getFailures().size());
+            assertTrue(e.getFailures().containsKey(1));
+            assertNull(e.getKeys().get(1));
+            assertNotNull(e.getKeys().get(0));
+            assertNotNull(e.getKeys().get(2));
+        }
+
+        assertEquals(Long.valueOf(2), entities.get(0).getVersion());
+        assertEquals(Long.valueOf(1), entities.get(1).getVersion());
+        assertEquals(Long.valueOf(2), entities.get(2).getVersion());
+        assertEquals("second", getDs().get(Versioned.class, entities.get(0).getId()).getName());
+        assertNull(getDs().get(Versioned.class, entities.get(1).getId()).getName());
+    }
+
+    @Test
+    public void testDeletedVersionedEntitiesAreReported() {
+        final List<Versioned> entities = asList(new Versioned(), new Versioned());
+        getDs().save(entities);
+        getDs().delete(entities.get(0));
+
+        try {
+            getDs().save(entities);
+            fail("Should have thrown a BulkSaveException");
+        } catch (BulkSaveException e) {
+            assertEquals(1, e.getFailures().size());
+            assertTrue(e.getFailures().containsKey(0));
+            assertNotNull(e.getKeys().get(1));
+        }
+        assertNull(getDs().get(Versioned.class, entities.get(0).getId()));
+        assertEquals(Long.valueOf(2), entities.get(1).getVersion());
+    }
+
+    private static <T> List<T> keysOf(final Iterable<T> iterable) {
+        final List<T> list = new ArrayList<T>();
+        for (final T t : iterable) {
+            list.add(t);
+        }
+        return list;
+    }
+
+    @Entity
+    private static class Note {
+        @Id
+        private ObjectId id;
+        private String text;
+
+        Note() {
+        }
+
+        Note(final ObjectId id, final String text) {
+            this.id = id;
+            this.text = text;
+        }
+    }
+}
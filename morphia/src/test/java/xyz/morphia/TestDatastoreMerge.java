@@ -15,11 +15,21 @@
 package xyz.morphia;
 
 
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
 import org.bson.types.ObjectId;
 import org.junit.Test;
 import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.Version;
+import xyz.morphia.query.UpdateException;
+
+import java.util.ConcurrentModificationException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 
 
 /**
@@ -49,6 +59,90 @@ public class TestDatastoreMerge extends TestBase {
         assertEquals(te2.position, teLoaded.position);
     }
 
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDirtyTrackingMerge() {
+        getMorphia().getMapper().getOptions().setDirtyTracking(true);
+        final Merger te = new Merger();
+        te.name = "test1";
+        te.foo = "bar";
+        te.position = 1;
+        getDs().save(te);
+
+        final Merger loaded = getDs().get(te);
+        // changed behind the back of the loaded entity, and kept since the field did not change on it
+        getDs().getCollection(Merger.class).update(new BasicDBObject("_id", te.id),
+                                                   new BasicDBObject("$set", new BasicDBObject("foo", "other")));
+        loaded.position = 5;
+        loaded.name = null;
+        getDs().merge(loaded);
+
+        final DBObject document = getDs().getCollection(Merger.class).findOne(new BasicDBObject("_id", te.id));
+        assertEquals("other", document.get("foo"));
+        assertEquals(5, document.get("position"));
+        assertFalse(document.containsField("name"));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDirtyTrackingSaveVersioned() {
+        getMorphia().getMapper().getOptions().setDirtyTracking(true);
+        final VersionedMerger te = new VersionedMerger();
+        te.name = "test1";
+        te.position = 1;
+        getDs().save(te);
+
+        final VersionedMerger loaded = getDs().get(te);
+        final VersionedMerger stale = getDs().get(te);
+        loaded.position = 5;
+        getDs().save(loaded);
+        assertEquals(Long.valueOf(2), loaded.version);
+
+        final VersionedMerger reloaded = getDs().get(te);
+        assertEquals(5, reloaded.position);
+        assertEquals(te.name, reloaded.name);
+        assertEquals(Long.valueOf(2), reloaded.version);
+
+        stale.position = 7;
+        try {
+            getDs().save(stale);
+            fail("the stale entity should not be saved");
+        } catch (ConcurrentModificationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDirtyTrackingSaveAfterDelete() {
+        getMorphia().getMapper().getOptions().setDirtyTracking(true);
+        final Merger te = new Merger();
+        te.name = "test1";
+        te.position = 1;
+        getDs().save(te);
+
+        final Merger loaded = getDs().get(te);
+        getDs().delete(loaded);
+        assertNull(getDs().get(te));
+        getDs().save(loaded);
+        assertEquals(te.name, getDs().get(te).name);
+
+        // removed without going through the entity, which still has its snapshot
+        getDs().getCollection(Merger.class).remove(new BasicDBObject("_id", te.id));
+        getDs().save(loaded);
+        final DBObject document = getDs().getCollection(Merger.class).findOne(new BasicDBObject("_id", te.id));
+        assertNotNull(document);
+        assertEquals(1, document.get("position"));
+
+        getDs().getCollection(Merger.class).remove(new BasicDBObject("_id", te.id));
+        try {
+            getDs().merge(loaded);
+            fail("there is nothing to merge into");
+        } catch (UpdateException e) {
+            // expected
+        }
+    }
+
     private static class Merger {
         @Id
         private ObjectId id;
@@ -56,4 +150,13 @@ public class TestDatastoreMerge extends TestBase {
         private String foo;
         private int position;
     }
+
+    private static class VersionedMerger {
+        @Id
+        private ObjectId id;
+        @Version
+        private Long version;
+        private String name;
+        private int position;
+    }
 }
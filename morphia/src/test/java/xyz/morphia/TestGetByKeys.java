@@ -5,6 +5,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import xyz.morphia.testutil.TestEntity;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
@@ -30,6 +31,38 @@ public class TestGetByKeys extends TestBase {
         Assert.assertFalse(i.hasNext());
     }
 
+    @Test
+    public final void testGetByKeysKeepsOrder() {
+        final List<A> entities = new ArrayList<A>();
+        for (int i = 0; i < 5; i++) {
+            final A a = new A();
+            a.foo = "a" + i;
+            entities.add(a);
+        }
+        getDs().save(entities);
+        final A missing = new A();
+
+        final List<Key<A>> keys = new ArrayList<Key<A>>();
+        keys.add(getDs().getKey(entities.get(3)));
+        keys.add(getDs().getKey(entities.get(0)));
+        keys.add(new Key<A>(A.class, getMorphia().getMapper().getCollectionName(A.class), missing.getId()));
+        keys.add(getDs().getKey(entities.get(4)));
+        keys.add(getDs().getKey(entities.get(3)));
+
+        final int keysPerQuery = getMorphia().getMapper().getOptions().getKeysPerQuery();
+        getMorphia().getMapper().getOptions().setKeysPerQuery(2);
+        try {
+            final List<A> reloaded = getDs().getByKeys(keys);
+            Assert.assertEquals(4, reloaded.size());
+            Assert.assertEquals("a3", reloaded.get(0).foo);
+            Assert.assertEquals("a0", reloaded.get(1).foo);
+            Assert.assertEquals("a4", reloaded.get(2).foo);
+            Assert.assertSame(reloaded.get(0), reloaded.get(3));
+        } finally {
+            getMorphia().getMapper().getOptions().setKeysPerQuery(keysPerQuery);
+        }
+    }
+
     public static class A extends TestEntity {
         private String foo = "bar";
     }
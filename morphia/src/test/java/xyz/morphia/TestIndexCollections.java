@@ -53,6 +53,30 @@ public class TestIndexCollections extends TestBase {
                   new BasicDBObject("f3", 1));
     }
 
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testEnsureSchema() {
+        getMorphia().getMapper().getOptions().setSchemaThreads(4);
+        getMorphia().map(SingleFieldIndex.class, OldStyleIndexing.class, HasEmbeddedIndex.class);
+        getDb().dropDatabase();
+
+        SchemaReport report = getAds().ensureSchema();
+        Assert.assertEquals(9, report.getCreatedIndexes().size());
+        Assert.assertEquals(0, report.getUnchangedIndexes());
+        testIndex(getAds().getCollection(SingleFieldIndex.class).getIndexInfo(),
+                  new BasicDBObject("field", 1),
+                  new BasicDBObject("field2", -1),
+                  new BasicDBObject("f3", 1));
+        testIndex(getAds().getCollection(HasEmbeddedIndex.class).getIndexInfo(),
+                  new BasicDBObject("name", 1),
+                  new BasicDBObject("embeddedIndex.color", -1),
+                  new BasicDBObject("embeddedIndex.name", 1));
+
+        report = getAds().ensureSchema();
+        Assert.assertFalse(report.toString(), report.hasChanges());
+        Assert.assertEquals(9, report.getUnchangedIndexes());
+    }
+
     @Test
     @SuppressWarnings("deprecation")
     public void testSingleFieldIndex() {
@@ -99,6 +99,23 @@ public class TestMapper extends TestBase {
         Assert.assertTrue(subTypes.contains(mapper.getMappedClass(AnotherNested.class)));
     }
 
+    @Test
+    public void allSubTypes() {
+        Mapper mapper = getMorphia().getMapper();
+        Assert.assertTrue(mapper.getAllSubTypes(mapper.getMappedClass(Shape.class)).isEmpty());
+
+        getMorphia().map(Square.class, ColoredSquare.class);
+
+        MappedClass shape = mapper.getMappedClass(Shape.class);
+        MappedClass base = mapper.getMappedClass(BaseShape.class);
+        Assert.assertEquals(asList(base), mapper.getSubTypes(shape));
+        Assert.assertEquals(asList(base, mapper.getMappedClass(Square.class), mapper.getMappedClass(ColoredSquare.class)),
+                            mapper.getAllSubTypes(shape));
+        Assert.assertEquals(asList(mapper.getMappedClass(ColoredSquare.class)),
+                            mapper.getAllSubTypes(mapper.getMappedClass(Square.class)));
+        Assert.assertTrue(mapper.getAllSubTypes(mapper.getMappedClass(ColoredSquare.class)).isEmpty());
+    }
+
     public static class A {
         private static int loadCount;
         @Id
@@ -277,6 +294,24 @@ public class TestMapper extends TestBase {
         LOGGER.warn("Morphia creation took total " + (totalMs) + " ms, avg: " + (totalMs / iterations));
     }
 
+    private interface Shape {
+    }
+
+    private abstract static class BaseShape implements Shape {
+        @Id
+        private ObjectId id;
+    }
+
+    @Entity
+    private static class Square extends BaseShape {
+        private int side;
+    }
+
+    @Entity
+    private static class ColoredSquare extends Square {
+        private String color;
+    }
+
     private static class Customer {
         private int id;
         private String name;
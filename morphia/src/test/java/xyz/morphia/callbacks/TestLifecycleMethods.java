@@ -0,0 +1,143 @@
+package xyz.morphia.callbacks;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.EntityListeners;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.PostLoad;
+import xyz.morphia.annotations.PrePersist;
+import xyz.morphia.mapping.DefaultCreator;
+import xyz.morphia.mapping.MappedClass;
+import xyz.morphia.mapping.Mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class TestLifecycleMethods {
+    private final Mapper mapper = new Mapper();
+
+    @Test
+    public void testNoCallbacks() {
+        final MappedClass mc = mapper.addMappedClass(Plain.class);
+        final DBObject dbObj = new BasicDBObject("name", "plain");
+
+        assertSame(dbObj, mc.callLifecycleMethods(PrePersist.class, new Plain(), dbObj, mapper));
+        assertSame(dbObj, mc.callLifecycleMethods(PostLoad.class, new Plain(), dbObj, mapper));
+        assertEquals(new BasicDBObject("name", "plain"), dbObj);
+    }
+
+    @Test
+    public void testRepeatedCalls() {
+        final MappedClass mc = mapper.addMappedClass(Counted.class);
+        final Counted entity = new Counted();
+        for (int i = 0; i < 3; i++) {
+            final DBObject dbObj = new BasicDBObject();
+            assertSame(dbObj, mc.callLifecycleMethods(PrePersist.class, entity, dbObj, mapper));
+            assertEquals(i + 1, dbObj.get("prePersist"));
+            mc.callLifecycleMethods(PostLoad.class, entity, dbObj, mapper);
+        }
+
+        assertEquals(3, entity.prePersist);
+        assertEquals(3, entity.postLoad);
+    }
+
+    @Test
+    public void testEntityListeners() {
+        final MappedClass mc = mapper.addMappedClass(Listened.class);
+        final Listened entity = new Listened();
+        for (int i = 0; i < 3; i++) {
+            mc.callLifecycleMethods(PrePersist.class, entity, new BasicDBObject(), mapper);
+            mc.callLifecycleMethods(PostLoad.class, entity, new BasicDBObject(), mapper);
+        }
+
+        // one instance serves both callbacks of the listener
+        final Listener listener = (Listener) mapper.getInstanceCache().get(Listener.class);
+        assertEquals(3, listener.prePersist.size());
+        assertEquals(3, listener.postLoad.size());
+        assertSame(entity, listener.prePersist.get(0));
+        assertSame(entity, listener.postLoad.get(2));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testReplacedObjectFactory() {
+        final MappedClass mc = mapper.addMappedClass(Listened.class);
+        final Listened entity = new Listened();
+        mc.callLifecycleMethods(PrePersist.class, entity, new BasicDBObject(), mapper);
+        final Listener first = (Listener) mapper.getInstanceCache().get(Listener.class);
+
+        final List<Class<?>> created = new ArrayList<Class<?>>();
+        mapper.getOptions().setObjectFactory(new DefaultCreator(mapper.getOptions()) {
+            @Override
+            public <T> T createInstance(final Class<T> clazz) {
+                created.add(clazz);
+                return super.createInstance(clazz);
+            }
+        });
+        mc.callLifecycleMethods(PrePersist.class, entity, new BasicDBObject(), mapper);
+        mc.callLifecycleMethods(PostLoad.class, entity, new BasicDBObject(), mapper);
+        mc.callLifecycleMethods(PrePersist.class, entity, new BasicDBObject(), mapper);
+
+        final Listener second = (Listener) mapper.getInstanceCache().get(Listener.class);
+        assertNotSame(first, second);
+        assertEquals(1, created.size());
+        assertEquals(1, first.prePersist.size());
+        assertEquals(2, second.prePersist.size());
+        assertEquals(1, second.postLoad.size());
+    }
+
+    @Entity
+    static class Plain {
+        @Id
+        private ObjectId id;
+        private String name;
+    }
+
+    @Entity
+    static class Counted {
+        @Id
+        private ObjectId id;
+        private int prePersist;
+        private int postLoad;
+
+        @PrePersist
+        void prePersist(final DBObject dbObj) {
+            dbObj.put("prePersist", ++prePersist);
+        }
+
+        @PostLoad
+        void postLoad() {
+            postLoad++;
+        }
+    }
+
+    @Entity
+    @EntityListeners(Listener.class)
+    static class Listened {
+        @Id
+        private ObjectId id;
+    }
+
+    public static class Listener {
+        private final List<Object> prePersist = new ArrayList<Object>();
+        private final List<Object> postLoad = new ArrayList<Object>();
+
+        @PrePersist
+        void prePersist(final Object entity) {
+            prePersist.add(entity);
+        }
+
+        @PostLoad
+        void postLoad(final Object entity, final DBObject dbObj) {
+            postLoad.add(entity);
+        }
+    }
+}
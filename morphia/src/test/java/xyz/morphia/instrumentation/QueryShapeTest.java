@@ -0,0 +1,24 @@
+package xyz.morphia.instrumentation;
+
+import com.mongodb.BasicDBObject;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class QueryShapeTest {
+    @Test
+    public void testShapes() {
+        assertNull(QueryShape.of(null));
+        assertEquals("{}", QueryShape.of(new BasicDBObject()));
+        assertEquals("{name: ?, age: {$gt: ?}}", QueryShape.of(new BasicDBObject("name", "Bob")
+                                                                   .append("age", new BasicDBObject("$gt", 21))));
+        assertEquals("{_id: {$in: ?}}", QueryShape.of(new BasicDBObject("_id", new BasicDBObject("$in", Arrays.asList(1, 2, 3)))));
+        assertEquals("{address: ?}", QueryShape.of(new BasicDBObject("address", new BasicDBObject("city", "Paris"))));
+        assertEquals("{$or: [{a: ?}, {b: {$exists: ?}}]}",
+                     QueryShape.of(new BasicDBObject("$or", Arrays.asList(new BasicDBObject("a", 1),
+                                                                          new BasicDBObject("b", new BasicDBObject("$exists", true))))));
+    }
+}
@@ -0,0 +1,83 @@
+package xyz.morphia.instrumentation;
+
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.Reference;
+import xyz.morphia.instrumentation.HistogramInstrumentation.Label;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestInstrumentation extends TestBase {
+    @After
+    @Override
+    public void tearDown() {
+        getDs().setInstrumentation(null);
+        super.tearDown();
+    }
+
+    @Test
+    public void testSpans() {
+        final HistogramInstrumentation instrumentation = new HistogramInstrumentation();
+        getDs().setInstrumentation(instrumentation);
+
+        final Author author = new Author();
+        getDs().save(author);
+        for (int i = 0; i < 10; i++) {
+            getDs().save(new Book(i, author));
+        }
+        assertEquals(10, getDs().find(Book.class).field("pages").greaterThanOrEq(0).asList().size());
+        getDs().update(getDs().find(Book.class).field("pages").equal(1), getDs().createUpdateOperations(Book.class).inc("pages"));
+        getDs().delete(getDs().find(Book.class).field("pages").equal(2));
+
+        assertEquals(11, instrumentation.getHistogram(Span.SAVE).getCount());
+        assertEquals(1, instrumentation.getHistogram(Span.BUILD_QUERY).getCount());
+        assertEquals(10, instrumentation.getHistogram(Span.FETCH).getCount());
+        assertEquals(10, instrumentation.getHistogram(Span.DECODE).getCount());
+        assertEquals(1, instrumentation.getHistogram(Span.RESOLVE_REFERENCES).getCount());
+        assertEquals(1, instrumentation.getHistogram(Span.UPDATE).getCount());
+        assertEquals(1, instrumentation.getHistogram(Span.DELETE).getCount());
+        assertTrue(instrumentation.getHistogram(Span.DECODE).getTotal() > 0);
+
+        Label decode = null;
+        for (final Map.Entry<Label, LatencyHistogram> entry : instrumentation.getHistograms().entrySet()) {
+            if (entry.getKey().getSpan() == Span.DECODE) {
+                decode = entry.getKey();
+            }
+        }
+        assertNotNull(decode);
+        assertEquals("books", decode.getCollection());
+        assertEquals(Book.class, decode.getType());
+        assertEquals("{pages: {$gte: ?}}", decode.getShape());
+    }
+
+    @Entity("authors")
+    private static class Author {
+        @Id
+        private ObjectId id;
+    }
+
+    @Entity("books")
+    private static class Book {
+        @Id
+        private ObjectId id;
+        private int pages;
+        @Reference
+        private Author author;
+
+        Book() {
+        }
+
+        Book(final int pages, final Author author) {
+            this.pages = pages;
+            this.author = author;
+        }
+    }
+}
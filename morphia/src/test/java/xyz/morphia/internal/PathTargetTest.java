@@ -31,6 +31,7 @@ import xyz.morphia.mapping.EmbeddedMappingTest.NestedImpl;
 import xyz.morphia.mapping.EmbeddedMappingTest.WithNested;
 import xyz.morphia.mapping.MappedClass;
 import xyz.morphia.mapping.Mapper;
+import xyz.morphia.query.ValidationException;
 import xyz.morphia.testmodel.Article;
 
 import static org.junit.Assert.assertEquals;
@@ -128,4 +129,67 @@ public class PathTargetTest extends TestBase {
         Assert.assertEquals("nested.field.fail", pathTarget.translatedPath());
         Assert.assertNull(pathTarget.getTarget());
     }
+
+    @Test
+    public void cachedResolution() {
+        getMorphia().map(Student.class, Article.class);
+        Mapper mapper = getMorphia().getMapper();
+        MappedClass mappedClass = mapper.getMappedClass(Student.class);
+        mapper.getPathCache().clear();
+
+        PathTarget first = new PathTarget(mapper, mappedClass, "grades.$.data.name");
+        Assert.assertEquals("grades.$.d.name", first.translatedPath());
+        Assert.assertEquals(1, mapper.getPathCache().size());
+
+        PathTarget second = new PathTarget(mapper, mappedClass, "grades.$.data.name");
+        Assert.assertEquals("grades.$.d.name", second.translatedPath());
+        Assert.assertSame(first.getTarget(), second.getTarget());
+        Assert.assertEquals(1, mapper.getPathCache().size());
+
+        new PathTarget(mapper, mappedClass, "grades.$.data.name", false).translatedPath();
+        Assert.assertEquals(2, mapper.getPathCache().size());
+
+        try {
+            new PathTarget(mapper, mappedClass, "notAField").translatedPath();
+            Assert.fail("Validation should have failed");
+        } catch (ValidationException ignored) {
+        }
+        Assert.assertEquals(2, mapper.getPathCache().size());
+
+        getMorphia().map(ParentType.class);
+        Assert.assertEquals(0, mapper.getPathCache().size());
+    }
+
+    @Test
+    public void boundedCache() {
+        PathCache cache = new PathCache(2);
+        Mapper mapper = getMorphia().getMapper();
+        MappedClass mappedClass = mapper.getMappedClass(Student.class);
+        PathTarget target = new PathTarget(mapper, mappedClass, "grades");
+
+        cache.put(mappedClass, "a", true, target, cache.getGeneration());
+        cache.put(mappedClass, "b", true, target, cache.getGeneration());
+        Assert.assertEquals(2, cache.size());
+        cache.put(mappedClass, "c", true, target, cache.getGeneration());
+        Assert.assertEquals(1, cache.size());
+        Assert.assertSame(target, cache.get(mappedClass, "c", true));
+        Assert.assertNull(cache.get(mappedClass, "c", false));
+    }
+
+    @Test
+    public void staleResolution() {
+        PathCache cache = new PathCache();
+        Mapper mapper = getMorphia().getMapper();
+        MappedClass mappedClass = mapper.getMappedClass(Student.class);
+        PathTarget target = new PathTarget(mapper, mappedClass, "grades");
+
+        // resolved before the mapped classes changed, and stored after
+        final long stamp = cache.getGeneration();
+        cache.clear();
+        cache.put(mappedClass, "grades", true, target, stamp);
+        Assert.assertEquals(0, cache.size());
+
+        cache.put(mappedClass, "grades", true, target, cache.getGeneration());
+        Assert.assertSame(target, cache.get(mappedClass, "grades", true));
+    }
 }
@@ -0,0 +1,84 @@
+package xyz.morphia.mapping;
+
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.PrePersist;
+
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ClassMetadataTest {
+
+    @Test
+    public void testLoad() throws NoSuchMethodException {
+        final ClassMetadata metadata = ClassMetadata.load(Indexed.class);
+        assertNotNull(metadata);
+        assertEquals(2, metadata.getFields().size());
+        assertEquals("name", metadata.getFields().get(0).getName());
+        assertEquals(Base.class, metadata.getFields().get(1).getDeclaringClass());
+        assertEquals(1, metadata.getLifecycleMethods().size());
+        assertEquals(PrePersist.class, metadata.getLifecycleMethods().get(0).getEvent());
+        assertEquals(Base.class.getDeclaredMethod("prePersist", DBObject.class), metadata.getLifecycleMethods().get(0).getMethod());
+
+        assertNull(ClassMetadata.load(Base.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMappedFromIndex() {
+        // the index leaves out the "unlisted" field so that a mapping made from it can be told apart
+        final MappedClass indexed = new Mapper().getMappedClass(Indexed.class);
+        assertNotNull(indexed.getMappedField("name"));
+        assertNull(indexed.getMappedField("unlisted"));
+        assertEquals(1, indexed.getLifecycleMethods((Class) PrePersist.class).size());
+
+        final Mapper reflective = new Mapper(MapperOptions.builder().metadataIndex(false).build());
+        assertNotNull(reflective.getMappedClass(Indexed.class).getMappedField("unlisted"));
+    }
+
+    @Test
+    public void testMismatchFallsBack() {
+        final Properties properties = index();
+        properties.setProperty(ClassMetadata.HIERARCHY_KEY, Indexed.class.getName());
+        assertNull(ClassMetadata.parse(Indexed.class, properties));
+
+        final Properties renamed = index();
+        renamed.setProperty(ClassMetadata.FIELDS_KEY, Indexed.class.getName() + "#renamed");
+        assertNull(ClassMetadata.parse(Indexed.class, renamed));
+
+        final Properties version = index();
+        version.setProperty(ClassMetadata.VERSION_KEY, "0");
+        assertNull(ClassMetadata.parse(Indexed.class, version));
+
+        assertNotNull(ClassMetadata.parse(Indexed.class, index()));
+    }
+
+    private Properties index() {
+        final Properties properties = new Properties();
+        properties.setProperty(ClassMetadata.VERSION_KEY, ClassMetadata.VERSION);
+        properties.setProperty(ClassMetadata.HIERARCHY_KEY, Indexed.class.getName() + "," + Base.class.getName());
+        properties.setProperty(ClassMetadata.FIELDS_KEY, Indexed.class.getName() + "#name");
+        return properties;
+    }
+
+    private abstract static class Base {
+        @Id
+        private ObjectId id;
+
+        @PrePersist
+        void prePersist(final DBObject dbObject) {
+        }
+    }
+
+    @Entity
+    private static class Indexed extends Base {
+        private String name;
+        private String unlisted;
+    }
+}
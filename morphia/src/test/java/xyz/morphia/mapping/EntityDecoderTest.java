@@ -0,0 +1,184 @@
+package xyz.morphia.mapping;
+
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Embedded;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.PreLoad;
+import xyz.morphia.annotations.Reference;
+import xyz.morphia.query.MorphiaIterator;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EntityDecoderTest extends TestBase {
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        getAds().setDecoderFact(new EntityDecoderFactory(getMorphia().getMapper()));
+    }
+
+    @After
+    @Override
+    public void tearDown() {
+        getAds().setDecoderFact(null);
+        super.tearDown();
+    }
+
+    @Test
+    public void testDecodesStraightIntoEntities() {
+        final Owner owner = new Owner();
+        getDs().save(owner);
+        final Item item = new Item();
+        item.name = "widget";
+        item.count = 3;
+        item.total = 1L << 40;
+        item.price = 9.99;
+        item.active = true;
+        item.created = new Date(TimeUnit.DAYS.toMillis(365));
+        item.other = new ObjectId();
+        item.color = Color.GREEN;
+        item.tags = Arrays.asList("a", "b");
+        item.size = new Size(2, 3);
+        item.owner = owner;
+        getDs().save(item);
+
+        final Item loaded = getDs().find(Item.class).get();
+        assertEquals(item.id, loaded.id);
+        assertEquals("widget", loaded.name);
+        assertEquals(3, loaded.count);
+        assertEquals(1L << 40, loaded.total);
+        assertEquals(9.99, loaded.price, 0);
+        assertTrue(loaded.active);
+        assertEquals(item.created, loaded.created);
+        assertEquals(item.other, loaded.other);
+        assertEquals(Color.GREEN, loaded.color);
+        assertEquals(item.tags, loaded.tags);
+        assertEquals(3, loaded.size.height);
+        assertEquals(owner.id, loaded.owner.id);
+        assertNull(loaded.missing);
+        assertEquals("default", loaded.untouched);
+
+        final MorphiaIterator<Item, Item> iterator = getDs().find(Item.class).fetch();
+        final DBCursor cursor = iterator.getCursor();
+        try {
+            final DBObject document = cursor.next();
+            assertTrue(document instanceof DecodedEntity);
+            assertFalse(document.containsField("name"));
+            assertTrue(document.containsField("_id"));
+            assertTrue(document.containsField("size"));
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Test
+    public void testPreLoadGetsTheWholeDocument() {
+        final Hooked hooked = new Hooked();
+        hooked.name = "hooked";
+        getDs().save(hooked);
+
+        final Hooked loaded = getDs().find(Hooked.class).get();
+        assertEquals("hooked", loaded.name);
+        assertEquals("hooked", loaded.seen);
+    }
+
+    @Test
+    public void testSubtypesFallBack() {
+        final Child child = new Child();
+        ((Parent) child).name = "child";
+        child.age = 7;
+        getDs().save(child);
+
+        final List<Parent> loaded = getDs().find(Parent.class).asList();
+        assertEquals(1, loaded.size());
+        assertTrue(loaded.get(0) instanceof Child);
+        assertEquals("child", loaded.get(0).name);
+        assertEquals(7, ((Child) loaded.get(0)).age);
+    }
+
+    private enum Color {
+        RED,
+        GREEN
+    }
+
+    @Entity("items")
+    private static class Item {
+        @Id
+        private ObjectId id;
+        private String name;
+        private int count;
+        private long total;
+        private double price;
+        private boolean active;
+        private Date created;
+        private ObjectId other;
+        private Color color;
+        private String missing;
+        private String untouched = "default";
+        private List<String> tags;
+        @Embedded
+        private Size size;
+        @Reference
+        private Owner owner;
+    }
+
+    @Embedded
+    private static class Size {
+        private int width;
+        private int height;
+
+        Size() {
+        }
+
+        Size(final int width, final int height) {
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    @Entity("owners")
+    private static class Owner {
+        @Id
+        private ObjectId id;
+    }
+
+    @Entity("hooked")
+    private static class Hooked {
+        @Id
+        private ObjectId id;
+        private String name;
+        private transient String seen;
+
+        @PreLoad
+        void preLoad(final DBObject document) {
+            seen = (String) document.get("name");
+        }
+    }
+
+    @Entity("parents")
+    private static class Parent {
+        @Id
+        private ObjectId id;
+        private String name;
+    }
+
+    private static class Child extends Parent {
+        private int age;
+    }
+}
@@ -0,0 +1,209 @@
+package xyz.morphia.mapping;
+
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Embedded;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.PrePersist;
+import xyz.morphia.annotations.Reference;
+import xyz.morphia.annotations.Version;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EntityEncoderTest extends TestBase {
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        getMorphia().getMapper().getOptions().setDirectEncoding(true);
+    }
+
+    @After
+    @Override
+    public void tearDown() {
+        getMorphia().getMapper().getOptions().setDirectEncoding(false);
+        super.tearDown();
+    }
+
+    @Test
+    public void testWritesTheSameDocuments() {
+        final Owner owner = new Owner();
+        getDs().save(owner);
+
+        final Order order = new Order();
+        order.name = "order";
+        order.count = 3;
+        order.created = new Date();
+        order.tags = Arrays.asList("a", "b");
+        order.lines = new ArrayList<Line>();
+        for (int i = 0; i < 100; i++) {
+            order.lines.add(i % 10 == 0 ? new DiscountLine("item" + i, i, 5) : new Line("item" + i, i));
+        }
+        order.lines.add(null);
+        order.first = new Line("first", 1);
+        order.special = new DiscountLine("special", 2, 10);
+        order.totals = new HashMap<String, Line>();
+        order.totals.put("all", new Line("all", 100));
+        order.owner = owner;
+        getDs().save(order);
+        assertNotNull(order.id);
+
+        final DBObject stored = getDs().getCollection(Order.class).findOne();
+        assertFalse(stored instanceof EntityDocument);
+        assertEquals(getMorphia().getMapper().toDBObject(order), stored);
+
+        final Order loaded = getDs().get(order);
+        assertEquals(101, loaded.lines.size());
+        assertTrue(loaded.lines.get(10) instanceof DiscountLine);
+        assertTrue(loaded.special instanceof DiscountLine);
+        assertEquals(owner.id, loaded.owner.id);
+    }
+
+    @Test
+    public void testDocumentsOnlyHoldTheId() {
+        final Order order = new Order();
+        order.id = new ObjectId();
+        order.name = "order";
+
+        final DBObject document = getMorphia().getMapper().toDocument(order, null);
+        assertTrue(document instanceof EntityDocument);
+        assertEquals(order.id, document.get("_id"));
+        assertEquals(1, document.keySet().size());
+    }
+
+    @Test
+    public void testInserts() {
+        final List<Order> orders = new ArrayList<Order>();
+        for (int i = 0; i < 10; i++) {
+            final Order order = new Order();
+            order.name = "order" + i;
+            orders.add(order);
+        }
+        getAds().insert(orders);
+        for (final Order order : orders) {
+            assertNotNull(order.id);
+            assertEquals(order.name, getDs().get(order).name);
+        }
+    }
+
+    @Test
+    public void testVersions() {
+        final Versioned versioned = new Versioned();
+        versioned.name = "first";
+        getDs().save(versioned);
+        assertEquals(Long.valueOf(1), versioned.version);
+
+        versioned.name = "second";
+        getDs().save(versioned);
+        assertEquals(Long.valueOf(2), versioned.version);
+        assertEquals("second", getDs().get(versioned).name);
+
+        final Versioned stale = getDs().get(versioned);
+        stale.version = 1L;
+        try {
+            getDs().save(stale);
+            fail("a stale version should not be saved");
+        } catch (ConcurrentModificationException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testPrePersistGetsTheDocument() {
+        final Hooked hooked = new Hooked();
+        hooked.name = "hooked";
+
+        final DBObject document = getMorphia().getMapper().toDocument(hooked, null);
+        assertFalse(document instanceof EntityDocument);
+
+        getDs().save(hooked);
+        assertEquals("changed", getDs().getCollection(Hooked.class).findOne().get("name"));
+    }
+
+    @Entity("orders")
+    private static class Order {
+        @Id
+        private ObjectId id;
+        private String name;
+        private int count;
+        private Date created;
+        private List<String> tags;
+        private List<Line> lines;
+        private Line first;
+        private Line special;
+        private Map<String, Line> totals;
+        @Reference
+        private Owner owner;
+    }
+
+    @Embedded
+    private static class Line {
+        private String item;
+        private int quantity;
+
+        Line() {
+        }
+
+        Line(final String item, final int quantity) {
+            this.item = item;
+            this.quantity = quantity;
+        }
+    }
+
+    private static class DiscountLine extends Line {
+        private int discount;
+
+        DiscountLine() {
+        }
+
+        DiscountLine(final String item, final int quantity, final int discount) {
+            super(item, quantity);
+            this.discount = discount;
+        }
+    }
+
+    @Entity("owners")
+    private static class Owner {
+        @Id
+        private ObjectId id;
+    }
+
+    @Entity("versioned")
+    private static class Versioned {
+        @Id
+        private ObjectId id;
+        @Version
+        private Long version;
+        private String name;
+    }
+
+    @Entity("hooked")
+    private static class Hooked {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        @PrePersist
+        void prePersist(final DBObject document) {
+            document.put("name", "changed");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package xyz.morphia.mapping;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EntitySnapshotsTest {
+    private final EntitySnapshots snapshots = new EntitySnapshots();
+    private final Object entity = new Object();
+
+    @Test
+    public void testUnknownEntity() {
+        assertFalse(snapshots.contains(entity));
+        assertNull(snapshots.diff(entity, document()));
+
+        snapshots.put(entity, document());
+        assertTrue(snapshots.contains(entity));
+        assertFalse(snapshots.contains(new Object()));
+
+        snapshots.remove(entity);
+        assertFalse(snapshots.contains(entity));
+    }
+
+    @Test
+    public void testNoChanges() {
+        snapshots.put(entity, document());
+        assertEquals(new BasicDBObject(), snapshots.diff(entity, document()));
+
+        final DBObject document = document();
+        document.put("_id", 2);
+        assertEquals(new BasicDBObject(), snapshots.diff(entity, document));
+    }
+
+    @Test
+    public void testChanges() {
+        snapshots.put(entity, document());
+
+        final DBObject document = document();
+        document.put("name", "other");
+        document.removeField("count");
+        ((DBObject) document.get("address")).put("city", "Reykjavik");
+        ((DBObject) document.get("address")).put("zip", "101");
+        ((BasicDBList) document.get("tags")).add("c");
+
+        final DBObject set = new BasicDBObject("name", "other")
+                                 .append("address.city", "Reykjavik")
+                                 .append("address.zip", "101")
+                                 .append("tags", document.get("tags"));
+        assertEquals(new BasicDBObject("$set", set).append("$unset", new BasicDBObject("count", "")),
+                     snapshots.diff(entity, document));
+    }
+
+    @Test
+    public void testReplacedDocuments() {
+        snapshots.put(entity, document());
+
+        final DBObject document = document();
+        document.put("address", "nowhere");
+        final DBObject map = new BasicDBObject("a.b", 2);
+        document.put("map", map);
+        assertEquals(new BasicDBObject("$set", new BasicDBObject("address", "nowhere").append("map", map)),
+                     snapshots.diff(entity, document));
+    }
+
+    private DBObject document() {
+        final BasicDBList tags = new BasicDBList();
+        tags.add("a");
+        tags.add("b");
+        return new BasicDBObject("_id", 1)
+                   .append("name", "test")
+                   .append("count", 3)
+                   .append("address", new BasicDBObject("city", "Akureyri").append("street", "main"))
+                   .append("tags", tags)
+                   .append("map", new BasicDBObject("a.b", 1));
+    }
+}
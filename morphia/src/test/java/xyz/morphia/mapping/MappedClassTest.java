@@ -0,0 +1,87 @@
+package xyz.morphia.mapping;
+
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import xyz.morphia.annotations.AlsoLoad;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.Property;
+import xyz.morphia.annotations.Version;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MappedClassTest {
+
+    @Test
+    public void fieldLookups() {
+        final MappedClass mc = new Mapper().getMappedClass(Indexed.class);
+
+        final MappedField name = mc.getMappedFieldByJavaField("name");
+        assertEquals("n", name.getNameToStore());
+        assertSame(name, mc.getMappedField("n"));
+        assertSame(name, mc.getMappedField("fullName"));
+        assertSame(name, mc.getMappedField("legacyName"));
+        assertNull(mc.getMappedField("name"));
+        assertNull(mc.getMappedFieldByJavaField("n"));
+        assertTrue(mc.containsJavaFieldName("fullName"));
+
+        assertSame(mc.getMappedFieldByJavaField("id"), mc.getMappedIdField());
+        assertSame(mc.getMappedFieldByJavaField("version"), mc.getMappedVersionField());
+        assertEquals(1, mc.getFieldsAnnotatedWith(Version.class).size());
+        assertTrue(mc.getFieldsAnnotatedWith(Entity.class).isEmpty());
+    }
+
+    @Test
+    public void annotatedFieldsInFieldOrder() {
+        final MappedClass mc = new Mapper().getMappedClass(Indexed.class);
+
+        final List<MappedField> properties = mc.getFieldsAnnotatedWith(Property.class);
+        assertEquals(2, properties.size());
+        assertEquals("name", properties.get(0).getJavaFieldName());
+        assertEquals("count", properties.get(1).getJavaFieldName());
+    }
+
+    @Test
+    public void shadowedFields() {
+        final MappedClass mc = new Mapper().getMappedClass(Child.class);
+
+        assertSame(Child.class, mc.getMappedFieldByJavaField("value").getDeclaringClass());
+    }
+
+    @Test
+    public void removedFields() {
+        final MappedClass mc = new Mapper().getMappedClass(Indexed.class);
+        final MappedField count = mc.getMappedFieldByJavaField("count");
+
+        mc.getPersistenceFields().remove(count);
+        assertNull(mc.getMappedFieldByJavaField("count"));
+        assertNull(mc.getMappedField("c"));
+        assertEquals(1, mc.getFieldsAnnotatedWith(Property.class).size());
+    }
+
+    @Entity
+    private static class Indexed {
+        @Id
+        private ObjectId id;
+        @Version
+        private long version;
+        @Property("n")
+        @AlsoLoad({"fullName", "legacyName"})
+        private String name;
+        @Property("c")
+        private int count;
+    }
+
+    private static class Parent {
+        private String value;
+    }
+
+    private static class Child extends Parent {
+        private String value;
+    }
+}
@@ -0,0 +1,140 @@
+package xyz.morphia.mapping;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import xyz.morphia.annotations.Embedded;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.Version;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MapperConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+    private static final int DOCUMENTS = 200;
+
+    @Test
+    public void concurrentFromDb() throws Exception {
+        final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                // a fresh Mapper each round so that every thread races to fill the empty caches
+                final Mapper mapper = new Mapper();
+                final List<DBObject> documents = createDocuments(mapper);
+                final CountDownLatch start = new CountDownLatch(1);
+                final List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+                for (int i = 0; i < THREADS; i++) {
+                    results.add(pool.submit(new Callable<Integer>() {
+                        @Override
+                        public Integer call() throws Exception {
+                            start.await();
+                            int decoded = 0;
+                            for (final DBObject document : documents) {
+                                decoded += decode(mapper, document);
+                            }
+                            return decoded;
+                        }
+                    }));
+                }
+                start.countDown();
+                for (final Future<Integer> result : results) {
+                    assertEquals(Integer.valueOf(documents.size()), result.get(30, TimeUnit.SECONDS));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private int decode(final Mapper mapper, final DBObject document) {
+        if (document.containsField("values")) {
+            final Wide wide = mapper.fromDBObject(null, Wide.class, document, mapper.createEntityCache());
+            assertEquals(document.get("_id"), wide.id);
+            assertEquals(document.get("name"), wide.name);
+            assertEquals(3, wide.values.size());
+            assertEquals(2, wide.nested.size());
+            assertEquals("inner", wide.nested.get(1).get(0).label);
+
+            final Wide saved = new Wide();
+            saved.id = null;
+            mapper.updateKeyAndVersionInfo(null, new BasicDBObject("_id", wide.id).append("version", 7L),
+                                           mapper.createEntityCache(), saved);
+            assertEquals(wide.id, saved.id);
+            assertEquals(7L, saved.version);
+        } else {
+            final Holder holder = mapper.fromDBObject(null, Holder.class, document, mapper.createEntityCache());
+            assertEquals(document.get("_id"), holder.id);
+            assertEquals(2, holder.byName.size());
+            assertEquals("b", holder.byName.get("b").label);
+        }
+        return 1;
+    }
+
+    private List<DBObject> createDocuments(final Mapper mapper) {
+        final List<DBObject> documents = new ArrayList<DBObject>();
+        for (int i = 0; i < DOCUMENTS; i++) {
+            if (i % 2 == 0) {
+                final Wide wide = new Wide();
+                wide.name = "wide " + i;
+                wide.count = i;
+                wide.values = asList("a", "b", "c");
+                wide.nested = asList(asList(new Child("outer")), asList(new Child("inner")));
+                documents.add(mapper.toDBObject(wide));
+            } else {
+                final Holder holder = new Holder();
+                holder.byName.put("a", new Child("a"));
+                holder.byName.put("b", new Child("b"));
+                documents.add(mapper.toDBObject(holder));
+            }
+        }
+        return documents;
+    }
+
+    @Entity
+    private static class Wide {
+        @Id
+        private ObjectId id = new ObjectId();
+        @Version
+        private long version;
+        private String name;
+        private int count;
+        private List<String> values;
+        private List<List<Child>> nested;
+    }
+
+    @Entity
+    private static class Holder {
+        @Id
+        private ObjectId id = new ObjectId();
+        private Map<String, Child> byName = new HashMap<String, Child>();
+    }
+
+    @Embedded
+    private static class Child {
+        private String label;
+
+        Child() {
+        }
+
+        Child(final String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package xyz.morphia.mapping;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.NotSaved;
+import xyz.morphia.converters.SimpleValueConverter;
+import xyz.morphia.converters.TypeConverter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MappingPlanTest {
+
+    @Test
+    public void notSavedFieldsAreSkipped() {
+        final Mapper mapper = new Mapper();
+        final Holder holder = new Holder();
+        holder.skipped = "skipped";
+
+        final DBObject dbObject = mapper.toDBObject(holder);
+        assertFalse(dbObject.containsField("skipped"));
+        assertTrue(dbObject.containsField("point"));
+    }
+
+    @Test
+    public void plansFollowConverterChanges() {
+        final Mapper mapper = new Mapper();
+        final Holder holder = new Holder();
+        holder.point = new Point(1, 2);
+
+        assertTrue(mapper.toDBObject(holder).get("point") instanceof DBObject);
+
+        final PointConverter converter = new PointConverter();
+        mapper.getConverters().addConverter(converter);
+        assertEquals("1,2", mapper.toDBObject(holder).get("point"));
+
+        final DBObject dbObject = new BasicDBObject("_id", new ObjectId()).append("point", "3,4");
+        final Holder loaded = mapper.fromDBObject(null, Holder.class, dbObject, mapper.createEntityCache());
+        assertEquals(3, loaded.point.x);
+        assertEquals(4, loaded.point.y);
+
+        mapper.getConverters().removeConverter(converter);
+        assertTrue(mapper.toDBObject(holder).get("point") instanceof DBObject);
+    }
+
+    @Entity
+    private static class Holder {
+        @Id
+        private ObjectId id = new ObjectId();
+        private Point point = new Point(0, 0);
+        @NotSaved
+        private String skipped;
+    }
+
+    private static class Point {
+        private int x;
+        private int y;
+
+        Point() {
+        }
+
+        Point(final int x, final int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private static class PointConverter extends TypeConverter implements SimpleValueConverter {
+        PointConverter() {
+            super(Point.class);
+        }
+
+        @Override
+        public Object decode(final Class<?> targetClass, final Object fromDBObject, final MappedField optionalExtraInfo) {
+            final String[] parts = ((String) fromDBObject).split(",");
+            return new Point(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+        }
+
+        @Override
+        public Object encode(final Object value, final MappedField optionalExtraInfo) {
+            final Point point = (Point) value;
+            return point.x + "," + point.y;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package xyz.morphia.mapping;
+
+import org.bson.types.ObjectId;
+import org.junit.Test;
+import xyz.morphia.annotations.Converters;
+import xyz.morphia.annotations.Embedded;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.Property;
+import xyz.morphia.converters.SimpleValueConverter;
+import xyz.morphia.converters.TypeConverter;
+import xyz.morphia.mapping.validation.ConstraintViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelMappingTest {
+    private static final List<Class> CLASSES = asList(new Class[]{Circle.class, Square.class, Triangle.class, Drawing.class,
+                                                                  Point.class, Circle.class});
+
+    @Test
+    public void mapsInOrder() {
+        final Mapper sequential = new Mapper();
+        final Mapper parallel = mapper();
+        final List<MappedClass> expected = sequential.addMappedClasses(CLASSES, false);
+        final List<MappedClass> actual = parallel.addMappedClasses(CLASSES, false);
+
+        assertEquals(types(expected), types(actual));
+        assertEquals(asList(Circle.class, Square.class, Triangle.class, Drawing.class, Point.class, Circle.class), types(actual));
+        assertSame(actual.get(0), actual.get(5));
+        for (final MappedClass mc : actual) {
+            assertSame(mc, parallel.getMappedClass(mc.getClazz()));
+            assertEquals(sequential.getMappedClass(mc.getClazz()).getPersistenceFields().size(), mc.getPersistenceFields().size());
+        }
+        assertTrue(parallel.isMapped(Shape.class));
+        assertSame(parallel.getMappedClass(Shape.class), parallel.getMappedClass(Square.class).getSuperClass());
+    }
+
+    @Test
+    public void failsOnInvalidClass() {
+        final Mapper mapper = mapper();
+        try {
+            mapper.addMappedClasses(asList(new Class[]{Circle.class, NoId.class, Square.class}), false);
+            fail("NoId should not be mapped");
+        } catch (ConstraintViolationException e) {
+            assertTrue(mapper.isMapped(Circle.class));
+            assertFalse(mapper.isMapped(NoId.class));
+        }
+    }
+
+    @Test
+    public void skipsInvalidClass() {
+        final Mapper mapper = mapper();
+        final List<MappedClass> mapped = mapper.addMappedClasses(asList(new Class[]{Circle.class, NoId.class, Square.class}), true);
+
+        assertEquals(asList(Circle.class, Square.class), types(mapped));
+        assertFalse(mapper.isMapped(NoId.class));
+    }
+
+    @Test
+    public void registersConvertersBeforeValidating() {
+        CoordinatesConverter.THREADS.clear();
+        mapper().addMappedClasses(asList(new Class[]{Circle.class, Located.class, Square.class}), false);
+
+        // the field is checked for a converter while the class is validated on the pool
+        boolean validated = false;
+        for (final String thread : CoordinatesConverter.THREADS) {
+            validated |= thread.startsWith("morphia-mapping-");
+        }
+        assertTrue(CoordinatesConverter.THREADS.toString(), validated);
+    }
+
+    private Mapper mapper() {
+        return new Mapper(MapperOptions.builder().mappingThreads(4).build());
+    }
+
+    private List<Class> types(final List<MappedClass> mappedClasses) {
+        final List<Class> types = new ArrayList<Class>();
+        for (final MappedClass mc : mappedClasses) {
+            types.add(mc.getClazz());
+        }
+        return types;
+    }
+
+    private abstract static class Shape {
+        @Id
+        private ObjectId id;
+        private String color;
+    }
+
+    @Entity
+    private static class Circle extends Shape {
+        private double radius;
+    }
+
+    @Entity
+    private static class Square extends Shape {
+        private double side;
+    }
+
+    @Entity
+    private static class Triangle extends Shape {
+        private List<Point> points;
+    }
+
+    @Entity
+    private static class Drawing {
+        @Id
+        private ObjectId id;
+        private List<Point> points;
+        private Circle circle;
+    }
+
+    @Embedded
+    private static class Point {
+        private int x;
+        private int y;
+    }
+
+    @Entity
+    @Converters(CoordinatesConverter.class)
+    private static class Located {
+        @Id
+        private ObjectId id;
+        @Property
+        private Coordinates position;
+    }
+
+    private static class Coordinates {
+        private double latitude;
+        private double longitude;
+    }
+
+    private static class CoordinatesConverter extends TypeConverter implements SimpleValueConverter {
+        private static final List<String> THREADS = new CopyOnWriteArrayList<String>();
+
+        @Override
+        protected boolean isSupported(final Class<?> c, final MappedField optionalExtraInfo) {
+            if (c == Coordinates.class) {
+                THREADS.add(Thread.currentThread().getName());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Object decode(final Class<?> targetClass, final Object fromDBObject, final MappedField optionalExtraInfo) {
+            return null;
+        }
+
+        @Override
+        public Object encode(final Object value, final MappedField optionalExtraInfo) {
+            return null;
+        }
+    }
+
+    @Entity
+    private static class NoId {
+        private String name;
+    }
+}
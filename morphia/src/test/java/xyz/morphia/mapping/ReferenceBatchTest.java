@@ -0,0 +1,220 @@
+package xyz.morphia.mapping;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.PostLoad;
+import xyz.morphia.annotations.Reference;
+import xyz.morphia.query.FindOptions;
+import xyz.morphia.query.MorphiaIterator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ReferenceBatchTest extends TestBase {
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        getMorphia().getMapper().getOptions().setReferenceBatchSize(4);
+    }
+
+    @After
+    @Override
+    public void tearDown() {
+        getMorphia().getMapper().getOptions().setReferenceBatchSize(0);
+        super.tearDown();
+    }
+
+    @Test
+    public void testBatchedReferences() {
+        final List<Customer> customers = asList(new Customer("Alice"), new Customer("Bob"), new Customer("Carol"));
+        getDs().save(customers);
+
+        final List<Item> items = new ArrayList<Item>();
+        for (int i = 0; i < 10; i++) {
+            items.add(new Item("item " + i));
+        }
+        getDs().save(items);
+
+        for (int i = 0; i < 10; i++) {
+            final Order order = new Order(i);
+            order.customer = customers.get(i % customers.size());
+            order.items = asList(items.get(9 - i), items.get(i));
+            order.byName.put("first", items.get(i));
+            getDs().save(order);
+        }
+
+        final List<Order> orders = getDs().find(Order.class)
+                                          .order("number")
+                                          .asList();
+        assertEquals(10, orders.size());
+        for (int i = 0; i < 10; i++) {
+            final Order order = orders.get(i);
+            assertEquals(i, order.number);
+            assertEquals(customers.get(i % customers.size()).name, order.customer.name);
+            assertEquals(asList(items.get(9 - i).name, items.get(i).name), asList(order.items.get(0).name, order.items.get(1).name));
+            assertEquals(items.get(i).name, order.byName.get("first").name);
+            assertTrue(order.loaded);
+        }
+    }
+
+    @Test
+    public void testBatchedReferencesWithFetch() {
+        final Customer customer = new Customer("Alice");
+        getDs().save(customer);
+        for (int i = 0; i < 7; i++) {
+            final Order order = new Order(i);
+            order.customer = customer;
+            getDs().save(order);
+        }
+
+        final MorphiaIterator<Order, Order> iterator = getDs().find(Order.class)
+                                                              .order("number")
+                                                              .fetch();
+        int count = 0;
+        try {
+            for (final Order order : iterator) {
+                assertEquals(count++, order.number);
+                assertEquals("Alice", order.customer.name);
+                assertTrue(order.loaded);
+            }
+        } finally {
+            iterator.close();
+        }
+        assertEquals(7, count);
+    }
+
+    @Test
+    public void testOneQueryPerBatch() {
+        final List<Customer> customers = new ArrayList<Customer>();
+        for (int i = 0; i < 8; i++) {
+            customers.add(new Customer("customer " + i));
+        }
+        getDs().save(customers);
+        for (int i = 0; i < 8; i++) {
+            final Order order = new Order(i);
+            order.customer = customers.get(i);
+            getDs().save(order);
+        }
+
+        // two batches of four documents, each loading the four customers they reference with a single $in
+        assertEquals(2, countCustomerQueries());
+
+        getMorphia().getMapper().getOptions().setReferenceBatchSize(0);
+        assertEquals(8, countCustomerQueries());
+    }
+
+    @Test
+    public void testMissingReferences() {
+        final Customer customer = new Customer("Alice");
+        getDs().save(customer);
+
+        final Order order = new Order(1);
+        order.customer = customer;
+        order.items = asList(new Item("never saved"));
+        order.optional = new Item("also never saved");
+        getDs().save(order);
+
+        final Order loaded = getDs().find(Order.class)
+                                    .get(new FindOptions());
+        assertNotNull(loaded);
+        assertEquals("Alice", loaded.customer.name);
+        assertNull(loaded.optional);
+    }
+
+    /**
+     * Loads every order with the profiler on and counts the queries on the customers collection
+     */
+    private long countCustomerQueries() {
+        getDb().command(new BasicDBObject("profile", 0));
+        getDb().getCollection("system.profile").drop();
+        getDb().command(new BasicDBObject("profile", 2));
+        try {
+            final List<Order> orders = getDs().find(Order.class)
+                                              .order("number")
+                                              .asList();
+            assertEquals(8, orders.size());
+            for (final Order order : orders) {
+                assertEquals("customer " + order.number, order.customer.name);
+            }
+            final DBObject query = new BasicDBObject("op", "query")
+                                       .append("ns", getDs().getCollection(Customer.class).getFullName());
+            return getDb().getCollection("system.profile").count(query);
+        } finally {
+            getDb().command(new BasicDBObject("profile", 0));
+            getDb().getCollection("system.profile").drop();
+        }
+    }
+
+    @Entity
+    private static class Customer {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        Customer() {
+        }
+
+        Customer(final String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity
+    private static class Item {
+        @Id
+        private ObjectId id = new ObjectId();
+        private String name;
+
+        Item() {
+        }
+
+        Item(final String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity
+    private static class Order {
+        @Id
+        private ObjectId id;
+        private int number;
+        @Reference
+        private Customer customer;
+        @Reference(ignoreMissing = true)
+        private List<Item> items = new ArrayList<Item>();
+        @Reference(idOnly = true)
+        private Map<String, Item> byName = new HashMap<String, Item>();
+        @Reference(ignoreMissing = true)
+        private Item optional;
+        private transient boolean loaded;
+
+        Order() {
+        }
+
+        Order(final int number) {
+            this.number = number;
+        }
+
+        @PostLoad
+        void postLoad() {
+            loaded = customer != null && customer.name != null;
+        }
+    }
+}
@@ -23,6 +23,8 @@ import xyz.morphia.annotations.ConstructorArgs;
 import xyz.morphia.annotations.Id;
 import xyz.morphia.query.FindOptions;
 
+import java.util.List;
+
 
 /**
  * @author Scott Hernandez
@@ -41,6 +43,19 @@ public class TestConstructorArgs extends TestBase {
         Assert.assertEquals(acId, n.ac.id);
     }
 
+    @Test
+    public void testRepeatedLoads() {
+        for (int i = 0; i < 3; i++) {
+            getDs().save(new Normal());
+        }
+        final List<Normal> list = getDs().find(Normal.class).asList();
+        Assert.assertEquals(3, list.size());
+        for (final Normal normal : list) {
+            Assert.assertNotNull(normal.ac);
+            Assert.assertNotNull(normal.ac.id);
+        }
+    }
+
     private static class Normal {
         @ConstructorArgs("_id")
         private final ArgsConstructor ac = new ArgsConstructor(new ObjectId());
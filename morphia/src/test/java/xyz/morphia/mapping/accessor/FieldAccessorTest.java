@@ -0,0 +1,140 @@
+package xyz.morphia.mapping.accessor;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class FieldAccessorTest {
+    private final FieldAccessorFactory factory = new ReflectiveFieldAccessorFactory();
+
+    @Test
+    public void primitives() throws NoSuchFieldException {
+        final Primitives primitives = new Primitives();
+        set(primitives, "intValue", 42);
+        set(primitives, "longValue", 42L);
+        set(primitives, "doubleValue", 4.2D);
+        set(primitives, "floatValue", 4.2F);
+        set(primitives, "booleanValue", true);
+        set(primitives, "shortValue", (short) 42);
+        set(primitives, "byteValue", (byte) 42);
+        set(primitives, "charValue", 'x');
+
+        assertEquals(42, primitives.intValue);
+        assertEquals(42L, primitives.longValue);
+        assertEquals(4.2D, primitives.doubleValue, 0);
+        assertEquals(4.2F, primitives.floatValue, 0);
+        assertEquals(true, primitives.booleanValue);
+        assertEquals((short) 42, primitives.shortValue);
+        assertEquals((byte) 42, primitives.byteValue);
+        assertEquals('x', primitives.charValue);
+
+        assertEquals(42, get(primitives, "intValue"));
+        assertEquals(42L, get(primitives, "longValue"));
+        assertEquals(4.2D, get(primitives, "doubleValue"));
+        assertEquals(4.2F, get(primitives, "floatValue"));
+        assertEquals(true, get(primitives, "booleanValue"));
+        assertEquals((short) 42, get(primitives, "shortValue"));
+        assertEquals((byte) 42, get(primitives, "byteValue"));
+        assertEquals('x', get(primitives, "charValue"));
+    }
+
+    @Test
+    public void references() throws NoSuchFieldException {
+        final Child child = new Child();
+        set(child, "name", "Bob");
+        set(child, "names", asList("a", "b"));
+        set(child, "fixed", "changed");
+
+        assertEquals("Bob", get(child, "name"));
+        assertEquals(asList("a", "b"), get(child, "names"));
+        assertEquals("changed", get(child, "fixed"));
+
+        set(child, "name", null);
+        assertNull(get(child, "name"));
+    }
+
+    @Test
+    public void widening() throws NoSuchFieldException {
+        final Primitives primitives = new Primitives();
+        set(primitives, "longValue", 42);
+        set(primitives, "doubleValue", 42);
+        assertEquals(42L, primitives.longValue);
+        assertEquals(42D, primitives.doubleValue, 0);
+    }
+
+    @Test
+    public void mismatchedValues() throws NoSuchFieldException {
+        final Primitives primitives = new Primitives();
+        try {
+            set(primitives, "intValue", null);
+            fail("Should not be able to store null in a primitive");
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            set(primitives, "intValue", "42");
+            fail("Should not be able to store a String in an int");
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            set(new Child(), "names", "a");
+            fail("Should not be able to store a String in a List");
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            get(new Child(), "intValue", Primitives.class);
+            fail("Should not be able to read from the wrong type");
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    private Object get(final Object instance, final String name) throws NoSuchFieldException {
+        return get(instance, name, instance.getClass());
+    }
+
+    private Object get(final Object instance, final String name, final Class<?> type) throws NoSuchFieldException {
+        return factory.createAccessor(field(type, name)).get(instance);
+    }
+
+    private void set(final Object instance, final String name, final Object value) throws NoSuchFieldException {
+        factory.createAccessor(field(instance.getClass(), name)).set(instance, value);
+    }
+
+    private Field field(final Class<?> type, final String name) throws NoSuchFieldException {
+        Class<?> current = type;
+        while (current != null) {
+            try {
+                return current.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                current = current.getSuperclass();
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+
+    private static class Primitives {
+        private int intValue;
+        private long longValue;
+        private double doubleValue;
+        private float floatValue;
+        private boolean booleanValue;
+        private short shortValue;
+        private byte byteValue;
+        private char charValue;
+    }
+
+    private static class Parent {
+        private String name;
+        private final String fixed = String.valueOf("fixed");
+    }
+
+    private static class Child extends Parent {
+        private List<String> names = new ArrayList<String>();
+    }
+}
@@ -0,0 +1,183 @@
+package xyz.morphia.mapping.cache;
+
+import com.mongodb.BasicDBObject;
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import xyz.morphia.Datastore;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Cached;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.Reference;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SharedEntityCacheTest extends TestBase {
+    private EntityCacheFactory cacheFactory;
+    private SharedEntityCacheFactory shared;
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        cacheFactory = getMorphia().getMapper().getOptions().getCacheFactory();
+        shared = new SharedEntityCacheFactory();
+        getMorphia().getMapper().getOptions().setCacheFactory(shared);
+    }
+
+    @After
+    @Override
+    public void tearDown() {
+        getMorphia().getMapper().getOptions().setCacheFactory(cacheFactory);
+        super.tearDown();
+    }
+
+    @Test
+    public void testReferencesAreServedFromTheCache() {
+        final Country country = new Country("France");
+        getDs().save(country);
+        getDs().save(Arrays.asList(new City("Paris", country), new City("Lyon", country)));
+
+        assertEquals(2, getDs().find(City.class).asList().size());
+        assertEquals(1, shared.stats().getEntities());
+        assertEquals(1, shared.stats().getMisses());
+
+        getDs().getCollection(Country.class).update(new BasicDBObject("_id", country.id),
+                                                    new BasicDBObject("$set", new BasicDBObject("name", "Changed")));
+        assertEquals("France", getDs().find(City.class).get().country.name);
+        assertEquals(1, shared.stats().getHits());
+
+        country.name = "French Republic";
+        getDs().save(country);
+        assertEquals(1, shared.stats().getInvalidations());
+        assertEquals("French Republic", getDs().find(City.class).get().country.name);
+    }
+
+    @Test
+    public void testUpdatesInvalidate() {
+        final Country country = new Country("France");
+        getDs().save(country);
+        getDs().save(new City("Paris", country));
+        getDs().find(City.class).get();
+        assertEquals(1, shared.stats().getEntities());
+
+        getDs().update(getDs().find(Country.class).field("_id").equal(country.id),
+                       getDs().createUpdateOperations(Country.class).set("name", "Changed"));
+        assertEquals(0, shared.stats().getEntities());
+        assertEquals("Changed", getDs().find(City.class).get().country.name);
+    }
+
+    @Test
+    public void testDatabasesDoNotShareDocuments() {
+        final Datastore tenant = getMorphia().createDatastore(getMongoClient(), TEST_DB_NAME + "_tenant");
+        try {
+            final ObjectId id = new ObjectId();
+            final Country france = new Country("France");
+            france.id = id;
+            final Country spain = new Country("Spain");
+            spain.id = id;
+            getDs().save(france);
+            getDs().save(new City("Paris", france));
+            tenant.save(spain);
+            tenant.save(new City("Madrid", spain));
+
+            assertEquals("France", getDs().find(City.class).get().country.name);
+            assertEquals("Spain", tenant.find(City.class).get().country.name);
+            assertEquals(2, shared.stats().getEntities());
+            assertEquals(2, shared.stats().getMisses());
+
+            // a write to one database leaves the documents of the other alone
+            tenant.delete(spain);
+            assertEquals(1, shared.stats().getEntities());
+            assertEquals("France", getDs().find(City.class).get().country.name);
+            assertEquals(1, shared.stats().getHits());
+        } finally {
+            tenant.getDB().dropDatabase();
+        }
+    }
+
+    @Test
+    public void testUncachedTypesAreSkipped() {
+        shared.put("cities", 1, City.class, new BasicDBObject("_id", 1), shared.stamp());
+        assertFalse(shared.contains("cities", 1));
+    }
+
+    @Test
+    public void testEviction() {
+        final SharedEntityCacheFactory factory = new SharedEntityCacheFactory(2, Long.MAX_VALUE, 300);
+        for (int i = 0; i < 3; i++) {
+            factory.put("countries", i, Country.class, new BasicDBObject("_id", i), factory.stamp());
+        }
+        assertFalse(factory.contains("countries", 0));
+        assertTrue(factory.contains("countries", 1));
+        assertTrue(factory.contains("countries", 2));
+        assertEquals(1, factory.stats().getEvictions());
+    }
+
+    @Test
+    public void testInvalidateMatching() {
+        final SharedEntityCacheFactory factory = new SharedEntityCacheFactory();
+        for (int i = 0; i < 4; i++) {
+            factory.put("countries", i, Country.class, new BasicDBObject("_id", i), factory.stamp());
+        }
+
+        factory.invalidateMatching("countries", new BasicDBObject("_id", 0));
+        assertNull(factory.getDocument("countries", 0));
+        factory.invalidateMatching("countries", new BasicDBObject("_id", new BasicDBObject("$in", Arrays.asList(1, 2))));
+        assertFalse(factory.contains("countries", 1));
+        assertFalse(factory.contains("countries", 2));
+        assertNotNull(factory.getDocument("countries", 3));
+
+        factory.invalidateMatching("countries", new BasicDBObject("name", "France"));
+        assertFalse(factory.contains("countries", 3));
+    }
+
+    @Test
+    public void testStaleReadsAreNotCached() {
+        final SharedEntityCacheFactory factory = new SharedEntityCacheFactory();
+        final long stamp = factory.stamp();
+        factory.invalidate("countries", 1);
+        factory.put("countries", 1, Country.class, new BasicDBObject("_id", 1), stamp);
+        assertFalse(factory.contains("countries", 1));
+    }
+
+    @Cached
+    @Entity("countries")
+    private static class Country {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        Country() {
+        }
+
+        Country(final String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity("cities")
+    private static class City {
+        @Id
+        private ObjectId id;
+        private String name;
+        @Reference
+        private Country country;
+
+        City() {
+        }
+
+        City(final String name, final Country country) {
+            this.name = name;
+            this.country = country;
+        }
+    }
+}
@@ -62,6 +62,43 @@ public class TestLazyCollectionReference extends ProxyTestBase {
 
     }
 
+    @Test
+    public final void testFetchKeepsOrder() {
+
+        if (!LazyFeatureDependencies.testDependencyFullFilled()) {
+            return;
+        }
+
+        RootEntity root = new RootEntity();
+        final List<ReferencedEntity> references = new ArrayList<ReferencedEntity>();
+        for (int i = 0; i < 25; i++) {
+            final ReferencedEntity referenced = new ReferencedEntity();
+            referenced.setFoo("bar" + i);
+            references.add(referenced);
+        }
+        getDs().save(references);
+        root.references = new ArrayList<ReferencedEntity>();
+        for (int i = references.size() - 1; i >= 0; i--) {
+            root.references.add(references.get(i));
+        }
+        getDs().save(root);
+
+        final int keysPerQuery = getMorphia().getMapper().getOptions().getKeysPerQuery();
+        getMorphia().getMapper().getOptions().setKeysPerQuery(10);
+        try {
+            root = getDs().get(root);
+            assertNotFetched(root.references);
+
+            final Iterator<ReferencedEntity> it = root.references.iterator();
+            for (int i = references.size() - 1; i >= 0; i--) {
+                Assert.assertEquals("bar" + i, it.next().getFoo());
+            }
+            Assert.assertFalse(it.hasNext());
+        } finally {
+            getMorphia().getMapper().getOptions().setKeysPerQuery(keysPerQuery);
+        }
+    }
+
     public static class RootEntity extends TestEntity {
         @Reference(lazy = true)
         private Collection<ReferencedEntity> references;
@@ -7,9 +7,13 @@ import org.junit.Test;
 import xyz.morphia.Key;
 import xyz.morphia.annotations.IdGetter;
 import xyz.morphia.annotations.Reference;
+import xyz.morphia.mapping.lazy.proxy.LazyReferenceFetchingException;
 import xyz.morphia.mapping.lazy.proxy.ProxiedEntityReference;
 import xyz.morphia.testutil.TestEntity;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 public class TestLazySingleReference extends ProxyTestBase {
 
@@ -144,6 +148,49 @@ public class TestLazySingleReference extends ProxyTestBase {
         assertNotFetched(root.secondReference);
     }
 
+    @Test
+    public final void testGroupedFetch() {
+        if (!LazyFeatureDependencies.testDependencyFullFilled()) {
+            return;
+        }
+
+        final List<ReferencedEntity> references = new ArrayList<ReferencedEntity>();
+        for (int i = 0; i < 5; i++) {
+            final ReferencedEntity reference = new ReferencedEntity();
+            reference.setFoo("bar" + i);
+            references.add(reference);
+            getDs().save(reference);
+
+            final RootEntity root = new RootEntity();
+            root.r = reference;
+            getDs().save(root);
+        }
+
+        final int batchSize = getMorphia().getMapper().getOptions().getLazyReferenceBatchSize();
+        getMorphia().getMapper().getOptions().setLazyReferenceBatchSize(3);
+        try {
+            final List<RootEntity> roots = getDs().find(RootEntity.class).asList();
+            Assert.assertEquals(5, roots.size());
+            Assert.assertEquals("bar0", roots.get(0).r.getFoo());
+
+            // the first group was loaded as a whole so deleting its documents does not affect it
+            getDs().delete(references.get(1));
+            getDs().delete(references.get(2));
+            getDs().delete(references.get(3));
+            Assert.assertEquals("bar1", roots.get(1).r.getFoo());
+            Assert.assertEquals("bar2", roots.get(2).r.getFoo());
+
+            try {
+                roots.get(3).r.getFoo();
+                Assert.fail("The second group should have been loaded after the delete");
+            } catch (LazyReferenceFetchingException expected) {
+                // the document is gone
+            }
+        } finally {
+            getMorphia().getMapper().getOptions().setLazyReferenceBatchSize(batchSize);
+        }
+    }
+
     public static class RootEntity extends TestEntity {
         @Reference(lazy = true)
         private ReferencedEntity r;
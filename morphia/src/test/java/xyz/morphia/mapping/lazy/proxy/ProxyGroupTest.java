@@ -0,0 +1,71 @@
+package xyz.morphia.mapping.lazy.proxy;
+
+import org.junit.Test;
+import xyz.morphia.Datastore;
+import xyz.morphia.Key;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+public class ProxyGroupTest {
+    private final List<Object> fetched = new ArrayList<Object>();
+    private final Datastore datastore = (Datastore) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Datastore.class},
+        new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if (!method.getName().equals("getByKey")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                final Object id = ((Key<?>) args[1]).getId();
+                fetched.add(id);
+                return "entity " + id;
+            }
+        });
+
+    @Test
+    public void testLoadsTheGroupOnce() {
+        final ProxyGroup group = new ProxyGroup(3);
+        final EntityObjectReference first = reference(group, 1);
+        final EntityObjectReference second = reference(group, 2);
+        final EntityObjectReference third = reference(group, 3);
+        assertEquals(true, group.isFull());
+
+        assertEquals("entity 2", second.get());
+        assertEquals(3, fetched.size());
+        assertEquals(2, group.getLoadedCount());
+
+        // the entities are handed over as the other references are used, and not kept by the group
+        assertEquals("entity 1", first.get());
+        assertEquals(1, group.getLoadedCount());
+        assertEquals("entity 3", third.get());
+        assertEquals(0, group.getLoadedCount());
+        assertEquals(3, fetched.size());
+    }
+
+    @Test
+    public void testReleasesUnusedReferences() {
+        final ProxyGroup group = new ProxyGroup(2);
+        final EntityObjectReference first = reference(group, 1);
+        final WeakReference<EntityObjectReference> second = new WeakReference<EntityObjectReference>(reference(group, 2));
+
+        assertEquals("entity 1", first.get());
+        assertEquals(1, group.getLoadedCount());
+
+        for (int i = 0; i < 10 && second.get() != null; i++) {
+            System.gc();
+        }
+        assumeTrue(second.get() == null);
+        assertEquals(0, group.getLoadedCount());
+    }
+
+    private EntityObjectReference reference(final ProxyGroup group, final int id) {
+        return new EntityObjectReference(datastore, String.class, new Key<String>(String.class, "entities", id), false, group);
+    }
+}
@@ -27,6 +27,7 @@ import org.junit.Test;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class FindOptionsTest {
@@ -71,4 +72,54 @@ public class FindOptionsTest {
         assertEquals(ReadConcern.LOCAL, options.getReadConcern());
         assertEquals(collation, options.getCollation());
     }
+
+    @Test
+    public void streaming() {
+        final FindOptions options = new FindOptions();
+        assertFalse(options.isStreaming());
+        assertEquals(-1, options.getCacheWindow());
+
+        options.streaming(0);
+        assertTrue(options.isStreaming());
+        assertEquals(0, options.getCacheWindow());
+        assertEquals(100, options.copy().streaming(100).copy().getCacheWindow());
+        assertEquals(0, options.getCacheWindow());
+    }
+
+    @Test
+    public void parallelDecode() {
+        final FindOptions options = new FindOptions();
+        assertFalse(options.isParallelDecode());
+        assertEquals(0, options.getDecodeThreads());
+
+        options.parallelDecode(4);
+        assertTrue(options.isParallelDecode());
+        assertEquals(2, options.copy().parallelDecode(2).copy().getDecodeThreads());
+        assertEquals(4, options.getDecodeThreads());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelDecodeNeedsThreads() {
+        new FindOptions().parallelDecode(-1);
+    }
+
+    @Test
+    public void readAhead() {
+        final FindOptions options = new FindOptions();
+        assertFalse(options.isReadAhead());
+
+        options.readAhead(2);
+        assertTrue(options.isReadAhead());
+        final FindOptions copy = options.copy().readAhead(0).readAheadBytes(1024).copy();
+        assertTrue(copy.isReadAhead());
+        assertEquals(0, copy.getReadAheadBatches());
+        assertEquals(1024, copy.getReadAheadBytes());
+        assertEquals(2, options.getReadAheadBatches());
+        assertEquals(0, options.getReadAheadBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void readAheadNeedsBatches() {
+        new FindOptions().readAhead(-1);
+    }
 }
@@ -0,0 +1,150 @@
+package xyz.morphia.query;
+
+import com.mongodb.client.MongoCursor;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.Reference;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class TestParallelDecode extends TestBase {
+
+    @Test
+    public void testResultsKeepCursorOrder() {
+        final List<Node> nodes = new ArrayList<Node>();
+        for (long i = 0; i < 1000; i++) {
+            nodes.add(new Node(i));
+        }
+        getDs().save(nodes);
+
+        final List<Node> loaded = getDs().find(Node.class).order("_id").asList(new FindOptions().parallelDecode(4).batchSize(50));
+        assertEquals(nodes.size(), loaded.size());
+        for (int i = 0; i < loaded.size(); i++) {
+            assertEquals(i, loaded.get(i).id);
+        }
+
+        final MorphiaIterator<Node, Node> iterator = getDs().find(Node.class).order("_id").fetch(new FindOptions().parallelDecode(2));
+        long expected = 0;
+        try {
+            for (final Node node : iterator) {
+                assertEquals(expected++, node.id);
+            }
+        } finally {
+            iterator.close();
+        }
+        assertEquals(nodes.size(), expected);
+        assertTrue(iterator.getMapperTimeNanos() > 0);
+    }
+
+    @Test
+    public void testCyclesResolve() {
+        final List<Node> nodes = new ArrayList<Node>();
+        for (long i = 0; i < 500; i++) {
+            nodes.add(new Node(i));
+        }
+        getDs().save(nodes);
+        for (int i = 0; i < nodes.size(); i += 2) {
+            nodes.get(i).next = nodes.get(i + 1);
+            nodes.get(i + 1).next = nodes.get(i);
+        }
+        getDs().save(nodes);
+
+        final List<Node> loaded = getDs().find(Node.class).order("_id").asList(new FindOptions().parallelDecode(4));
+        assertEquals(nodes.size(), loaded.size());
+        for (int i = 0; i < loaded.size(); i += 2) {
+            final Node node = loaded.get(i);
+            assertEquals(i + 1, node.next.id);
+            assertSame(node, node.next.next);
+        }
+    }
+
+    @Test
+    public void testClosingEarly() {
+        final List<Node> nodes = new ArrayList<Node>();
+        for (long i = 0; i < 1000; i++) {
+            nodes.add(new Node(i));
+        }
+        getDs().save(nodes);
+
+        final int readers = countReaders();
+        final MongoCursor<Node> cursor = getDs().find(Node.class).find(new FindOptions().parallelDecode(2).batchSize(10));
+        assertTrue(cursor.hasNext());
+        cursor.next();
+        assertEquals(readers + 1, countReaders());
+        cursor.close();
+        assertEquals(readers, countReaders());
+
+        final MongoCursor<Node> empty = getDs().find(Node.class).filter("_id <", 0L).find(new FindOptions().parallelDecode(2));
+        try {
+            assertFalse(empty.hasNext());
+        } finally {
+            empty.close();
+        }
+    }
+
+    @Test
+    public void testAbandonedIteration() throws InterruptedException {
+        final List<Node> nodes = new ArrayList<Node>();
+        for (long i = 0; i < 2000; i++) {
+            nodes.add(new Node(i));
+        }
+        getDs().save(nodes);
+
+        final int readers = countReaders();
+        final WeakReference<MongoCursor<Node>> abandoned = readOne();
+        assertEquals(readers + 1, countReaders());
+        for (int i = 0; i < 20 && abandoned.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assumeTrue(abandoned.get() == null);
+
+        // the reader notices once it runs out of room for decoded chunks
+        for (int i = 0; i < 100 && countReaders() > readers; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(readers, countReaders());
+    }
+
+    private WeakReference<MongoCursor<Node>> readOne() {
+        final MongoCursor<Node> cursor = getDs().find(Node.class).find(new FindOptions().parallelDecode(1).batchSize(10));
+        assertTrue(cursor.hasNext());
+        cursor.next();
+        return new WeakReference<MongoCursor<Node>>(cursor);
+    }
+
+    private static int countReaders() {
+        int count = 0;
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && thread.getName().startsWith("morphia-read-") && !thread.getName().startsWith("morphia-read-ahead-")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Entity("nodes")
+    private static class Node {
+        @Id
+        private long id;
+        @Reference
+        private Node next;
+
+        Node() {
+        }
+
+        Node(final long id) {
+            this.id = id;
+        }
+    }
+}
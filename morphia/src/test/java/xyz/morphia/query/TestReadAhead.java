@@ -0,0 +1,138 @@
+package xyz.morphia.query;
+
+import com.mongodb.client.MongoCursor;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class TestReadAhead extends TestBase {
+
+    @Test
+    public void testResultsKeepCursorOrder() {
+        saveRecords(1000);
+
+        final MorphiaIterator<Record, Record> iterator = getDs().find(Record.class).order("_id")
+                                                                .fetch(new FindOptions().readAhead(2).batchSize(50));
+        long expected = 0;
+        try {
+            for (final Record record : iterator) {
+                assertEquals(expected++, record.id);
+            }
+        } finally {
+            iterator.close();
+        }
+        assertEquals(1000, expected);
+        assertTrue(iterator.getDriverTimeNanos() > 0);
+        assertTrue(iterator.getWaitTimeNanos() > 0);
+        assertTrue(iterator.getMapperTimeNanos() > 0);
+
+        final List<Record> loaded = getDs().find(Record.class).order("_id").asList(new FindOptions().readAheadBytes(4096).batchSize(20));
+        assertEquals(1000, loaded.size());
+        for (int i = 0; i < loaded.size(); i++) {
+            assertEquals(i, loaded.get(i).id);
+        }
+    }
+
+    @Test
+    public void testWithParallelDecode() {
+        saveRecords(500);
+
+        final List<Record> loaded = getDs().find(Record.class).order("_id")
+                                           .asList(new FindOptions().readAhead(1).parallelDecode(2).batchSize(30));
+        assertEquals(500, loaded.size());
+        for (int i = 0; i < loaded.size(); i++) {
+            assertEquals(i, loaded.get(i).id);
+        }
+    }
+
+    @Test
+    public void testClosingEarly() {
+        saveRecords(1000);
+
+        final int readers = countReaders();
+        final MongoCursor<Record> cursor = getDs().find(Record.class).find(new FindOptions().readAhead(1).batchSize(10));
+        assertTrue(cursor.hasNext());
+        cursor.next();
+        assertEquals(readers + 1, countReaders());
+        cursor.close();
+        assertEquals(readers, countReaders());
+
+        final MongoCursor<Record> empty = getDs().find(Record.class).filter("_id <", 0L).find(new FindOptions().readAhead(1));
+        try {
+            assertFalse(empty.hasNext());
+        } finally {
+            empty.close();
+        }
+    }
+
+    @Test
+    public void testAbandonedIteration() throws InterruptedException {
+        saveRecords(1000);
+
+        final int readers = countReaders();
+        final WeakReference<MorphiaIterator<Record, Record>> abandoned = readOne();
+        assertEquals(readers + 1, countReaders());
+        for (int i = 0; i < 20 && abandoned.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assumeTrue(abandoned.get() == null);
+
+        // the reader notices once it runs out of room for documents
+        for (int i = 0; i < 100 && countReaders() > readers; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(readers, countReaders());
+    }
+
+    private WeakReference<MorphiaIterator<Record, Record>> readOne() {
+        final MorphiaIterator<Record, Record> iterator = getDs().find(Record.class).fetch(new FindOptions().readAhead(1).batchSize(10));
+        for (final Record record : iterator) {
+            break;
+        }
+        return new WeakReference<MorphiaIterator<Record, Record>>(iterator);
+    }
+
+    private static int countReaders() {
+        int count = 0;
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && thread.getName().startsWith("morphia-read-ahead-")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void saveRecords(final int count) {
+        final List<Record> records = new ArrayList<Record>();
+        for (long i = 0; i < count; i++) {
+            records.add(new Record(i, "record " + i));
+        }
+        getDs().save(records);
+    }
+
+    @Entity("records")
+    private static class Record {
+        @Id
+        private long id;
+        private String name;
+
+        Record() {
+        }
+
+        Record(final long id, final String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package xyz.morphia.query;
+
+import com.mongodb.client.MongoCursor;
+import org.junit.Test;
+import xyz.morphia.TestBase;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+import xyz.morphia.annotations.Reference;
+import xyz.morphia.mapping.cache.BoundedEntityCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestStreamingIteration extends TestBase {
+
+    @Test
+    public void testStreamingResolvesReferences() {
+        final Parent parent = new Parent(1L);
+        getDs().save(parent);
+        final List<Child> children = new ArrayList<Child>();
+        for (long i = 0; i < 50; i++) {
+            children.add(new Child(i, parent));
+        }
+        getDs().save(children);
+
+        for (final int window : new int[]{0, 10}) {
+            final MongoCursor<Child> cursor = getDs().find(Child.class).order("_id").find(new FindOptions().streaming(window));
+            int count = 0;
+            Parent previous = null;
+            try {
+                while (cursor.hasNext()) {
+                    final Child child = cursor.next();
+                    assertEquals(count++, child.id);
+                    assertEquals(parent.id, child.parent.id);
+                    if (window > 0 && previous != null) {
+                        assertSame(previous, child.parent);
+                    }
+                    previous = child.parent;
+                }
+            } finally {
+                cursor.close();
+            }
+            assertEquals(children.size(), count);
+        }
+
+        int count = 0;
+        for (final Child child : getDs().find(Child.class).fetch(new FindOptions().streaming(0))) {
+            assertEquals(parent.id, child.parent.id);
+            count++;
+        }
+        assertEquals(children.size(), count);
+    }
+
+    @Test
+    public void testCacheStaysWithinWindow() {
+        final int total = 500;
+        final int window = 20;
+        final List<Parent> parents = new ArrayList<Parent>();
+        final List<Child> children = new ArrayList<Child>();
+        for (long i = 0; i < total; i++) {
+            final Parent parent = new Parent(i);
+            parents.add(parent);
+            children.add(new Child(i, parent));
+        }
+        getDs().save(parents);
+        getDs().save(children);
+
+        final MorphiaIterator<Child, Child> iterator = getDs().find(Child.class).order("_id")
+                                                              .fetch(new FindOptions().streaming(window));
+        assertTrue(iterator.getCache() instanceof BoundedEntityCache);
+        final BoundedEntityCache cache = (BoundedEntityCache) iterator.getCache();
+        int count = 0;
+        try {
+            while (iterator.hasNext()) {
+                final Child child = iterator.next();
+                assertEquals(count++, child.parent.id);
+                assertTrue(cache.size() <= window);
+            }
+        } finally {
+            iterator.close();
+        }
+        assertEquals(total, count);
+
+        // every child went through the cache, all but the last window of them had to make room for the others
+        assertEquals(window, cache.size());
+        assertTrue(cache.getEvictions() >= total - window);
+    }
+
+    @Entity("parents")
+    private static class Parent {
+        @Id
+        private long id;
+        private String name;
+
+        Parent() {
+        }
+
+        Parent(final long id) {
+            this.id = id;
+        }
+    }
+
+    @Entity("children")
+    private static class Child {
+        @Id
+        private long id;
+        @Reference
+        private Parent parent;
+
+        Child() {
+        }
+
+        Child(final long id, final Parent parent) {
+            this.id = id;
+            this.parent = parent;
+        }
+    }
+}
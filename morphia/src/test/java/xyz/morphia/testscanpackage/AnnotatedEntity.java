@@ -0,0 +1,12 @@
+package xyz.morphia.testscanpackage;
+
+import org.bson.types.ObjectId;
+import xyz.morphia.annotations.Entity;
+import xyz.morphia.annotations.Id;
+
+@Entity
+@SuppressWarnings("UnusedDeclaration")
+public class AnnotatedEntity {
+    @Id
+    private ObjectId id;
+}
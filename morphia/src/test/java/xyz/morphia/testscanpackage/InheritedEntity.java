@@ -0,0 +1,6 @@
+package xyz.morphia.testscanpackage;
+
+@SuppressWarnings("UnusedDeclaration")
+public class InheritedEntity extends AnnotatedEntity {
+    private String name;
+}
@@ -0,0 +1,14 @@
+package xyz.morphia.testscanpackage;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Records the classes of this package which were initialized
+ */
+public final class Initialized {
+    public static final Set<String> CLASSES = new CopyOnWriteArraySet<String>();
+
+    private Initialized() {
+    }
+}
@@ -0,0 +1,16 @@
+package xyz.morphia.testscanpackage;
+
+import org.bson.types.ObjectId;
+import xyz.morphia.annotations.Id;
+
+@SuppressWarnings("UnusedDeclaration")
+public class InterfaceEntity implements NamedEntity {
+    @Id
+    private ObjectId id;
+    private String name;
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
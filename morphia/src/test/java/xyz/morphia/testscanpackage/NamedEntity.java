@@ -0,0 +1,8 @@
+package xyz.morphia.testscanpackage;
+
+import xyz.morphia.annotations.Entity;
+
+@Entity
+public interface NamedEntity {
+    String getName();
+}
@@ -0,0 +1,8 @@
+package xyz.morphia.testscanpackage;
+
+import xyz.morphia.testmappackage.SimpleEntity;
+
+@SuppressWarnings("UnusedDeclaration")
+public class OtherPackageEntity extends SimpleEntity {
+    private int version;
+}
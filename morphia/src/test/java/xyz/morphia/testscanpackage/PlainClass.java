@@ -0,0 +1,10 @@
+package xyz.morphia.testscanpackage;
+
+@SuppressWarnings("UnusedDeclaration")
+public class PlainClass {
+    static {
+        Initialized.CLASSES.add(PlainClass.class.getName());
+    }
+
+    private String name;
+}
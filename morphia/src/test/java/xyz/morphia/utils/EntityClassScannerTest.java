@@ -0,0 +1,118 @@
+package xyz.morphia.utils;
+
+import org.junit.Test;
+import xyz.morphia.testmappackage.AbstractBaseClass;
+import xyz.morphia.testmappackage.SimpleEntity;
+import xyz.morphia.testmappackage.testmapsubpackage.SimpleEntityInSubPackage;
+import xyz.morphia.testmappackage.testmapsubpackage.testmapsubsubpackage.SimpleEntityInSubSubPackage;
+import xyz.morphia.testscanpackage.AnnotatedEntity;
+import xyz.morphia.testscanpackage.InheritedEntity;
+import xyz.morphia.testscanpackage.Initialized;
+import xyz.morphia.testscanpackage.InterfaceEntity;
+import xyz.morphia.testscanpackage.NamedEntity;
+import xyz.morphia.testscanpackage.OtherPackageEntity;
+import xyz.morphia.testscanpackage.PlainClass;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class EntityClassScannerTest {
+    private static final String PACKAGE = AnnotatedEntity.class.getPackage().getName();
+
+    @Test
+    public void testScanDirectory() throws Exception {
+        final ClassLoader loader = getClass().getClassLoader();
+        assertEquals(names(AnnotatedEntity.class, InheritedEntity.class, NamedEntity.class, InterfaceEntity.class,
+                           OtherPackageEntity.class),
+                     names(EntityClassScanner.getEntityClasses(loader, PACKAGE, false, false)));
+        assertFalse(Initialized.CLASSES.contains(PlainClass.class.getName()));
+
+        assertEquals(names(AbstractBaseClass.class, SimpleEntity.class),
+                     names(EntityClassScanner.getEntityClasses(loader, "xyz.morphia.testmappackage", false, false)));
+        assertEquals(names(AbstractBaseClass.class, SimpleEntity.class, SimpleEntityInSubPackage.class, SimpleEntityInSubSubPackage.class),
+                     names(EntityClassScanner.getEntityClasses(loader, "xyz.morphia.testmappackage", true, false)));
+    }
+
+    @Test
+    public void testScanJar() throws Exception {
+        final File jar = createJar(false);
+        final URLClassLoader loader = new URLClassLoader(new URL[]{jar.toURI().toURL()}, null);
+        assertEquals(names(AnnotatedEntity.class, InheritedEntity.class),
+                     names(EntityClassScanner.getEntityClasses(loader, PACKAGE, false, true)));
+        assertEquals(null, EntityClassScanner.getIndexedClassNames(jar));
+    }
+
+    @Test
+    public void testIndex() throws Exception {
+        final File jar = createJar(true);
+        final URLClassLoader loader = new URLClassLoader(new URL[]{jar.toURI().toURL()}, null);
+        assertEquals(asList(AnnotatedEntity.class.getName()), EntityClassScanner.getIndexedClassNames(jar));
+        assertEquals(names(AnnotatedEntity.class), names(EntityClassScanner.getEntityClasses(loader, PACKAGE, false, true)));
+        assertEquals(names(AnnotatedEntity.class, InheritedEntity.class),
+                     names(EntityClassScanner.getEntityClasses(loader, PACKAGE, false, false)));
+    }
+
+    /**
+     * Creates a jar holding some of the test classes and, if asked, an index deliberately listing only one of them
+     */
+    private File createJar(final boolean index) throws IOException {
+        final File jar = File.createTempFile("entities", ".jar");
+        jar.deleteOnExit();
+        final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar));
+        try {
+            final String path = PACKAGE.replace('.', '/');
+            String directory = "";
+            for (final String part : path.split("/")) {
+                directory += part + "/";
+                out.putNextEntry(new ZipEntry(directory));
+                out.closeEntry();
+            }
+            for (final Class<?> type : asList(AnnotatedEntity.class, InheritedEntity.class, PlainClass.class)) {
+                out.putNextEntry(new ZipEntry(type.getName().replace('.', '/') + ".class"));
+                final InputStream in = getClass().getClassLoader().getResourceAsStream(type.getName().replace('.', '/') + ".class");
+                try {
+                    final byte[] buffer = new byte[4096];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                    }
+                } finally {
+                    in.close();
+                }
+                out.closeEntry();
+            }
+            if (index) {
+                out.putNextEntry(new ZipEntry(EntityClassScanner.INDEX_RESOURCE));
+                out.write((AnnotatedEntity.class.getName() + "\n").getBytes("UTF-8"));
+                out.closeEntry();
+            }
+        } finally {
+            out.close();
+        }
+        return jar;
+    }
+
+    private Set<String> names(final Class<?>... classes) {
+        return names(asList(classes));
+    }
+
+    private Set<String> names(final Iterable<Class<?>> classes) {
+        final Set<String> names = new HashSet<String>();
+        for (final Class<?> type : classes) {
+            names.add(type.getName());
+        }
+        return names;
+    }
+}